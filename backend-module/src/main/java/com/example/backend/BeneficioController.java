@@ -1,8 +1,26 @@
 package com.example.backend;
 
 import com.example.backend.dto.BeneficioDTO;
+import com.example.backend.dto.EstatisticasDTO;
+import com.example.backend.dto.ListaVersionadaDTO;
+import com.example.backend.dto.PaginaDTO;
+import com.example.backend.dto.ResultadoLoteDTO;
+import com.example.backend.dto.SaldoDTO;
+import com.example.backend.dto.TransferenciaAssincronaDTO;
+import com.example.backend.dto.TransferenciaLoteDTO;
 import com.example.backend.dto.TransferenciaDTO;
+import com.example.backend.event.DistribuidorEventos;
+import com.example.backend.idempotencia.ExecutorIdempotente;
 import com.example.backend.service.BeneficioService;
+import com.example.backend.service.EstatisticasBeneficios;
+import com.example.backend.service.VersaoDivergenteException;
+import com.example.backend.service.fila.FilaCheiaException;
+import com.example.backend.service.fila.FilaTransferencias;
+import com.example.backend.service.importacao.ImportacaoService;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
@@ -10,10 +28,22 @@ import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
 
@@ -25,15 +55,162 @@ public class BeneficioController {
     @Autowired
     private BeneficioService beneficioService;
 
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private ExecutorIdempotente executorIdempotente;
+
+    @Autowired
+    private ImportacaoService importacaoService;
+
+    @Autowired
+    private DistribuidorEventos distribuidorEventos;
+
+    @Autowired
+    private EstatisticasBeneficios estatisticasBeneficios;
+
+    @Autowired
+    private FilaTransferencias filaTransferencias;
+
     @GetMapping
     @Operation(summary = "Listar todos os benefícios ativos", 
                description = "Retorna uma lista de todos os benefícios ativos")
     @ApiResponses(value = {
-        @ApiResponse(responseCode = "200", description = "Lista de benefícios retornada com sucesso")
+        @ApiResponse(responseCode = "200", description = "Lista de benefícios retornada com sucesso"),
+        @ApiResponse(responseCode = "304", description = "Lista não mudou desde o ETag informado em If-None-Match")
     })
-    public ResponseEntity<List<BeneficioDTO>> listarTodos() {
-        List<BeneficioDTO> beneficios = beneficioService.findAll();
-        return ResponseEntity.ok(beneficios);
+    public ResponseEntity<List<BeneficioDTO>> listarTodos(WebRequest request) {
+        ListaVersionadaDTO<BeneficioDTO> beneficios = beneficioService.findAllVersionada(
+                versao -> request.checkNotModified(etag(versao)));
+        if (beneficios.getItens() == null) {
+            return null;
+        }
+        return ResponseEntity.ok()
+                .cacheControl(CacheControl.noCache())
+                .eTag(etag(beneficios.getVersao()))
+                .body(beneficios.getItens());
+    }
+
+    @GetMapping(params = "limit")
+    @Operation(summary = "Listar benefícios ativos paginados", 
+               description = "Retorna uma página de benefícios ativos ordenados por ID, usando cursor (keyset)")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Página de benefícios retornada com sucesso"),
+        @ApiResponse(responseCode = "400", description = "Cursor ou limite inválido")
+    })
+    public ResponseEntity<?> listarPaginado(
+            @Parameter(description = "Quantidade máxima de itens (padrão " + BeneficioService.LIMITE_PADRAO + ", até " + BeneficioService.LIMITE_MAXIMO + ")") @RequestParam Integer limit,
+            @Parameter(description = "Cursor retornado em proximoCursor da página anterior") @RequestParam(required = false) String after) {
+        try {
+            PaginaDTO<BeneficioDTO> pagina = beneficioService.findPage(after, limit);
+            return ResponseEntity.ok(pagina);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+
+    // Cursor sem limit: continua a paginação com o limite padrão em vez de cair na lista completa
+    @GetMapping(params = {"after", "!limit"})
+    @Operation(hidden = true)
+    public ResponseEntity<?> continuarPaginado(@RequestParam String after) {
+        return listarPaginado(null, after);
+    }
+
+    @GetMapping(value = "/exportar", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    @Operation(summary = "Exportar benefícios ativos", 
+               description = "Exporta todos os benefícios ativos em NDJSON (um JSON por linha), com uso de memória constante")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Exportação iniciada")
+    })
+    public ResponseEntity<StreamingResponseBody> exportar() {
+        ObjectWriter writer = objectMapper.writerFor(BeneficioDTO.class)
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        StreamingResponseBody corpo = saida -> {
+            try (JsonGenerator gerador = objectMapper.getFactory().createGenerator(saida)) {
+                gerador.setRootValueSeparator(null);
+                beneficioService.exportar(dto -> {
+                    try {
+                        writer.writeValue(gerador, dto);
+                        gerador.writeRaw('\n');
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+            }
+        };
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(corpo);
+    }
+
+    @PostMapping(value = "/importar", consumes = "text/csv")
+    @Operation(summary = "Importar benefícios de CSV", 
+               description = "Cria (sem id) ou atualiza (com id) benefícios a partir de um CSV com cabeçalho " +
+                             "id,nome,descricao,valor,ativo, gravando em lotes. Os erros são retornados por linha")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Importação concluída; linhas rejeitadas listadas em erros"),
+        @ApiResponse(responseCode = "400", description = "Cabeçalho ausente ou inválido")
+    })
+    public ResponseEntity<?> importarCsv(InputStream corpo) {
+        try {
+            return ResponseEntity.ok(importacaoService.importarCsv(corpo));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+
+    @PostMapping(value = "/importar", consumes = MediaType.APPLICATION_JSON_VALUE)
+    @Operation(summary = "Importar benefícios de JSON", 
+               description = "Cria (sem id) ou atualiza (com id) benefícios a partir de um array JSON lido em " +
+                             "streaming, gravando em lotes. Os erros são retornados por posição no array")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Importação concluída; elementos rejeitados listados em erros"),
+        @ApiResponse(responseCode = "400", description = "O corpo não é um array JSON")
+    })
+    public ResponseEntity<?> importarJson(InputStream corpo) throws IOException {
+        try {
+            return ResponseEntity.ok(importacaoService.importarJson(corpo));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+
+    @GetMapping("/estatisticas")
+    @Operation(summary = "Estatísticas dos benefícios ativos", 
+               description = "Quantidade, soma, mínimo, máximo, média e histograma do valor dos benefícios ativos, " +
+                             "mantidos em memória e reconciliados periodicamente com o banco")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Estatísticas retornadas")
+    })
+    public ResponseEntity<EstatisticasDTO> estatisticas() {
+        return ResponseEntity.ok(estatisticasBeneficios.consultar());
+    }
+
+    @GetMapping(value = "/eventos", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @Operation(summary = "Acompanhar alterações de benefícios", 
+               description = "Stream Server-Sent Events com os eventos CRIADO, ATUALIZADO, EXCLUIDO e TRANSFERENCIA " +
+                             "confirmados. TRANSFERENCIA traz os saldos e versões resultantes dos dois benefícios. " +
+                             "Eventos pendentes do mesmo benefício são agrupados. Quando o cliente " +
+                             "perde eventos, recebe SINCRONIZAR e deve recarregar a lista")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Stream iniciado"),
+        @ApiResponse(responseCode = "400", description = "Last-Event-ID inválido")
+    })
+    public ResponseEntity<SseEmitter> eventos(
+            @Parameter(description = "ID do último evento recebido, enviado pelo EventSource ao reconectar")
+            @RequestHeader(value = "Last-Event-ID", required = false) String lastEventId,
+            @Parameter(description = "Alternativa ao cabeçalho Last-Event-ID na primeira conexão")
+            @RequestParam(required = false) Long desde) {
+        Long ultimoId = desde;
+        if (lastEventId != null && !lastEventId.isBlank()) {
+            try {
+                ultimoId = Long.valueOf(lastEventId.trim());
+            } catch (NumberFormatException e) {
+                return ResponseEntity.badRequest().build();
+            }
+        }
+        return ResponseEntity.ok(distribuidorEventos.assinar(ultimoId));
     }
 
     @GetMapping("/{id}")
@@ -41,25 +218,71 @@ public class BeneficioController {
                description = "Retorna um benefício específico pelo seu ID")
     @ApiResponses(value = {
         @ApiResponse(responseCode = "200", description = "Benefício encontrado"),
+        @ApiResponse(responseCode = "304", description = "Benefício não mudou desde o ETag informado em If-None-Match"),
         @ApiResponse(responseCode = "404", description = "Benefício não encontrado")
     })
     public ResponseEntity<BeneficioDTO> buscarPorId(
-            @Parameter(description = "ID do benefício") @PathVariable Long id) {
+            @Parameter(description = "ID do benefício") @PathVariable Long id,
+            WebRequest request) {
+        // GET condicional compara só a versão, sem montar nem serializar o DTO
+        if (request.getHeader(HttpHeaders.IF_NONE_MATCH) != null) {
+            Optional<Long> versao = beneficioService.findVersion(id);
+            if (versao.isEmpty()) {
+                return ResponseEntity.notFound().build();
+            }
+            if (request.checkNotModified(etag(versao.get()))) {
+                return null;
+            }
+        }
         Optional<BeneficioDTO> beneficio = beneficioService.findById(id);
-        return beneficio.map(ResponseEntity::ok)
+        return beneficio.map(dto -> ResponseEntity.ok()
+                               .cacheControl(CacheControl.noCache())
+                               .eTag(etag(dto.getVersion()))
+                               .body(dto))
                        .orElse(ResponseEntity.notFound().build());
     }
 
+    @GetMapping("/{id}/saldo")
+    @Operation(summary = "Consultar saldo no ledger", 
+               description = "Retorna o saldo atual do benefício sem os lançamentos do ledger aplicados depois do offset " +
+                             "informado (padrão: último offset projetado). Alterações feitas fora do ledger, como PUT " +
+                             "ou importação, entram no saldo em qualquer offset")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Saldo retornado"),
+        @ApiResponse(responseCode = "400", description = "Offset inválido ou ainda não projetado"),
+        @ApiResponse(responseCode = "404", description = "Benefício não encontrado")
+    })
+    public ResponseEntity<?> consultarSaldo(
+            @Parameter(description = "ID do benefício") @PathVariable Long id,
+            @Parameter(description = "Offset (posição de projeção) do ledger") @RequestParam(required = false) Long offset) {
+        try {
+            Optional<SaldoDTO> saldo = beneficioService.findSaldo(id, offset);
+            return saldo.<ResponseEntity<?>>map(ResponseEntity::ok)
+                        .orElse(ResponseEntity.notFound().build());
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+
     @PostMapping
     @Operation(summary = "Criar novo benefício", 
                description = "Cria um novo benefício no sistema")
     @ApiResponses(value = {
         @ApiResponse(responseCode = "201", description = "Benefício criado com sucesso"),
-        @ApiResponse(responseCode = "400", description = "Dados inválidos")
+        @ApiResponse(responseCode = "400", description = "Dados inválidos"),
+        @ApiResponse(responseCode = "409", description = "Requisição com a mesma Idempotency-Key ainda em andamento"),
+        @ApiResponse(responseCode = "422", description = "Idempotency-Key já utilizada com outro corpo")
     })
-    public ResponseEntity<BeneficioDTO> criar(@Valid @RequestBody BeneficioDTO beneficioDTO) {
-        BeneficioDTO beneficioCriado = beneficioService.save(beneficioDTO);
-        return ResponseEntity.status(HttpStatus.CREATED).body(beneficioCriado);
+    public ResponseEntity<?> criar(
+            @Parameter(description = "Chave para repetir a requisição com segurança")
+            @RequestHeader(value = ExecutorIdempotente.CABECALHO, required = false) String idempotencyKey,
+            @Valid @RequestBody BeneficioDTO beneficioDTO) {
+        return executorIdempotente.executar(idempotencyKey, "criar", beneficioDTO, () -> {
+            BeneficioDTO beneficioCriado = beneficioService.save(beneficioDTO);
+            return ResponseEntity.created(URI.create("/api/v1/beneficios/" + beneficioCriado.getId()))
+                    .eTag(etag(beneficioCriado.getVersion()))
+                    .body(beneficioCriado);
+        });
     }
 
     @PutMapping("/{id}")
@@ -68,14 +291,26 @@ public class BeneficioController {
     @ApiResponses(value = {
         @ApiResponse(responseCode = "200", description = "Benefício atualizado com sucesso"),
         @ApiResponse(responseCode = "404", description = "Benefício não encontrado"),
-        @ApiResponse(responseCode = "400", description = "Dados inválidos")
+        @ApiResponse(responseCode = "400", description = "Dados inválidos"),
+        @ApiResponse(responseCode = "409", description = "Benefício alterado concorrentemente; tente novamente"),
+        @ApiResponse(responseCode = "412", description = "Benefício não está na versão informada em If-Match")
     })
-    public ResponseEntity<BeneficioDTO> atualizar(
+    public ResponseEntity<?> atualizar(
             @Parameter(description = "ID do benefício") @PathVariable Long id,
+            @Parameter(description = "ETag da versão esperada") @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
             @Valid @RequestBody BeneficioDTO beneficioDTO) {
-        Optional<BeneficioDTO> beneficioAtualizado = beneficioService.update(id, beneficioDTO);
-        return beneficioAtualizado.map(ResponseEntity::ok)
-                                 .orElse(ResponseEntity.notFound().build());
+        List<Long> versoesAceitas = versoesAceitas(ifMatch);
+        try {
+            Optional<BeneficioDTO> beneficioAtualizado = beneficioService.update(id, beneficioDTO, versoesAceitas);
+            return beneficioAtualizado.<ResponseEntity<?>>map(dto -> ResponseEntity.ok()
+                                                  .eTag(etag(dto.getVersion()))
+                                                  .body(dto))
+                                     .orElse(ResponseEntity.notFound().build());
+        } catch (VersaoDivergenteException e) {
+            return ResponseEntity.status(HttpStatus.PRECONDITION_FAILED).body(e.getMessage());
+        } catch (ConcurrencyFailureException e) {
+            return conflitoDeVersao(versoesAceitas);
+        }
     }
 
     @DeleteMapping("/{id}")
@@ -83,40 +318,180 @@ public class BeneficioController {
                description = "Marca um benefício como inativo (exclusão lógica)")
     @ApiResponses(value = {
         @ApiResponse(responseCode = "200", description = "Benefício excluído com sucesso"),
-        @ApiResponse(responseCode = "404", description = "Benefício não encontrado")
+        @ApiResponse(responseCode = "404", description = "Benefício não encontrado"),
+        @ApiResponse(responseCode = "409", description = "Benefício alterado concorrentemente; tente novamente"),
+        @ApiResponse(responseCode = "412", description = "Benefício não está na versão informada em If-Match")
     })
-    public ResponseEntity<Void> excluir(
-            @Parameter(description = "ID do benefício") @PathVariable Long id) {
-        boolean excluido = beneficioService.delete(id);
-        return excluido ? ResponseEntity.ok().build() : ResponseEntity.notFound().build();
+    public ResponseEntity<?> excluir(
+            @Parameter(description = "ID do benefício") @PathVariable Long id,
+            @Parameter(description = "ETag da versão esperada") @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        List<Long> versoesAceitas = versoesAceitas(ifMatch);
+        try {
+            boolean excluido = beneficioService.delete(id, versoesAceitas);
+            return excluido ? ResponseEntity.ok().build() : ResponseEntity.notFound().build();
+        } catch (VersaoDivergenteException e) {
+            return ResponseEntity.status(HttpStatus.PRECONDITION_FAILED).body(e.getMessage());
+        } catch (ConcurrencyFailureException e) {
+            return conflitoDeVersao(versoesAceitas);
+        }
     }
 
     @PostMapping("/transferir")
     @Operation(summary = "Transferir valor entre benefícios", 
-               description = "Transfere um valor de um benefício para outro")
+               description = "Transfere um valor de um benefício para outro. Com async=true a transferência é " +
+                             "enfileirada e aplicada em lote junto com outras; o status é consultado em " +
+                             "/transferencias/{id}")
     @ApiResponses(value = {
         @ApiResponse(responseCode = "200", description = "Transferência realizada com sucesso"),
+        @ApiResponse(responseCode = "202", description = "Transferência enfileirada (async=true) ou registrada no " +
+                                                         "ledger ainda sem projeção (estratégia LEDGER)"),
         @ApiResponse(responseCode = "400", description = "Dados inválidos ou saldo insuficiente"),
-        @ApiResponse(responseCode = "404", description = "Benefício não encontrado")
+        @ApiResponse(responseCode = "404", description = "Benefício não encontrado"),
+        @ApiResponse(responseCode = "409", description = "Conflito de concorrência persistente ou requisição com a " +
+                                                         "mesma Idempotency-Key em andamento; tente novamente"),
+        @ApiResponse(responseCode = "422", description = "Idempotency-Key já utilizada com outro corpo"),
+        @ApiResponse(responseCode = "429", description = "Fila de transferências cheia; tente novamente após Retry-After")
     })
-    public ResponseEntity<String> transferir(@Valid @RequestBody TransferenciaDTO transferenciaDTO) {
+    public ResponseEntity<?> transferir(
+            @Parameter(description = "Chave para repetir a requisição com segurança")
+            @RequestHeader(value = ExecutorIdempotente.CABECALHO, required = false) String idempotencyKey,
+            @Parameter(description = "Enfileira a transferência e responde 202 sem aguardar a aplicação")
+            @RequestParam(defaultValue = "false") boolean async,
+            @Valid @RequestBody TransferenciaDTO transferenciaDTO) {
+        // A mesma operação nos dois modos: uma chave já usada não aplica a transferência de novo
+        return executorIdempotente.executar(idempotencyKey, "transferir", transferenciaDTO, () -> {
+            if (async) {
+                return enfileirarTransferencia(transferenciaDTO);
+            }
+            try {
+                // Com a estratégia LEDGER a transferência só foi registrada; o projetor a aplica depois
+                Optional<TransferenciaAssincronaDTO> pendente = beneficioService.transferir(transferenciaDTO);
+                if (pendente.isPresent()) {
+                    return aceita(pendente.get());
+                }
+                return ResponseEntity.ok("Transferência realizada com sucesso");
+            } catch (IllegalArgumentException | IllegalStateException e) {
+                return ResponseEntity.badRequest().body(e.getMessage());
+            } catch (ConcurrencyFailureException e) {
+                return ResponseEntity.status(HttpStatus.CONFLICT)
+                        .body("Transferência não concluída devido a conflito de concorrência. Tente novamente.");
+            }
+        });
+    }
+
+    private ResponseEntity<?> enfileirarTransferencia(TransferenciaDTO transferenciaDTO) {
         try {
-            beneficioService.transferir(transferenciaDTO);
-            return ResponseEntity.ok("Transferência realizada com sucesso");
+            return aceita(filaTransferencias.enfileirar(transferenciaDTO));
         } catch (IllegalArgumentException | IllegalStateException e) {
             return ResponseEntity.badRequest().body(e.getMessage());
+        } catch (FilaCheiaException e) {
+            long segundos = Math.max(1, (e.getEsperaSugerida().toMillis() + 999) / 1000);
+            return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                    .header(HttpHeaders.RETRY_AFTER, Long.toString(segundos))
+                    .body(e.getMessage());
+        }
+    }
+
+    private static ResponseEntity<TransferenciaAssincronaDTO> aceita(TransferenciaAssincronaDTO transferencia) {
+        return ResponseEntity.accepted()
+                .location(URI.create("/api/v1/beneficios/transferencias/" + transferencia.getId()))
+                .body(transferencia);
+    }
+
+    @GetMapping("/transferencias/{id}")
+    @Operation(summary = "Consultar transferência assíncrona", 
+               description = "Retorna o status de uma transferência enviada com async=true ou registrada no ledger: " +
+                             "PENDENTE enquanto não for aplicada e, depois, o resultado da aplicação")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Status da transferência"),
+        @ApiResponse(responseCode = "404", description = "Transferência desconhecida")
+    })
+    public ResponseEntity<TransferenciaAssincronaDTO> consultarTransferencia(
+            @Parameter(description = "ID retornado pelo POST /transferir com resposta 202") @PathVariable Long id) {
+        return beneficioService.findLancamento(id)
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
+    }
+
+    @PostMapping("/transferir/lote")
+    @Operation(summary = "Transferir valores em lote", 
+               description = "Aplica várias transferências em uma única transação. Com atomico=true (padrão) " +
+                             "nenhuma é aplicada se alguma falhar; com atomico=false as válidas são aplicadas")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Lote processado; o resultado de cada item é retornado"),
+        @ApiResponse(responseCode = "400", description = "Dados inválidos, lote atômico rejeitado ou lote não suportado " +
+                                                         "pela estratégia configurada"),
+        @ApiResponse(responseCode = "409", description = "Benefícios do lote alterados concorrentemente; nada foi " +
+                                                         "aplicado, tente novamente")
+    })
+    public ResponseEntity<?> transferirLote(@Valid @RequestBody TransferenciaLoteDTO loteDTO) {
+        boolean atomico = !Boolean.FALSE.equals(loteDTO.getAtomico());
+        try {
+            ResultadoLoteDTO resultado = beneficioService.transferirLote(loteDTO.getTransferencias(), atomico);
+            return resultado.isAplicado() ? ResponseEntity.ok(resultado) : ResponseEntity.badRequest().body(resultado);
+        } catch (IllegalStateException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        } catch (ConcurrencyFailureException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT)
+                    .body("Lote não aplicado devido a conflito de concorrência. Tente novamente.");
         }
     }
 
     @GetMapping("/buscar")
     @Operation(summary = "Buscar benefícios por nome", 
-               description = "Busca benefícios que contenham o nome especificado")
+               description = "Busca benefícios cujo nome contenha o texto informado, ignorando acentos e maiúsculas. " +
+                             "Termos de 1 ou 2 caracteres casam só com o início das palavras. " +
+                             "Nomes iguais e prefixos aparecem primeiro")
     @ApiResponses(value = {
-        @ApiResponse(responseCode = "200", description = "Lista de benefícios encontrados")
+        @ApiResponse(responseCode = "200", description = "Lista de benefícios encontrados"),
+        @ApiResponse(responseCode = "400", description = "Limite inválido")
     })
-    public ResponseEntity<List<BeneficioDTO>> buscarPorNome(
-            @Parameter(description = "Nome para busca") @RequestParam String nome) {
-        List<BeneficioDTO> beneficios = beneficioService.searchByNome(nome);
-        return ResponseEntity.ok(beneficios);
+    public ResponseEntity<?> buscarPorNome(
+            @Parameter(description = "Nome para busca") @RequestParam String nome,
+            @Parameter(description = "Quantidade máxima de resultados (até " + BeneficioService.LIMITE_MAXIMO_BUSCA + "); sem ele, todos")
+            @RequestParam(required = false) Integer limit) {
+        try {
+            List<BeneficioDTO> beneficios = limit == null
+                    ? beneficioService.searchByNome(nome)
+                    : beneficioService.searchByNome(nome, limit);
+            return ResponseEntity.ok(beneficios);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+
+    // ETag forte: a versão muda a cada alteração do benefício
+    private static String etag(Object versao) {
+        return "\"" + versao + "\"";
+    }
+
+    // null quando não há precondição (cabeçalho ausente ou "*"). ETags fracas ou inválidas não
+    // entram na lista, pois If-Match usa comparação forte; uma lista vazia sempre resulta em 412.
+    private static List<Long> versoesAceitas(String ifMatch) {
+        if (ifMatch == null || ifMatch.trim().equals("*")) {
+            return null;
+        }
+        List<Long> versoes = new ArrayList<>();
+        for (String tag : ifMatch.split(",")) {
+            tag = tag.trim();
+            if (tag.length() > 2 && tag.startsWith("\"") && tag.endsWith("\"")) {
+                try {
+                    versoes.add(Long.valueOf(tag.substring(1, tag.length() - 1)));
+                } catch (NumberFormatException e) {
+                    // Não foi gerada por esta API, então não corresponde a nenhuma versão
+                }
+            }
+        }
+        return versoes;
+    }
+
+    // Com If-Match, a alteração concorrente entre a verificação e a gravação é uma precondição falha
+    private static ResponseEntity<?> conflitoDeVersao(List<Long> versoesAceitas) {
+        if (versoesAceitas != null) {
+            return ResponseEntity.status(HttpStatus.PRECONDITION_FAILED)
+                    .body("Benefício alterado concorrentemente");
+        }
+        return ResponseEntity.status(HttpStatus.CONFLICT)
+                .body("Benefício alterado concorrentemente. Tente novamente.");
     }
 }
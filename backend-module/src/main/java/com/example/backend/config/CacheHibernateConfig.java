@@ -0,0 +1,60 @@
+package com.example.backend.config;
+
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+import java.time.Duration;
+import java.util.OptionalLong;
+
+// Regiões do cache de segundo nível do Hibernate, criadas aqui com limite de tamanho e expiração em vez
+// de pelo Hibernate (que as criaria sem limites). As estatísticas por região saem nas métricas
+// hibernate.second.level.cache.* e hibernate.cache.query.* do actuator.
+@Configuration
+public class CacheHibernateConfig {
+    
+    public static final String REGIAO_BENEFICIO = "beneficio";
+    
+    // Região padrão das consultas marcadas com HINT_CACHEABLE; guarda os IDs de cada resultado
+    private static final String REGIAO_CONSULTAS = "default-query-results-region";
+    
+    // Momento da última alteração de cada tabela; consultas em cache mais antigas são descartadas.
+    // Não pode expirar nem ser limitada, senão o Hibernate passa a devolver resultados obsoletos.
+    private static final String REGIAO_TIMESTAMPS = "default-update-timestamps-region";
+    
+    @Bean(destroyMethod = "close")
+    public CacheManager cacheManagerHibernate(
+            @Value("${beneficio.cache.hibernate.tamanho-maximo:100000}") long tamanhoMaximo,
+            @Value("${beneficio.cache.hibernate.consultas:1000}") long consultas,
+            @Value("${beneficio.cache.hibernate.ttl:10m}") Duration ttl) {
+        CacheManager cacheManager = Caching.getCachingProvider(CaffeineCachingProvider.class.getName()).getCacheManager();
+        cacheManager.createCache(REGIAO_BENEFICIO, configuracao(tamanhoMaximo, ttl));
+        cacheManager.createCache(REGIAO_CONSULTAS, configuracao(consultas, ttl));
+        cacheManager.createCache(REGIAO_TIMESTAMPS, configuracao(null, null));
+        return cacheManager;
+    }
+    
+    @Bean
+    public HibernatePropertiesCustomizer cacheSegundoNivel(CacheManager cacheManagerHibernate) {
+        return propriedades -> propriedades.put(ConfigSettings.CACHE_MANAGER, cacheManagerHibernate);
+    }
+    
+    private static CaffeineConfiguration<Object, Object> configuracao(Long tamanhoMaximo, Duration ttl) {
+        CaffeineConfiguration<Object, Object> configuracao = new CaffeineConfiguration<>();
+        // As entradas do Hibernate são imutáveis; guardar por valor só serializaria cada leitura e escrita
+        configuracao.setStoreByValue(false);
+        if (tamanhoMaximo != null) {
+            configuracao.setMaximumSize(OptionalLong.of(tamanhoMaximo));
+        }
+        if (ttl != null) {
+            configuracao.setExpireAfterWrite(OptionalLong.of(ttl.toNanos()));
+        }
+        return configuracao;
+    }
+}
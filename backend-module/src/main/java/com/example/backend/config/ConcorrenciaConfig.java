@@ -0,0 +1,36 @@
+package com.example.backend.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+@Configuration
+public class ConcorrenciaConfig {
+    
+    private static final Logger log = LoggerFactory.getLogger(ConcorrenciaConfig.class);
+    
+    // Só com threads virtuais (spring.threads.virtual.enabled em Java 21+): com o pool de plataforma o próprio
+    // Tomcat limita as requisições em andamento.
+    // Sem max-requisicoes, o limite acompanha o pool JDBC (10 é o padrão do Hikari).
+    @Bean
+    @ConditionalOnThreading(Threading.VIRTUAL)
+    public FilterRegistrationBean<LimiteConcorrenciaFilter> limiteConcorrenciaFilter(
+            @Value("${beneficio.concorrencia.max-requisicoes:0}") int maxRequisicoes,
+            @Value("${beneficio.concorrencia.requisicoes-por-conexao:2}") int requisicoesPorConexao,
+            @Value("${spring.datasource.hikari.maximum-pool-size:10}") int conexoes,
+            @Value("${beneficio.concorrencia.espera-maxima:1s}") Duration esperaMaxima) {
+        int limite = maxRequisicoes > 0 ? maxRequisicoes : conexoes * requisicoesPorConexao;
+        log.info("Requisições da API em andamento limitadas a {} ({} conexões no pool JDBC)", limite, conexoes);
+        FilterRegistrationBean<LimiteConcorrenciaFilter> registro =
+                new FilterRegistrationBean<>(new LimiteConcorrenciaFilter(limite, esperaMaxima));
+        registro.addUrlPatterns("/api/*");
+        return registro;
+    }
+}
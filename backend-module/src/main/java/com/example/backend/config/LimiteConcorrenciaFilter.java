@@ -0,0 +1,51 @@
+package com.example.backend.config;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+// Limita as requisições da API em andamento. Com threads virtuais o Tomcat deixa de ser o limite
+// de concorrência; sem este filtro milhares de requisições ficariam enfileiradas no pool JDBC.
+public class LimiteConcorrenciaFilter extends OncePerRequestFilter {
+    
+    private final Semaphore permissoes;
+    private final long esperaMaximaMs;
+    
+    public LimiteConcorrenciaFilter(int maxRequisicoes, Duration esperaMaxima) {
+        this.permissoes = new Semaphore(maxRequisicoes, true);
+        this.esperaMaximaMs = esperaMaxima.toMillis();
+    }
+    
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        boolean adquirida;
+        try {
+            adquirida = permissoes.tryAcquire(esperaMaximaMs, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            adquirida = false;
+        }
+        
+        if (!adquirida) {
+            response.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+            response.setHeader(HttpHeaders.RETRY_AFTER, "1");
+            return;
+        }
+        
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            permissoes.release();
+        }
+    }
+}
@@ -0,0 +1,89 @@
+package com.example.backend.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+@Component
+@ConfigurationProperties(prefix = "beneficio.replicas")
+public class ReplicasProperties {
+    
+    // URLs JDBC das réplicas de leitura; sem nenhuma o roteamento não é criado
+    private List<String> urls = new ArrayList<>();
+    
+    // Vazios usam as credenciais de spring.datasource
+    private String usuario;
+    
+    private String senha;
+    
+    private int tamanhoPool = 10;
+    
+    // Espera máxima por uma conexão da réplica antes de desistir dela e ler no primário
+    private Duration tempoConexao = Duration.ofSeconds(1);
+    
+    // Réplicas mais atrasadas que isso saem do rodízio até alcançarem o primário
+    private Duration atrasoMaximo = Duration.ofSeconds(2);
+    
+    // Intervalo entre batimentos no primário e verificações das réplicas, em milissegundos
+    private long intervaloVerificacao = 500;
+    
+    // Getters e Setters
+    public List<String> getUrls() {
+        return urls;
+    }
+    
+    public void setUrls(List<String> urls) {
+        this.urls = urls;
+    }
+    
+    public String getUsuario() {
+        return usuario;
+    }
+    
+    public void setUsuario(String usuario) {
+        this.usuario = usuario;
+    }
+    
+    public String getSenha() {
+        return senha;
+    }
+    
+    public void setSenha(String senha) {
+        this.senha = senha;
+    }
+    
+    public int getTamanhoPool() {
+        return tamanhoPool;
+    }
+    
+    public void setTamanhoPool(int tamanhoPool) {
+        this.tamanhoPool = tamanhoPool;
+    }
+    
+    public Duration getTempoConexao() {
+        return tempoConexao;
+    }
+    
+    public void setTempoConexao(Duration tempoConexao) {
+        this.tempoConexao = tempoConexao;
+    }
+    
+    public Duration getAtrasoMaximo() {
+        return atrasoMaximo;
+    }
+    
+    public void setAtrasoMaximo(Duration atrasoMaximo) {
+        this.atrasoMaximo = atrasoMaximo;
+    }
+    
+    public long getIntervaloVerificacao() {
+        return intervaloVerificacao;
+    }
+    
+    public void setIntervaloVerificacao(long intervaloVerificacao) {
+        this.intervaloVerificacao = intervaloVerificacao;
+    }
+}
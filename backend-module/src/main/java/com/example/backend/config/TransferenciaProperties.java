@@ -0,0 +1,54 @@
+package com.example.backend.config;
+
+import com.example.backend.service.EstrategiaTransferencia;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+@Component
+@ConfigurationProperties(prefix = "beneficio.transferencia")
+public class TransferenciaProperties {
+    
+    private EstrategiaTransferencia estrategia = EstrategiaTransferencia.OTIMISTA;
+    
+    // Tentativas totais na estratégia otimista, incluindo a primeira
+    private int maxTentativas = 5;
+    
+    private Duration backoffInicial = Duration.ofMillis(10);
+    
+    private Duration backoffMaximo = Duration.ofMillis(200);
+    
+    // Getters e Setters
+    public EstrategiaTransferencia getEstrategia() {
+        return estrategia;
+    }
+    
+    public void setEstrategia(EstrategiaTransferencia estrategia) {
+        this.estrategia = estrategia;
+    }
+    
+    public int getMaxTentativas() {
+        return maxTentativas;
+    }
+    
+    public void setMaxTentativas(int maxTentativas) {
+        this.maxTentativas = maxTentativas;
+    }
+    
+    public Duration getBackoffInicial() {
+        return backoffInicial;
+    }
+    
+    public void setBackoffInicial(Duration backoffInicial) {
+        this.backoffInicial = backoffInicial;
+    }
+    
+    public Duration getBackoffMaximo() {
+        return backoffMaximo;
+    }
+    
+    public void setBackoffMaximo(Duration backoffMaximo) {
+        this.backoffMaximo = backoffMaximo;
+    }
+}
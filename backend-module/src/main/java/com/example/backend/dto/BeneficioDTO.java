@@ -1,7 +1,8 @@
 package com.example.backend.dto;
 
+import com.example.common.money.Money;
+import com.example.common.money.MoneyValido;
 import jakarta.validation.constraints.*;
-import java.math.BigDecimal;
 
 public class BeneficioDTO {
     
@@ -15,9 +16,8 @@ public class BeneficioDTO {
     private String descricao;
     
     @NotNull(message = "Valor é obrigatório")
-    @DecimalMin(value = "0.0", inclusive = false, message = "Valor deve ser maior que zero")
-    @Digits(integer = 13, fraction = 2, message = "Valor deve ter no máximo 13 dígitos inteiros e 2 decimais")
-    private BigDecimal valor;
+    @MoneyValido
+    private Money valor;
     
     private Boolean ativo = true;
     
@@ -26,7 +26,7 @@ public class BeneficioDTO {
     // Construtores
     public BeneficioDTO() {}
     
-    public BeneficioDTO(String nome, String descricao, BigDecimal valor) {
+    public BeneficioDTO(String nome, String descricao, Money valor) {
         this.nome = nome;
         this.descricao = descricao;
         this.valor = valor;
@@ -58,11 +58,11 @@ public class BeneficioDTO {
         this.descricao = descricao;
     }
     
-    public BigDecimal getValor() {
+    public Money getValor() {
         return valor;
     }
     
-    public void setValor(BigDecimal valor) {
+    public void setValor(Money valor) {
         this.valor = valor;
     }
     
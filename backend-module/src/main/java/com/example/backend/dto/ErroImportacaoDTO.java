@@ -0,0 +1,36 @@
+package com.example.backend.dto;
+
+import java.util.List;
+
+public class ErroImportacaoDTO {
+    
+    // Linha do CSV (contando o cabeçalho) ou posição do elemento no array JSON, a partir de 1
+    private long linha;
+    
+    private List<String> mensagens;
+    
+    // Construtores
+    public ErroImportacaoDTO() {}
+    
+    public ErroImportacaoDTO(long linha, List<String> mensagens) {
+        this.linha = linha;
+        this.mensagens = mensagens;
+    }
+    
+    // Getters e Setters
+    public long getLinha() {
+        return linha;
+    }
+    
+    public void setLinha(long linha) {
+        this.linha = linha;
+    }
+    
+    public List<String> getMensagens() {
+        return mensagens;
+    }
+    
+    public void setMensagens(List<String> mensagens) {
+        this.mensagens = mensagens;
+    }
+}
@@ -0,0 +1,96 @@
+package com.example.backend.dto;
+
+import com.example.common.money.Money;
+
+import java.time.Instant;
+import java.util.List;
+
+public class EstatisticasDTO {
+    
+    private long quantidade;
+    
+    private Money soma;
+    
+    // Nulos quando não há benefícios ativos
+    private Money minimo;
+    
+    private Money maximo;
+    
+    private Money media;
+    
+    private List<FaixaValorDTO> faixas;
+    
+    // Última conferência dos valores em memória contra o banco
+    private Instant reconciliadoEm;
+    
+    // Construtores
+    public EstatisticasDTO() {}
+    
+    public EstatisticasDTO(long quantidade, Money soma, Money minimo, Money maximo, Money media,
+                           List<FaixaValorDTO> faixas, Instant reconciliadoEm) {
+        this.quantidade = quantidade;
+        this.soma = soma;
+        this.minimo = minimo;
+        this.maximo = maximo;
+        this.media = media;
+        this.faixas = faixas;
+        this.reconciliadoEm = reconciliadoEm;
+    }
+    
+    // Getters e Setters
+    public long getQuantidade() {
+        return quantidade;
+    }
+    
+    public void setQuantidade(long quantidade) {
+        this.quantidade = quantidade;
+    }
+    
+    public Money getSoma() {
+        return soma;
+    }
+    
+    public void setSoma(Money soma) {
+        this.soma = soma;
+    }
+    
+    public Money getMinimo() {
+        return minimo;
+    }
+    
+    public void setMinimo(Money minimo) {
+        this.minimo = minimo;
+    }
+    
+    public Money getMaximo() {
+        return maximo;
+    }
+    
+    public void setMaximo(Money maximo) {
+        this.maximo = maximo;
+    }
+    
+    public Money getMedia() {
+        return media;
+    }
+    
+    public void setMedia(Money media) {
+        this.media = media;
+    }
+    
+    public List<FaixaValorDTO> getFaixas() {
+        return faixas;
+    }
+    
+    public void setFaixas(List<FaixaValorDTO> faixas) {
+        this.faixas = faixas;
+    }
+    
+    public Instant getReconciliadoEm() {
+        return reconciliadoEm;
+    }
+    
+    public void setReconciliadoEm(Instant reconciliadoEm) {
+        this.reconciliadoEm = reconciliadoEm;
+    }
+}
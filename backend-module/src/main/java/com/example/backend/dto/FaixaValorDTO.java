@@ -0,0 +1,48 @@
+package com.example.backend.dto;
+
+import com.example.common.money.Money;
+
+public class FaixaValorDTO {
+    
+    // Limite inferior inclusivo; nulo na primeira faixa
+    private Money de;
+    
+    // Limite superior exclusivo; nulo na última faixa
+    private Money ate;
+    
+    private long quantidade;
+    
+    // Construtores
+    public FaixaValorDTO() {}
+    
+    public FaixaValorDTO(Money de, Money ate, long quantidade) {
+        this.de = de;
+        this.ate = ate;
+        this.quantidade = quantidade;
+    }
+    
+    // Getters e Setters
+    public Money getDe() {
+        return de;
+    }
+    
+    public void setDe(Money de) {
+        this.de = de;
+    }
+    
+    public Money getAte() {
+        return ate;
+    }
+    
+    public void setAte(Money ate) {
+        this.ate = ate;
+    }
+    
+    public long getQuantidade() {
+        return quantidade;
+    }
+    
+    public void setQuantidade(long quantidade) {
+        this.quantidade = quantidade;
+    }
+}
@@ -0,0 +1,37 @@
+package com.example.backend.dto;
+
+import java.util.List;
+
+public class ListaVersionadaDTO<T> {
+    
+    // Versão da coleção, lida junto com os itens
+    private String versao;
+    
+    // Nulo quando a versão já era conhecida por quem pediu e a lista não foi lida
+    private List<T> itens;
+    
+    // Construtores
+    public ListaVersionadaDTO() {}
+    
+    public ListaVersionadaDTO(String versao, List<T> itens) {
+        this.versao = versao;
+        this.itens = itens;
+    }
+    
+    // Getters e Setters
+    public String getVersao() {
+        return versao;
+    }
+    
+    public void setVersao(String versao) {
+        this.versao = versao;
+    }
+    
+    public List<T> getItens() {
+        return itens;
+    }
+    
+    public void setItens(List<T> itens) {
+        this.itens = itens;
+    }
+}
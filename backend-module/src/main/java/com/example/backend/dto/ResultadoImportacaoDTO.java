@@ -0,0 +1,58 @@
+package com.example.backend.dto;
+
+import java.util.List;
+
+public class ResultadoImportacaoDTO {
+    
+    private long total;
+    
+    private long importados;
+    
+    private long falhas;
+    
+    // Limitada a beneficio.importacao.max-erros; falhas continua contando as demais
+    private List<ErroImportacaoDTO> erros;
+    
+    // Construtores
+    public ResultadoImportacaoDTO() {}
+    
+    public ResultadoImportacaoDTO(long total, long importados, long falhas, List<ErroImportacaoDTO> erros) {
+        this.total = total;
+        this.importados = importados;
+        this.falhas = falhas;
+        this.erros = erros;
+    }
+    
+    // Getters e Setters
+    public long getTotal() {
+        return total;
+    }
+    
+    public void setTotal(long total) {
+        this.total = total;
+    }
+    
+    public long getImportados() {
+        return importados;
+    }
+    
+    public void setImportados(long importados) {
+        this.importados = importados;
+    }
+    
+    public long getFalhas() {
+        return falhas;
+    }
+    
+    public void setFalhas(long falhas) {
+        this.falhas = falhas;
+    }
+    
+    public List<ErroImportacaoDTO> getErros() {
+        return erros;
+    }
+    
+    public void setErros(List<ErroImportacaoDTO> erros) {
+        this.erros = erros;
+    }
+}
@@ -0,0 +1,58 @@
+package com.example.backend.dto;
+
+import java.util.List;
+
+public class ResultadoLoteDTO {
+    
+    // Indica se as transferências bem-sucedidas foram efetivadas
+    private boolean aplicado;
+    
+    private int sucessos;
+    
+    private int falhas;
+    
+    private List<ResultadoTransferenciaDTO> itens;
+    
+    // Construtores
+    public ResultadoLoteDTO() {}
+    
+    public ResultadoLoteDTO(boolean aplicado, int sucessos, int falhas, List<ResultadoTransferenciaDTO> itens) {
+        this.aplicado = aplicado;
+        this.sucessos = sucessos;
+        this.falhas = falhas;
+        this.itens = itens;
+    }
+    
+    // Getters e Setters
+    public boolean isAplicado() {
+        return aplicado;
+    }
+    
+    public void setAplicado(boolean aplicado) {
+        this.aplicado = aplicado;
+    }
+    
+    public int getSucessos() {
+        return sucessos;
+    }
+    
+    public void setSucessos(int sucessos) {
+        this.sucessos = sucessos;
+    }
+    
+    public int getFalhas() {
+        return falhas;
+    }
+    
+    public void setFalhas(int falhas) {
+        this.falhas = falhas;
+    }
+    
+    public List<ResultadoTransferenciaDTO> getItens() {
+        return itens;
+    }
+    
+    public void setItens(List<ResultadoTransferenciaDTO> itens) {
+        this.itens = itens;
+    }
+}
@@ -0,0 +1,52 @@
+package com.example.backend.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
+public class ResultadoTransferenciaDTO {
+    
+    // Posição do item no lote enviado
+    private int indice;
+    
+    private StatusTransferencia status;
+    
+    private String mensagem;
+    
+    // Construtores
+    public ResultadoTransferenciaDTO() {}
+    
+    public ResultadoTransferenciaDTO(int indice, StatusTransferencia status, String mensagem) {
+        this.indice = indice;
+        this.status = status;
+        this.mensagem = mensagem;
+    }
+    
+    @JsonIgnore
+    public boolean isSucesso() {
+        return status == StatusTransferencia.SUCESSO;
+    }
+    
+    // Getters e Setters
+    public int getIndice() {
+        return indice;
+    }
+    
+    public void setIndice(int indice) {
+        this.indice = indice;
+    }
+    
+    public StatusTransferencia getStatus() {
+        return status;
+    }
+    
+    public void setStatus(StatusTransferencia status) {
+        this.status = status;
+    }
+    
+    public String getMensagem() {
+        return mensagem;
+    }
+    
+    public void setMensagem(String mensagem) {
+        this.mensagem = mensagem;
+    }
+}
@@ -0,0 +1,47 @@
+package com.example.backend.dto;
+
+import com.example.common.money.Money;
+
+public class SaldoDTO {
+    
+    private Long beneficioId;
+    
+    private Money valor;
+    
+    // Offset do ledger ao qual o saldo corresponde
+    private long offset;
+    
+    // Construtores
+    public SaldoDTO() {}
+    
+    public SaldoDTO(Long beneficioId, Money valor, long offset) {
+        this.beneficioId = beneficioId;
+        this.valor = valor;
+        this.offset = offset;
+    }
+    
+    // Getters e Setters
+    public Long getBeneficioId() {
+        return beneficioId;
+    }
+    
+    public void setBeneficioId(Long beneficioId) {
+        this.beneficioId = beneficioId;
+    }
+    
+    public Money getValor() {
+        return valor;
+    }
+    
+    public void setValor(Money valor) {
+        this.valor = valor;
+    }
+    
+    public long getOffset() {
+        return offset;
+    }
+    
+    public void setOffset(long offset) {
+        this.offset = offset;
+    }
+}
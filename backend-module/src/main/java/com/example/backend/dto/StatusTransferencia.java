@@ -0,0 +1,11 @@
+package com.example.backend.dto;
+
+public enum StatusTransferencia {
+    // Transferência assíncrona ainda na fila
+    PENDENTE,
+    SUCESSO,
+    NAO_APLICADA,
+    INVALIDA,
+    NAO_ENCONTRADO,
+    SALDO_INSUFICIENTE
+}
@@ -0,0 +1,105 @@
+package com.example.backend.dto;
+
+import com.example.common.money.Money;
+
+import java.time.Instant;
+
+public class TransferenciaAssincronaDTO {
+    
+    private Long id;
+    
+    private Long fromId;
+    
+    private Long toId;
+    
+    private Money valor;
+    
+    // PENDENTE enquanto não for aplicada; depois, o resultado da aplicação
+    private StatusTransferencia status;
+    
+    private String mensagem;
+    
+    private Instant recebidaEm;
+    
+    private Instant concluidaEm;
+    
+    // Construtores
+    public TransferenciaAssincronaDTO() {}
+    
+    public TransferenciaAssincronaDTO(Long id, Long fromId, Long toId, Money valor, StatusTransferencia status,
+                                      String mensagem, Instant recebidaEm, Instant concluidaEm) {
+        this.id = id;
+        this.fromId = fromId;
+        this.toId = toId;
+        this.valor = valor;
+        this.status = status;
+        this.mensagem = mensagem;
+        this.recebidaEm = recebidaEm;
+        this.concluidaEm = concluidaEm;
+    }
+    
+    // Getters e Setters
+    public Long getId() {
+        return id;
+    }
+    
+    public void setId(Long id) {
+        this.id = id;
+    }
+    
+    public Long getFromId() {
+        return fromId;
+    }
+    
+    public void setFromId(Long fromId) {
+        this.fromId = fromId;
+    }
+    
+    public Long getToId() {
+        return toId;
+    }
+    
+    public void setToId(Long toId) {
+        this.toId = toId;
+    }
+    
+    public Money getValor() {
+        return valor;
+    }
+    
+    public void setValor(Money valor) {
+        this.valor = valor;
+    }
+    
+    public StatusTransferencia getStatus() {
+        return status;
+    }
+    
+    public void setStatus(StatusTransferencia status) {
+        this.status = status;
+    }
+    
+    public String getMensagem() {
+        return mensagem;
+    }
+    
+    public void setMensagem(String mensagem) {
+        this.mensagem = mensagem;
+    }
+    
+    public Instant getRecebidaEm() {
+        return recebidaEm;
+    }
+    
+    public void setRecebidaEm(Instant recebidaEm) {
+        this.recebidaEm = recebidaEm;
+    }
+    
+    public Instant getConcluidaEm() {
+        return concluidaEm;
+    }
+    
+    public void setConcluidaEm(Instant concluidaEm) {
+        this.concluidaEm = concluidaEm;
+    }
+}
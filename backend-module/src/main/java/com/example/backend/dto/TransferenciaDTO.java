@@ -1,7 +1,8 @@
 package com.example.backend.dto;
 
+import com.example.common.money.Money;
+import com.example.common.money.MoneyValido;
 import jakarta.validation.constraints.*;
-import java.math.BigDecimal;
 
 public class TransferenciaDTO {
     
@@ -12,14 +13,13 @@ public class TransferenciaDTO {
     private Long toId;
     
     @NotNull(message = "Valor é obrigatório")
-    @DecimalMin(value = "0.0", inclusive = false, message = "Valor deve ser maior que zero")
-    @Digits(integer = 13, fraction = 2, message = "Valor deve ter no máximo 13 dígitos inteiros e 2 decimais")
-    private BigDecimal valor;
+    @MoneyValido
+    private Money valor;
     
     // Construtores
     public TransferenciaDTO() {}
     
-    public TransferenciaDTO(Long fromId, Long toId, BigDecimal valor) {
+    public TransferenciaDTO(Long fromId, Long toId, Money valor) {
         this.fromId = fromId;
         this.toId = toId;
         this.valor = valor;
@@ -42,11 +42,11 @@ public class TransferenciaDTO {
         this.toId = toId;
     }
     
-    public BigDecimal getValor() {
+    public Money getValor() {
         return valor;
     }
     
-    public void setValor(BigDecimal valor) {
+    public void setValor(Money valor) {
         this.valor = valor;
     }
 }
@@ -0,0 +1,42 @@
+package com.example.backend.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.*;
+import java.util.List;
+
+public class TransferenciaLoteDTO {
+    
+    public static final int TAMANHO_MAXIMO = 50000;
+    
+    @NotEmpty(message = "Lote deve conter ao menos uma transferência")
+    @Size(max = TAMANHO_MAXIMO, message = "Lote deve ter no máximo " + TAMANHO_MAXIMO + " transferências")
+    private List<@Valid @NotNull TransferenciaDTO> transferencias;
+    
+    // Tudo ou nada: se qualquer item falhar, nenhuma transferência é aplicada
+    private Boolean atomico = true;
+    
+    // Construtores
+    public TransferenciaLoteDTO() {}
+    
+    public TransferenciaLoteDTO(List<TransferenciaDTO> transferencias, Boolean atomico) {
+        this.transferencias = transferencias;
+        this.atomico = atomico;
+    }
+    
+    // Getters e Setters
+    public List<TransferenciaDTO> getTransferencias() {
+        return transferencias;
+    }
+    
+    public void setTransferencias(List<TransferenciaDTO> transferencias) {
+        this.transferencias = transferencias;
+    }
+    
+    public Boolean getAtomico() {
+        return atomico;
+    }
+    
+    public void setAtomico(Boolean atomico) {
+        this.atomico = atomico;
+    }
+}
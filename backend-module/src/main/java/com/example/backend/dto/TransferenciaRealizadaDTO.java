@@ -0,0 +1,94 @@
+package com.example.backend.dto;
+
+import com.example.common.money.Money;
+
+// Transferência confirmada, com os saldos dos dois benefícios logo após ela
+public class TransferenciaRealizadaDTO {
+    
+    private Long fromId;
+    
+    private Long toId;
+    
+    private Money valor;
+    
+    private Money saldoOrigem;
+    
+    private Money saldoDestino;
+    
+    // Versões dos benefícios com esses saldos; nulas na estratégia MEMORIA, em que a versão do banco
+    // não acompanha os saldos do motor (os eventos de um benefício saem na ordem em que foram aplicados)
+    private Long versaoOrigem;
+    
+    private Long versaoDestino;
+    
+    // Construtores
+    public TransferenciaRealizadaDTO() {}
+    
+    public TransferenciaRealizadaDTO(Long fromId, Long toId, Money valor, Money saldoOrigem, Long versaoOrigem,
+                                     Money saldoDestino, Long versaoDestino) {
+        this.fromId = fromId;
+        this.toId = toId;
+        this.valor = valor;
+        this.saldoOrigem = saldoOrigem;
+        this.versaoOrigem = versaoOrigem;
+        this.saldoDestino = saldoDestino;
+        this.versaoDestino = versaoDestino;
+    }
+    
+    // Getters e Setters
+    public Long getFromId() {
+        return fromId;
+    }
+    
+    public void setFromId(Long fromId) {
+        this.fromId = fromId;
+    }
+    
+    public Long getToId() {
+        return toId;
+    }
+    
+    public void setToId(Long toId) {
+        this.toId = toId;
+    }
+    
+    public Money getValor() {
+        return valor;
+    }
+    
+    public void setValor(Money valor) {
+        this.valor = valor;
+    }
+    
+    public Money getSaldoOrigem() {
+        return saldoOrigem;
+    }
+    
+    public void setSaldoOrigem(Money saldoOrigem) {
+        this.saldoOrigem = saldoOrigem;
+    }
+    
+    public Money getSaldoDestino() {
+        return saldoDestino;
+    }
+    
+    public void setSaldoDestino(Money saldoDestino) {
+        this.saldoDestino = saldoDestino;
+    }
+    
+    public Long getVersaoOrigem() {
+        return versaoOrigem;
+    }
+    
+    public void setVersaoOrigem(Long versaoOrigem) {
+        this.versaoOrigem = versaoOrigem;
+    }
+    
+    public Long getVersaoDestino() {
+        return versaoDestino;
+    }
+    
+    public void setVersaoDestino(Long versaoDestino) {
+        this.versaoDestino = versaoDestino;
+    }
+}
@@ -1,15 +1,36 @@
 package com.example.backend.entity;
 
+import com.example.backend.config.CacheHibernateConfig;
+import com.example.common.money.Money;
+import com.example.common.money.MoneyValido;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.*;
-import java.math.BigDecimal;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.SQLRestriction;
 
+import java.time.Instant;
+
+// A exclusão é lógica: consultas JPQL e derivadas enxergam apenas os ativos; carregamentos por ID
+// também, exceto quando atendidos pelo cache de segundo nível (ver BeneficioRepository.findAtivoById).
+// Inativos ficam na tabela até o arquivamento movê-los para BENEFICIO_ARQUIVO.
 @Entity
-@Table(name = "BENEFICIO")
+@Table(name = "BENEFICIO", indexes = {
+    @Index(name = "IDX_BENEFICIO_ATIVO_ID", columnList = "ATIVO, ID"),
+    @Index(name = "IDX_BENEFICIO_ATIVO_NOME", columnList = "ATIVO, NOME"),
+    @Index(name = "IDX_BENEFICIO_ATIVO_INATIVADO_EM", columnList = "ATIVO, INATIVADO_EM")
+})
+@SQLRestriction("ATIVO = TRUE")
+// READ_WRITE bloqueia a entrada durante a transação que altera o benefício, então leituras concorrentes
+// vão ao banco em vez de receber o estado anterior e a verificação de @Version continua valendo
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = CacheHibernateConfig.REGIAO_BENEFICIO)
 public class Beneficio {
     
+    // Sequência com otimizador pooled-lo: IDs reservados em blocos permitem inserts em batch JDBC
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "beneficio_seq")
+    @SequenceGenerator(name = "beneficio_seq", sequenceName = "BENEFICIO_SEQ", allocationSize = 50)
     private Long id;
     
     @NotBlank(message = "Nome é obrigatório")
@@ -21,11 +42,12 @@ public class Beneficio {
     @Column(name = "DESCRICAO", length = 255)
     private String descricao;
     
+    // Transferências podem zerar o saldo (todas as estratégias aceitam débito igual ao saldo);
+    // criação e alteração continuam exigindo valor maior que zero em BeneficioDTO
     @NotNull(message = "Valor é obrigatório")
-    @DecimalMin(value = "0.0", inclusive = false, message = "Valor deve ser maior que zero")
-    @Digits(integer = 13, fraction = 2, message = "Valor deve ter no máximo 13 dígitos inteiros e 2 decimais")
+    @MoneyValido(zeroPermitido = true, message = "Valor não pode ser negativo")
     @Column(name = "VALOR", nullable = false, precision = 15, scale = 2)
-    private BigDecimal valor;
+    private Money valor;
     
     @Column(name = "ATIVO")
     private Boolean ativo = true;
@@ -34,10 +56,26 @@ public class Beneficio {
     @Column(name = "VERSION")
     private Long version;
     
+    // Momento da exclusão lógica, usado pelo arquivamento
+    @Column(name = "INATIVADO_EM")
+    private Instant inativadoEm;
+    
+    @PrePersist
+    @PreUpdate
+    void registrarInativacao() {
+        if (Boolean.FALSE.equals(ativo)) {
+            if (inativadoEm == null) {
+                inativadoEm = Instant.now();
+            }
+        } else {
+            inativadoEm = null;
+        }
+    }
+    
     // Construtores
     public Beneficio() {}
     
-    public Beneficio(String nome, String descricao, BigDecimal valor) {
+    public Beneficio(String nome, String descricao, Money valor) {
         this.nome = nome;
         this.descricao = descricao;
         this.valor = valor;
@@ -69,11 +107,11 @@ public class Beneficio {
         this.descricao = descricao;
     }
     
-    public BigDecimal getValor() {
+    public Money getValor() {
         return valor;
     }
     
-    public void setValor(BigDecimal valor) {
+    public void setValor(Money valor) {
         this.valor = valor;
     }
     
@@ -92,4 +130,12 @@ public class Beneficio {
     public void setVersion(Long version) {
         this.version = version;
     }
+    
+    public Instant getInativadoEm() {
+        return inativadoEm;
+    }
+    
+    public void setInativadoEm(Instant inativadoEm) {
+        this.inativadoEm = inativadoEm;
+    }
 }
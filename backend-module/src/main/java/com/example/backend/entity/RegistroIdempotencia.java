@@ -0,0 +1,109 @@
+package com.example.backend.entity;
+
+import jakarta.persistence.*;
+import java.time.Instant;
+
+// Resposta já enviada para uma Idempotency-Key, usada quando o armazenamento em banco está ativo.
+// A linha é inserida com STATUS = RESERVADA antes da execução e recebe a resposta ao final.
+@Entity
+@Table(name = "IDEMPOTENCIA", indexes = {
+    @Index(name = "IDX_IDEMPOTENCIA_EXPIRA_EM", columnList = "EXPIRA_EM")
+})
+public class RegistroIdempotencia {
+    
+    public static final int RESERVADA = 0;
+    
+    @Id
+    @Column(name = "CHAVE", length = 300)
+    private String chave;
+    
+    @Column(name = "IMPRESSAO", nullable = false, length = 64)
+    private String impressao;
+    
+    @Column(name = "STATUS", nullable = false)
+    private int status;
+    
+    @Column(name = "TIPO_CONTEUDO", length = 100)
+    private String tipoConteudo;
+    
+    @Lob
+    @Column(name = "CORPO")
+    private String corpo;
+    
+    // Linhas "Nome: valor" (RespostaIdempotente.cabecalhosComoTexto)
+    @Column(name = "CABECALHOS", length = 2000)
+    private String cabecalhos;
+    
+    @Column(name = "EXPIRA_EM", nullable = false)
+    private Instant expiraEm;
+    
+    // Construtores
+    public RegistroIdempotencia() {}
+    
+    public RegistroIdempotencia(String chave, String impressao, int status, String tipoConteudo, String corpo,
+                                Instant expiraEm) {
+        this.chave = chave;
+        this.impressao = impressao;
+        this.status = status;
+        this.tipoConteudo = tipoConteudo;
+        this.corpo = corpo;
+        this.expiraEm = expiraEm;
+    }
+    
+    // Getters e Setters
+    public String getChave() {
+        return chave;
+    }
+    
+    public void setChave(String chave) {
+        this.chave = chave;
+    }
+    
+    public String getImpressao() {
+        return impressao;
+    }
+    
+    public void setImpressao(String impressao) {
+        this.impressao = impressao;
+    }
+    
+    public int getStatus() {
+        return status;
+    }
+    
+    public void setStatus(int status) {
+        this.status = status;
+    }
+    
+    public String getTipoConteudo() {
+        return tipoConteudo;
+    }
+    
+    public void setTipoConteudo(String tipoConteudo) {
+        this.tipoConteudo = tipoConteudo;
+    }
+    
+    public String getCorpo() {
+        return corpo;
+    }
+    
+    public void setCorpo(String corpo) {
+        this.corpo = corpo;
+    }
+    
+    public String getCabecalhos() {
+        return cabecalhos;
+    }
+    
+    public void setCabecalhos(String cabecalhos) {
+        this.cabecalhos = cabecalhos;
+    }
+    
+    public Instant getExpiraEm() {
+        return expiraEm;
+    }
+    
+    public void setExpiraEm(Instant expiraEm) {
+        this.expiraEm = expiraEm;
+    }
+}
@@ -0,0 +1,132 @@
+package com.example.backend.entity;
+
+import com.example.backend.dto.StatusTransferencia;
+import com.example.common.money.Money;
+import jakarta.persistence.*;
+import java.time.Instant;
+
+// Lançamento do ledger de transferências, também usado para as transferências assíncronas aceitas pela fila.
+// Linhas nunca são apagadas nem têm valores alterados; apenas o STATUS passa uma única vez de PENDENTE para
+// APLICADA ou REJEITADA (concluir), pelo projetor ou pela fila. O projetor grava junto a posição no ledger.
+@Entity
+@Table(name = "TRANSFERENCIA", indexes = {
+    @Index(name = "IDX_TRANSFERENCIA_STATUS_ID", columnList = "STATUS, ID"),
+    @Index(name = "IDX_TRANSFERENCIA_FROM_ID", columnList = "FROM_ID, ID"),
+    @Index(name = "IDX_TRANSFERENCIA_TO_ID", columnList = "TO_ID, ID"),
+    @Index(name = "IDX_TRANSFERENCIA_FROM_POSICAO", columnList = "FROM_ID, POSICAO"),
+    @Index(name = "IDX_TRANSFERENCIA_TO_POSICAO", columnList = "TO_ID, POSICAO")
+})
+public class Transferencia {
+    
+    private static final int TAMANHO_MAXIMO_MOTIVO = 255;
+    
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "transferencia_seq")
+    @SequenceGenerator(name = "transferencia_seq", sequenceName = "TRANSFERENCIA_SEQ", allocationSize = 50)
+    private Long id;
+    
+    @Column(name = "FROM_ID", nullable = false, updatable = false)
+    private Long fromId;
+    
+    @Column(name = "TO_ID", nullable = false, updatable = false)
+    private Long toId;
+    
+    @Column(name = "VALOR", nullable = false, updatable = false, precision = 15, scale = 2)
+    private Money valor;
+    
+    @Enumerated(EnumType.STRING)
+    @Column(name = "STATUS", nullable = false, length = 20)
+    private StatusLedger status = StatusLedger.PENDENTE;
+    
+    @Column(name = "MOTIVO", length = 255)
+    private String motivo;
+    
+    // Ordem de projeção; nula enquanto PENDENTE
+    @Column(name = "POSICAO")
+    private Long posicao;
+    
+    @Enumerated(EnumType.STRING)
+    @Column(name = "RESULTADO", length = 20)
+    private StatusTransferencia resultado;
+    
+    @Column(name = "CRIADO_EM", nullable = false, updatable = false)
+    private Instant criadoEm;
+    
+    @Column(name = "CONCLUIDO_EM")
+    private Instant concluidoEm;
+    
+    // Construtores
+    public Transferencia() {}
+    
+    public Transferencia(Long fromId, Long toId, Money valor) {
+        this.fromId = fromId;
+        this.toId = toId;
+        this.valor = valor;
+        this.criadoEm = Instant.now();
+    }
+    
+    public void concluir(StatusTransferencia resultado, String motivo) {
+        this.status = resultado == StatusTransferencia.SUCESSO ? StatusLedger.APLICADA : StatusLedger.REJEITADA;
+        this.resultado = resultado;
+        this.motivo = motivo != null && motivo.length() > TAMANHO_MAXIMO_MOTIVO
+                ? motivo.substring(0, TAMANHO_MAXIMO_MOTIVO) : motivo;
+        this.concluidoEm = Instant.now();
+    }
+    
+    // Getters e Setters
+    public Long getId() {
+        return id;
+    }
+    
+    public Long getFromId() {
+        return fromId;
+    }
+    
+    public Long getToId() {
+        return toId;
+    }
+    
+    public Money getValor() {
+        return valor;
+    }
+    
+    public StatusLedger getStatus() {
+        return status;
+    }
+    
+    public void setStatus(StatusLedger status) {
+        this.status = status;
+    }
+    
+    public String getMotivo() {
+        return motivo;
+    }
+    
+    public void setMotivo(String motivo) {
+        this.motivo = motivo;
+    }
+    
+    public Long getPosicao() {
+        return posicao;
+    }
+    
+    public void setPosicao(Long posicao) {
+        this.posicao = posicao;
+    }
+    
+    public StatusTransferencia getResultado() {
+        return resultado;
+    }
+    
+    public void setResultado(StatusTransferencia resultado) {
+        this.resultado = resultado;
+    }
+    
+    public Instant getCriadoEm() {
+        return criadoEm;
+    }
+    
+    public Instant getConcluidoEm() {
+        return concluidoEm;
+    }
+}
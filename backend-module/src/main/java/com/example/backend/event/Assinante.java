@@ -0,0 +1,107 @@
+package com.example.backend.event;
+
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+
+// Cliente conectado ao stream, com buffer limitado de eventos pendentes. No máximo uma tarefa de
+// envio por assinante fica agendada por vez, então um cliente lento nunca ocupa mais de uma thread.
+final class Assinante {
+    
+    private final SseEmitter emitter;
+    
+    private final int capacidade;
+    
+    // Na ordem de chegada; um evento que substitui outro de mesma chave vai para o fim
+    private final LinkedHashMap<String, EventoPublicado> pendentes = new LinkedHashMap<>();
+    
+    private boolean agendado;
+    
+    private boolean perdeuEventos;
+    
+    private boolean heartbeat;
+    
+    private boolean encerrado;
+    
+    Assinante(SseEmitter emitter, int capacidade) {
+        this.emitter = emitter;
+        this.capacidade = capacidade;
+    }
+    
+    SseEmitter getEmitter() {
+        return emitter;
+    }
+    
+    // Retorna a quantidade de eventos descartados (0 ou 1) para as métricas
+    synchronized int oferecer(EventoPublicado evento) {
+        if (encerrado) {
+            return 0;
+        }
+        String chave = evento.getChave();
+        int descartados = 0;
+        if (pendentes.remove(chave) == null && pendentes.size() >= capacidade) {
+            Iterator<EventoPublicado> maisAntigo = pendentes.values().iterator();
+            maisAntigo.next();
+            maisAntigo.remove();
+            perdeuEventos = true;
+            descartados = 1;
+        }
+        pendentes.put(chave, evento);
+        return descartados;
+    }
+    
+    synchronized void marcarPerda() {
+        perdeuEventos = true;
+    }
+    
+    synchronized void marcarHeartbeat() {
+        heartbeat = true;
+    }
+    
+    // true se o chamador deve agendar o envio
+    synchronized boolean agendar() {
+        if (encerrado || agendado || (pendentes.isEmpty() && !perdeuEventos && !heartbeat)) {
+            return false;
+        }
+        agendado = true;
+        return true;
+    }
+    
+    synchronized Lote retirar() {
+        Lote lote = new Lote(perdeuEventos, heartbeat, new ArrayList<>(pendentes.values()));
+        pendentes.clear();
+        perdeuEventos = false;
+        heartbeat = false;
+        return lote;
+    }
+    
+    // Chamado ao fim de um envio; true se chegaram eventos nesse meio tempo e é preciso reagendar
+    synchronized boolean concluirEnvio() {
+        agendado = false;
+        return agendar();
+    }
+    
+    synchronized void encerrar() {
+        encerrado = true;
+        pendentes.clear();
+    }
+    
+    static final class Lote {
+        
+        // O cliente perdeu eventos e deve recarregar o estado completo
+        final boolean sincronizar;
+        
+        final boolean heartbeat;
+        
+        final List<EventoPublicado> eventos;
+        
+        private Lote(boolean sincronizar, boolean heartbeat, List<EventoPublicado> eventos) {
+            this.sincronizar = sincronizar;
+            this.heartbeat = heartbeat;
+            this.eventos = eventos;
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package com.example.backend.event;
+
+import com.example.backend.dto.BeneficioDTO;
+import com.example.backend.dto.TransferenciaRealizadaDTO;
+import com.example.common.money.Money;
+
+// Alteração publicada pelo BeneficioService dentro da transação; ouvintes reagem após o commit
+public class BeneficioEvento {
+    
+    private final TipoEvento tipo;
+    
+    // Estado após a alteração (CRIADO/ATUALIZADO) ou apenas o ID (EXCLUIDO)
+    private final BeneficioDTO beneficio;
+    
+    // Somente para ATUALIZADO: valor antes da alteração (o benefício estava ativo)
+    private final Money valorAnterior;
+    
+    // Preenchido somente para TRANSFERENCIA, com os saldos resultantes
+    private final TransferenciaRealizadaDTO transferencia;
+    
+    private BeneficioEvento(TipoEvento tipo, BeneficioDTO beneficio, Money valorAnterior,
+                            TransferenciaRealizadaDTO transferencia) {
+        this.tipo = tipo;
+        this.beneficio = beneficio;
+        this.valorAnterior = valorAnterior;
+        this.transferencia = transferencia;
+    }
+    
+    public static BeneficioEvento criado(BeneficioDTO beneficio) {
+        return new BeneficioEvento(TipoEvento.CRIADO, beneficio, null, null);
+    }
+    
+    public static BeneficioEvento atualizado(BeneficioDTO beneficio, Money valorAnterior) {
+        return new BeneficioEvento(TipoEvento.ATUALIZADO, beneficio, valorAnterior, null);
+    }
+    
+    public static BeneficioEvento excluido(BeneficioDTO beneficio) {
+        return new BeneficioEvento(TipoEvento.EXCLUIDO, beneficio, null, null);
+    }
+    
+    public static BeneficioEvento transferencia(TransferenciaRealizadaDTO transferencia) {
+        return new BeneficioEvento(TipoEvento.TRANSFERENCIA, null, null, transferencia);
+    }
+    
+    public TipoEvento getTipo() {
+        return tipo;
+    }
+    
+    public BeneficioDTO getBeneficio() {
+        return beneficio;
+    }
+    
+    public Money getValorAnterior() {
+        return valorAnterior;
+    }
+    
+    public TransferenciaRealizadaDTO getTransferencia() {
+        return transferencia;
+    }
+}
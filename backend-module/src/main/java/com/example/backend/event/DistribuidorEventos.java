@@ -0,0 +1,186 @@
+package com.example.backend.event;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.LinkedHashSet;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Distribui os eventos confirmados aos clientes de GET /eventos (Server-Sent Events).
+// Quem publica nunca espera pela rede: cada evento vai para o buffer de cada assinante e um pool
+// pequeno de threads faz os envios. Os últimos eventos ficam guardados para retomada via Last-Event-ID.
+@Component
+public class DistribuidorEventos {
+    
+    public static final String SINCRONIZAR = "SINCRONIZAR";
+    
+    private static final Logger log = LoggerFactory.getLogger(DistribuidorEventos.class);
+    
+    private final CopyOnWriteArrayList<Assinante> assinantes = new CopyOnWriteArrayList<>();
+    
+    // Protegido pelo monitor desta instância, assim como ultimoId
+    private final ArrayDeque<EventoPublicado> historico;
+    
+    private final int tamanhoHistorico;
+    
+    // IDs começam no instante da inicialização, para que um Last-Event-ID de antes de um reinício
+    // fique fora do histórico e o cliente seja mandado sincronizar
+    private long ultimoId = System.currentTimeMillis() * 1000;
+    
+    private final int capacidadeAssinante;
+    
+    private final long timeoutMs;
+    
+    private final ExecutorService envios;
+    
+    private final Counter descartados;
+    
+    public DistribuidorEventos(@Value("${beneficio.eventos.historico:10000}") int tamanhoHistorico,
+                               @Value("${beneficio.eventos.buffer-por-cliente:1000}") int capacidadeAssinante,
+                               @Value("${beneficio.eventos.timeout:30m}") Duration timeout,
+                               @Value("${beneficio.eventos.threads:2}") int threads,
+                               MeterRegistry meterRegistry) {
+        this.tamanhoHistorico = tamanhoHistorico;
+        this.historico = new ArrayDeque<>(tamanhoHistorico);
+        this.capacidadeAssinante = capacidadeAssinante;
+        this.timeoutMs = timeout.toMillis();
+        AtomicInteger contador = new AtomicInteger();
+        this.envios = Executors.newFixedThreadPool(threads, tarefa -> {
+            Thread thread = new Thread(tarefa, "eventos-" + contador.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        Gauge.builder("beneficio.eventos.assinantes", assinantes, CopyOnWriteArrayList::size)
+                .description("Clientes conectados ao stream de eventos")
+                .register(meterRegistry);
+        this.descartados = Counter.builder("beneficio.eventos.descartados")
+                .description("Eventos descartados por buffer de cliente cheio")
+                .register(meterRegistry);
+    }
+    
+    // ultimoIdRecebido nulo inicia o stream a partir de agora
+    public SseEmitter assinar(Long ultimoIdRecebido) {
+        SseEmitter emitter = new SseEmitter(timeoutMs);
+        Assinante assinante = new Assinante(emitter, capacidadeAssinante);
+        emitter.onCompletion(() -> remover(assinante));
+        emitter.onTimeout(() -> remover(assinante));
+        emitter.onError(erro -> remover(assinante));
+        
+        synchronized (this) {
+            if (ultimoIdRecebido != null) {
+                long maisAntigo = historico.isEmpty() ? ultimoId : historico.peekFirst().getId() - 1;
+                if (ultimoIdRecebido < maisAntigo || ultimoIdRecebido > ultimoId) {
+                    assinante.marcarPerda();
+                } else {
+                    for (EventoPublicado evento : historico) {
+                        if (evento.getId() > ultimoIdRecebido) {
+                            descartados.increment(assinante.oferecer(evento));
+                        }
+                    }
+                }
+            }
+            assinantes.add(assinante);
+        }
+        // O comentário inicial envia os cabeçalhos logo, sem esperar pelo primeiro evento
+        assinante.marcarHeartbeat();
+        agendar(assinante);
+        return emitter;
+    }
+    
+    // fallbackExecution: transferências da estratégia MEMORIA são publicadas já confirmadas no WAL, fora de transação
+    @TransactionalEventListener(fallbackExecution = true)
+    public void aoAlterar(BeneficioEvento evento) {
+        synchronized (this) {
+            EventoPublicado publicado = new EventoPublicado(++ultimoId, evento);
+            if (historico.size() == tamanhoHistorico) {
+                historico.pollFirst();
+            }
+            historico.addLast(publicado);
+            for (Assinante assinante : assinantes) {
+                descartados.increment(assinante.oferecer(publicado));
+            }
+        }
+        for (Assinante assinante : assinantes) {
+            agendar(assinante);
+        }
+    }
+    
+    // Mantém a conexão viva através de proxies e detecta clientes que desconectaram
+    @Scheduled(fixedDelayString = "${beneficio.eventos.heartbeat:15000}")
+    public void heartbeat() {
+        for (Assinante assinante : assinantes) {
+            assinante.marcarHeartbeat();
+            agendar(assinante);
+        }
+    }
+    
+    @PreDestroy
+    public void encerrar() {
+        envios.shutdownNow();
+        for (Assinante assinante : assinantes) {
+            assinante.encerrar();
+            assinante.getEmitter().complete();
+        }
+        assinantes.clear();
+    }
+    
+    private void agendar(Assinante assinante) {
+        if (assinante.agendar()) {
+            envios.execute(() -> enviar(assinante));
+        }
+    }
+    
+    private void enviar(Assinante assinante) {
+        Assinante.Lote lote = assinante.retirar();
+        // Todo o lote vai em uma única escrita e um único flush
+        Set<ResponseBodyEmitter.DataWithMediaType> dados = new LinkedHashSet<>();
+        if (lote.heartbeat) {
+            dados.addAll(SseEmitter.event().comment("").build());
+        }
+        if (lote.sincronizar) {
+            dados.addAll(SseEmitter.event().name(SINCRONIZAR).data("").build());
+        }
+        for (EventoPublicado evento : lote.eventos) {
+            dados.addAll(SseEmitter.event()
+                    .id(Long.toString(evento.getId()))
+                    .name(evento.getNome())
+                    .data(evento.getDados(), MediaType.APPLICATION_JSON)
+                    .build());
+        }
+        try {
+            assinante.getEmitter().send(dados);
+        } catch (IOException | IllegalStateException e) {
+            // Cliente desconectado ou emitter já encerrado
+            log.debug("Falha ao enviar eventos; assinante removido", e);
+            remover(assinante);
+            assinante.getEmitter().completeWithError(e);
+            return;
+        }
+        if (assinante.concluirEnvio()) {
+            envios.execute(() -> enviar(assinante));
+        }
+    }
+    
+    private void remover(Assinante assinante) {
+        assinante.encerrar();
+        assinantes.remove(assinante);
+    }
+}
@@ -0,0 +1,32 @@
+package com.example.backend.event;
+
+// Evento já confirmado, numerado na ordem de publicação para retomada via Last-Event-ID
+final class EventoPublicado {
+    
+    private final long id;
+    
+    private final BeneficioEvento evento;
+    
+    EventoPublicado(long id, BeneficioEvento evento) {
+        this.id = id;
+        this.evento = evento;
+    }
+    
+    long getId() {
+        return id;
+    }
+    
+    String getNome() {
+        return evento.getTipo().name();
+    }
+    
+    Object getDados() {
+        return evento.getTipo() == TipoEvento.TRANSFERENCIA ? evento.getTransferencia() : evento.getBeneficio();
+    }
+    
+    // Eventos de um mesmo benefício se substituem, pois cada um traz o estado completo.
+    // Transferências trazem só o saldo de dois benefícios, não o estado completo, e por isso nunca são agrupadas.
+    String getChave() {
+        return evento.getTipo() == TipoEvento.TRANSFERENCIA ? "T" + id : "B" + evento.getBeneficio().getId();
+    }
+}
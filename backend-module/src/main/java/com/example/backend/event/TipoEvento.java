@@ -0,0 +1,8 @@
+package com.example.backend.event;
+
+public enum TipoEvento {
+    CRIADO,
+    ATUALIZADO,
+    EXCLUIDO,
+    TRANSFERENCIA
+}
@@ -0,0 +1,259 @@
+package com.example.backend.idempotencia;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+// Executa uma operação no máximo uma vez por Idempotency-Key. A primeira requisição reserva a chave,
+// executa e grava a resposta; repetições recebem a resposta gravada e duplicatas concorrentes, nesta ou
+// em outra instância, aguardam a que está em andamento. Respostas 409, 429 e 5xx não são gravadas:
+// indicam falha transitória, a reserva é liberada e a repetição executa de novo.
+@Component
+public class ExecutorIdempotente {
+    
+    private static final Logger log = LoggerFactory.getLogger(ExecutorIdempotente.class);
+    
+    public static final String CABECALHO = "Idempotency-Key";
+    
+    public static final String CABECALHO_REPETIDA = "Idempotent-Replayed";
+    
+    private static final int TAMANHO_MAXIMO_CHAVE = 255;
+    
+    // Intervalo entre consultas ao banco enquanto outra instância executa a mesma chave
+    private static final long INTERVALO_CONSULTA_MS = 50;
+    
+    private final ConcurrentHashMap<String, CompletableFuture<RespostaIdempotente>> emAndamento =
+            new ConcurrentHashMap<>();
+    
+    private final long esperaMaximaMs;
+    
+    private final Counter executadas;
+    private final Counter repetidas;
+    private final Counter aguardadas;
+    
+    @Autowired
+    private IdempotenciaStore store;
+    
+    @Autowired
+    private ObjectMapper objectMapper;
+    
+    public ExecutorIdempotente(@Value("${beneficio.idempotencia.espera-maxima:10s}") Duration esperaMaxima,
+                               MeterRegistry meterRegistry) {
+        this.esperaMaximaMs = esperaMaxima.toMillis();
+        this.executadas = meterRegistry.counter("beneficio.idempotencia", "resultado", "executada");
+        this.repetidas = meterRegistry.counter("beneficio.idempotencia", "resultado", "repetida");
+        this.aguardadas = meterRegistry.counter("beneficio.idempotencia", "resultado", "aguardada");
+    }
+    
+    // Sem chave a operação é executada normalmente. A chave vale por operação, e repeti-la com
+    // outro corpo de requisição é rejeitado com 422.
+    public ResponseEntity<?> executar(String chave, String operacao, Object requisicao,
+                                      Supplier<ResponseEntity<?>> acao) {
+        if (chave == null) {
+            return acao.get();
+        }
+        if (chave.isBlank() || chave.length() > TAMANHO_MAXIMO_CHAVE) {
+            return ResponseEntity.badRequest()
+                    .body(CABECALHO + " deve ter entre 1 e " + TAMANHO_MAXIMO_CHAVE + " caracteres");
+        }
+        
+        String chaveOperacao = operacao + ":" + chave;
+        String impressao = impressao(requisicao);
+        
+        while (true) {
+            Optional<RespostaIdempotente> gravada = store.buscar(chaveOperacao);
+            if (gravada.isPresent()) {
+                repetidas.increment();
+                return repetir(gravada.get(), impressao);
+            }
+            
+            CompletableFuture<RespostaIdempotente> propria = new CompletableFuture<>();
+            CompletableFuture<RespostaIdempotente> existente = emAndamento.putIfAbsent(chaveOperacao, propria);
+            if (existente == null) {
+                return executarComoPrimeira(chaveOperacao, impressao, propria, acao);
+            }
+            
+            aguardadas.increment();
+            try {
+                RespostaIdempotente resposta = existente.get(esperaMaximaMs, TimeUnit.MILLISECONDS);
+                if (resposta != null) {
+                    return repetir(resposta, impressao);
+                }
+                // A primeira terminou sem resposta gravável: tenta executar de novo
+            } catch (TimeoutException e) {
+                return emAndamento();
+            } catch (ExecutionException e) {
+                // A primeira falhou com exceção: tenta executar de novo
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build();
+            }
+        }
+    }
+    
+    private ResponseEntity<?> executarComoPrimeira(String chaveOperacao, String impressao,
+                                                   CompletableFuture<RespostaIdempotente> propria,
+                                                   Supplier<ResponseEntity<?>> acao) {
+        RespostaIdempotente gravada = null;
+        try {
+            // Outra requisição pode ter gravado a resposta entre a busca e o registro em andamento
+            Optional<RespostaIdempotente> anterior = store.buscar(chaveOperacao);
+            if (anterior.isPresent()) {
+                gravada = anterior.get();
+                repetidas.increment();
+                return repetir(gravada, impressao);
+            }
+            if (!store.reservar(chaveOperacao, impressao)) {
+                // Em execução (ou concluída agora) em outra instância
+                aguardadas.increment();
+                Optional<RespostaIdempotente> outra = aguardarOutraInstancia(chaveOperacao);
+                if (outra.isEmpty()) {
+                    return emAndamento();
+                }
+                gravada = outra.get();
+                return repetir(gravada, impressao);
+            }
+            
+            executadas.increment();
+            ResponseEntity<?> resposta;
+            try {
+                resposta = acao.get();
+            } catch (RuntimeException | Error e) {
+                liberar(chaveOperacao);
+                throw e;
+            }
+            if (!gravavel(resposta)) {
+                liberar(chaveOperacao);
+                return resposta;
+            }
+            try {
+                gravada = serializar(impressao, resposta);
+                store.concluir(chaveOperacao, gravada);
+            } catch (RuntimeException e) {
+                // A operação já foi aplicada, então a resposta segue para o cliente. A reserva sem resposta
+                // deixaria as repetições em 409 até expirar: é liberada, e uma repetição em outra instância
+                // (ou nesta, se a resposta não chegou à memória) executa de novo
+                log.warn("Falha ao gravar a resposta da {} {}; reserva liberada", CABECALHO, chaveOperacao, e);
+                liberar(chaveOperacao);
+            }
+            return resposta;
+        } catch (RuntimeException | Error e) {
+            propria.completeExceptionally(e);
+            throw e;
+        } finally {
+            propria.complete(gravada);
+            emAndamento.remove(chaveOperacao, propria);
+        }
+    }
+    
+    // Uma falha ao liberar não substitui o resultado da execução; a reserva fica até expirar
+    private void liberar(String chaveOperacao) {
+        try {
+            store.liberar(chaveOperacao);
+        } catch (RuntimeException e) {
+            log.warn("Falha ao liberar a reserva da {} {}", CABECALHO, chaveOperacao, e);
+        }
+    }
+    
+    // Consulta o banco até a outra instância gravar a resposta ou a espera máxima passar. Uma reserva
+    // liberada sem resposta também termina a espera vazia, e a duplicata recebe 409 para repetir.
+    private Optional<RespostaIdempotente> aguardarOutraInstancia(String chaveOperacao) {
+        long limite = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(esperaMaximaMs);
+        while (System.nanoTime() < limite) {
+            try {
+                Thread.sleep(INTERVALO_CONSULTA_MS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+            Optional<RespostaIdempotente> resposta = store.buscar(chaveOperacao);
+            if (resposta.isPresent()) {
+                return resposta;
+            }
+        }
+        return Optional.empty();
+    }
+    
+    private static ResponseEntity<?> emAndamento() {
+        return ResponseEntity.status(HttpStatus.CONFLICT)
+                .body("Requisição com a mesma " + CABECALHO + " ainda em andamento. Tente novamente.");
+    }
+    
+    private static ResponseEntity<?> repetir(RespostaIdempotente resposta, String impressao) {
+        if (!resposta.getImpressao().equals(impressao)) {
+            return ResponseEntity.unprocessableEntity()
+                    .body(CABECALHO + " já utilizada com outro corpo de requisição");
+        }
+        return resposta.toResponseEntity();
+    }
+    
+    private static boolean gravavel(ResponseEntity<?> resposta) {
+        int status = resposta.getStatusCode().value();
+        return status != HttpStatus.CONFLICT.value() && status != HttpStatus.TOO_MANY_REQUESTS.value() && status < 500;
+    }
+    
+    private RespostaIdempotente serializar(String impressao, ResponseEntity<?> resposta) {
+        Object corpo = resposta.getBody();
+        MediaType tipo = resposta.getHeaders().getContentType();
+        String texto;
+        if (corpo == null) {
+            texto = null;
+        } else if (corpo instanceof String s) {
+            texto = s;
+            tipo = tipo != null ? tipo : new MediaType(MediaType.TEXT_PLAIN, StandardCharsets.UTF_8);
+        } else {
+            texto = json(corpo);
+            tipo = tipo != null ? tipo : MediaType.APPLICATION_JSON;
+        }
+        HttpHeaders cabecalhos = new HttpHeaders();
+        for (String nome : RespostaIdempotente.CABECALHOS_GRAVADOS) {
+            List<String> valores = resposta.getHeaders().get(nome);
+            if (valores != null) {
+                cabecalhos.addAll(nome, valores);
+            }
+        }
+        return new RespostaIdempotente(impressao, resposta.getStatusCode().value(),
+                tipo != null ? tipo.toString() : null, texto, cabecalhos);
+    }
+    
+    private String impressao(Object requisicao) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(objectMapper.writeValueAsBytes(requisicao));
+            return HexFormat.of().formatHex(hash);
+        } catch (NoSuchAlgorithmException | JsonProcessingException e) {
+            throw new IllegalStateException("Não foi possível calcular a impressão da requisição", e);
+        }
+    }
+    
+    private String json(Object corpo) {
+        try {
+            return objectMapper.writeValueAsString(corpo);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Não foi possível serializar a resposta", e);
+        }
+    }
+}
@@ -0,0 +1,121 @@
+package com.example.backend.idempotencia;
+
+import com.example.backend.entity.RegistroIdempotencia;
+import com.example.backend.repository.RegistroIdempotenciaRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Optional;
+
+// Respostas já enviadas por Idempotency-Key. Sempre mantidas em memória (limitadas e com expiração);
+// com beneficio.idempotencia.persistir=true também são gravadas na tabela IDEMPOTENCIA, o que as
+// preserva entre reinícios e entre instâncias que compartilham o banco. Nesse caso a chave é reservada
+// na tabela antes da execução (chave primária única), não só depois da resposta.
+@Component
+public class IdempotenciaStore {
+    
+    private final Cache<String, RespostaIdempotente> cache;
+    
+    private final Duration ttl;
+    
+    private final boolean persistir;
+    
+    @Autowired
+    private RegistroIdempotenciaRepository repository;
+    
+    @PersistenceContext
+    private EntityManager entityManager;
+    
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+    
+    public IdempotenciaStore(@Value("${beneficio.idempotencia.tamanho-maximo:100000}") long tamanhoMaximo,
+                             @Value("${beneficio.idempotencia.ttl:24h}") Duration ttl,
+                             @Value("${beneficio.idempotencia.persistir:false}") boolean persistir,
+                             MeterRegistry meterRegistry) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(tamanhoMaximo)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        this.ttl = ttl;
+        this.persistir = persistir;
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "idempotencia");
+    }
+    
+    // Só respostas concluídas; chaves reservadas por uma execução em andamento não aparecem
+    public Optional<RespostaIdempotente> buscar(String chave) {
+        RespostaIdempotente resposta = cache.getIfPresent(chave);
+        if (resposta != null || !persistir) {
+            return Optional.ofNullable(resposta);
+        }
+        Optional<RespostaIdempotente> persistida = repository.findByChaveAndExpiraEmAfter(chave, Instant.now())
+                .filter(r -> r.getStatus() != RegistroIdempotencia.RESERVADA)
+                .map(r -> new RespostaIdempotente(r.getImpressao(), r.getStatus(), r.getTipoConteudo(), r.getCorpo(),
+                        RespostaIdempotente.cabecalhosDoTexto(r.getCabecalhos())));
+        persistida.ifPresent(r -> cache.put(chave, r));
+        return persistida;
+    }
+    
+    // Reserva a chave no banco antes da execução, para que duplicatas em outras instâncias não executem
+    // também. false quando outra requisição já a reservou ou concluiu. Sem persistência a reserva é só
+    // a da própria instância (ExecutorIdempotente), e o retorno é sempre true.
+    public boolean reservar(String chave, String impressao) {
+        if (!persistir) {
+            return true;
+        }
+        RegistroIdempotencia reserva = new RegistroIdempotencia(chave, impressao, RegistroIdempotencia.RESERVADA,
+                null, null, Instant.now().plus(ttl));
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                repository.deleteExpirado(chave, Instant.now());
+                entityManager.persist(reserva);
+            });
+            return true;
+        } catch (DataIntegrityViolationException e) {
+            return false;
+        }
+    }
+    
+    // Grava a resposta no lugar da reserva. Uma queda entre a execução e esta gravação deixa a reserva:
+    // repetições recebem 409 até ela expirar, em vez de executar de novo uma operação talvez já aplicada.
+    public void concluir(String chave, RespostaIdempotente resposta) {
+        cache.put(chave, resposta);
+        if (!persistir) {
+            return;
+        }
+        transactionTemplate.executeWithoutResult(status -> repository.findById(chave).ifPresent(registro -> {
+            registro.setStatus(resposta.getStatus());
+            registro.setTipoConteudo(resposta.getTipoConteudo());
+            registro.setCorpo(resposta.getCorpo());
+            registro.setCabecalhos(resposta.cabecalhosComoTexto());
+        }));
+    }
+    
+    // Execução sem resposta gravável (409, 429, 5xx, exceção ou falha em concluir): a próxima repetição
+    // executa de novo
+    public void liberar(String chave) {
+        if (persistir) {
+            transactionTemplate.executeWithoutResult(status -> repository.deleteReserva(chave));
+        }
+    }
+    
+    @Scheduled(fixedDelayString = "${beneficio.idempotencia.intervalo-limpeza:60000}")
+    public void removerExpirados() {
+        if (persistir) {
+            transactionTemplate.executeWithoutResult(status -> repository.deleteExpirados(Instant.now()));
+        }
+    }
+}
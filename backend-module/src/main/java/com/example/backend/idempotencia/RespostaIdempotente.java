@@ -0,0 +1,82 @@
+package com.example.backend.idempotencia;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+
+import java.util.List;
+
+// Resposta serializada de uma requisição idempotente, pronta para ser reenviada.
+// A impressão identifica o corpo da requisição original.
+public final class RespostaIdempotente {
+    
+    // Cabeçalhos que descrevem o resultado e precisam voltar na repetição; os demais são refeitos pelo servidor
+    static final List<String> CABECALHOS_GRAVADOS = List.of(HttpHeaders.LOCATION, HttpHeaders.ETAG);
+    
+    private final String impressao;
+    private final int status;
+    private final String tipoConteudo;
+    private final String corpo;
+    private final HttpHeaders cabecalhos;
+    
+    public RespostaIdempotente(String impressao, int status, String tipoConteudo, String corpo, HttpHeaders cabecalhos) {
+        this.impressao = impressao;
+        this.status = status;
+        this.tipoConteudo = tipoConteudo;
+        this.corpo = corpo;
+        this.cabecalhos = cabecalhos;
+    }
+    
+    public ResponseEntity<?> toResponseEntity() {
+        ResponseEntity.BodyBuilder resposta = ResponseEntity.status(status)
+                .headers(cabecalhos)
+                .header(ExecutorIdempotente.CABECALHO_REPETIDA, "true");
+        if (tipoConteudo != null) {
+            resposta.header(HttpHeaders.CONTENT_TYPE, tipoConteudo);
+        }
+        return corpo == null ? resposta.build() : resposta.body(corpo);
+    }
+    
+    // Uma linha "Nome: valor" por cabeçalho, como gravado na coluna CABECALHOS
+    public String cabecalhosComoTexto() {
+        if (cabecalhos.isEmpty()) {
+            return null;
+        }
+        StringBuilder texto = new StringBuilder();
+        cabecalhos.forEach((nome, valores) -> valores.forEach(
+                valor -> texto.append(nome).append(": ").append(valor).append('\n')));
+        return texto.toString();
+    }
+    
+    public static HttpHeaders cabecalhosDoTexto(String texto) {
+        HttpHeaders cabecalhos = new HttpHeaders();
+        if (texto != null) {
+            for (String linha : texto.split("\n")) {
+                int separador = linha.indexOf(": ");
+                if (separador > 0) {
+                    cabecalhos.add(linha.substring(0, separador), linha.substring(separador + 2));
+                }
+            }
+        }
+        return cabecalhos;
+    }
+    
+    public String getImpressao() {
+        return impressao;
+    }
+    
+    public int getStatus() {
+        return status;
+    }
+    
+    public String getTipoConteudo() {
+        return tipoConteudo;
+    }
+    
+    public String getCorpo() {
+        return corpo;
+    }
+    
+    public HttpHeaders getCabecalhos() {
+        return cabecalhos;
+    }
+}
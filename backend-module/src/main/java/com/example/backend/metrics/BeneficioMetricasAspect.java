@@ -0,0 +1,149 @@
+package com.example.backend.metrics;
+
+import com.example.backend.dto.ResultadoLoteDTO;
+import com.example.backend.service.BeneficioNaoEncontradoException;
+import com.example.backend.service.SaldoInsuficienteException;
+import com.example.backend.service.VersaoDivergenteException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+
+import java.util.Optional;
+
+// Timers por método do BeneficioController (beneficio.api) e do BeneficioService (beneficio.service),
+// com a tag "resultado". Executa antes da transação para que o tempo e as falhas do commit sejam medidos.
+// Na API, uma resposta de erro é classificada primeiro pela exceção que o serviço lançou e o controller
+// converteu, depois pelo corpo, e só então pelo status: 4xx sem classificação própria é erro_cliente, 5xx é erro.
+@Aspect
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class BeneficioMetricasAspect {
+    
+    static final String SUCESSO = "sucesso";
+    static final String NAO_ENCONTRADO = "nao_encontrado";
+    static final String SALDO_INSUFICIENTE = "saldo_insuficiente";
+    static final String CONFLITO = "conflito";
+    static final String INVALIDO = "invalido";
+    static final String REJEITADO = "rejeitado";
+    static final String ERRO_CLIENTE = "erro_cliente";
+    static final String ERRO = "erro";
+    
+    // Preenchido durante uma chamada da API com a classificação da última chamada ao serviço que falhou
+    private static final ThreadLocal<String[]> falhaServico = new ThreadLocal<>();
+    
+    private final MeterRegistry meterRegistry;
+    
+    public BeneficioMetricasAspect(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+    
+    @Around("execution(public * com.example.backend.BeneficioController.*(..))")
+    public Object medirApi(ProceedingJoinPoint joinPoint) throws Throwable {
+        String[] falha = new String[1];
+        falhaServico.set(falha);
+        try {
+            return medir("beneficio.api", joinPoint, falha);
+        } finally {
+            falhaServico.remove();
+        }
+    }
+    
+    @Around("execution(public * com.example.backend.service.BeneficioService.*(..))")
+    public Object medirServico(ProceedingJoinPoint joinPoint) throws Throwable {
+        String[] falha = falhaServico.get();
+        try {
+            Object retorno = medir("beneficio.service", joinPoint, null);
+            if (falha != null) {
+                falha[0] = null;
+            }
+            return retorno;
+        } catch (Throwable e) {
+            if (falha != null) {
+                falha[0] = classificar(e);
+            }
+            throw e;
+        }
+    }
+    
+    private Object medir(String nome, ProceedingJoinPoint joinPoint, String[] falha) throws Throwable {
+        Timer.Sample amostra = Timer.start(meterRegistry);
+        String resultado = ERRO;
+        try {
+            Object retorno = joinPoint.proceed();
+            resultado = classificar(retorno, falha == null ? null : falha[0]);
+            return retorno;
+        } catch (Throwable e) {
+            resultado = classificar(e);
+            throw e;
+        } finally {
+            amostra.stop(Timer.builder(nome)
+                    .tag("metodo", joinPoint.getSignature().getName())
+                    .tag("resultado", resultado)
+                    .register(meterRegistry));
+        }
+    }
+    
+    private static String classificar(Object retorno, String falha) {
+        if (retorno instanceof ResponseEntity<?> resposta) {
+            return classificar(resposta, falha);
+        }
+        return classificar(retorno);
+    }
+    
+    private static String classificar(ResponseEntity<?> resposta, String falha) {
+        HttpStatusCode status = resposta.getStatusCode();
+        if (!status.isError()) {
+            return SUCESSO;
+        }
+        if (falha != null) {
+            return falha;
+        }
+        String doCorpo = resposta.getBody() == null ? SUCESSO : classificar(resposta.getBody());
+        if (!SUCESSO.equals(doCorpo)) {
+            return doCorpo;
+        }
+        return switch (status.value()) {
+            case 400 -> INVALIDO;
+            case 404 -> NAO_ENCONTRADO;
+            case 409 -> CONFLITO;
+            default -> status.is4xxClientError() ? ERRO_CLIENTE : ERRO;
+        };
+    }
+    
+    private static String classificar(Object retorno) {
+        if (retorno instanceof Optional<?> optional && optional.isEmpty()) {
+            return NAO_ENCONTRADO;
+        }
+        if (Boolean.FALSE.equals(retorno)) {
+            return NAO_ENCONTRADO;
+        }
+        if (retorno instanceof ResultadoLoteDTO lote && !lote.isAplicado()) {
+            return REJEITADO;
+        }
+        return SUCESSO;
+    }
+    
+    private static String classificar(Throwable erro) {
+        if (erro instanceof SaldoInsuficienteException) {
+            return SALDO_INSUFICIENTE;
+        }
+        if (erro instanceof BeneficioNaoEncontradoException) {
+            return NAO_ENCONTRADO;
+        }
+        if (erro instanceof ConcurrencyFailureException || erro instanceof VersaoDivergenteException) {
+            return CONFLITO;
+        }
+        if (erro instanceof IllegalArgumentException) {
+            return INVALIDO;
+        }
+        return ERRO;
+    }
+}
@@ -0,0 +1,22 @@
+package com.example.backend.money;
+
+import com.example.common.money.Money;
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+
+import java.math.BigDecimal;
+
+// Mapeia Money para colunas DECIMAL(15,2)
+@Converter(autoApply = true)
+public class MoneyConverter implements AttributeConverter<Money, BigDecimal> {
+    
+    @Override
+    public BigDecimal convertToDatabaseColumn(Money valor) {
+        return valor == null ? null : valor.toBigDecimal();
+    }
+    
+    @Override
+    public Money convertToEntityAttribute(BigDecimal valor) {
+        return valor == null ? null : Money.of(valor);
+    }
+}
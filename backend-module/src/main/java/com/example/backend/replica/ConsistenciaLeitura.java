@@ -0,0 +1,96 @@
+package com.example.backend.replica;
+
+import jakarta.servlet.http.Cookie;
+import jakarta.servlet.http.HttpServletResponse;
+
+import java.util.function.Supplier;
+
+// Estado por thread consultado pelo roteamento de leituras. Sem réplicas configuradas nada aqui tem efeito.
+public final class ConsistenciaLeitura {
+    
+    // Momento (epoch ms) da última escrita confirmada do cliente; enquanto nenhuma réplica o alcançou,
+    // as leituras desse cliente vão para o primário
+    public static final String COOKIE = "beneficio-escrita";
+    
+    private static final ThreadLocal<Requisicao> REQUISICAO = new ThreadLocal<>();
+    private static final ThreadLocal<Long> MINIMO = new ThreadLocal<>();
+    
+    private ConsistenciaLeitura() {
+    }
+    
+    // Leituras que só podem ir a uma réplica que já contenha tudo o que o primário confirmou até o momento (epoch ms)
+    public static <T> T aPartirDe(long momento, Supplier<T> leitura) {
+        Long anterior = MINIMO.get();
+        MINIMO.set(anterior == null ? momento : Math.max(anterior, momento));
+        try {
+            return leitura.get();
+        } finally {
+            if (anterior == null) {
+                MINIMO.remove();
+            } else {
+                MINIMO.set(anterior);
+            }
+        }
+    }
+    
+    // Para leituras que precisam do estado exato do primário, como as cargas que depois aplicam eventos
+    public static <T> T noPrimario(Supplier<T> leitura) {
+        return aPartirDe(Long.MAX_VALUE, leitura);
+    }
+    
+    public static void noPrimario(Runnable leitura) {
+        aPartirDe(Long.MAX_VALUE, () -> {
+            leitura.run();
+            return null;
+        });
+    }
+    
+    static void iniciar(HttpServletResponse response, long ultimaEscrita, int validadeSegundos) {
+        REQUISICAO.set(new Requisicao(response, ultimaEscrita, validadeSegundos));
+    }
+    
+    static void encerrar() {
+        REQUISICAO.remove();
+    }
+    
+    static boolean emRequisicao() {
+        return REQUISICAO.get() != null;
+    }
+    
+    // Momento que a réplica precisa ter alcançado: a última escrita do cliente ou o mínimo de aPartirDe()
+    static long momentoMinimo() {
+        Requisicao requisicao = REQUISICAO.get();
+        Long minimo = MINIMO.get();
+        long ultimaEscrita = requisicao == null ? 0 : requisicao.ultimaEscrita;
+        return minimo == null ? ultimaEscrita : Math.max(ultimaEscrita, minimo);
+    }
+    
+    // Chamado após o commit, ainda antes de o controller escrever a resposta
+    static void registrarEscrita(long momento) {
+        Requisicao requisicao = REQUISICAO.get();
+        if (requisicao == null) {
+            return;
+        }
+        requisicao.ultimaEscrita = Math.max(requisicao.ultimaEscrita, momento);
+        if (!requisicao.response.isCommitted()) {
+            Cookie cookie = new Cookie(COOKIE, Long.toString(requisicao.ultimaEscrita));
+            cookie.setPath("/");
+            cookie.setHttpOnly(true);
+            cookie.setMaxAge(requisicao.validadeSegundos);
+            requisicao.response.addCookie(cookie);
+        }
+    }
+    
+    private static final class Requisicao {
+        
+        private final HttpServletResponse response;
+        private final int validadeSegundos;
+        private long ultimaEscrita;
+        
+        private Requisicao(HttpServletResponse response, long ultimaEscrita, int validadeSegundos) {
+            this.response = response;
+            this.ultimaEscrita = ultimaEscrita;
+            this.validadeSegundos = validadeSegundos;
+        }
+    }
+}
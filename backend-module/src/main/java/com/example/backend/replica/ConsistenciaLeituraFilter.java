@@ -0,0 +1,48 @@
+package com.example.backend.replica;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.Cookie;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+// Leva o cookie da última escrita do cliente para o roteamento e o renova quando a requisição escreve
+public class ConsistenciaLeituraFilter extends OncePerRequestFilter {
+    
+    private final int validadeSegundos;
+    
+    public ConsistenciaLeituraFilter(int validadeSegundos) {
+        this.validadeSegundos = validadeSegundos;
+    }
+    
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        ConsistenciaLeitura.iniciar(response, ultimaEscrita(request), validadeSegundos);
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            ConsistenciaLeitura.encerrar();
+        }
+    }
+    
+    private long ultimaEscrita(HttpServletRequest request) {
+        Cookie[] cookies = request.getCookies();
+        if (cookies == null) {
+            return 0;
+        }
+        for (Cookie cookie : cookies) {
+            if (ConsistenciaLeitura.COOKIE.equals(cookie.getName())) {
+                try {
+                    return Long.parseLong(cookie.getValue());
+                } catch (NumberFormatException e) {
+                    return 0;
+                }
+            }
+        }
+        return 0;
+    }
+}
@@ -0,0 +1,77 @@
+package com.example.backend.replica;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+// Grava um batimento no primário e lê em cada réplica o último que chegou até ela. A diferença para o relógio
+// é o atraso da réplica; uma réplica que não responde sai do rodízio até a próxima verificação bem-sucedida.
+// Roda numa thread própria: no agendador compartilhado, uma tarefa longa (arquivamento, reconciliação)
+// atrasaria o batimento e tiraria todas as réplicas do rodízio sem que nenhuma estivesse atrasada.
+public class MonitorReplicas {
+    
+    private static final Logger log = LoggerFactory.getLogger(MonitorReplicas.class);
+    
+    private static final String BATER = "UPDATE BATIMENTO_REPLICA SET MOMENTO = ? WHERE ID = 1";
+    private static final String LER = "SELECT MOMENTO FROM BATIMENTO_REPLICA WHERE ID = 1";
+    
+    private final JdbcTemplate primario;
+    private final RoteadorDataSource roteador;
+    
+    private final long intervaloMs;
+    private final ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor(tarefa -> {
+        Thread thread = new Thread(tarefa, "monitor-replicas");
+        thread.setDaemon(true);
+        return thread;
+    });
+    
+    private boolean falhaNoPrimario;
+    
+    MonitorReplicas(RoteadorDataSource roteador, long intervaloMs) {
+        this.roteador = roteador;
+        this.primario = new JdbcTemplate(roteador.getPrimario());
+        this.intervaloMs = intervaloMs;
+    }
+    
+    void iniciar() {
+        executor.scheduleWithFixedDelay(() -> {
+            try {
+                verificar();
+            } catch (RuntimeException e) {
+                // Uma exceção não tratada cancelaria as execuções seguintes
+                log.error("Falha inesperada na verificação das réplicas", e);
+            }
+        }, 0, intervaloMs, TimeUnit.MILLISECONDS);
+    }
+    
+    void encerrar() {
+        executor.shutdownNow();
+    }
+    
+    void verificar() {
+        try {
+            primario.update(BATER, System.currentTimeMillis());
+            falhaNoPrimario = false;
+        } catch (DataAccessException e) {
+            // Sem batimento novo as réplicas parecem atrasar e saem do rodízio, o que é o desejado
+            if (!falhaNoPrimario) {
+                log.warn("Falha ao gravar o batimento das réplicas no primário: {}", e.getMessage());
+            }
+            falhaNoPrimario = true;
+        }
+        
+        for (Replica replica : roteador.getReplicas()) {
+            try {
+                Long momento = new JdbcTemplate(replica.getDataSource()).queryForObject(LER, Long.class);
+                replica.atualizar(momento);
+            } catch (DataAccessException e) {
+                replica.marcarIndisponivel(e);
+            }
+        }
+    }
+}
@@ -0,0 +1,76 @@
+package com.example.backend.replica;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+// Uma réplica de leitura e o que a última verificação descobriu sobre ela
+class Replica {
+    
+    private static final Logger log = LoggerFactory.getLogger(Replica.class);
+    
+    private final String nome;
+    private final HikariDataSource dataSource;
+    private final Counter conexoes;
+    
+    private volatile boolean disponivel;
+    
+    // Último batimento do primário já visível na réplica (epoch ms)
+    private volatile long momentoReplicado;
+    
+    Replica(String nome, HikariDataSource dataSource, MeterRegistry meterRegistry) {
+        this.nome = nome;
+        this.dataSource = dataSource;
+        this.conexoes = Counter.builder("beneficio.replicas.conexoes")
+                .description("Conexões entregues pelo roteamento, por destino")
+                .tag("destino", nome)
+                .tag("tipo", "leitura")
+                .register(meterRegistry);
+        Gauge.builder("beneficio.replicas.atraso", this, r -> r.disponivel ? r.atraso(System.currentTimeMillis()) : Double.NaN)
+                .description("Atraso da réplica em relação ao primário, em milissegundos")
+                .tag("replica", nome)
+                .register(meterRegistry);
+        Gauge.builder("beneficio.replicas.disponivel", this, r -> r.disponivel ? 1 : 0)
+                .tag("replica", nome)
+                .register(meterRegistry);
+    }
+    
+    String getNome() {
+        return nome;
+    }
+    
+    HikariDataSource getDataSource() {
+        return dataSource;
+    }
+    
+    Counter getConexoes() {
+        return conexoes;
+    }
+    
+    long atraso(long agora) {
+        return agora - momentoReplicado;
+    }
+    
+    // Serve uma leitura se está no ar, dentro do atraso máximo e já alcançou o momento exigido pela leitura
+    boolean aceita(long agora, long atrasoMaximoMs, long momentoMinimo) {
+        return disponivel && atraso(agora) <= atrasoMaximoMs && momentoReplicado >= momentoMinimo;
+    }
+    
+    void atualizar(long momento) {
+        if (!disponivel) {
+            log.info("Réplica {} disponível", nome);
+        }
+        momentoReplicado = momento;
+        disponivel = true;
+    }
+    
+    void marcarIndisponivel(Exception causa) {
+        if (disponivel) {
+            log.warn("Réplica {} indisponível; leituras seguem para o primário: {}", nome, causa.getMessage());
+        }
+        disponivel = false;
+    }
+}
@@ -0,0 +1,84 @@
+package com.example.backend.replica;
+
+import com.example.backend.config.ReplicasProperties;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+
+// Ativado por beneficio.replicas.urls. Substitui o DataSource do Spring Boot pelo roteamento entre o primário
+// (spring.datasource) e as réplicas; sem réplicas configuradas o pool padrão continua sendo usado.
+@Configuration
+@ConditionalOnProperty(prefix = "beneficio.replicas", name = "urls")
+public class ReplicaConfig {
+    
+    @Bean(destroyMethod = "fechar")
+    public RoteadorDataSource roteadorDataSource(DataSourceProperties dataSourceProperties, ReplicasProperties properties,
+                                                 Environment environment, MeterRegistry meterRegistry) {
+        Binder binder = Binder.get(environment);
+        
+        HikariDataSource primario = dataSourceProperties.initializeDataSourceBuilder()
+                .type(HikariDataSource.class)
+                .build();
+        binder.bind("spring.datasource.hikari", Bindable.ofInstance(primario));
+        primario.setPoolName("primario");
+        primario.setMetricRegistry(meterRegistry);
+        
+        String usuario = properties.getUsuario() != null ? properties.getUsuario() : dataSourceProperties.determineUsername();
+        String senha = properties.getSenha() != null ? properties.getSenha() : dataSourceProperties.determinePassword();
+        List<Replica> replicas = new ArrayList<>();
+        for (String url : properties.getUrls()) {
+            String nome = "replica-" + (replicas.size() + 1);
+            HikariDataSource dataSource = DataSourceBuilder.create()
+                    .type(HikariDataSource.class)
+                    .url(url)
+                    .username(usuario)
+                    .password(senha)
+                    .build();
+            binder.bind("spring.datasource.hikari", Bindable.ofInstance(dataSource));
+            dataSource.setPoolName(nome);
+            dataSource.setMaximumPoolSize(properties.getTamanhoPool());
+            dataSource.setConnectionTimeout(properties.getTempoConexao().toMillis());
+            // Uma réplica fora do ar na inicialização só fica fora do rodízio
+            dataSource.setInitializationFailTimeout(-1);
+            dataSource.setReadOnly(true);
+            dataSource.setMetricRegistry(meterRegistry);
+            replicas.add(new Replica(nome, dataSource, meterRegistry));
+        }
+        return new RoteadorDataSource(primario, replicas, properties.getAtrasoMaximo().toMillis(), meterRegistry);
+    }
+    
+    @Bean
+    @Primary
+    public DataSource dataSource(RoteadorDataSource roteadorDataSource) {
+        return new LazyConnectionDataSourceProxy(roteadorDataSource);
+    }
+    
+    @Bean(initMethod = "iniciar", destroyMethod = "encerrar")
+    public MonitorReplicas monitorReplicas(RoteadorDataSource roteadorDataSource, ReplicasProperties properties) {
+        return new MonitorReplicas(roteadorDataSource, properties.getIntervaloVerificacao());
+    }
+    
+    @Bean
+    public FilterRegistrationBean<ConsistenciaLeituraFilter> consistenciaLeituraFilter(ReplicasProperties properties) {
+        // Passado o atraso máximo, qualquer réplica aceita pelo roteamento já contém a escrita
+        int validadeSegundos = (int) Math.max(1, (properties.getAtrasoMaximo().toMillis() + 999) / 1000);
+        FilterRegistrationBean<ConsistenciaLeituraFilter> registro =
+                new FilterRegistrationBean<>(new ConsistenciaLeituraFilter(validadeSegundos));
+        registro.addUrlPatterns("/api/*");
+        return registro;
+    }
+}
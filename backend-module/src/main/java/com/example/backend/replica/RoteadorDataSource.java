@@ -0,0 +1,103 @@
+package com.example.backend.replica;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Entrega conexões de réplica para transações readOnly e do primário para o resto. Precisa ficar atrás de um
+// LazyConnectionDataSourceProxy: o Hibernate pede a conexão no início da transação, antes de o Spring marcar
+// a transação como readOnly, e o proxy adia o pedido até o primeiro comando SQL.
+public class RoteadorDataSource extends AbstractDataSource {
+    
+    private final HikariDataSource primario;
+    private final List<Replica> replicas;
+    private final long atrasoMaximoMs;
+    private final AtomicInteger proxima = new AtomicInteger();
+    
+    private final Counter escritas;
+    private final Counter leiturasPrimario;
+    
+    RoteadorDataSource(HikariDataSource primario, List<Replica> replicas, long atrasoMaximoMs, MeterRegistry meterRegistry) {
+        this.primario = primario;
+        this.replicas = replicas;
+        this.atrasoMaximoMs = atrasoMaximoMs;
+        this.escritas = Counter.builder("beneficio.replicas.conexoes")
+                .description("Conexões entregues pelo roteamento, por destino")
+                .tag("destino", "primario")
+                .tag("tipo", "escrita")
+                .register(meterRegistry);
+        this.leiturasPrimario = Counter.builder("beneficio.replicas.conexoes")
+                .description("Conexões entregues pelo roteamento, por destino")
+                .tag("destino", "primario")
+                .tag("tipo", "leitura")
+                .register(meterRegistry);
+    }
+    
+    HikariDataSource getPrimario() {
+        return primario;
+    }
+    
+    List<Replica> getReplicas() {
+        return replicas;
+    }
+    
+    @Override
+    public Connection getConnection() throws SQLException {
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            registrarEscritaAoConfirmar();
+            escritas.increment();
+            return primario.getConnection();
+        }
+        long agora = System.currentTimeMillis();
+        long momentoMinimo = ConsistenciaLeitura.momentoMinimo();
+        int inicio = Math.floorMod(proxima.getAndIncrement(), replicas.size());
+        for (int i = 0; i < replicas.size(); i++) {
+            Replica replica = replicas.get((inicio + i) % replicas.size());
+            if (!replica.aceita(agora, atrasoMaximoMs, momentoMinimo)) {
+                continue;
+            }
+            try {
+                Connection conexao = replica.getDataSource().getConnection();
+                replica.getConexoes().increment();
+                return conexao;
+            } catch (SQLException e) {
+                // Caiu entre duas verificações; a próxima verificação a devolve ao rodízio
+                replica.marcarIndisponivel(e);
+            }
+        }
+        leiturasPrimario.increment();
+        return primario.getConnection();
+    }
+    
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return primario.getConnection(username, password);
+    }
+    
+    // O cookie de leitura própria só é renovado depois do commit; um rollback não obriga o cliente a ler no primário
+    private void registrarEscritaAoConfirmar() {
+        if (ConsistenciaLeitura.emRequisicao()
+                && TransactionSynchronizationManager.isActualTransactionActive()
+                && TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    ConsistenciaLeitura.registrarEscrita(System.currentTimeMillis());
+                }
+            });
+        }
+    }
+    
+    void fechar() {
+        replicas.forEach(replica -> replica.getDataSource().close());
+        primario.close();
+    }
+}
@@ -0,0 +1,11 @@
+package com.example.backend.repository;
+
+// Projeção usada para montar o índice de nomes sem carregar entidades
+public interface BeneficioNome {
+    
+    Long getId();
+    
+    String getNome();
+    
+    Long getVersion();
+}
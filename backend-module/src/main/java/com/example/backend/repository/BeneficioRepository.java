@@ -1,22 +1,108 @@
 package com.example.backend.repository;
 
 import com.example.backend.entity.Beneficio;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.math.BigDecimal;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
+import static org.hibernate.jpa.HibernateHints.HINT_CACHEABLE;
+import static org.hibernate.jpa.HibernateHints.HINT_CACHE_MODE;
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
+import static org.hibernate.jpa.HibernateHints.HINT_NATIVE_SPACES;
+import static org.hibernate.jpa.HibernateHints.HINT_READ_ONLY;
+
+// Consultas JPQL e derivadas enxergam apenas benefícios ativos (@SQLRestriction em Beneficio);
+// consultas nativas precisam filtrar ATIVO explicitamente e carregamentos por ID usam findAtivoById
 @Repository
 public interface BeneficioRepository extends JpaRepository<Beneficio, Long> {
     
-    List<Beneficio> findByAtivoTrue();
+    int FETCH_SIZE_EXPORTACAO = 1000;
+    
+    // Espaço de sincronização dos UPDATEs nativos de saldo (ver debitar)
+    String ESPACO_SALDOS = "BENEFICIO_SALDOS";
+    
+    // Cache de consultas: guarda os IDs do resultado e monta as entidades pela região de Beneficio.
+    // Qualquer escrita em BENEFICIO invalida os resultados guardados.
+    @Override
+    @QueryHints(@QueryHint(name = HINT_CACHEABLE, value = "true"))
+    List<Beneficio> findAll();
+    
+    // Paginação por keyset: usa o índice (ATIVO, ID) em vez de OFFSET. O H2 só lê o índice já
+    // ordenado quando o ORDER BY inclui a coluna ATIVO; com ORDER BY ID ele ordena todas as linhas
+    // depois do cursor antes de aplicar o limite (segundos por página com 1M de benefícios).
+    @Query("SELECT b FROM Beneficio b WHERE b.id > :id ORDER BY b.ativo, b.id")
+    List<Beneficio> findPaginaApos(@Param("id") Long id, Limit limit);
+    
+    // Cursor JDBC para exportação: as linhas são lidas sob demanda em lotes de fetch size.
+    // CacheMode.IGNORE evita que a varredura completa substitua o conteúdo do cache de segundo nível.
+    @QueryHints({
+        @QueryHint(name = HINT_FETCH_SIZE, value = "" + FETCH_SIZE_EXPORTACAO),
+        @QueryHint(name = HINT_READ_ONLY, value = "true"),
+        @QueryHint(name = HINT_CACHE_MODE, value = "IGNORE")
+    })
+    @Query("SELECT b FROM Beneficio b ORDER BY b.ativo, b.id")
+    Stream<Beneficio> streamAtivos();
+    
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "" + FETCH_SIZE_EXPORTACAO))
+    @Query("SELECT b.id AS id, b.nome AS nome, b.version AS version FROM Beneficio b")
+    Stream<BeneficioNome> streamNomesAtivos();
+    
+    @Query("SELECT COUNT(b) AS quantidade, COALESCE(MAX(b.id), 0) AS maiorId, " +
+           "COALESCE(SUM(b.version), 0) AS somaVersoes FROM Beneficio b")
+    EstadoColecao findEstadoAtivos();
+    
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "3000"))
+    @Query("SELECT b FROM Beneficio b WHERE b.id = :id")
+    Optional<Beneficio> findByIdForUpdate(@Param("id") Long id);
+    
+    // Vazio quando o benefício não existe, está inativo ou não tem saldo suficiente.
+    // SQL nativo porque o JPQL não faz aritmética sobre atributos convertidos (Money); por isso
+    // a restrição de Beneficio não se aplica e ATIVO é filtrado aqui.
+    // Sem HINT_NATIVE_SPACES o Hibernate limparia todas as regiões do cache de segundo nível a cada
+    // chamada. ESPACO_SALDOS não corresponde a nenhuma entidade: quem chama bloqueia os IDs na região
+    // de Beneficio (CacheSegundoNivelBeneficio), e o cache de consultas só guarda IDs, que não mudam aqui.
+    // O UPDATE roda dentro de um SELECT sobre FINAL TABLE (H2), que devolve a linha já alterada: o saldo e a
+    // versão resultantes saem no mesmo comando, sem uma leitura a mais
+    @QueryHints(@QueryHint(name = HINT_NATIVE_SPACES, value = ESPACO_SALDOS))
+    @Query(value = "SELECT ID AS id, VALOR AS valor, VERSION AS version FROM FINAL TABLE (" +
+                   "UPDATE BENEFICIO SET VALOR = VALOR - :valor, VERSION = VERSION + 1 " +
+                   "WHERE ID = :id AND ATIVO = TRUE AND VALOR >= :valor)", nativeQuery = true)
+    Optional<SaldoVersionado> debitar(@Param("id") Long id, @Param("valor") BigDecimal valor);
+    
+    @QueryHints(@QueryHint(name = HINT_NATIVE_SPACES, value = ESPACO_SALDOS))
+    @Query(value = "SELECT ID AS id, VALOR AS valor, VERSION AS version FROM FINAL TABLE (" +
+                   "UPDATE BENEFICIO SET VALOR = VALOR + :valor, VERSION = VERSION + 1 " +
+                   "WHERE ID = :id AND ATIVO = TRUE)", nativeQuery = true)
+    Optional<SaldoVersionado> creditar(@Param("id") Long id, @Param("valor") BigDecimal valor);
+    
+    // Use no lugar de findById: carregamentos por ID atendidos pelo cache de segundo nível não passam
+    // pela @SQLRestriction, e um benefício excluído fica na região com ATIVO = FALSE até expirar
+    default Optional<Beneficio> findAtivoById(Long id) {
+        return findById(id).filter(beneficio -> Boolean.TRUE.equals(beneficio.getAtivo()));
+    }
     
-    @Query("SELECT b FROM Beneficio b WHERE b.ativo = true AND b.id = :id")
-    Optional<Beneficio> findByIdAndAtivoTrue(@Param("id") Long id);
+    List<Beneficio> findByIdIn(Collection<Long> ids);
     
-    @Query("SELECT b FROM Beneficio b WHERE b.nome LIKE %:nome% AND b.ativo = true")
-    List<Beneficio> findByNomeContainingAndAtivoTrue(@Param("nome") String nome);
+    // Busca sem o índice de nomes, sobre NOME_BUSCA (normalizado pelo banco como em BeneficioNomeIndex).
+    // trecho é %termo% para termos de 3 ou mais caracteres e termo% para os curtos, que junto com palavra
+    // (% termo%) casam só com o início das palavras. A ordem repete o ranking do índice: nome igual,
+    // prefixo do nome, prefixo de uma palavra, trecho qualquer; depois nome mais curto e ID.
+    @Query(value = "SELECT * FROM BENEFICIO WHERE ATIVO = TRUE AND (NOME_BUSCA LIKE :trecho OR NOME_BUSCA LIKE :palavra) " +
+                   "ORDER BY CASE WHEN NOME_BUSCA = :termo THEN 0 WHEN NOME_BUSCA LIKE :prefixo THEN 1 " +
+                   "WHEN NOME_BUSCA LIKE :palavra THEN 2 ELSE 3 END, LENGTH(NOME_BUSCA), ID", nativeQuery = true)
+    List<Beneficio> findByNomeNormalizado(@Param("termo") String termo, @Param("prefixo") String prefixo,
+                                          @Param("palavra") String palavra, @Param("trecho") String trecho, Limit limit);
 }
@@ -0,0 +1,13 @@
+package com.example.backend.repository;
+
+// Resumo dos benefícios ativos usado como ETag da listagem. Toda alteração muda ao menos um campo:
+// atualizações e transferências incrementam versões, exclusões reduzem a quantidade e inclusões
+// aumentam a quantidade e o maior ID.
+public interface EstadoColecao {
+    
+    long getQuantidade();
+    
+    long getMaiorId();
+    
+    long getSomaVersoes();
+}
@@ -0,0 +1,31 @@
+package com.example.backend.repository;
+
+import com.example.backend.entity.RegistroIdempotencia;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.Optional;
+
+@Repository
+public interface RegistroIdempotenciaRepository extends JpaRepository<RegistroIdempotencia, String> {
+    
+    Optional<RegistroIdempotencia> findByChaveAndExpiraEmAfter(String chave, Instant agora);
+    
+    @Modifying
+    @Query("DELETE FROM RegistroIdempotencia r WHERE r.expiraEm <= :agora")
+    int deleteExpirados(@Param("agora") Instant agora);
+    
+    // Libera a chave de uma execução sem resposta gravável
+    @Modifying
+    @Query("DELETE FROM RegistroIdempotencia r WHERE r.chave = :chave AND r.status = " + RegistroIdempotencia.RESERVADA)
+    int deleteReserva(@Param("chave") String chave);
+    
+    // Registro expirado que a limpeza periódica ainda não removeu
+    @Modifying
+    @Query("DELETE FROM RegistroIdempotencia r WHERE r.chave = :chave AND r.expiraEm <= :agora")
+    int deleteExpirado(@Param("chave") String chave, @Param("agora") Instant agora);
+}
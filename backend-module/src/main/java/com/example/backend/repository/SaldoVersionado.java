@@ -0,0 +1,13 @@
+package com.example.backend.repository;
+
+import java.math.BigDecimal;
+
+// Saldo e versão devolvidos pelos UPDATEs nativos de debitar/creditar, para o evento da transferência
+public interface SaldoVersionado {
+    
+    Long getId();
+    
+    BigDecimal getValor();
+    
+    Long getVersion();
+}
@@ -0,0 +1,47 @@
+package com.example.backend.repository;
+
+import com.example.backend.entity.StatusLedger;
+import com.example.backend.entity.Transferencia;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface TransferenciaRepository extends JpaRepository<Transferencia, Long> {
+    
+    List<Transferencia> findByStatusOrderByIdAsc(StatusLedger status, Limit limit);
+    
+    List<Transferencia> findByStatusAndIdGreaterThanOrderByIdAsc(StatusLedger status, Long id, Limit limit);
+    
+    // Trava os lançamentos na ordem de ID antes de aplicá-los, para que duas threads (ou instâncias)
+    // não apliquem o mesmo lançamento; quem chega depois vê o status já alterado
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT t FROM Transferencia t WHERE t.id IN :ids ORDER BY t.id")
+    List<Transferencia> findByIdInForUpdate(@Param("ids") Collection<Long> ids);
+    
+    // Última posição do ledger confirmada pelo projetor; todas as anteriores já estão projetadas
+    @Query(value = "SELECT POSICAO FROM LEDGER_PROJECAO WHERE ID = 1", nativeQuery = true)
+    long findOffsetProjetado();
+    
+    // As somas usam SQL nativo porque o JPQL não faz aritmética sobre atributos convertidos (Money)
+    @Query(value = "SELECT COALESCE(SUM(VALOR), 0) FROM TRANSFERENCIA WHERE STATUS = 'PENDENTE' AND FROM_ID = :id",
+           nativeQuery = true)
+    BigDecimal sumDebitosPendentes(@Param("id") Long id);
+    
+    // Saldo atual menos os lançamentos aplicados depois da posição, em uma única leitura consistente.
+    // Não reconstrói o saldo a partir do ledger: alterações fora dele aparecem em qualquer posição
+    @Query(value = "SELECT b.VALOR - COALESCE((SELECT SUM(CASE WHEN t.TO_ID = b.ID THEN t.VALOR ELSE -t.VALOR END) " +
+                   "FROM TRANSFERENCIA t WHERE t.STATUS = 'APLICADA' " +
+                   "AND t.POSICAO > :offset AND (t.FROM_ID = b.ID OR t.TO_ID = b.ID)), 0) " +
+                   "FROM BENEFICIO b WHERE b.ATIVO = TRUE AND b.ID = :id", nativeQuery = true)
+    Optional<BigDecimal> findSaldoNoOffset(@Param("id") Long id, @Param("offset") long offset);
+}
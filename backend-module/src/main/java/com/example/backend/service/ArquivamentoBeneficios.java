@@ -0,0 +1,88 @@
+package com.example.backend.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+
+// Move benefícios inativos há mais de beneficio.arquivamento.apos para BENEFICIO_ARQUIVO, em lotes
+// de IDs consecutivos, cada um em sua própria transação. Assim BENEFICIO guarda basicamente os ativos.
+// SQL nativo porque a entidade Beneficio não enxerga os inativos.
+@Component
+public class ArquivamentoBeneficios {
+    
+    private static final Logger log = LoggerFactory.getLogger(ArquivamentoBeneficios.class);
+    
+    private static final String LIMITE_LOTE =
+            "SELECT MAX(ID) FROM (SELECT ID FROM BENEFICIO WHERE ATIVO = FALSE AND INATIVADO_EM < ? " +
+            "ORDER BY ID FETCH FIRST ? ROWS ONLY)";
+    
+    private static final String COPIAR =
+            "INSERT INTO BENEFICIO_ARQUIVO (ID, NOME, DESCRICAO, VALOR, VERSION, INATIVADO_EM, ARQUIVADO_EM) " +
+            "SELECT ID, NOME, DESCRICAO, VALOR, VERSION, INATIVADO_EM, ? FROM BENEFICIO " +
+            "WHERE ATIVO = FALSE AND INATIVADO_EM < ? AND ID <= ?";
+    
+    private static final String REMOVER =
+            "DELETE FROM BENEFICIO WHERE ATIVO = FALSE AND INATIVADO_EM < ? AND ID <= ?";
+    
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+    
+    @Value("${beneficio.arquivamento.apos:30d}")
+    private Duration apos;
+    
+    @Value("${beneficio.arquivamento.tamanho-lote:1000}")
+    private int tamanhoLote;
+    
+    private final Counter arquivados;
+    
+    public ArquivamentoBeneficios(MeterRegistry meterRegistry) {
+        this.arquivados = Counter.builder("beneficio.arquivamento.arquivados")
+                .description("Benefícios inativos movidos para BENEFICIO_ARQUIVO")
+                .register(meterRegistry);
+    }
+    
+    @Scheduled(initialDelayString = "${beneficio.arquivamento.intervalo:3600000}",
+               fixedDelayString = "${beneficio.arquivamento.intervalo:3600000}")
+    public long arquivar() {
+        Timestamp corte = Timestamp.from(Instant.now().minus(apos));
+        long total = 0;
+        Integer movidos;
+        do {
+            movidos = transactionTemplate.execute(status -> arquivarLote(corte));
+            total += movidos;
+        } while (movidos == tamanhoLote);
+        if (total > 0) {
+            log.info("{} benefícios inativos arquivados", total);
+        }
+        return total;
+    }
+    
+    private int arquivarLote(Timestamp corte) {
+        Long ultimoId = jdbcTemplate.queryForObject(LIMITE_LOTE, Long.class, corte, tamanhoLote);
+        if (ultimoId == null) {
+            return 0;
+        }
+        int copiados = jdbcTemplate.update(COPIAR, Timestamp.from(Instant.now()), corte, ultimoId);
+        int removidos = jdbcTemplate.update(REMOVER, corte, ultimoId);
+        // Inativos não voltam a ser ativos, então as duas instruções veem as mesmas linhas
+        if (copiados != removidos) {
+            throw new IllegalStateException("Arquivamento inconsistente: " + copiados + " copiados e " + removidos + " removidos");
+        }
+        arquivados.increment(removidos);
+        return removidos;
+    }
+}
@@ -0,0 +1,104 @@
+package com.example.backend.service;
+
+import com.example.backend.dto.BeneficioDTO;
+import com.example.backend.event.BeneficioEvento;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+// Cache em processo de BeneficioDTO por ID. Uma leitura do banco só entra no cache se nenhuma
+// alteração do mesmo ID foi confirmada durante a leitura e se sua versão não for mais antiga
+// que a armazenada. Os DTOs em cache são compartilhados e não devem ser alterados.
+@Component
+public class BeneficioCache {
+    
+    private static final int FAIXAS = 1024;
+    
+    private final Cache<Long, BeneficioDTO> cache;
+    
+    private final AtomicLongArray marcas = new AtomicLongArray(FAIXAS);
+    
+    // Momento (epoch ms) da última alteração confirmada em cada faixa
+    private final AtomicLongArray alteradoEm = new AtomicLongArray(FAIXAS);
+    
+    public BeneficioCache(@Value("${beneficio.cache.tamanho-maximo:10000}") long tamanhoMaximo,
+                          @Value("${beneficio.cache.ttl:5m}") Duration ttl,
+                          MeterRegistry meterRegistry) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(tamanhoMaximo)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "beneficios");
+    }
+    
+    public Optional<BeneficioDTO> get(Long id) {
+        return Optional.ofNullable(cache.getIfPresent(id));
+    }
+    
+    // Deve ser chamado antes de ler o banco; o valor é passado depois para preencher()
+    public long marcarLeitura(Long id) {
+        return marcas.get(faixa(id));
+    }
+    
+    // Leituras para preencher o cache só podem ir a réplicas que já tenham alcançado esse momento;
+    // uma réplica atrasada devolveria a versão anterior a uma invalidação e ela ficaria no cache até o TTL
+    public long alteradoEm(Long id) {
+        return alteradoEm.get(faixa(id));
+    }
+    
+    public void preencher(BeneficioDTO dto, long marca) {
+        cache.asMap().compute(dto.getId(), (id, atual) -> {
+            if (marcas.get(faixa(id)) != marca || maisAntigo(dto, atual)) {
+                return atual;
+            }
+            return dto;
+        });
+    }
+    
+    public void invalidar(Long id) {
+        marcas.incrementAndGet(faixa(id));
+        alteradoEm.accumulateAndGet(faixa(id), System.currentTimeMillis(), Math::max);
+        cache.invalidate(id);
+    }
+    
+    // Sem transação ativa o evento vem do motor da estratégia MEMORIA e é tratado na hora
+    @TransactionalEventListener(fallbackExecution = true)
+    public void aoAlterar(BeneficioEvento evento) {
+        switch (evento.getTipo()) {
+            case CRIADO, ATUALIZADO -> atualizar(evento.getBeneficio());
+            case EXCLUIDO -> invalidar(evento.getBeneficio().getId());
+            case TRANSFERENCIA -> {
+                invalidar(evento.getTransferencia().getFromId());
+                invalidar(evento.getTransferencia().getToId());
+            }
+        }
+    }
+    
+    private void atualizar(BeneficioDTO dto) {
+        if (!Boolean.TRUE.equals(dto.getAtivo())) {
+            invalidar(dto.getId());
+            return;
+        }
+        marcas.incrementAndGet(faixa(dto.getId()));
+        alteradoEm.accumulateAndGet(faixa(dto.getId()), System.currentTimeMillis(), Math::max);
+        cache.asMap().merge(dto.getId(), dto, (atual, novo) -> maisAntigo(novo, atual) ? atual : novo);
+    }
+    
+    private static boolean maisAntigo(BeneficioDTO dto, BeneficioDTO atual) {
+        return atual != null && atual.getVersion() != null && dto.getVersion() != null
+                && dto.getVersion() < atual.getVersion();
+    }
+    
+    private static int faixa(Long id) {
+        return (int) (id ^ (id >>> 32)) & (FAIXAS - 1);
+    }
+}
@@ -0,0 +1,8 @@
+package com.example.backend.service;
+
+public class BeneficioNaoEncontradoException extends IllegalArgumentException {
+    
+    public BeneficioNaoEncontradoException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,295 @@
+package com.example.backend.service;
+
+import com.example.backend.dto.BeneficioDTO;
+import com.example.backend.event.BeneficioEvento;
+import com.example.backend.replica.ConsistenciaLeitura;
+import com.example.backend.repository.BeneficioRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Pattern;
+
+// Índice invertido de trigramas dos nomes dos benefícios ativos, mantido em memória, com um índice
+// auxiliar dos prefixos de 1 e 2 caracteres de cada palavra para termos curtos demais para trigramas.
+// Nomes e consultas são normalizados sem acentos e em minúsculas antes de indexar/buscar.
+@Component
+public class BeneficioNomeIndex {
+    
+    private static final Logger log = LoggerFactory.getLogger(BeneficioNomeIndex.class);
+    
+    private static final Pattern MARCAS = Pattern.compile("\\p{M}+");
+    private static final Pattern ESPACOS = Pattern.compile("\\s+");
+    
+    // Ordem do ranking: nome igual, prefixo do nome, prefixo de uma palavra, trecho qualquer
+    private static final int NOME_IGUAL = 0;
+    private static final int PREFIXO_NOME = 1;
+    private static final int PREFIXO_PALAVRA = 2;
+    private static final int CONTEM = 3;
+    
+    private final Map<String, Set<Long>> trigramas = new ConcurrentHashMap<>();
+    
+    private final Map<String, Set<Long>> prefixos = new ConcurrentHashMap<>();
+    
+    private final Map<Long, Entrada> entradas = new ConcurrentHashMap<>();
+    
+    private volatile boolean pronto;
+    
+    @Autowired
+    private BeneficioRepository beneficioRepository;
+    
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    
+    // Desativado, o índice nunca fica pronto e a busca continua no LIKE do banco
+    @Value("${beneficio.busca.indice-nomes:true}")
+    private volatile boolean habilitado;
+    
+    // Acima desta quantidade de ativos o índice não é carregado: ocupa cerca de 1 KB de heap por benefício
+    @Value("${beneficio.busca.indice-nomes-maximo:1000000}")
+    private long maximo;
+    
+    public boolean isPronto() {
+        return pronto;
+    }
+    
+    @EventListener(ApplicationReadyEvent.class)
+    public void carregar() {
+        if (!habilitado) {
+            log.info("Índice de nomes desativado; a busca usa LIKE no banco");
+            return;
+        }
+        long inicio = System.currentTimeMillis();
+        TransactionTemplate leitura = new TransactionTemplate(transactionManager);
+        leitura.setReadOnly(true);
+        long ativos = ConsistenciaLeitura.noPrimario(() -> leitura.execute(status -> beneficioRepository.count()));
+        if (ativos > maximo) {
+            log.warn("Índice de nomes desativado: {} benefícios ativos excedem beneficio.busca.indice-nomes-maximo ({}); "
+                    + "a busca usa LIKE no banco", ativos, maximo);
+            habilitado = false;
+            // Alterações indexadas entre a inicialização e a contagem
+            entradas.clear();
+            trigramas.clear();
+            prefixos.clear();
+            return;
+        }
+        // Os eventos aplicados durante a carga são do primário; ler uma réplica atrasada perderia alterações
+        ConsistenciaLeitura.noPrimario(() -> leitura.executeWithoutResult(status -> beneficioRepository.streamNomesAtivos()
+                .forEach(b -> indexar(b.getId(), b.getNome(), b.getVersion()))));
+        // Exclusões ocorridas durante a carga já foram aplicadas; as marcas não são mais necessárias
+        entradas.values().removeIf(entrada -> entrada.nome == null);
+        pronto = true;
+        log.info("Índice de nomes carregado com {} benefícios em {} ms", entradas.size(), System.currentTimeMillis() - inicio);
+    }
+    
+    @TransactionalEventListener
+    public void aoAlterar(BeneficioEvento evento) {
+        if (!habilitado) {
+            return;
+        }
+        BeneficioDTO beneficio = evento.getBeneficio();
+        switch (evento.getTipo()) {
+            case CRIADO, ATUALIZADO -> {
+                if (Boolean.TRUE.equals(beneficio.getAtivo())) {
+                    indexar(beneficio.getId(), beneficio.getNome(), beneficio.getVersion());
+                } else {
+                    remover(beneficio.getId(), beneficio.getVersion());
+                }
+            }
+            case EXCLUIDO -> remover(beneficio.getId(), beneficio.getVersion());
+            case TRANSFERENCIA -> { }
+        }
+    }
+    
+    // Retorna os IDs dos melhores resultados, do mais relevante para o menos relevante
+    public List<Long> buscar(String consulta, int limite) {
+        String termo = normalizar(consulta);
+        if (termo.isEmpty()) {
+            return List.of();
+        }
+        
+        Comparator<Resultado> relevancia = Comparator.comparingInt((Resultado r) -> r.pontuacao)
+                .thenComparingInt(r -> r.nome.length())
+                .thenComparingLong(r -> r.id);
+        PriorityQueue<Resultado> melhores = new PriorityQueue<>(Math.min(limite, 1000) + 1, relevancia.reversed());
+        
+        for (Long id : candidatos(termo)) {
+            Entrada entrada = entradas.get(id);
+            if (entrada == null || entrada.nome == null) {
+                continue;
+            }
+            int pontuacao = pontuar(entrada.nome, termo);
+            if (pontuacao < 0) {
+                continue;
+            }
+            melhores.add(new Resultado(id, entrada.nome, pontuacao));
+            if (melhores.size() > limite) {
+                melhores.poll();
+            }
+        }
+        
+        List<Resultado> ordenados = new ArrayList<>(melhores);
+        ordenados.sort(relevancia);
+        List<Long> ids = new ArrayList<>(ordenados.size());
+        for (Resultado resultado : ordenados) {
+            ids.add(resultado.id);
+        }
+        return ids;
+    }
+    
+    private Iterable<Long> candidatos(String termo) {
+        if (termo.length() < 3) {
+            // Termos curtos não formam trigramas: só casam com o início de uma palavra
+            Set<Long> ids = prefixos.get(termo);
+            return ids == null ? List.of() : ids;
+        }
+        Set<Long> menor = null;
+        for (String trigrama : trigramas(termo)) {
+            Set<Long> ids = trigramas.get(trigrama);
+            if (ids == null) {
+                return List.of();
+            }
+            if (menor == null || ids.size() < menor.size()) {
+                menor = ids;
+            }
+        }
+        return menor;
+    }
+    
+    private static int pontuar(String nome, String termo) {
+        if (nome.equals(termo)) {
+            return NOME_IGUAL;
+        }
+        if (nome.startsWith(termo)) {
+            return PREFIXO_NOME;
+        }
+        if (nome.contains(" " + termo)) {
+            return PREFIXO_PALAVRA;
+        }
+        // Termos curtos só são buscados no início das palavras
+        return termo.length() >= 3 && nome.contains(termo) ? CONTEM : -1;
+    }
+    
+    private void indexar(Long id, String nome, Long versao) {
+        String normalizado = normalizar(nome);
+        entradas.compute(id, (chave, atual) -> {
+            if (atual != null && atual.maisNovaQue(versao)) {
+                return atual;
+            }
+            if (atual != null && atual.nome != null) {
+                desindexar(id, atual.nome);
+            }
+            for (String trigrama : trigramas(normalizado)) {
+                trigramas.computeIfAbsent(trigrama, t -> ConcurrentHashMap.newKeySet()).add(id);
+            }
+            for (String prefixo : prefixos(normalizado)) {
+                prefixos.computeIfAbsent(prefixo, p -> ConcurrentHashMap.newKeySet()).add(id);
+            }
+            return new Entrada(normalizado, versao);
+        });
+    }
+    
+    private void remover(Long id, Long versao) {
+        entradas.compute(id, (chave, atual) -> {
+            if (atual != null && atual.maisNovaQue(versao)) {
+                return atual;
+            }
+            if (atual != null && atual.nome != null) {
+                desindexar(id, atual.nome);
+            }
+            // Durante a carga inicial a marca impede que a leitura antiga reindexe o benefício
+            return pronto ? null : new Entrada(null, versao);
+        });
+    }
+    
+    private void desindexar(Long id, String nome) {
+        for (String trigrama : trigramas(nome)) {
+            desindexar(trigramas, trigrama, id);
+        }
+        for (String prefixo : prefixos(nome)) {
+            desindexar(prefixos, prefixo, id);
+        }
+    }
+    
+    private static void desindexar(Map<String, Set<Long>> indice, String chave, Long id) {
+        indice.computeIfPresent(chave, (c, ids) -> {
+            ids.remove(id);
+            return ids.isEmpty() ? null : ids;
+        });
+    }
+    
+    private static List<String> trigramas(String texto) {
+        List<String> resultado = new ArrayList<>(Math.max(0, texto.length() - 2));
+        for (int i = 0; i + 3 <= texto.length(); i++) {
+            resultado.add(texto.substring(i, i + 3));
+        }
+        return resultado;
+    }
+    
+    private static Set<String> prefixos(String texto) {
+        Set<String> resultado = new HashSet<>();
+        for (String palavra : texto.split(" ")) {
+            if (!palavra.isEmpty()) {
+                resultado.add(palavra.substring(0, 1));
+                if (palavra.length() > 1) {
+                    resultado.add(palavra.substring(0, 2));
+                }
+            }
+        }
+        return resultado;
+    }
+    
+    static String normalizar(String texto) {
+        if (texto == null) {
+            return "";
+        }
+        String semAcentos = MARCAS.matcher(Normalizer.normalize(texto, Normalizer.Form.NFD)).replaceAll("");
+        return ESPACOS.matcher(semAcentos.toLowerCase(Locale.ROOT)).replaceAll(" ").trim();
+    }
+    
+    private static final class Entrada {
+        
+        // Nome normalizado; nulo marca um benefício removido durante a carga inicial
+        private final String nome;
+        private final Long versao;
+        
+        private Entrada(String nome, Long versao) {
+            this.nome = nome;
+            this.versao = versao;
+        }
+        
+        private boolean maisNovaQue(Long outra) {
+            return versao != null && outra != null && versao > outra;
+        }
+    }
+    
+    private static final class Resultado {
+        
+        private final Long id;
+        private final String nome;
+        private final int pontuacao;
+        
+        private Resultado(Long id, String nome, int pontuacao) {
+            this.id = id;
+            this.nome = nome;
+            this.pontuacao = pontuacao;
+        }
+    }
+}
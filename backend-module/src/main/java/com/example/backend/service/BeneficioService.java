@@ -1,110 +1,707 @@
 package com.example.backend.service;
 
+import com.example.backend.config.TransferenciaProperties;
 import com.example.backend.dto.BeneficioDTO;
+import com.example.backend.dto.ListaVersionadaDTO;
+import com.example.backend.dto.PaginaDTO;
+import com.example.backend.dto.ResultadoLoteDTO;
+import com.example.backend.dto.ResultadoTransferenciaDTO;
+import com.example.backend.dto.SaldoDTO;
+import com.example.backend.dto.StatusTransferencia;
+import com.example.backend.dto.TransferenciaAssincronaDTO;
 import com.example.backend.dto.TransferenciaDTO;
+import com.example.backend.dto.TransferenciaRealizadaDTO;
 import com.example.backend.entity.Beneficio;
+import com.example.backend.entity.StatusLedger;
+import com.example.backend.entity.Transferencia;
+import com.example.backend.event.BeneficioEvento;
+import com.example.backend.replica.ConsistenciaLeitura;
 import com.example.backend.repository.BeneficioRepository;
+import com.example.backend.repository.EstadoColecao;
+import com.example.backend.repository.SaldoVersionado;
+import com.example.backend.repository.TransferenciaRepository;
+import com.example.backend.service.memoria.MotorSaldos;
+import com.example.common.money.Money;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Isolation;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
-import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 @Transactional
 public class BeneficioService {
     
+    public static final int LIMITE_PADRAO = 50;
+    public static final int LIMITE_MAXIMO = 500;
+    public static final int LIMITE_MAXIMO_BUSCA = 100;
+    
+    // Quantidade de IDs por consulta IN ao carregar um lote de transferências
+    private static final int IDS_POR_CONSULTA = 1000;
+    
     @Autowired
     private BeneficioRepository beneficioRepository;
     
+    @Autowired
+    private TransferenciaRepository transferenciaRepository;
+    
+    // Presente apenas com a estratégia MEMORIA
+    @Autowired(required = false)
+    private MotorSaldos motorSaldos;
+    
+    @PersistenceContext
+    private EntityManager entityManager;
+    
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+    
+    @Autowired
+    private TransferenciaProperties transferenciaProperties;
+    
+    @Autowired
+    private MeterRegistry meterRegistry;
+    
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+    
+    @Autowired
+    private BeneficioCache beneficioCache;
+    
+    @Autowired
+    private BeneficioNomeIndex nomeIndex;
+    
+    @Autowired
+    private CacheSegundoNivelBeneficio cacheSegundoNivel;
+    
+    @Autowired
+    private Validator validator;
+    
+    // Usados pela estratégia GRUPO
+    @Value("${beneficio.grupo.janela:1ms}")
+    private Duration janelaGrupo;
+    
+    @Value("${beneficio.grupo.tamanho-maximo:500}")
+    private int tamanhoMaximoGrupo;
+    
+    private DistributionSummary tentativasTransferencia;
+    private Counter retentativas;
+    private Counter retentativasEsgotadas;
+    private CoordenadorGrupo coordenadorGrupo;
+    
+    @PostConstruct
+    void registrarMetricas() {
+        tentativasTransferencia = DistributionSummary.builder("beneficio.transferencia.tentativas")
+                .description("Tentativas por transferência na estratégia otimista")
+                .register(meterRegistry);
+        retentativas = Counter.builder("beneficio.transferencia.retentativas")
+                .description("Retentativas após conflito de versão")
+                .register(meterRegistry);
+        retentativasEsgotadas = Counter.builder("beneficio.transferencia.retentativas.esgotadas")
+                .description("Transferências que falharam após esgotar as retentativas")
+                .register(meterRegistry);
+        int tamanhoMaximo = Math.max(1, tamanhoMaximoGrupo);
+        coordenadorGrupo = new CoordenadorGrupo(janelaGrupo.toNanos(), tamanhoMaximo, this::aplicarGrupo,
+                DistributionSummary.builder("beneficio.transferencia.grupo")
+                        .description("Transferências confirmadas por transação na estratégia GRUPO")
+                        .maximumExpectedValue((double) tamanhoMaximo)
+                        .register(meterRegistry));
+    }
+    
+    @Transactional(readOnly = true)
     public List<BeneficioDTO> findAll() {
-        return beneficioRepository.findByAtivoTrue()
+        return beneficioRepository.findAll()
                 .stream()
                 .map(this::convertToDTO)
                 .collect(Collectors.toList());
     }
     
+    @Transactional(readOnly = true)
+    public PaginaDTO<BeneficioDTO> findPage(String after, Integer limit) {
+        int limite = limit == null ? LIMITE_PADRAO : limit;
+        if (limite < 1) {
+            throw new IllegalArgumentException("Limite deve ser maior que zero");
+        }
+        limite = Math.min(limite, LIMITE_MAXIMO);
+        
+        // Busca um item a mais para saber se existe próxima página
+        List<Beneficio> beneficios = beneficioRepository.findPaginaApos(
+                decodeCursor(after), Limit.of(limite + 1));
+        
+        String proximoCursor = null;
+        if (beneficios.size() > limite) {
+            beneficios = beneficios.subList(0, limite);
+            proximoCursor = encodeCursor(beneficios.get(limite - 1).getId());
+        }
+        
+        List<BeneficioDTO> itens = beneficios.stream()
+                .map(this::convertToDTO)
+                .collect(Collectors.toList());
+        return new PaginaDTO<>(itens, proximoCursor, limite);
+    }
+    
+    @Transactional(readOnly = true)
+    public long exportar(Consumer<BeneficioDTO> consumidor) {
+        long total = 0;
+        try (Stream<Beneficio> beneficios = beneficioRepository.streamAtivos()) {
+            Iterator<Beneficio> iterator = beneficios.iterator();
+            while (iterator.hasNext()) {
+                consumidor.accept(convertToDTO(iterator.next()));
+                // Desanexa as entidades já exportadas para manter o contexto de persistência pequeno
+                if (++total % BeneficioRepository.FETCH_SIZE_EXPORTACAO == 0) {
+                    entityManager.clear();
+                }
+            }
+        }
+        return total;
+    }
+    
+    // Acertos no cache não abrem transação nem obtêm conexão; readOnly permite ler em uma réplica
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
     public Optional<BeneficioDTO> findById(Long id) {
-        return beneficioRepository.findByIdAndAtivoTrue(id)
-                .map(this::convertToDTO);
+        Optional<BeneficioDTO> emCache = beneficioCache.get(id);
+        if (emCache.isPresent()) {
+            return emCache;
+        }
+        long marca = beneficioCache.marcarLeitura(id);
+        Optional<BeneficioDTO> beneficio = ConsistenciaLeitura.aPartirDe(beneficioCache.alteradoEm(id),
+                () -> beneficioRepository.findAtivoById(id).map(this::convertToDTO));
+        beneficio.ifPresent(dto -> beneficioCache.preencher(dto, marca));
+        return beneficio;
+    }
+    
+    // Versão atual para validar ETags sem montar o DTO; acertos nos caches não acessam o banco
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
+    public Optional<Long> findVersion(Long id) {
+        Optional<BeneficioDTO> emCache = beneficioCache.get(id);
+        if (emCache.isPresent()) {
+            return emCache.map(BeneficioDTO::getVersion);
+        }
+        // Uma versão antiga de réplica faria o GET condicional responder 304 para um benefício já alterado.
+        // A entidade costuma estar no cache de segundo nível, o que dispensa a consulta.
+        return ConsistenciaLeitura.aPartirDe(beneficioCache.alteradoEm(id),
+                () -> beneficioRepository.findAtivoById(id).map(Beneficio::getVersion));
+    }
+    
+    // Versão da coleção e lista lidas na mesma transação, portanto na mesma conexão: com réplicas, as duas
+    // consultas não podem cair em nós diferentes, e em REPEATABLE_READ a lista corresponde à versão.
+    // A lista só é lida se versaoConhecida recusar a versão atual.
+    @Transactional(readOnly = true, isolation = Isolation.REPEATABLE_READ)
+    public ListaVersionadaDTO<BeneficioDTO> findAllVersionada(Predicate<String> versaoConhecida) {
+        String versao = versaoColecao();
+        if (versaoConhecida.test(versao)) {
+            return new ListaVersionadaDTO<>(versao, null);
+        }
+        return new ListaVersionadaDTO<>(versao, findAll());
+    }
+    
+    // Muda sempre que algum benefício ativo é criado, alterado ou excluído
+    private String versaoColecao() {
+        EstadoColecao estado = beneficioRepository.findEstadoAtivos();
+        return estado.getQuantidade() + "-" + estado.getMaiorId() + "-" + estado.getSomaVersoes();
     }
     
     public BeneficioDTO save(BeneficioDTO beneficioDTO) {
         Beneficio beneficio = convertToEntity(beneficioDTO);
         beneficio = beneficioRepository.save(beneficio);
-        return convertToDTO(beneficio);
+        BeneficioDTO criado = convertToDTO(beneficio);
+        eventPublisher.publishEvent(BeneficioEvento.criado(criado));
+        return criado;
     }
     
     public Optional<BeneficioDTO> update(Long id, BeneficioDTO beneficioDTO) {
-        return beneficioRepository.findByIdAndAtivoTrue(id)
+        return update(id, beneficioDTO, null);
+    }
+    
+    // versoesAceitas nulo dispensa a verificação; a coluna @Version protege contra alterações
+    // concorrentes entre a verificação e o flush
+    public Optional<BeneficioDTO> update(Long id, BeneficioDTO beneficioDTO, Collection<Long> versoesAceitas) {
+        return beneficioRepository.findAtivoById(id)
                 .map(existingBeneficio -> {
+                    verificarVersao(existingBeneficio, versoesAceitas);
+                    Money valorAnterior = existingBeneficio.getValor();
                     existingBeneficio.setNome(beneficioDTO.getNome());
                     existingBeneficio.setDescricao(beneficioDTO.getDescricao());
                     existingBeneficio.setValor(beneficioDTO.getValor());
                     existingBeneficio.setAtivo(beneficioDTO.getAtivo());
-                    return convertToDTO(beneficioRepository.save(existingBeneficio));
+                    // O flush garante que o DTO retornado já tenha a nova versão
+                    BeneficioDTO atualizado = convertToDTO(beneficioRepository.saveAndFlush(existingBeneficio));
+                    eventPublisher.publishEvent(BeneficioEvento.atualizado(atualizado, valorAnterior));
+                    return atualizado;
                 });
     }
     
     public boolean delete(Long id) {
-        return beneficioRepository.findByIdAndAtivoTrue(id)
+        return delete(id, null);
+    }
+    
+    public boolean delete(Long id, Collection<Long> versoesAceitas) {
+        return beneficioRepository.findAtivoById(id)
                 .map(beneficio -> {
+                    verificarVersao(beneficio, versoesAceitas);
                     beneficio.setAtivo(false);
                     beneficioRepository.save(beneficio);
+                    eventPublisher.publishEvent(BeneficioEvento.excluido(convertToDTO(beneficio)));
                     return true;
                 })
                 .orElse(false);
     }
     
-    public void transferir(TransferenciaDTO transferenciaDTO) {
+    // Cada tentativa roda em sua própria transação, por isso o método não participa de uma transação externa.
+    // Vazio quando a transferência já foi aplicada; com a estratégia LEDGER ela só é registrada e o retorno
+    // é o lançamento PENDENTE, aplicado depois pelo projetor.
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public Optional<TransferenciaAssincronaDTO> transferir(TransferenciaDTO transferenciaDTO) {
         Long fromId = transferenciaDTO.getFromId();
         Long toId = transferenciaDTO.getToId();
-        BigDecimal valor = transferenciaDTO.getValor();
+        Money valor = transferenciaDTO.getValor();
         
         // Validações básicas
         if (fromId.equals(toId)) {
             throw new IllegalArgumentException("Não é possível transferir para o mesmo benefício");
         }
         
-        // Busca os benefícios
-        Optional<Beneficio> fromOpt = beneficioRepository.findByIdAndAtivoTrue(fromId);
-        Optional<Beneficio> toOpt = beneficioRepository.findByIdAndAtivoTrue(toId);
+        switch (transferenciaProperties.getEstrategia()) {
+            case PESSIMISTA -> transactionTemplate.executeWithoutResult(
+                    status -> transferirPessimista(fromId, toId, valor));
+            case ATOMICA -> transactionTemplate.executeWithoutResult(
+                    status -> transferirAtomica(fromId, toId, valor));
+            case LEDGER -> {
+                Transferencia lancamento = transactionTemplate.execute(status -> registrarNoLedger(fromId, toId, valor));
+                return Optional.of(convertToDTO(lancamento));
+            }
+            case MEMORIA -> motorSaldos.transferir(fromId, toId, valor.getCentavos());
+            case OTIMISTA -> transferirComRetentativas(fromId, toId, valor);
+            case GRUPO -> lancarSeRecusada(coordenadorGrupo.transferir(transferenciaDTO));
+        }
+        return Optional.empty();
+    }
+    
+    // Um grupo por transação, aplicado como um lote em melhor esforço: na ordem de chegada, recusando
+    // só as transferências sem saldo. Um conflito de versão com outra escrita reaplica o grupo inteiro.
+    private ResultadoLoteDTO aplicarGrupo(List<TransferenciaDTO> transferencias) {
+        int maxTentativas = Math.max(1, transferenciaProperties.getMaxTentativas());
+        for (int tentativa = 1; ; tentativa++) {
+            try {
+                return transactionTemplate.execute(status -> transferirLote(transferencias, false));
+            } catch (OptimisticLockingFailureException e) {
+                if (tentativa >= maxTentativas) {
+                    retentativasEsgotadas.increment();
+                    throw e;
+                }
+                retentativas.increment();
+                aguardarBackoff(tentativa, e);
+            }
+        }
+    }
+    
+    // Mesmas exceções das outras estratégias, para que o controller responda igual
+    private static void lancarSeRecusada(ResultadoTransferenciaDTO resultado) {
+        switch (resultado.getStatus()) {
+            case SUCESSO -> {
+            }
+            case SALDO_INSUFICIENTE -> throw new SaldoInsuficienteException(resultado.getMensagem());
+            case NAO_ENCONTRADO -> throw new BeneficioNaoEncontradoException(resultado.getMensagem());
+            case INVALIDA -> throw new IllegalArgumentException(resultado.getMensagem());
+            default -> throw new IllegalStateException(resultado.getMensagem());
+        }
+    }
+    
+    private Transferencia registrarNoLedger(Long fromId, Long toId, Money valor) {
+        Beneficio from = beneficioRepository.findAtivoById(fromId)
+                .orElseThrow(() -> new BeneficioNaoEncontradoException("Benefício origem não encontrado: " + fromId));
+        if (beneficioRepository.findAtivoById(toId).isEmpty()) {
+            throw new BeneficioNaoEncontradoException("Benefício destino não encontrado: " + toId);
+        }
+        
+        // Verificação antecipada contra o saldo projetado menos os débitos ainda pendentes.
+        // A verificação definitiva é do projetor, que rejeita o lançamento se o saldo não bastar.
+        Money disponivel = from.getValor().minus(Money.of(transferenciaRepository.sumDebitosPendentes(fromId)));
+        if (disponivel.isMenorQue(valor)) {
+            throw new SaldoInsuficienteException("Saldo insuficiente. Saldo atual: " + disponivel + ", Valor solicitado: " + valor);
+        }
         
+        return transferenciaRepository.save(new Transferencia(fromId, toId, valor));
+    }
+    
+    // Lançamento do ledger ou transferência assíncrona, com o resultado quando já aplicado
+    @Transactional(readOnly = true)
+    public Optional<TransferenciaAssincronaDTO> findLancamento(Long id) {
+        return transferenciaRepository.findById(id).map(this::convertToDTO);
+    }
+    
+    public TransferenciaAssincronaDTO convertToDTO(Transferencia lancamento) {
+        StatusTransferencia status = lancamento.getStatus() == StatusLedger.PENDENTE
+                ? StatusTransferencia.PENDENTE : lancamento.getResultado();
+        return new TransferenciaAssincronaDTO(lancamento.getId(), lancamento.getFromId(), lancamento.getToId(),
+                lancamento.getValor(), status, lancamento.getMotivo(), lancamento.getCriadoEm(),
+                lancamento.getConcluidoEm());
+    }
+    
+    private void transferirComRetentativas(Long fromId, Long toId, Money valor) {
+        int maxTentativas = Math.max(1, transferenciaProperties.getMaxTentativas());
+        for (int tentativa = 1; ; tentativa++) {
+            try {
+                transactionTemplate.executeWithoutResult(status -> transferirOtimista(fromId, toId, valor));
+                tentativasTransferencia.record(tentativa);
+                return;
+            } catch (OptimisticLockingFailureException e) {
+                if (tentativa >= maxTentativas) {
+                    tentativasTransferencia.record(tentativa);
+                    retentativasEsgotadas.increment();
+                    throw e;
+                }
+                retentativas.increment();
+                aguardarBackoff(tentativa, e);
+            }
+        }
+    }
+    
+    // Backoff exponencial com jitter completo, para que conflitos no mesmo benefício não se repitam em sincronia
+    private void aguardarBackoff(int tentativa, OptimisticLockingFailureException conflito) {
+        long inicial = transferenciaProperties.getBackoffInicial().toMillis();
+        long maximo = transferenciaProperties.getBackoffMaximo().toMillis();
+        long teto = Math.min(maximo, inicial << Math.min(tentativa - 1, 20));
+        try {
+            Thread.sleep(ThreadLocalRandom.current().nextLong(teto + 1));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw conflito;
+        }
+    }
+    
+    private void transferirOtimista(Long fromId, Long toId, Money valor) {
+        Optional<Beneficio> fromOpt = beneficioRepository.findAtivoById(fromId);
+        Optional<Beneficio> toOpt = beneficioRepository.findAtivoById(toId);
+        debitarECreditar(fromId, fromOpt, toId, toOpt, valor);
+    }
+    
+    private void transferirPessimista(Long fromId, Long toId, Money valor) {
+        // Trava sempre na ordem crescente de ID: transferências opostas entre os mesmos benefícios não geram deadlock
+        Optional<Beneficio> primeiro = beneficioRepository.findByIdForUpdate(Math.min(fromId, toId));
+        Optional<Beneficio> segundo = beneficioRepository.findByIdForUpdate(Math.max(fromId, toId));
+        if (fromId < toId) {
+            debitarECreditar(fromId, primeiro, toId, segundo, valor);
+        } else {
+            debitarECreditar(fromId, segundo, toId, primeiro, valor);
+        }
+    }
+    
+    private void transferirAtomica(Long fromId, Long toId, Money valor) {
+        // Os UPDATEs seguem a ordem crescente de ID, pelo mesmo motivo da estratégia pessimista
+        SaldoVersionado origem;
+        SaldoVersionado destino;
+        if (fromId < toId) {
+            origem = debitarCondicional(fromId, valor);
+            destino = creditar(toId, valor);
+        } else {
+            destino = creditar(toId, valor);
+            origem = debitarCondicional(fromId, valor);
+        }
+        eventPublisher.publishEvent(BeneficioEvento.transferencia(new TransferenciaRealizadaDTO(fromId, toId, valor,
+                Money.of(origem.getValor()), origem.getVersion(), Money.of(destino.getValor()), destino.getVersion())));
+    }
+    
+    private SaldoVersionado debitarCondicional(Long fromId, Money valor) {
+        cacheSegundoNivel.bloquear(fromId);
+        Optional<SaldoVersionado> debitado = beneficioRepository.debitar(fromId, valor.toBigDecimal());
+        if (debitado.isPresent()) {
+            return debitado.get();
+        }
+        // Caminho de erro: lê o benefício apenas para explicar a recusa
+        Beneficio from = beneficioRepository.findAtivoById(fromId)
+                .orElseThrow(() -> new BeneficioNaoEncontradoException("Benefício origem não encontrado: " + fromId));
+        throw new SaldoInsuficienteException("Saldo insuficiente. Saldo atual: " + from.getValor() + ", Valor solicitado: " + valor);
+    }
+    
+    private SaldoVersionado creditar(Long toId, Money valor) {
+        cacheSegundoNivel.bloquear(toId);
+        return beneficioRepository.creditar(toId, valor.toBigDecimal())
+                .orElseThrow(() -> new BeneficioNaoEncontradoException("Benefício destino não encontrado: " + toId));
+    }
+    
+    private void debitarECreditar(Long fromId, Optional<Beneficio> fromOpt,
+                                  Long toId, Optional<Beneficio> toOpt, Money valor) {
         if (fromOpt.isEmpty()) {
-            throw new IllegalArgumentException("Benefício origem não encontrado: " + fromId);
+            throw new BeneficioNaoEncontradoException("Benefício origem não encontrado: " + fromId);
         }
         
         if (toOpt.isEmpty()) {
-            throw new IllegalArgumentException("Benefício destino não encontrado: " + toId);
+            throw new BeneficioNaoEncontradoException("Benefício destino não encontrado: " + toId);
         }
         
         Beneficio from = fromOpt.get();
         Beneficio to = toOpt.get();
         
         // Validação de saldo
-        if (from.getValor().compareTo(valor) < 0) {
-            throw new IllegalStateException("Saldo insuficiente. Saldo atual: " + from.getValor() + ", Valor solicitado: " + valor);
+        if (from.getValor().isMenorQue(valor)) {
+            throw new SaldoInsuficienteException("Saldo insuficiente. Saldo atual: " + from.getValor() + ", Valor solicitado: " + valor);
         }
         
         // Realiza a transferência
-        from.setValor(from.getValor().subtract(valor));
-        to.setValor(to.getValor().add(valor));
+        from.setValor(from.getValor().minus(valor));
+        to.setValor(to.getValor().plus(valor));
         
         beneficioRepository.save(from);
         beneficioRepository.save(to);
+        // O flush garante que o evento leve as novas versões
+        beneficioRepository.flush();
+        eventPublisher.publishEvent(BeneficioEvento.transferencia(new TransferenciaRealizadaDTO(fromId, toId, valor,
+                from.getValor(), from.getVersion(), to.getValor(), to.getVersion())));
+    }
+    
+    public ResultadoLoteDTO transferirLote(List<TransferenciaDTO> transferencias, boolean atomico) {
+        // Com a estratégia MEMORIA os saldos do banco ficam atrás dos do motor
+        if (transferenciaProperties.getEstrategia() == EstrategiaTransferencia.MEMORIA) {
+            throw new IllegalStateException("Transferência em lote não é suportada com a estratégia MEMORIA");
+        }
+        Map<Long, Beneficio> beneficios = carregarAtivos(transferencias);
+        
+        // Aplica as transferências em memória, na ordem recebida, guardando os saldos após cada uma
+        Map<Long, Money> saldos = new HashMap<>();
+        List<ResultadoTransferenciaDTO> itens = new ArrayList<>(transferencias.size());
+        List<TransferenciaRealizadaDTO> realizadas = new ArrayList<>(transferencias.size());
+        int falhas = 0;
+        for (int i = 0; i < transferencias.size(); i++) {
+            TransferenciaDTO transferencia = transferencias.get(i);
+            ResultadoTransferenciaDTO item = aplicarEmMemoria(i, transferencia, beneficios, saldos);
+            if (item.isSucesso()) {
+                realizadas.add(new TransferenciaRealizadaDTO(transferencia.getFromId(), transferencia.getToId(),
+                        transferencia.getValor(), saldos.get(transferencia.getFromId()), null,
+                        saldos.get(transferencia.getToId()), null));
+            } else {
+                falhas++;
+            }
+            itens.add(item);
+        }
+        
+        if (atomico && falhas > 0) {
+            for (ResultadoTransferenciaDTO item : itens) {
+                if (item.isSucesso()) {
+                    item.setStatus(StatusTransferencia.NAO_APLICADA);
+                    item.setMensagem("Lote não aplicado devido a falhas em outros itens");
+                }
+            }
+            return new ResultadoLoteDTO(false, 0, falhas, itens);
+        }
+        
+        // Os UPDATEs são enviados em batch JDBC no flush da transação
+        List<Beneficio> alterados = new ArrayList<>(saldos.size());
+        saldos.forEach((id, saldo) -> {
+            Beneficio beneficio = beneficios.get(id);
+            beneficio.setValor(saldo);
+            alterados.add(beneficio);
+        });
+        beneficioRepository.saveAll(alterados);
+        // Com o flush as versões são as finais; transferências do lote sobre o mesmo benefício levam a mesma
+        // versão e saem na ordem do lote, então a última traz o saldo final
+        beneficioRepository.flush();
+        for (TransferenciaRealizadaDTO realizada : realizadas) {
+            realizada.setVersaoOrigem(beneficios.get(realizada.getFromId()).getVersion());
+            realizada.setVersaoDestino(beneficios.get(realizada.getToId()).getVersion());
+            eventPublisher.publishEvent(BeneficioEvento.transferencia(realizada));
+        }
+        
+        return new ResultadoLoteDTO(true, itens.size() - falhas, falhas, itens);
+    }
+    
+    private Map<Long, Beneficio> carregarAtivos(List<TransferenciaDTO> transferencias) {
+        LinkedHashSet<Long> ids = new LinkedHashSet<>();
+        for (TransferenciaDTO transferencia : transferencias) {
+            ids.add(transferencia.getFromId());
+            ids.add(transferencia.getToId());
+        }
+        
+        List<Long> pendentes = new ArrayList<>(ids);
+        Map<Long, Beneficio> beneficios = new HashMap<>(pendentes.size() * 2);
+        for (int inicio = 0; inicio < pendentes.size(); inicio += IDS_POR_CONSULTA) {
+            List<Long> parte = pendentes.subList(inicio, Math.min(inicio + IDS_POR_CONSULTA, pendentes.size()));
+            for (Beneficio beneficio : beneficioRepository.findByIdIn(parte)) {
+                beneficios.put(beneficio.getId(), beneficio);
+            }
+        }
+        return beneficios;
+    }
+    
+    private ResultadoTransferenciaDTO aplicarEmMemoria(int indice, TransferenciaDTO transferencia,
+                                                        Map<Long, Beneficio> beneficios,
+                                                        Map<Long, Money> saldos) {
+        Long fromId = transferencia.getFromId();
+        Long toId = transferencia.getToId();
+        Money valor = transferencia.getValor();
+        
+        if (fromId.equals(toId)) {
+            return new ResultadoTransferenciaDTO(indice, StatusTransferencia.INVALIDA,
+                    "Não é possível transferir para o mesmo benefício");
+        }
+        
+        Beneficio from = beneficios.get(fromId);
+        if (from == null) {
+            return new ResultadoTransferenciaDTO(indice, StatusTransferencia.NAO_ENCONTRADO,
+                    "Benefício origem não encontrado: " + fromId);
+        }
+        
+        Beneficio to = beneficios.get(toId);
+        if (to == null) {
+            return new ResultadoTransferenciaDTO(indice, StatusTransferencia.NAO_ENCONTRADO,
+                    "Benefício destino não encontrado: " + toId);
+        }
+        
+        Money saldoFrom = saldos.getOrDefault(fromId, from.getValor());
+        if (saldoFrom.isMenorQue(valor)) {
+            return new ResultadoTransferenciaDTO(indice, StatusTransferencia.SALDO_INSUFICIENTE,
+                    "Saldo insuficiente. Saldo atual: " + saldoFrom + ", Valor solicitado: " + valor);
+        }
+        
+        // O crédito é validado aqui, item a item: um saldo fora das regras da entidade só seria
+        // recusado no flush e desfaria a transação de todo o lote ou grupo
+        String invalido = validarSaldo(saldos.getOrDefault(toId, to.getValor()), valor);
+        if (invalido != null) {
+            return new ResultadoTransferenciaDTO(indice, StatusTransferencia.INVALIDA,
+                    "Saldo do benefício destino inválido após a transferência: " + invalido);
+        }
+        
+        saldos.put(fromId, saldoFrom.minus(valor));
+        saldos.put(toId, saldos.getOrDefault(toId, to.getValor()).plus(valor));
+        return new ResultadoTransferenciaDTO(indice, StatusTransferencia.SUCESSO, null);
+    }
+    
+    private String validarSaldo(Money saldo, Money credito) {
+        Money novoSaldo;
+        try {
+            novoSaldo = saldo.plus(credito);
+        } catch (ArithmeticException e) {
+            return "estouro do valor máximo";
+        }
+        return validator.validateValue(Beneficio.class, "valor", novoSaldo).stream()
+                .map(ConstraintViolation::getMessage)
+                .findFirst()
+                .orElse(null);
     }
     
+    // Saldo atual do benefício sem os lançamentos do ledger aplicados depois do offset informado.
+    // Alterações feitas fora do ledger (PUT, importação, outras estratégias) entram em qualquer offset
+    @Transactional(readOnly = true)
+    public Optional<SaldoDTO> findSaldo(Long id, Long offset) {
+        long projetado = transferenciaRepository.findOffsetProjetado();
+        long alvo = offset == null ? projetado : offset;
+        if (alvo < 0) {
+            throw new IllegalArgumentException("Offset deve ser maior ou igual a zero");
+        }
+        if (alvo > projetado) {
+            throw new IllegalArgumentException("Offset ainda não projetado. Último offset projetado: " + projetado);
+        }
+        return transferenciaRepository.findSaldoNoOffset(id, alvo)
+                .map(valor -> new SaldoDTO(id, Money.of(valor), alvo));
+    }
+    
+    // Sem limite a busca devolve todos os resultados, como antes de o parâmetro existir
+    @Transactional(readOnly = true)
     public List<BeneficioDTO> searchByNome(String nome) {
-        return beneficioRepository.findByNomeContainingAndAtivoTrue(nome)
-                .stream()
-                .map(this::convertToDTO)
-                .collect(Collectors.toList());
+        return buscarPorNome(nome, Integer.MAX_VALUE);
+    }
+    
+    @Transactional(readOnly = true)
+    public List<BeneficioDTO> searchByNome(String nome, int limite) {
+        if (limite < 1) {
+            throw new IllegalArgumentException("Limite deve ser maior que zero");
+        }
+        return buscarPorNome(nome, Math.min(limite, LIMITE_MAXIMO_BUSCA));
+    }
+    
+    private List<BeneficioDTO> buscarPorNome(String nome, int limite) {
+        // Enquanto o índice carrega na inicialização, ou se estiver desativado, a busca cai para o LIKE no banco,
+        // sobre o nome normalizado e com as mesmas regras do índice
+        if (!nomeIndex.isPronto()) {
+            String termo = BeneficioNomeIndex.normalizar(nome);
+            if (termo.isEmpty()) {
+                return List.of();
+            }
+            String escapado = termo.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+            String prefixo = escapado + "%";
+            return beneficioRepository.findByNomeNormalizado(termo, prefixo, "% " + prefixo,
+                            termo.length() < 3 ? prefixo : "%" + prefixo,
+                            limite == Integer.MAX_VALUE ? Limit.unlimited() : Limit.of(limite))
+                    .stream()
+                    .map(this::convertToDTO)
+                    .collect(Collectors.toList());
+        }
+        
+        List<Long> ids = nomeIndex.buscar(nome, limite);
+        Map<Long, BeneficioDTO> encontrados = new HashMap<>(ids.size() * 2);
+        List<Long> faltantes = new ArrayList<>();
+        for (Long id : ids) {
+            beneficioCache.get(id).ifPresentOrElse(dto -> encontrados.put(id, dto), () -> faltantes.add(id));
+        }
+        if (!faltantes.isEmpty()) {
+            for (Beneficio beneficio : beneficioRepository.findByIdIn(faltantes)) {
+                encontrados.put(beneficio.getId(), convertToDTO(beneficio));
+            }
+        }
+        
+        // Mantém a ordem de relevância do índice
+        List<BeneficioDTO> resultado = new ArrayList<>(ids.size());
+        for (Long id : ids) {
+            BeneficioDTO dto = encontrados.get(id);
+            if (dto != null) {
+                resultado.add(dto);
+            }
+        }
+        return resultado;
+    }
+    
+    private String encodeCursor(Long id) {
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(id.toString().getBytes(StandardCharsets.UTF_8));
+    }
+    
+    private Long decodeCursor(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return 0L;
+        }
+        try {
+            return Long.valueOf(new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Cursor inválido: " + cursor);
+        }
+    }
+    
+    private void verificarVersao(Beneficio beneficio, Collection<Long> versoesAceitas) {
+        if (versoesAceitas != null && !versoesAceitas.contains(beneficio.getVersion())) {
+            throw new VersaoDivergenteException("Benefício " + beneficio.getId() + " está na versão " + beneficio.getVersion());
+        }
     }
     
-    private BeneficioDTO convertToDTO(Beneficio beneficio) {
+    public BeneficioDTO convertToDTO(Beneficio beneficio) {
         BeneficioDTO dto = new BeneficioDTO();
         dto.setId(beneficio.getId());
         dto.setNome(beneficio.getNome());
@@ -115,7 +712,7 @@ public class BeneficioService {
         return dto;
     }
     
-    private Beneficio convertToEntity(BeneficioDTO dto) {
+    public Beneficio convertToEntity(BeneficioDTO dto) {
         Beneficio beneficio = new Beneficio();
         beneficio.setId(dto.getId());
         beneficio.setNome(dto.getNome());
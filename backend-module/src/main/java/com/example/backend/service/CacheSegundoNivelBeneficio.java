@@ -0,0 +1,53 @@
+package com.example.backend.service;
+
+import com.example.backend.entity.Beneficio;
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.PersistenceUnit;
+import org.hibernate.cache.spi.access.EntityDataAccess;
+import org.hibernate.cache.spi.access.SoftLock;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.spi.EventSource;
+import org.hibernate.persister.entity.EntityPersister;
+import org.springframework.stereotype.Component;
+
+// Mantém a região de Beneficio do cache de segundo nível coerente com UPDATEs que não passam pelo
+// Hibernate (SQL nativo da estratégia ATOMICA, gravações do motor de saldos). Cada ID recebe o mesmo
+// bloqueio que o Hibernate usa ao alterar uma entidade READ_WRITE: até o fim da transação as leituras
+// vão ao banco, e leituras iniciadas antes do fim não gravam o estado anterior na região.
+// Limpar a região inteira, como o Hibernate faz para SQL nativo, descartaria o cache a cada transferência.
+@Component
+public class CacheSegundoNivelBeneficio {
+    
+    @PersistenceContext
+    private EntityManager entityManager;
+    
+    @PersistenceUnit
+    private EntityManagerFactory entityManagerFactory;
+    
+    private EntityPersister persister;
+    
+    // Nulo com o cache de segundo nível desligado
+    private EntityDataAccess acesso;
+    
+    @PostConstruct
+    void iniciar() {
+        persister = entityManagerFactory.unwrap(SessionFactoryImplementor.class)
+                .getMappingMetamodel()
+                .getEntityDescriptor(Beneficio.class);
+        acesso = persister.getCacheAccessStrategy();
+    }
+    
+    // Deve ser chamado dentro da transação, antes do UPDATE; o bloqueio é liberado quando ela termina
+    public void bloquear(Long id) {
+        if (acesso == null) {
+            return;
+        }
+        EventSource sessao = entityManager.unwrap(EventSource.class);
+        Object chave = acesso.generateCacheKey(id, persister, sessao.getFactory(), sessao.getTenantIdentifier());
+        SoftLock bloqueio = acesso.lockItem(sessao, chave, null);
+        sessao.getActionQueue().registerProcess((sucesso, s) -> acesso.unlockItem(s, chave, bloqueio));
+    }
+}
@@ -0,0 +1,159 @@
+package com.example.backend.service;
+
+import com.example.backend.dto.ResultadoLoteDTO;
+import com.example.backend.dto.ResultadoTransferenciaDTO;
+import com.example.backend.dto.TransferenciaDTO;
+import io.micrometer.core.instrument.DistributionSummary;
+import org.springframework.dao.ConcurrencyFailureException;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+// Group commit das transferências da estratégia GRUPO. Quem chama entra na lista de pendentes; se não
+// há líder, vira líder, espera a janela (ou o grupo encher), retira até tamanhoMaximo pendentes e aplica
+// todas com uma única chamada ao aplicador (uma transação). Os demais só aguardam o próprio resultado.
+// Ao terminar, o líder passa a liderança ao pendente mais antigo, então chegadas durante a aplicação
+// formam o próximo grupo e nenhuma thread fica presa liderando grupos alheios.
+final class CoordenadorGrupo {
+    
+    private static final class Pedido {
+        
+        private final TransferenciaDTO transferencia;
+        private final CompletableFuture<ResultadoTransferenciaDTO> resultado = new CompletableFuture<>();
+        private final CompletableFuture<Void> lideranca = new CompletableFuture<>();
+        
+        private Pedido(TransferenciaDTO transferencia) {
+            this.transferencia = transferencia;
+        }
+    }
+    
+    private final Object monitor = new Object();
+    
+    // Protegidos por monitor
+    private final List<Pedido> pendentes = new ArrayList<>();
+    private boolean comLider;
+    private int tamanhoUltimoGrupo;
+    
+    private final long janelaNanos;
+    private final int tamanhoMaximo;
+    private final Function<List<TransferenciaDTO>, ResultadoLoteDTO> aplicador;
+    private final DistributionSummary tamanhoGrupos;
+    
+    CoordenadorGrupo(long janelaNanos, int tamanhoMaximo, Function<List<TransferenciaDTO>, ResultadoLoteDTO> aplicador,
+                     DistributionSummary tamanhoGrupos) {
+        this.janelaNanos = janelaNanos;
+        this.tamanhoMaximo = tamanhoMaximo;
+        this.aplicador = aplicador;
+        this.tamanhoGrupos = tamanhoGrupos;
+    }
+    
+    // Bloqueia até o grupo da transferência ser confirmado ou desfeito. Um conflito persistente é relançado
+    // para todos os pedidos do grupo; outras falhas só para o pedido que falhar ao ser reaplicado sozinho.
+    ResultadoTransferenciaDTO transferir(TransferenciaDTO transferencia) {
+        Pedido pedido = new Pedido(transferencia);
+        boolean lider;
+        synchronized (monitor) {
+            pendentes.add(pedido);
+            lider = !comLider;
+            comLider = true;
+            if (!lider && pendentes.size() >= tamanhoMaximo) {
+                monitor.notifyAll();
+            }
+        }
+        
+        if (!lider) {
+            CompletableFuture.anyOf(pedido.resultado, pedido.lideranca).join();
+        }
+        if (!pedido.resultado.isDone()) {
+            liderar();
+        }
+        try {
+            return pedido.resultado.join();
+        } catch (CompletionException e) {
+            throw e.getCause() instanceof RuntimeException causa ? causa : e;
+        }
+    }
+    
+    private void liderar() {
+        List<Pedido> grupo = List.of();
+        try {
+            grupo = coletar();
+            aplicar(grupo);
+        } finally {
+            passarLideranca();
+            // Nenhum pedido retirado fica sem resultado; os já concluídos não são alterados
+            IllegalStateException interrompido = new IllegalStateException("Grupo de transferências não aplicado");
+            grupo.forEach(pedido -> pedido.resultado.completeExceptionally(interrompido));
+        }
+    }
+    
+    // A janela só é esperada se o grupo anterior reuniu mais de uma transferência ou se já há outras
+    // pendentes; com um chamador por vez ela seria apenas latência a mais
+    private List<Pedido> coletar() {
+        synchronized (monitor) {
+            long limite = System.nanoTime() + janelaNanos;
+            long restante = tamanhoUltimoGrupo > 1 || pendentes.size() > 1 ? janelaNanos : 0;
+            while (pendentes.size() < tamanhoMaximo && restante > 0) {
+                try {
+                    TimeUnit.NANOSECONDS.timedWait(monitor, restante);
+                } catch (InterruptedException e) {
+                    // Aplica o que já chegou; a interrupção fica registrada para quem chamou
+                    Thread.currentThread().interrupt();
+                    break;
+                }
+                restante = limite - System.nanoTime();
+            }
+            List<Pedido> retirados = pendentes.subList(0, Math.min(pendentes.size(), tamanhoMaximo));
+            List<Pedido> grupo = new ArrayList<>(retirados);
+            retirados.clear();
+            tamanhoUltimoGrupo = grupo.size();
+            return grupo;
+        }
+    }
+    
+    private void aplicar(List<Pedido> grupo) {
+        tamanhoGrupos.record(grupo.size());
+        List<TransferenciaDTO> transferencias = new ArrayList<>(grupo.size());
+        grupo.forEach(pedido -> transferencias.add(pedido.transferencia));
+        try {
+            ResultadoLoteDTO resultado = aplicador.apply(transferencias);
+            for (ResultadoTransferenciaDTO item : resultado.getItens()) {
+                grupo.get(item.getIndice()).resultado.complete(item);
+            }
+        } catch (ConcurrencyFailureException | Error e) {
+            // Conflito que sobreviveu às retentativas do aplicador: vale para o grupo inteiro
+            grupo.forEach(pedido -> pedido.resultado.completeExceptionally(e));
+            throw e;
+        } catch (RuntimeException e) {
+            // Uma transferência problemática não pode derrubar as outras do grupo: cada uma é
+            // reaplicada sozinha, e só a que falhar de novo recebe a exceção
+            if (grupo.size() == 1) {
+                grupo.get(0).resultado.completeExceptionally(e);
+                return;
+            }
+            grupo.forEach(this::aplicarIsolado);
+        }
+    }
+    
+    private void aplicarIsolado(Pedido pedido) {
+        try {
+            pedido.resultado.complete(aplicador.apply(List.of(pedido.transferencia)).getItens().get(0));
+        } catch (RuntimeException | Error e) {
+            pedido.resultado.completeExceptionally(e);
+        }
+    }
+    
+    private void passarLideranca() {
+        synchronized (monitor) {
+            if (pendentes.isEmpty()) {
+                comLider = false;
+            } else {
+                pendentes.get(0).lideranca.complete(null);
+            }
+        }
+    }
+}
@@ -0,0 +1,289 @@
+package com.example.backend.service;
+
+import com.example.backend.dto.BeneficioDTO;
+import com.example.backend.dto.EstatisticasDTO;
+import com.example.backend.dto.FaixaValorDTO;
+import com.example.backend.dto.TransferenciaRealizadaDTO;
+import com.example.backend.event.BeneficioEvento;
+import com.example.backend.replica.ConsistenciaLeitura;
+import com.example.common.money.Money;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+// Quantidade, soma, mínimo, máximo e histograma do valor dos benefícios ativos, mantidos em memória
+// a partir dos eventos do BeneficioService (e do motor da estratégia MEMORIA, publicados fora de transação).
+// Cada evento traz o valor anterior e o novo; quantidade, soma e faixas mudam por diferenças que se somam
+// em qualquer ordem, então nada é guardado por benefício. Mínimo e máximo só são estendidos pelos eventos:
+// quando um benefício deixa o extremo, ele é relido na conferência seguinte, que é antecipada.
+// A conferência com o banco é uma única consulta agregada, sem carregar as linhas.
+@Component
+public class EstatisticasBeneficios {
+    
+    private static final Logger log = LoggerFactory.getLogger(EstatisticasBeneficios.class);
+    
+    private static final class Contadores {
+        
+        private final LongAdder quantidade = new LongAdder();
+        private final LongAdder soma = new LongAdder();
+        private final LongAdder[] faixas;
+        private final LongAccumulator minimo = new LongAccumulator(Math::min, Long.MAX_VALUE);
+        private final LongAccumulator maximo = new LongAccumulator(Math::max, Long.MIN_VALUE);
+        
+        private Contadores(int quantidadeFaixas) {
+            faixas = new LongAdder[quantidadeFaixas];
+            for (int i = 0; i < faixas.length; i++) {
+                faixas[i] = new LongAdder();
+            }
+        }
+    }
+    
+    // Limites superiores exclusivos das faixas, em centavos; há uma faixa a mais, sem limite
+    private final long[] limites;
+    
+    // COUNT, SUM, MIN, MAX e uma contagem com CASE por faixa, com os limites como parâmetros
+    private final String consultaAgregada;
+    
+    private final Object[] parametrosConsulta;
+    
+    private volatile Contadores atuais;
+    
+    // Diferenças recebidas durante uma conferência, somadas depois ao resultado do banco
+    private volatile Contadores capturados;
+    
+    private volatile boolean extremosDesatualizados;
+    
+    private volatile Instant reconciliadoEm;
+    
+    private final long intervaloMs;
+    
+    private final Counter correcoes;
+    
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    
+    public EstatisticasBeneficios(@Value("${beneficio.estatisticas.faixas:100,500,1000,5000,10000}") String[] faixas,
+                                  @Value("${beneficio.estatisticas.intervalo-reconciliacao:60000}") long intervaloMs,
+                                  MeterRegistry meterRegistry) {
+        this.limites = new long[faixas.length];
+        for (int i = 0; i < faixas.length; i++) {
+            limites[i] = Money.parse(faixas[i].trim()).getCentavos();
+            if (i > 0 && limites[i] <= limites[i - 1]) {
+                throw new IllegalArgumentException("beneficio.estatisticas.faixas deve estar em ordem crescente");
+            }
+        }
+        this.intervaloMs = intervaloMs;
+        this.atuais = new Contadores(limites.length + 1);
+        
+        StringBuilder consulta = new StringBuilder("SELECT COUNT(*), COALESCE(SUM(VALOR), 0), MIN(VALOR), MAX(VALOR)");
+        List<Object> parametros = new ArrayList<>();
+        for (int i = 0; i <= limites.length; i++) {
+            consulta.append(", SUM(CASE WHEN ");
+            if (i > 0) {
+                consulta.append("VALOR >= ?");
+                parametros.add(Money.ofCentavos(limites[i - 1]).toBigDecimal());
+            }
+            if (i > 0 && i < limites.length) {
+                consulta.append(" AND ");
+            }
+            if (i < limites.length) {
+                consulta.append("VALOR < ?");
+                parametros.add(Money.ofCentavos(limites[i]).toBigDecimal());
+            }
+            consulta.append(" THEN 1 ELSE 0 END)");
+        }
+        this.consultaAgregada = consulta.append(" FROM BENEFICIO WHERE ATIVO = TRUE").toString();
+        this.parametrosConsulta = parametros.toArray();
+        
+        this.correcoes = Counter.builder("beneficio.estatisticas.correcoes")
+                .description("Conferências em que os totais em memória divergiam do banco")
+                .register(meterRegistry);
+    }
+    
+    // Leitura sem acesso ao banco; cada campo é consistente, mas o conjunto pode refletir
+    // alterações aplicadas entre uma leitura e outra. Zerada até a primeira conferência (reconciliadoEm nulo).
+    public EstatisticasDTO consultar() {
+        Contadores contadores = atuais;
+        long total = contadores.quantidade.sum();
+        long somaCentavos = contadores.soma.sum();
+        long menor = contadores.minimo.get();
+        long maior = contadores.maximo.get();
+        List<FaixaValorDTO> histograma = new ArrayList<>(contadores.faixas.length);
+        for (int i = 0; i < contadores.faixas.length; i++) {
+            histograma.add(new FaixaValorDTO(
+                    i == 0 ? null : Money.ofCentavos(limites[i - 1]),
+                    i == limites.length ? null : Money.ofCentavos(limites[i]),
+                    contadores.faixas[i].sum()));
+        }
+        return new EstatisticasDTO(total, Money.ofCentavos(somaCentavos),
+                total == 0 || menor == Long.MAX_VALUE ? null : Money.ofCentavos(menor),
+                total == 0 || maior == Long.MIN_VALUE ? null : Money.ofCentavos(maior),
+                total == 0 ? null : Money.ofCentavos(somaCentavos / total),
+                histograma, reconciliadoEm);
+    }
+    
+    @TransactionalEventListener(fallbackExecution = true)
+    public void aoAlterar(BeneficioEvento evento) {
+        BeneficioDTO beneficio = evento.getBeneficio();
+        switch (evento.getTipo()) {
+            case CRIADO -> transicao(null, centavosSeAtivo(beneficio));
+            case ATUALIZADO -> transicao(centavos(evento.getValorAnterior()), centavosSeAtivo(beneficio));
+            case EXCLUIDO -> transicao(centavos(beneficio.getValor()), null);
+            case TRANSFERENCIA -> {
+                TransferenciaRealizadaDTO transferencia = evento.getTransferencia();
+                long valor = transferencia.getValor().getCentavos();
+                long origem = transferencia.getSaldoOrigem().getCentavos();
+                long destino = transferencia.getSaldoDestino().getCentavos();
+                transicao(origem + valor, origem);
+                transicao(destino - valor, destino);
+            }
+        }
+    }
+    
+    // Sem atraso inicial: a primeira conferência roda no agendador logo após a inicialização, sem segurá-la.
+    // Depois, a cada intervalo-reconciliacao ou assim que um extremo precisar ser relido, no máximo a
+    // cada intervalo-minimo-reconciliacao.
+    @Scheduled(fixedDelayString = "${beneficio.estatisticas.intervalo-minimo-reconciliacao:5000}")
+    public void verificar() {
+        Instant ultima = reconciliadoEm;
+        if (ultima == null || extremosDesatualizados
+                || Duration.between(ultima, Instant.now()).toMillis() >= intervaloMs) {
+            reconciliar();
+        }
+    }
+    
+    // Os totais passam a ser os do banco mais as diferenças recebidas durante a consulta. Um evento cujo
+    // commit antecede a consulta, mas que chega depois do início da conferência, é contado duas vezes;
+    // a janela é curta e a conferência seguinte corrige.
+    public synchronized void reconciliar() {
+        long inicio = System.currentTimeMillis();
+        extremosDesatualizados = false;
+        Contadores novos = new Contadores(limites.length + 1);
+        capturados = novos;
+        try {
+            TransactionTemplate leitura = new TransactionTemplate(transactionManager);
+            leitura.setReadOnly(true);
+            // Comparada com totais mantidos por eventos do primário, uma réplica atrasada geraria correções falsas
+            long[] banco = ConsistenciaLeitura.noPrimario(() -> leitura.execute(status ->
+                    jdbcTemplate.queryForObject(consultaAgregada, this::lerAgregado, parametrosConsulta)));
+            
+            novos.quantidade.add(banco[0]);
+            novos.soma.add(banco[1]);
+            if (banco[0] > 0) {
+                novos.minimo.accumulate(banco[2]);
+                novos.maximo.accumulate(banco[3]);
+            }
+            for (int i = 0; i < novos.faixas.length; i++) {
+                novos.faixas[i].add(banco[4 + i]);
+            }
+            Contadores anteriores = atuais;
+            atuais = novos;
+            capturados = null;
+            
+            if (reconciliadoEm != null && divergem(anteriores, novos)) {
+                correcoes.increment();
+            }
+            reconciliadoEm = Instant.now();
+            log.debug("Estatísticas reconciliadas: {} benefícios em {} ms", banco[0], System.currentTimeMillis() - inicio);
+        } catch (RuntimeException e) {
+            capturados = null;
+            throw e;
+        }
+    }
+    
+    private long[] lerAgregado(ResultSet rs, int linha) throws SQLException {
+        long[] agregado = new long[4 + limites.length + 1];
+        agregado[0] = rs.getLong(1);
+        agregado[1] = centavos(rs.getBigDecimal(2));
+        agregado[2] = centavos(rs.getBigDecimal(3));
+        agregado[3] = centavos(rs.getBigDecimal(4));
+        for (int i = 0; i <= limites.length; i++) {
+            agregado[4 + i] = rs.getLong(5 + i);
+        }
+        return agregado;
+    }
+    
+    // capturados é lido antes de atuais: um evento concorrente com a troca do fim da conferência
+    // nunca fica fora dos novos contadores nem é somado duas vezes a eles
+    private void transicao(Long anterior, Long novo) {
+        Contadores emConferencia = capturados;
+        Contadores contadores = atuais;
+        if (anterior != null && !anterior.equals(novo)
+                && ((anterior == contadores.minimo.get() && (novo == null || novo > anterior))
+                || (anterior == contadores.maximo.get() && (novo == null || novo < anterior)))) {
+            extremosDesatualizados = true;
+        }
+        aplicar(contadores, anterior, novo);
+        if (emConferencia != null && emConferencia != contadores) {
+            aplicar(emConferencia, anterior, novo);
+        }
+    }
+    
+    private void aplicar(Contadores contadores, Long anterior, Long novo) {
+        if (anterior != null) {
+            contadores.quantidade.decrement();
+            contadores.soma.add(-anterior);
+            contadores.faixas[faixa(anterior)].decrement();
+        }
+        if (novo != null) {
+            contadores.quantidade.increment();
+            contadores.soma.add(novo);
+            contadores.faixas[faixa(novo)].increment();
+            contadores.minimo.accumulate(novo);
+            contadores.maximo.accumulate(novo);
+        }
+    }
+    
+    private static boolean divergem(Contadores a, Contadores b) {
+        if (a.quantidade.sum() != b.quantidade.sum() || a.soma.sum() != b.soma.sum()) {
+            return true;
+        }
+        for (int i = 0; i < a.faixas.length; i++) {
+            if (a.faixas[i].sum() != b.faixas[i].sum()) {
+                return true;
+            }
+        }
+        return false;
+    }
+    
+    private static Long centavosSeAtivo(BeneficioDTO beneficio) {
+        return Boolean.TRUE.equals(beneficio.getAtivo()) ? centavos(beneficio.getValor()) : null;
+    }
+    
+    private static Long centavos(Money valor) {
+        return valor == null ? null : valor.getCentavos();
+    }
+    
+    private static long centavos(BigDecimal valor) {
+        return valor == null ? 0 : Money.of(valor).getCentavos();
+    }
+    
+    private int faixa(long centavos) {
+        int posicao = Arrays.binarySearch(limites, centavos);
+        // Valor igual a um limite pertence à faixa seguinte, pois o limite superior é exclusivo
+        return posicao >= 0 ? posicao + 1 : -posicao - 1;
+    }
+}
@@ -0,0 +1,16 @@
+package com.example.backend.service;
+
+public enum EstrategiaTransferencia {
+    // Lê sem travar e confia no @Version; conflitos são retentados com backoff e jitter
+    OTIMISTA,
+    // SELECT ... FOR UPDATE nas duas linhas, sempre em ordem crescente de ID
+    PESSIMISTA,
+    // Débito e crédito por UPDATE condicional; a contagem de linhas afetadas é a validação de saldo
+    ATOMICA,
+    // Apenas registra a transferência no ledger TRANSFERENCIA; o LedgerProjetor aplica os saldos em lotes
+    LEDGER,
+    // Saldos em memória no MotorSaldos, gravados no banco em lotes (write-behind)
+    MEMORIA,
+    // Transferências concorrentes reunidas pelo CoordenadorGrupo e confirmadas juntas, uma transação por grupo
+    GRUPO
+}
@@ -0,0 +1,73 @@
+package com.example.backend.service;
+
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.PersistenceUnit;
+import org.hibernate.Cache;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+// Completa BENEFICIO até beneficio.gerador.quantidade benefícios ativos, para medir a aplicação com
+// volume realista. Roda antes do ApplicationReadyEvent, então índice de nomes e estatísticas já
+// carregam as linhas geradas. Usa INSERT ... SELECT sobre SYSTEM_RANGE do H2, em lotes de
+// beneficio.gerador.tamanho-lote linhas, cada um em sua própria transação; sem eventos de domínio.
+@Component
+public class GeradorBeneficios implements ApplicationRunner {
+    
+    private static final Logger log = LoggerFactory.getLogger(GeradorBeneficios.class);
+    
+    // Nomes no formato "<prefixo> <sufixo> <n>", como os dos benchmarks, para a busca ter colisões realistas.
+    // Valores entre 0,01 e 20.000,00, espalhados por todas as faixas das estatísticas.
+    private static final String GERAR =
+            "INSERT INTO BENEFICIO (NOME, DESCRICAO, VALOR, ATIVO, VERSION) " +
+            "SELECT ARRAY['Auxílio', 'Vale', 'Bolsa', 'Benefício', 'Abono', 'Seguro', 'Salário', 'Adicional'][MOD(X, 8) + 1] " +
+            "|| ' ' || ARRAY['Alimentação', 'Refeição', 'Transporte', 'Educação', 'Saúde', 'Creche', 'Moradia', " +
+            "'Família', 'Maternidade', 'Natalidade', 'Combustível', 'Cultura', 'Home Office'][MOD(X / 8, 13) + 1] " +
+            "|| ' ' || X, 'Gerado ' || X, (MOD(X * 7919, 2000000) + 1) / 100.0, TRUE, 0 " +
+            "FROM SYSTEM_RANGE(?, ?)";
+    
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+    
+    @PersistenceUnit
+    private EntityManagerFactory entityManagerFactory;
+    
+    @Value("${beneficio.gerador.quantidade:0}")
+    private long quantidade;
+    
+    @Value("${beneficio.gerador.tamanho-lote:100000}")
+    private int tamanhoLote;
+    
+    @Override
+    public void run(ApplicationArguments argumentos) {
+        if (quantidade <= 0) {
+            return;
+        }
+        Long existentes = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM BENEFICIO WHERE ATIVO = TRUE", Long.class);
+        if (existentes >= quantidade) {
+            log.info("Gerador: {} benefícios ativos já existem, nada a gerar", existentes);
+            return;
+        }
+        
+        long inicio = System.currentTimeMillis();
+        // A numeração continua depois dos existentes para os nomes não se repetirem entre execuções
+        for (long de = existentes + 1; de <= quantidade; de += tamanhoLote) {
+            long ate = Math.min(de + tamanhoLote - 1, quantidade);
+            long primeiro = de;
+            transactionTemplate.executeWithoutResult(status -> jdbcTemplate.update(GERAR, primeiro, ate));
+            log.info("Gerador: {} de {} benefícios", ate, quantidade);
+        }
+        // Os INSERTs não passam pelo Hibernate; listas guardadas no cache de consultas não teriam os novos benefícios
+        entityManagerFactory.getCache().unwrap(Cache.class).evictQueryRegions();
+        log.info("Gerador: {} benefícios criados em {} ms", quantidade - existentes, System.currentTimeMillis() - inicio);
+    }
+}
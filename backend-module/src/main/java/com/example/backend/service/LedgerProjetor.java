@@ -0,0 +1,147 @@
+package com.example.backend.service;
+
+import com.example.backend.dto.ResultadoLoteDTO;
+import com.example.backend.dto.ResultadoTransferenciaDTO;
+import com.example.backend.dto.StatusTransferencia;
+import com.example.backend.dto.TransferenciaDTO;
+import com.example.backend.entity.StatusLedger;
+import com.example.backend.entity.Transferencia;
+import com.example.backend.repository.TransferenciaRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.data.domain.Limit;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// Aplica os lançamentos PENDENTE do ledger aos saldos de BENEFICIO, em ordem de ID e em lotes.
+// Cada lançamento projetado recebe a próxima posição do ledger; a última posição fica em LEDGER_PROJECAO,
+// travada durante o lote, então a ordem do ledger é a ordem de projeção mesmo com IDs confirmados fora de ordem.
+@Component
+@ConditionalOnProperty(prefix = "beneficio.transferencia", name = "estrategia", havingValue = "LEDGER")
+public class LedgerProjetor {
+    
+    private static final Logger log = LoggerFactory.getLogger(LedgerProjetor.class);
+    
+    private static final String TRAVAR_POSICAO = "SELECT POSICAO FROM LEDGER_PROJECAO WHERE ID = 1 FOR UPDATE";
+    
+    private static final String ATUALIZAR_POSICAO = "UPDATE LEDGER_PROJECAO SET POSICAO = ? WHERE ID = 1";
+    
+    @Autowired
+    private TransferenciaRepository transferenciaRepository;
+    
+    @Autowired
+    private BeneficioService beneficioService;
+    
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+    
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    
+    @Value("${beneficio.ledger.tamanho-lote:500}")
+    private int tamanhoLote;
+    
+    @Scheduled(fixedDelayString = "${beneficio.ledger.intervalo:200}")
+    public void projetar() {
+        try {
+            int projetados;
+            do {
+                projetados = projetarLote();
+            } while (projetados == tamanhoLote);
+        } catch (ConcurrencyFailureException e) {
+            // Benefício alterado por outro caminho durante o lote; o lote é refeito na próxima execução
+            log.debug("Conflito ao projetar o ledger, nova tentativa no próximo ciclo", e);
+        }
+    }
+    
+    // Uma falha que não é conflito (restrição violada no flush, por exemplo) desfaz o lote inteiro e se
+    // repetiria a cada ciclo. Os lançamentos do lote são então projetados um a um e só o que falhar é rejeitado.
+    private int projetarLote() {
+        try {
+            return transactionTemplate.execute(status -> {
+                long posicao = travarPosicao();
+                return projetar(posicao, transferenciaRepository.findByStatusOrderByIdAsc(
+                        StatusLedger.PENDENTE, Limit.of(tamanhoLote)));
+            });
+        } catch (ConcurrencyFailureException e) {
+            throw e;
+        } catch (RuntimeException e) {
+            log.warn("Falha ao projetar lote do ledger; projetando os lançamentos individualmente", e);
+            return projetarIndividualmente();
+        }
+    }
+    
+    private int projetarIndividualmente() {
+        List<Long> ids = new ArrayList<>();
+        for (Transferencia lancamento : transferenciaRepository.findByStatusOrderByIdAsc(
+                StatusLedger.PENDENTE, Limit.of(tamanhoLote))) {
+            ids.add(lancamento.getId());
+        }
+        for (Long id : ids) {
+            try {
+                transactionTemplate.execute(status -> projetar(travarPosicao(), pendente(id)));
+            } catch (ConcurrencyFailureException e) {
+                throw e;
+            } catch (RuntimeException e) {
+                log.error("Lançamento {} do ledger rejeitado por falha na projeção", id, e);
+                transactionTemplate.executeWithoutResult(status -> rejeitar(travarPosicao(), pendente(id), e));
+            }
+        }
+        return ids.size();
+    }
+    
+    // Lido depois de travar a posição, para não aplicar um lançamento já projetado por outra instância
+    private List<Transferencia> pendente(Long id) {
+        return transferenciaRepository.findById(id)
+                .filter(lancamento -> lancamento.getStatus() == StatusLedger.PENDENTE)
+                .map(List::of)
+                .orElse(List.of());
+    }
+    
+    private int projetar(long posicao, List<Transferencia> pendentes) {
+        if (pendentes.isEmpty()) {
+            return 0;
+        }
+        List<TransferenciaDTO> transferencias = new ArrayList<>(pendentes.size());
+        for (Transferencia lancamento : pendentes) {
+            transferencias.add(new TransferenciaDTO(lancamento.getFromId(), lancamento.getToId(), lancamento.getValor()));
+        }
+        
+        // Participa desta transação: saldos, status dos lançamentos e posição são confirmados juntos
+        ResultadoLoteDTO resultado = beneficioService.transferirLote(transferencias, false);
+        for (ResultadoTransferenciaDTO item : resultado.getItens()) {
+            Transferencia lancamento = pendentes.get(item.getIndice());
+            lancamento.concluir(item.getStatus(), item.getMensagem());
+            lancamento.setPosicao(++posicao);
+        }
+        jdbcTemplate.update(ATUALIZAR_POSICAO, posicao);
+        return pendentes.size();
+    }
+    
+    private void rejeitar(long posicao, List<Transferencia> pendentes, RuntimeException falha) {
+        if (pendentes.isEmpty()) {
+            return;
+        }
+        Transferencia lancamento = pendentes.get(0);
+        lancamento.concluir(StatusTransferencia.NAO_APLICADA,
+                "Falha ao aplicar o lançamento: " + NestedExceptionUtils.getMostSpecificCause(falha).getMessage());
+        lancamento.setPosicao(posicao + 1);
+        jdbcTemplate.update(ATUALIZAR_POSICAO, posicao + 1);
+    }
+    
+    // Trava a linha de LEDGER_PROJECAO até o fim da transação, serializando os projetores. Pelo JDBC direto:
+    // um UPDATE nativo pelo Hibernate limparia o cache de segundo nível.
+    private long travarPosicao() {
+        return jdbcTemplate.queryForObject(TRAVAR_POSICAO, Long.class);
+    }
+}
@@ -0,0 +1,8 @@
+package com.example.backend.service;
+
+public class SaldoInsuficienteException extends IllegalStateException {
+    
+    public SaldoInsuficienteException(String message) {
+        super(message);
+    }
+}
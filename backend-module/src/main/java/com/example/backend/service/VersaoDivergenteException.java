@@ -0,0 +1,8 @@
+package com.example.backend.service;
+
+public class VersaoDivergenteException extends IllegalStateException {
+    
+    public VersaoDivergenteException(String message) {
+        super(message);
+    }
+}
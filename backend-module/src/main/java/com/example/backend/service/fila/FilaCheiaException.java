@@ -0,0 +1,18 @@
+package com.example.backend.service.fila;
+
+import java.time.Duration;
+
+public class FilaCheiaException extends RuntimeException {
+    
+    // Sugestão de espera para o cliente tentar de novo (Retry-After)
+    private final Duration esperaSugerida;
+    
+    public FilaCheiaException(String message, Duration esperaSugerida) {
+        super(message);
+        this.esperaSugerida = esperaSugerida;
+    }
+    
+    public Duration getEsperaSugerida() {
+        return esperaSugerida;
+    }
+}
@@ -0,0 +1,347 @@
+package com.example.backend.service.fila;
+
+import com.example.backend.config.TransferenciaProperties;
+import com.example.backend.dto.ResultadoLoteDTO;
+import com.example.backend.dto.ResultadoTransferenciaDTO;
+import com.example.backend.dto.StatusTransferencia;
+import com.example.backend.dto.TransferenciaAssincronaDTO;
+import com.example.backend.dto.TransferenciaDTO;
+import com.example.backend.entity.StatusLedger;
+import com.example.backend.entity.Transferencia;
+import com.example.backend.repository.TransferenciaRepository;
+import com.example.backend.service.BeneficioNaoEncontradoException;
+import com.example.backend.service.BeneficioService;
+import com.example.backend.service.EstrategiaTransferencia;
+import com.example.backend.service.SaldoInsuficienteException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+// Transferências recebidas com async=true. Cada uma é gravada como lançamento PENDENTE em TRANSFERENCIA
+// antes da resposta 202 e só então distribuída em partições pelo benefício de origem; cada partição tem
+// uma fila limitada e uma única thread, então transferências da mesma origem são aplicadas na ordem de
+// chegada. A thread drena até tamanho-lote transferências e as aplica em uma única transação (transferirLote
+// em melhor esforço), junto com o status dos lançamentos. Com a fila da partição cheia a transferência é
+// recusada. Lançamentos PENDENTE de uma execução anterior voltam para as filas na inicialização.
+// Com a estratégia LEDGER o lançamento é o próprio registro do ledger e o projetor o aplica, sem fila.
+@Component
+public class FilaTransferencias {
+    
+    private static final Logger log = LoggerFactory.getLogger(FilaTransferencias.class);
+    
+    private ParticaoFila[] particoes;
+    
+    private volatile boolean encerrado;
+    
+    @Value("${beneficio.fila.particoes:1}")
+    private int quantidadeParticoes;
+    
+    @Value("${beneficio.fila.capacidade:10000}")
+    private int capacidade;
+    
+    @Value("${beneficio.fila.tamanho-lote:500}")
+    private int tamanhoLote;
+    
+    @Value("${beneficio.fila.retry-after:1s}")
+    private Duration retryAfter;
+    
+    @Autowired
+    private BeneficioService beneficioService;
+    
+    @Autowired
+    private TransferenciaRepository transferenciaRepository;
+    
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+    
+    @Autowired
+    private TransferenciaProperties transferenciaProperties;
+    
+    @Autowired
+    private MeterRegistry meterRegistry;
+    
+    private Counter rejeitadas;
+    private DistributionSummary tamanhoLotes;
+    private Timer tempoAteConclusao;
+    
+    @PostConstruct
+    public void iniciar() {
+        int quantidade = Math.max(1, quantidadeParticoes);
+        particoes = new ParticaoFila[quantidade];
+        for (int i = 0; i < quantidade; i++) {
+            particoes[i] = new ParticaoFila(i, capacidade, Math.max(1, tamanhoLote), this::aplicar);
+            particoes[i].iniciar();
+        }
+        
+        Gauge.builder("beneficio.transferencia.fila", this, FilaTransferencias::tamanhoFilas)
+                .description("Transferências assíncronas aguardando aplicação")
+                .register(meterRegistry);
+        rejeitadas = Counter.builder("beneficio.transferencia.fila.rejeitadas")
+                .description("Transferências assíncronas recusadas com a fila cheia")
+                .register(meterRegistry);
+        tamanhoLotes = DistributionSummary.builder("beneficio.transferencia.fila.lote")
+                .description("Transferências aplicadas por transação pelas threads da fila")
+                .maximumExpectedValue((double) Math.max(1, tamanhoLote))
+                .register(meterRegistry);
+        tempoAteConclusao = Timer.builder("beneficio.transferencia.fila.espera")
+                .description("Tempo entre o recebimento e a conclusão de uma transferência assíncrona")
+                .register(meterRegistry);
+    }
+    
+    // Transferências aceitas e ainda não aplicadas quando a aplicação parou. Um lançamento recolocado que
+    // já estiver em outra fila é aplicado uma única vez: a aplicação trava os lançamentos e ignora os concluídos.
+    @EventListener(ApplicationReadyEvent.class)
+    public void recuperar() {
+        if (transferenciaProperties.getEstrategia() == EstrategiaTransferencia.LEDGER) {
+            return;
+        }
+        long ultimoId = 0;
+        int recuperadas = 0;
+        while (true) {
+            long aPartirDe = ultimoId;
+            // Transação de escrita: lê no primário, mesmo com réplicas configuradas
+            List<Transferencia> pendentes = transactionTemplate.execute(status ->
+                    transferenciaRepository.findByStatusAndIdGreaterThanOrderByIdAsc(
+                            StatusLedger.PENDENTE, aPartirDe, Limit.of(Math.max(1, tamanhoLote))));
+            if (pendentes.isEmpty()) {
+                break;
+            }
+            for (Transferencia lancamento : pendentes) {
+                TransferenciaDTO transferencia = new TransferenciaDTO(
+                        lancamento.getFromId(), lancamento.getToId(), lancamento.getValor());
+                try {
+                    particao(lancamento.getFromId()).colocar(new TransferenciaEnfileirada(lancamento.getId(), transferencia));
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+                ultimoId = lancamento.getId();
+                recuperadas++;
+            }
+        }
+        if (recuperadas > 0) {
+            log.info("{} transferências assíncronas pendentes recolocadas na fila", recuperadas);
+        }
+    }
+    
+    @PreDestroy
+    public void encerrar() throws InterruptedException {
+        encerrado = true;
+        int restantes = 0;
+        for (ParticaoFila particao : particoes) {
+            restantes += particao.encerrar();
+        }
+        if (restantes > 0) {
+            log.info("{} transferências assíncronas continuam pendentes para a próxima inicialização", restantes);
+        }
+    }
+    
+    public TransferenciaAssincronaDTO enfileirar(TransferenciaDTO transferenciaDTO) {
+        if (transferenciaDTO.getFromId().equals(transferenciaDTO.getToId())) {
+            throw new IllegalArgumentException("Não é possível transferir para o mesmo benefício");
+        }
+        if (encerrado) {
+            throw new FilaCheiaException("Fila de transferências encerrada", retryAfter);
+        }
+        if (transferenciaProperties.getEstrategia() == EstrategiaTransferencia.LEDGER) {
+            return beneficioService.transferir(transferenciaDTO)
+                    .orElseThrow(() -> new IllegalStateException("Transferência não registrada no ledger"));
+        }
+        
+        ParticaoFila particao = particao(transferenciaDTO.getFromId());
+        if (!particao.temVaga()) {
+            rejeitadas.increment();
+            throw new FilaCheiaException("Fila de transferências cheia. Tente novamente.", retryAfter);
+        }
+        // Gravada antes de entrar na fila: a thread da partição só conclui lançamentos já confirmados
+        Transferencia lancamento = transactionTemplate.execute(status -> transferenciaRepository.save(
+                new Transferencia(transferenciaDTO.getFromId(), transferenciaDTO.getToId(), transferenciaDTO.getValor())));
+        if (!particao.oferecer(new TransferenciaEnfileirada(lancamento.getId(), transferenciaDTO))) {
+            transactionTemplate.executeWithoutResult(status -> concluirPendentes(
+                    List.of(lancamento.getId()), StatusTransferencia.NAO_APLICADA, "Fila de transferências cheia"));
+            rejeitadas.increment();
+            throw new FilaCheiaException("Fila de transferências cheia. Tente novamente.", retryAfter);
+        }
+        return beneficioService.convertToDTO(lancamento);
+    }
+    
+    private ParticaoFila particao(Long fromId) {
+        return particoes[Math.floorMod(Long.hashCode(fromId), particoes.length)];
+    }
+    
+    private double tamanhoFilas() {
+        int total = 0;
+        for (ParticaoFila particao : particoes) {
+            total += particao.tamanhoFila();
+        }
+        return total;
+    }
+    
+    // Executado pela thread da partição
+    private void aplicar(List<TransferenciaEnfileirada> lote) {
+        tamanhoLotes.record(lote.size());
+        // MEMORIA já agrupa a aplicação dos saldos; transferirLote passaria por cima do motor
+        if (transferenciaProperties.getEstrategia() == EstrategiaTransferencia.MEMORIA) {
+            lote.forEach(this::aplicarNoMotor);
+            return;
+        }
+        try {
+            aplicarEmLote(lote);
+        } catch (ConcurrencyFailureException e) {
+            concluir(lote, StatusTransferencia.NAO_APLICADA, "Transferência não concluída devido a conflito de concorrência");
+        } catch (RuntimeException e) {
+            // Uma falha que não é conflito desfaz o lote inteiro: cada transferência é reaplicada sozinha,
+            // e só a que falhar de novo é marcada como não aplicada
+            log.warn("Falha ao aplicar lote de {} transferências assíncronas; aplicando individualmente", lote.size(), e);
+            lote.forEach(this::aplicarIsolada);
+        }
+    }
+    
+    private void aplicarIsolada(TransferenciaEnfileirada transferencia) {
+        List<TransferenciaEnfileirada> lote = List.of(transferencia);
+        try {
+            aplicarEmLote(lote);
+        } catch (ConcurrencyFailureException e) {
+            concluir(lote, StatusTransferencia.NAO_APLICADA, "Transferência não concluída devido a conflito de concorrência");
+        } catch (RuntimeException e) {
+            log.error("Transferência assíncrona {} não aplicada", transferencia.id, e);
+            concluir(lote, StatusTransferencia.NAO_APLICADA, NestedExceptionUtils.getMostSpecificCause(e).getMessage());
+        }
+    }
+    
+    // Um conflito de versão com outra partição ou com uma transferência síncrona desfaz o lote inteiro,
+    // que é reaplicado do início, com os saldos relidos e na mesma ordem
+    private void aplicarEmLote(List<TransferenciaEnfileirada> lote) {
+        int maxTentativas = Math.max(1, transferenciaProperties.getMaxTentativas());
+        for (int tentativa = 1; ; tentativa++) {
+            try {
+                Map<Long, StatusTransferencia> resultados = transactionTemplate.execute(status -> aplicarNaTransacao(lote));
+                registrarConclusao(lote, resultados);
+                return;
+            } catch (ConcurrencyFailureException e) {
+                if (tentativa >= maxTentativas) {
+                    throw e;
+                }
+                aguardarBackoff(tentativa);
+            }
+        }
+    }
+    
+    // Saldos e status dos lançamentos são confirmados juntos: uma queda no meio não aplica nada nem perde o lote
+    private Map<Long, StatusTransferencia> aplicarNaTransacao(List<TransferenciaEnfileirada> lote) {
+        List<Long> ids = new ArrayList<>(lote.size());
+        lote.forEach(transferencia -> ids.add(transferencia.id));
+        List<Transferencia> pendentes = new ArrayList<>(lote.size());
+        for (Transferencia lancamento : transferenciaRepository.findByIdInForUpdate(ids)) {
+            if (lancamento.getStatus() == StatusLedger.PENDENTE) {
+                pendentes.add(lancamento);
+            }
+        }
+        
+        List<TransferenciaDTO> transferencias = new ArrayList<>(pendentes.size());
+        for (Transferencia lancamento : pendentes) {
+            transferencias.add(new TransferenciaDTO(lancamento.getFromId(), lancamento.getToId(), lancamento.getValor()));
+        }
+        Map<Long, StatusTransferencia> resultados = new HashMap<>(pendentes.size() * 2);
+        if (transferencias.isEmpty()) {
+            return resultados;
+        }
+        ResultadoLoteDTO resultado = beneficioService.transferirLote(transferencias, false);
+        for (ResultadoTransferenciaDTO item : resultado.getItens()) {
+            Transferencia lancamento = pendentes.get(item.getIndice());
+            lancamento.concluir(item.getStatus(), item.getMensagem());
+            resultados.put(lancamento.getId(), item.getStatus());
+        }
+        return resultados;
+    }
+    
+    // Com MEMORIA o motor aplica a transferência fora da transação do lançamento: uma queda entre as duas
+    // gravações deixa o lançamento PENDENTE, e ele é aplicado de novo na próxima inicialização
+    private void aplicarNoMotor(TransferenciaEnfileirada transferencia) {
+        StatusTransferencia status;
+        String mensagem = null;
+        try {
+            beneficioService.transferir(transferencia.transferencia);
+            status = StatusTransferencia.SUCESSO;
+        } catch (BeneficioNaoEncontradoException e) {
+            status = StatusTransferencia.NAO_ENCONTRADO;
+            mensagem = e.getMessage();
+        } catch (SaldoInsuficienteException e) {
+            status = StatusTransferencia.SALDO_INSUFICIENTE;
+            mensagem = e.getMessage();
+        } catch (IllegalArgumentException e) {
+            status = StatusTransferencia.INVALIDA;
+            mensagem = e.getMessage();
+        } catch (RuntimeException e) {
+            status = StatusTransferencia.NAO_APLICADA;
+            mensagem = e.getMessage();
+        }
+        concluir(List.of(transferencia), status, mensagem);
+    }
+    
+    private void concluir(List<TransferenciaEnfileirada> lote, StatusTransferencia status, String mensagem) {
+        List<Long> ids = new ArrayList<>(lote.size());
+        lote.forEach(transferencia -> ids.add(transferencia.id));
+        Map<Long, StatusTransferencia> resultados = transactionTemplate.execute(
+                transacao -> concluirPendentes(ids, status, mensagem));
+        registrarConclusao(lote, resultados);
+    }
+    
+    private Map<Long, StatusTransferencia> concluirPendentes(List<Long> ids, StatusTransferencia status, String mensagem) {
+        Map<Long, StatusTransferencia> resultados = new HashMap<>(ids.size() * 2);
+        for (Transferencia lancamento : transferenciaRepository.findByIdInForUpdate(ids)) {
+            if (lancamento.getStatus() == StatusLedger.PENDENTE) {
+                lancamento.concluir(status, mensagem);
+                resultados.put(lancamento.getId(), status);
+            }
+        }
+        return resultados;
+    }
+    
+    // Métricas só depois da confirmação, e só dos lançamentos concluídos por esta thread
+    private void registrarConclusao(List<TransferenciaEnfileirada> lote, Map<Long, StatusTransferencia> resultados) {
+        long agora = System.nanoTime();
+        for (TransferenciaEnfileirada transferencia : lote) {
+            StatusTransferencia status = resultados.get(transferencia.id);
+            if (status != null) {
+                meterRegistry.counter("beneficio.transferencia.fila.concluidas", "status", status.name()).increment();
+                tempoAteConclusao.record(agora - transferencia.recebidaNanos, TimeUnit.NANOSECONDS);
+            }
+        }
+    }
+    
+    // Mesmo backoff com jitter das retentativas da estratégia otimista
+    private void aguardarBackoff(int tentativa) {
+        long inicial = transferenciaProperties.getBackoffInicial().toMillis();
+        long maximo = transferenciaProperties.getBackoffMaximo().toMillis();
+        long teto = Math.min(maximo, inicial << Math.min(tentativa - 1, 20));
+        try {
+            Thread.sleep(ThreadLocalRandom.current().nextLong(teto + 1));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
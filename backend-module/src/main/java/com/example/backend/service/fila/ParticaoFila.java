@@ -0,0 +1,95 @@
+package com.example.backend.service.fila;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+// Fila limitada com uma única thread consumidora. As transferências são entregues ao aplicador em
+// lotes, na ordem de chegada; o próximo lote só é drenado depois que o anterior foi concluído.
+final class ParticaoFila implements Runnable {
+    
+    private static final Logger log = LoggerFactory.getLogger(ParticaoFila.class);
+    
+    final int indice;
+    
+    private final BlockingQueue<TransferenciaEnfileirada> fila;
+    private final int tamanhoLote;
+    private final Consumer<List<TransferenciaEnfileirada>> aplicador;
+    private final Thread thread;
+    private volatile boolean ativo = true;
+    
+    ParticaoFila(int indice, int capacidade, int tamanhoLote, Consumer<List<TransferenciaEnfileirada>> aplicador) {
+        this.indice = indice;
+        this.fila = new ArrayBlockingQueue<>(capacidade);
+        this.tamanhoLote = tamanhoLote;
+        this.aplicador = aplicador;
+        this.thread = new Thread(this, "transferencias-" + indice);
+        this.thread.setDaemon(true);
+    }
+    
+    void iniciar() {
+        thread.start();
+    }
+    
+    // false com a fila cheia
+    boolean oferecer(TransferenciaEnfileirada transferencia) {
+        return fila.offer(transferencia);
+    }
+    
+    // Verificação antecipada, antes de gravar a transferência; oferecer ainda pode recusar
+    boolean temVaga() {
+        return fila.remainingCapacity() > 0;
+    }
+    
+    // Usado na recuperação dos pendentes: aguarda a thread da partição abrir espaço
+    void colocar(TransferenciaEnfileirada transferencia) throws InterruptedException {
+        fila.put(transferencia);
+    }
+    
+    int tamanhoFila() {
+        return fila.size();
+    }
+    
+    // Aguarda a thread aplicar o que já estava na fila e devolve quantas transferências chegaram depois disso
+    int encerrar() throws InterruptedException {
+        ativo = false;
+        thread.join();
+        List<TransferenciaEnfileirada> restantes = new ArrayList<>();
+        fila.drainTo(restantes);
+        return restantes.size();
+    }
+    
+    @Override
+    public void run() {
+        List<TransferenciaEnfileirada> lote = new ArrayList<>(tamanhoLote);
+        while (ativo || !fila.isEmpty()) {
+            TransferenciaEnfileirada primeira;
+            try {
+                primeira = fila.poll(100, TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            if (primeira == null) {
+                continue;
+            }
+            lote.add(primeira);
+            fila.drainTo(lote, tamanhoLote - 1);
+            
+            try {
+                aplicador.accept(lote);
+            } catch (RuntimeException e) {
+                // O aplicador conclui cada transferência; chegar aqui é defeito, mas a thread não pode parar.
+                // As transferências do lote continuam PENDENTE no banco e voltam na próxima inicialização.
+                log.error("Falha ao aplicar lote de {} transferências na partição {}", lote.size(), indice, e);
+            }
+            lote.clear();
+        }
+    }
+}
@@ -0,0 +1,16 @@
+package com.example.backend.service.fila;
+
+import com.example.backend.dto.TransferenciaDTO;
+
+// Transferência aceita pela fila; o id é o do lançamento PENDENTE gravado em TRANSFERENCIA, onde fica o status.
+final class TransferenciaEnfileirada {
+    
+    final Long id;
+    final TransferenciaDTO transferencia;
+    final long recebidaNanos = System.nanoTime();
+    
+    TransferenciaEnfileirada(Long id, TransferenciaDTO transferencia) {
+        this.id = id;
+        this.transferencia = transferencia;
+    }
+}
@@ -0,0 +1,197 @@
+package com.example.backend.service.importacao;
+
+import com.example.backend.dto.BeneficioDTO;
+import com.example.backend.dto.ErroImportacaoDTO;
+import com.example.backend.dto.ResultadoImportacaoDTO;
+import com.example.backend.entity.Beneficio;
+import com.example.backend.event.BeneficioEvento;
+import com.example.backend.repository.BeneficioRepository;
+import com.example.backend.service.BeneficioService;
+import com.example.common.money.Money;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.PersistenceException;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.hibernate.Session;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+// Importação em massa: cada lote de linhas válidas é gravado em sua própria transação, com inserts
+// agrupados em batch JDBC. Lotes já gravados permanecem mesmo que linhas posteriores falhem.
+@Service
+public class ImportacaoService {
+    
+    private static final Logger log = LoggerFactory.getLogger(ImportacaoService.class);
+    
+    @Autowired
+    private BeneficioRepository beneficioRepository;
+    
+    @Autowired
+    private BeneficioService beneficioService;
+    
+    @PersistenceContext
+    private EntityManager entityManager;
+    
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+    
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+    
+    @Autowired
+    private Validator validator;
+    
+    @Autowired
+    private ObjectMapper objectMapper;
+    
+    @Value("${beneficio.importacao.tamanho-lote:500}")
+    private int tamanhoLote;
+    
+    @Value("${beneficio.importacao.max-erros:1000}")
+    private int maxErros;
+    
+    public ResultadoImportacaoDTO importarCsv(InputStream entrada) {
+        return importar(new LeitorCsv(new InputStreamReader(entrada, StandardCharsets.UTF_8)));
+    }
+    
+    public ResultadoImportacaoDTO importarJson(InputStream entrada) throws IOException {
+        return importar(new LeitorJson(objectMapper, entrada));
+    }
+    
+    private ResultadoImportacaoDTO importar(Iterator<LinhaImportacao> linhas) {
+        Resultado resultado = new Resultado();
+        List<LinhaImportacao> lote = new ArrayList<>(tamanhoLote);
+        while (linhas.hasNext()) {
+            LinhaImportacao linha = linhas.next();
+            resultado.total++;
+            List<String> erros = linha.isValida() ? validar(linha.getBeneficio()) : linha.getErros();
+            if (!erros.isEmpty()) {
+                resultado.falhar(linha.getNumero(), erros);
+                continue;
+            }
+            lote.add(linha);
+            if (lote.size() == tamanhoLote) {
+                gravar(lote, resultado);
+                lote.clear();
+            }
+        }
+        if (!lote.isEmpty()) {
+            gravar(lote, resultado);
+        }
+        // Linhas não encontradas são conhecidas só ao gravar o lote, depois de erros de linhas posteriores
+        resultado.erros.sort(Comparator.comparingLong(ErroImportacaoDTO::getLinha));
+        return new ResultadoImportacaoDTO(resultado.total, resultado.importados, resultado.falhas, resultado.erros);
+    }
+    
+    private List<String> validar(BeneficioDTO beneficio) {
+        return validator.validate(beneficio).stream()
+                .map(ConstraintViolation::getMessage)
+                .sorted()
+                .collect(Collectors.toList());
+    }
+    
+    private void gravar(List<LinhaImportacao> lote, Resultado resultado) {
+        List<ErroImportacaoDTO> naoEncontrados = new ArrayList<>();
+        try {
+            Integer gravados = transactionTemplate.execute(status -> gravarLote(lote, naoEncontrados));
+            resultado.importados += gravados;
+            naoEncontrados.forEach(erro -> resultado.falhar(erro.getLinha(), erro.getMensagens()));
+        } catch (DataAccessException | PersistenceException e) {
+            // O lote inteiro sofreu rollback; todas as suas linhas são reportadas
+            log.debug("Falha ao gravar lote de importação", e);
+            Throwable causa = NestedExceptionUtils.getMostSpecificCause(e);
+            String mensagem = "Lote não gravado: " + Objects.requireNonNullElse(
+                    causa.getMessage(), causa.getClass().getSimpleName());
+            lote.forEach(linha -> resultado.falhar(linha.getNumero(), List.of(mensagem)));
+        }
+    }
+    
+    private int gravarLote(List<LinhaImportacao> lote, List<ErroImportacaoDTO> naoEncontrados) {
+        entityManager.unwrap(Session.class).setJdbcBatchSize(tamanhoLote);
+        
+        // Uma consulta IN carrega todos os benefícios a atualizar no lote
+        List<Long> ids = lote.stream()
+                .map(linha -> linha.getBeneficio().getId())
+                .filter(Objects::nonNull)
+                .collect(Collectors.toList());
+        Map<Long, Beneficio> existentes = ids.isEmpty() ? Map.of() : beneficioRepository.findByIdIn(ids).stream()
+                .collect(Collectors.toMap(Beneficio::getId, Function.identity()));
+        
+        List<Beneficio> criados = new ArrayList<>();
+        List<Beneficio> atualizados = new ArrayList<>();
+        List<Money> valoresAnteriores = new ArrayList<>();
+        for (LinhaImportacao linha : lote) {
+            BeneficioDTO dto = linha.getBeneficio();
+            if (dto.getId() == null) {
+                Beneficio beneficio = beneficioService.convertToEntity(dto);
+                beneficio.setVersion(null);
+                entityManager.persist(beneficio);
+                criados.add(beneficio);
+                continue;
+            }
+            Beneficio beneficio = existentes.get(dto.getId());
+            if (beneficio == null) {
+                naoEncontrados.add(new ErroImportacaoDTO(linha.getNumero(),
+                        List.of("Benefício não encontrado: " + dto.getId())));
+                continue;
+            }
+            valoresAnteriores.add(beneficio.getValor());
+            beneficio.setNome(dto.getNome());
+            beneficio.setDescricao(dto.getDescricao());
+            beneficio.setValor(dto.getValor());
+            beneficio.setAtivo(dto.getAtivo());
+            atualizados.add(beneficio);
+        }
+        
+        entityManager.flush();
+        // Eventos publicados dentro da transação; os ouvintes só reagem após o commit
+        criados.forEach(beneficio ->
+                eventPublisher.publishEvent(BeneficioEvento.criado(beneficioService.convertToDTO(beneficio))));
+        for (int i = 0; i < atualizados.size(); i++) {
+            eventPublisher.publishEvent(BeneficioEvento.atualizado(
+                    beneficioService.convertToDTO(atualizados.get(i)), valoresAnteriores.get(i)));
+        }
+        entityManager.clear();
+        return criados.size() + atualizados.size();
+    }
+    
+    private class Resultado {
+        
+        private long total;
+        
+        private long importados;
+        
+        private long falhas;
+        
+        private final List<ErroImportacaoDTO> erros = new ArrayList<>();
+        
+        private void falhar(long linha, List<String> mensagens) {
+            falhas++;
+            if (erros.size() < maxErros) {
+                erros.add(new ErroImportacaoDTO(linha, mensagens));
+            }
+        }
+    }
+}
@@ -0,0 +1,243 @@
+package com.example.backend.service.importacao;
+
+import com.example.backend.dto.BeneficioDTO;
+import com.example.common.money.Money;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.NoSuchElementException;
+
+// Lê CSV (RFC 4180) registro a registro. A primeira linha nomeia as colunas:
+// id (opcional; presente = atualização), nome, descricao, valor e ativo, em qualquer ordem.
+class LeitorCsv implements Iterator<LinhaImportacao> {
+    
+    private static final List<String> COLUNAS = List.of("id", "nome", "descricao", "valor", "ativo");
+    
+    private static final int FIM = -1;
+    
+    private final Reader entrada;
+    
+    private final char[] buffer = new char[8192];
+    
+    private int posicao;
+    
+    private int limite;
+    
+    // Linha física atual, contando a partir de 1
+    private long linha = 1;
+    
+    // Índice de cada coluna conhecida no registro, ou -1 se ausente
+    private final int[] indices = new int[COLUNAS.size()];
+    
+    private final int quantidadeColunas;
+    
+    private LinhaImportacao proxima;
+    
+    private boolean fim;
+    
+    LeitorCsv(Reader entrada) {
+        this.entrada = entrada;
+        List<String> cabecalho = lerRegistro();
+        if (cabecalho == null) {
+            throw new IllegalArgumentException("CSV vazio: o cabeçalho é obrigatório");
+        }
+        Arrays.fill(indices, -1);
+        for (int i = 0; i < cabecalho.size(); i++) {
+            String nome = cabecalho.get(i).trim().toLowerCase(Locale.ROOT);
+            // Remove o BOM que alguns editores gravam no início do arquivo
+            if (i == 0 && nome.startsWith("\uFEFF")) {
+                nome = nome.substring(1);
+            }
+            int coluna = COLUNAS.indexOf(nome);
+            if (coluna < 0) {
+                throw new IllegalArgumentException("Coluna desconhecida no cabeçalho: " + cabecalho.get(i));
+            }
+            if (indices[coluna] >= 0) {
+                throw new IllegalArgumentException("Coluna repetida no cabeçalho: " + cabecalho.get(i));
+            }
+            indices[coluna] = i;
+        }
+        if (indices[COLUNAS.indexOf("nome")] < 0 || indices[COLUNAS.indexOf("valor")] < 0) {
+            throw new IllegalArgumentException("O cabeçalho deve conter as colunas nome e valor");
+        }
+        this.quantidadeColunas = cabecalho.size();
+    }
+    
+    @Override
+    public boolean hasNext() {
+        if (proxima == null && !fim) {
+            proxima = ler();
+            fim = proxima == null;
+        }
+        return proxima != null;
+    }
+    
+    @Override
+    public LinhaImportacao next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        LinhaImportacao atual = proxima;
+        proxima = null;
+        return atual;
+    }
+    
+    private LinhaImportacao ler() {
+        while (true) {
+            long inicio = linha;
+            List<String> campos;
+            try {
+                campos = lerRegistro();
+            } catch (IllegalArgumentException e) {
+                // Sem como saber onde o próximo registro começa, a leitura termina aqui
+                fim = true;
+                return LinhaImportacao.invalida(inicio, List.of(e.getMessage()));
+            }
+            if (campos == null) {
+                return null;
+            }
+            // Linhas em branco são ignoradas
+            if (campos.size() == 1 && campos.get(0).isEmpty()) {
+                continue;
+            }
+            return converter(inicio, campos);
+        }
+    }
+    
+    private LinhaImportacao converter(long numero, List<String> campos) {
+        if (campos.size() != quantidadeColunas) {
+            return LinhaImportacao.invalida(numero, List.of(
+                    "Esperadas " + quantidadeColunas + " colunas, encontradas " + campos.size()));
+        }
+        List<String> erros = new ArrayList<>();
+        BeneficioDTO beneficio = new BeneficioDTO();
+        
+        String id = campo(campos, "id");
+        if (id != null) {
+            try {
+                beneficio.setId(Long.valueOf(id));
+            } catch (NumberFormatException e) {
+                erros.add("ID inválido: " + id);
+            }
+        }
+        beneficio.setNome(campo(campos, "nome"));
+        beneficio.setDescricao(campo(campos, "descricao"));
+        
+        String valor = campo(campos, "valor");
+        if (valor != null) {
+            try {
+                beneficio.setValor(Money.parse(valor));
+            } catch (IllegalArgumentException e) {
+                erros.add(e.getMessage());
+            }
+        }
+        
+        String ativo = campo(campos, "ativo");
+        if (ativo != null) {
+            if (ativo.equalsIgnoreCase("true")) {
+                beneficio.setAtivo(true);
+            } else if (ativo.equalsIgnoreCase("false")) {
+                beneficio.setAtivo(false);
+            } else {
+                erros.add("Ativo deve ser true ou false: " + ativo);
+            }
+        }
+        return erros.isEmpty() ? LinhaImportacao.valida(numero, beneficio) : LinhaImportacao.invalida(numero, erros);
+    }
+    
+    // Campos vazios ou ausentes do cabeçalho são tratados como nulos
+    private String campo(List<String> campos, String coluna) {
+        int indice = indices[COLUNAS.indexOf(coluna)];
+        if (indice < 0) {
+            return null;
+        }
+        String valor = campos.get(indice).trim();
+        return valor.isEmpty() ? null : valor;
+    }
+    
+    // Retorna null no fim da entrada; campos entre aspas podem conter vírgulas, quebras de linha e "" (aspas)
+    private List<String> lerRegistro() {
+        int c = lerCaractere();
+        if (c == FIM) {
+            return null;
+        }
+        List<String> campos = new ArrayList<>();
+        StringBuilder campo = new StringBuilder();
+        while (true) {
+            if (c == '"' && campo.isEmpty()) {
+                long abertura = linha;
+                while (true) {
+                    c = lerCaractere();
+                    if (c == FIM) {
+                        throw new IllegalArgumentException("Aspas abertas na linha " + abertura + " não foram fechadas");
+                    }
+                    if (c == '"') {
+                        c = lerCaractere();
+                        if (c != '"') {
+                            break;
+                        }
+                    } else if (c == '\n' || (c == '\r' && espiar() != '\n')) {
+                        linha++;
+                    }
+                    campo.append((char) c);
+                }
+                if (c != ',' && c != '\r' && c != '\n' && c != FIM) {
+                    throw new IllegalArgumentException("Caractere inesperado após aspas de fechamento na linha " + linha);
+                }
+                continue;
+            }
+            if (c == ',') {
+                campos.add(campo.toString());
+                campo.setLength(0);
+            } else if (c == '\r' || c == '\n' || c == FIM) {
+                if (c == '\r' && espiar() == '\n') {
+                    lerCaractere();
+                }
+                if (c != FIM) {
+                    linha++;
+                }
+                campos.add(campo.toString());
+                return campos;
+            } else {
+                campo.append((char) c);
+            }
+            c = lerCaractere();
+        }
+    }
+    
+    private int lerCaractere() {
+        if (!preencher()) {
+            return FIM;
+        }
+        return buffer[posicao++];
+    }
+    
+    private int espiar() {
+        if (!preencher()) {
+            return FIM;
+        }
+        return buffer[posicao];
+    }
+    
+    private boolean preencher() {
+        try {
+            while (posicao == limite) {
+                int lidos = entrada.read(buffer);
+                if (lidos < 0) {
+                    return false;
+                }
+                posicao = 0;
+                limite = lidos;
+            }
+            return true;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,88 @@
+package com.example.backend.service.importacao;
+
+import com.example.backend.dto.BeneficioDTO;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+// Lê um array JSON de benefícios elemento a elemento, sem carregar o documento inteiro em memória
+class LeitorJson implements Iterator<LinhaImportacao> {
+    
+    private final ObjectMapper objectMapper;
+    
+    private final JsonParser parser;
+    
+    // Posição do elemento no array, a partir de 1
+    private long posicao;
+    
+    private LinhaImportacao proxima;
+    
+    private boolean fim;
+    
+    LeitorJson(ObjectMapper objectMapper, InputStream entrada) throws IOException {
+        this.objectMapper = objectMapper;
+        this.parser = objectMapper.getFactory().createParser(entrada);
+        try {
+            if (parser.nextToken() != JsonToken.START_ARRAY) {
+                throw new IllegalArgumentException("O corpo deve ser um array JSON de benefícios");
+            }
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("JSON inválido: " + e.getOriginalMessage());
+        }
+    }
+    
+    @Override
+    public boolean hasNext() {
+        if (proxima == null && !fim) {
+            proxima = ler();
+            fim = proxima == null;
+        }
+        return proxima != null;
+    }
+    
+    @Override
+    public LinhaImportacao next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        LinhaImportacao atual = proxima;
+        proxima = null;
+        return atual;
+    }
+    
+    private LinhaImportacao ler() {
+        long numero = posicao + 1;
+        try {
+            JsonToken token = parser.nextToken();
+            if (token == JsonToken.END_ARRAY || token == null) {
+                return null;
+            }
+            posicao = numero;
+            if (token != JsonToken.START_OBJECT) {
+                parser.skipChildren();
+                return LinhaImportacao.invalida(numero, List.of("Elemento deve ser um objeto JSON"));
+            }
+            JsonNode elemento = objectMapper.readTree(parser);
+            try {
+                return LinhaImportacao.valida(numero, objectMapper.treeToValue(elemento, BeneficioDTO.class));
+            } catch (JsonProcessingException e) {
+                return LinhaImportacao.invalida(numero, List.of(e.getOriginalMessage()));
+            }
+        } catch (JsonProcessingException e) {
+            // JSON malformado: não há como continuar a partir deste ponto
+            fim = true;
+            return LinhaImportacao.invalida(numero, List.of("JSON inválido: " + e.getOriginalMessage()));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package com.example.backend.service.importacao;
+
+import com.example.backend.dto.BeneficioDTO;
+
+import java.util.List;
+
+// Registro lido da entrada: o benefício convertido ou os erros que impediram a conversão
+class LinhaImportacao {
+    
+    private final long numero;
+    
+    private final BeneficioDTO beneficio;
+    
+    private final List<String> erros;
+    
+    private LinhaImportacao(long numero, BeneficioDTO beneficio, List<String> erros) {
+        this.numero = numero;
+        this.beneficio = beneficio;
+        this.erros = erros;
+    }
+    
+    static LinhaImportacao valida(long numero, BeneficioDTO beneficio) {
+        return new LinhaImportacao(numero, beneficio, List.of());
+    }
+    
+    static LinhaImportacao invalida(long numero, List<String> erros) {
+        return new LinhaImportacao(numero, null, erros);
+    }
+    
+    long getNumero() {
+        return numero;
+    }
+    
+    BeneficioDTO getBeneficio() {
+        return beneficio;
+    }
+    
+    List<String> getErros() {
+        return erros;
+    }
+    
+    boolean isValida() {
+        return erros.isEmpty();
+    }
+}
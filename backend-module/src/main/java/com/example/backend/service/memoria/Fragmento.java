@@ -0,0 +1,312 @@
+package com.example.backend.service.memoria;
+
+import com.example.backend.event.BeneficioEvento;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.function.LongSupplier;
+
+// Fatia dos saldos em memória com uma única thread escritora. As operações enfileiradas são
+// executadas em lotes; o WAL é sincronizado uma vez por lote e só então os resultados são liberados.
+// Se a sincronização falha, as alterações feitas desde a última sincronização são desfeitas e os
+// registros correspondentes descartados do WAL; se nem o descarte funciona, o fragmento é parado e
+// passa a recusar transferências até um reinício. Os eventos das operações só são entregues ao
+// publicador depois que o WAL as confirma; os das desfeitas são descartados.
+final class Fragmento implements Runnable {
+    
+    private static final Logger log = LoggerFactory.getLogger(Fragmento.class);
+    
+    private static final int TAMANHO_LOTE = 1024;
+    
+    static final class Operacao {
+        
+        private final Consumer<Fragmento> acao;
+        private final CompletableFuture<Void> resultado = new CompletableFuture<>();
+        private RuntimeException erro;
+        
+        // Fez alterações que só valem depois que o WAL for sincronizado
+        private boolean dependeWal;
+        
+        private Operacao(Consumer<Fragmento> acao) {
+            this.acao = acao;
+        }
+        
+        CompletableFuture<Void> getResultado() {
+            return resultado;
+        }
+    }
+    
+    final int indice;
+    
+    // Saldos em centavos por ID e, entre duas gravações no banco, os alterados desde a última
+    final MapaLongLong saldos;
+    final MapaLongLong alterados;
+    
+    private final Wal wal;
+    private final LongSupplier sequencia;
+    private final Consumer<List<BeneficioEvento>> publicador;
+    private final BlockingQueue<Operacao> fila = new LinkedBlockingQueue<>();
+    private final Thread thread;
+    private volatile boolean ativo = true;
+    
+    // Falha que parou o fragmento: o WAL não pôde ser recolocado em um estado conhecido
+    private volatile RuntimeException falha;
+    private boolean walFechado;
+    
+    // Alterações desde a última sincronização do WAL, na ordem em que foram feitas: fragmento, ID e saldo
+    // anterior. As fixadas vieram de um commit no banco e não são desfeitas.
+    private Fragmento[] desfazerAlvos = new Fragmento[64];
+    private long[] desfazerIds = new long[64];
+    private long[] desfazerSaldos = new long[64];
+    private boolean[] desfazerFixados = new boolean[64];
+    private int desfazerTamanho;
+    
+    // Eventos das alterações ainda não confirmadas
+    private List<BeneficioEvento> eventosPendentes = new ArrayList<>();
+    
+    // Posição da operação em execução no lote e quantas do início do lote já estão no WAL sincronizado
+    private Operacao atual;
+    private int posicaoAtual;
+    private int confirmadas;
+    
+    Fragmento(int indice, int capacidadeEsperada, Wal wal, LongSupplier sequencia,
+              Consumer<List<BeneficioEvento>> publicador) {
+        this.indice = indice;
+        this.saldos = new MapaLongLong(capacidadeEsperada);
+        this.alterados = new MapaLongLong(Math.max(16, capacidadeEsperada / 8));
+        this.wal = wal;
+        this.sequencia = sequencia;
+        this.publicador = publicador;
+        this.thread = new Thread(this, "saldos-" + indice);
+        this.thread.setDaemon(true);
+    }
+    
+    void iniciar() {
+        thread.start();
+    }
+    
+    Operacao submeter(Consumer<Fragmento> acao) {
+        Operacao operacao = new Operacao(acao);
+        fila.add(operacao);
+        return operacao;
+    }
+    
+    int tamanhoFila() {
+        return fila.size();
+    }
+    
+    // Usados apenas pela thread do fragmento ou por outra que o tenha recebido em uma passagem de posse
+    void definir(long id, long saldo) {
+        saldos.put(id, saldo);
+        alterados.put(id, saldo);
+    }
+    
+    void remover(long id) {
+        saldos.remove(id);
+        alterados.remove(id);
+    }
+    
+    // Altera um saldo deste fragmento ou de um recebido em passagem de posse; a alteração só é confirmada
+    // pela próxima sincronização do WAL deste fragmento
+    void alterar(Fragmento alvo, long id, long saldo) {
+        if (wal != null) {
+            guardarAnterior(alvo, id, false);
+            atual.dependeWal = true;
+        }
+        alvo.definir(id, saldo);
+    }
+    
+    // Saldo já confirmado no banco: entra no WAL para ordenar a recuperação, mas não é desfeito
+    void fixar(long id, long saldo) {
+        if (wal != null) {
+            guardarAnterior(this, id, true);
+        }
+        definir(id, saldo);
+    }
+    
+    void publicarAoConfirmar(BeneficioEvento evento) {
+        eventosPendentes.add(evento);
+    }
+    
+    void registrar(long sequencia, long id1, long saldo1, long id2, long saldo2) {
+        if (wal != null && falha == null) {
+            wal.registrar(sequencia, id1, saldo1, id2, saldo2);
+        }
+    }
+    
+    // Confirma as alterações feitas até aqui, inclusive as da operação atual
+    void sincronizarWal() {
+        if (wal != null && falha == null) {
+            wal.sincronizar();
+            desfazerTamanho = 0;
+            confirmadas = posicaoAtual + 1;
+        }
+        liberarEventos();
+    }
+    
+    // Fecha o segmento atual do WAL e devolve-o; parado, o segmento é fechado sem sincronizar e devolvido uma vez
+    Path rotacionarWal() {
+        if (wal == null || walFechado) {
+            return null;
+        }
+        if (falha != null) {
+            walFechado = true;
+            wal.abandonar();
+            return wal.getSegmento();
+        }
+        Path segmento = wal.rotacionar();
+        desfazerTamanho = 0;
+        confirmadas = posicaoAtual + 1;
+        liberarEventos();
+        return segmento;
+    }
+    
+    boolean isParado() {
+        return falha != null;
+    }
+    
+    RuntimeException getFalha() {
+        return falha;
+    }
+    
+    void encerrar() throws InterruptedException {
+        ativo = false;
+        thread.join();
+        if (wal != null && !walFechado) {
+            if (falha != null) {
+                wal.abandonar();
+            } else {
+                wal.fechar();
+            }
+        }
+    }
+    
+    @Override
+    public void run() {
+        List<Operacao> lote = new ArrayList<>(TAMANHO_LOTE);
+        while (ativo || !fila.isEmpty()) {
+            Operacao primeira;
+            try {
+                primeira = fila.poll(100, TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            if (primeira == null) {
+                continue;
+            }
+            lote.add(primeira);
+            fila.drainTo(lote, TAMANHO_LOTE - 1);
+            
+            confirmadas = 0;
+            for (posicaoAtual = 0; posicaoAtual < lote.size(); posicaoAtual++) {
+                atual = lote.get(posicaoAtual);
+                try {
+                    atual.acao.accept(this);
+                } catch (RuntimeException e) {
+                    atual.erro = e;
+                }
+            }
+            atual = null;
+            concluir(lote);
+            lote.clear();
+        }
+    }
+    
+    private void concluir(List<Operacao> lote) {
+        posicaoAtual = lote.size() - 1;
+        try {
+            sincronizarWal();
+        } catch (RuntimeException e) {
+            log.error("Falha ao sincronizar o WAL do fragmento {}; desfazendo {} operações", indice,
+                    lote.size() - confirmadas, e);
+            desfazer();
+            eventosPendentes.clear();
+            IllegalStateException erro = new IllegalStateException("Falha ao registrar a operação no WAL", e);
+            for (Operacao operacao : lote.subList(confirmadas, lote.size())) {
+                if (operacao.erro == null && operacao.dependeWal) {
+                    operacao.erro = erro;
+                }
+            }
+            descartarPendentes();
+        }
+        for (Operacao operacao : lote) {
+            if (operacao.erro == null) {
+                operacao.resultado.complete(null);
+            } else {
+                operacao.resultado.completeExceptionally(operacao.erro);
+            }
+        }
+    }
+    
+    private void liberarEventos() {
+        if (!eventosPendentes.isEmpty()) {
+            publicador.accept(eventosPendentes);
+            eventosPendentes = new ArrayList<>();
+        }
+    }
+    
+    private void guardarAnterior(Fragmento alvo, long id, boolean fixado) {
+        if (desfazerTamanho == desfazerIds.length) {
+            int capacidade = desfazerTamanho * 2;
+            desfazerAlvos = Arrays.copyOf(desfazerAlvos, capacidade);
+            desfazerIds = Arrays.copyOf(desfazerIds, capacidade);
+            desfazerSaldos = Arrays.copyOf(desfazerSaldos, capacidade);
+            desfazerFixados = Arrays.copyOf(desfazerFixados, capacidade);
+        }
+        desfazerAlvos[desfazerTamanho] = alvo;
+        desfazerIds[desfazerTamanho] = id;
+        desfazerSaldos[desfazerTamanho] = alvo.saldos.get(id);
+        desfazerFixados[desfazerTamanho] = fixado;
+        desfazerTamanho++;
+    }
+    
+    // Restaura os saldos anteriores do fim para o começo. Um saldo fixado prevalece sobre as alterações
+    // feitas antes dele no mesmo ID. Os fragmentos recebidos em passagem de posse continuam parados
+    // aguardando esta operação, então podem ser alterados daqui.
+    private void desfazer() {
+        MapaLongLong fixados = new MapaLongLong(16);
+        for (int i = desfazerTamanho - 1; i >= 0; i--) {
+            long id = desfazerIds[i];
+            if (desfazerFixados[i]) {
+                fixados.put(id, 1);
+            } else if (fixados.get(id) == MapaLongLong.AUSENTE) {
+                Fragmento alvo = desfazerAlvos[i];
+                if (desfazerSaldos[i] == MapaLongLong.AUSENTE) {
+                    alvo.remover(id);
+                } else {
+                    alvo.definir(id, desfazerSaldos[i]);
+                }
+            }
+        }
+    }
+    
+    // Tira do WAL os registros não confirmados e registra de novo o saldo atual dos IDs envolvidos, para
+    // que a recuperação não aplique um registro antigo por cima de um saldo fixado. Se isso também
+    // falha, o WAL fica em estado desconhecido e o fragmento para.
+    private void descartarPendentes() {
+        try {
+            wal.descartarPendentes();
+            for (int i = 0; i < desfazerTamanho; i++) {
+                long saldo = desfazerAlvos[i].saldos.get(desfazerIds[i]);
+                if (saldo != MapaLongLong.AUSENTE) {
+                    wal.registrar(sequencia.getAsLong(), desfazerIds[i], saldo, 0, 0);
+                }
+            }
+            wal.sincronizar();
+        } catch (RuntimeException e) {
+            falha = e;
+            log.error("WAL do fragmento {} em estado desconhecido; fragmento parado até o reinício", indice, e);
+        }
+        desfazerTamanho = 0;
+    }
+}
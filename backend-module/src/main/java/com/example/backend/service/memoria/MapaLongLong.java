@@ -0,0 +1,133 @@
+package com.example.backend.service.memoria;
+
+import java.util.Arrays;
+
+// Mapa long -> long com endereçamento aberto e sondagem linear, sem boxing.
+// A chave 0 marca posições vazias; IDs de benefício são sempre positivos.
+// Não é thread-safe: cada instância pertence a um único fragmento.
+final class MapaLongLong {
+    
+    static final long AUSENTE = Long.MIN_VALUE;
+    
+    private static final int CAPACIDADE_MINIMA = 16;
+    
+    interface Visitante {
+        void visitar(long chave, long valor);
+    }
+    
+    private long[] chaves;
+    private long[] valores;
+    private int mascara;
+    private int tamanho;
+    private int limite;
+    
+    MapaLongLong(int capacidadeEsperada) {
+        alocar(capacidade(capacidadeEsperada));
+    }
+    
+    long get(long chave) {
+        for (int i = indice(chave); ; i = (i + 1) & mascara) {
+            long atual = chaves[i];
+            if (atual == chave) {
+                return valores[i];
+            }
+            if (atual == 0) {
+                return AUSENTE;
+            }
+        }
+    }
+    
+    void put(long chave, long valor) {
+        if (chave <= 0) {
+            throw new IllegalArgumentException("Chave deve ser positiva: " + chave);
+        }
+        for (int i = indice(chave); ; i = (i + 1) & mascara) {
+            long atual = chaves[i];
+            if (atual == chave) {
+                valores[i] = valor;
+                return;
+            }
+            if (atual == 0) {
+                chaves[i] = chave;
+                valores[i] = valor;
+                if (++tamanho > limite) {
+                    redimensionar();
+                }
+                return;
+            }
+        }
+    }
+    
+    boolean remove(long chave) {
+        int i = indice(chave);
+        while (chaves[i] != chave) {
+            if (chaves[i] == 0) {
+                return false;
+            }
+            i = (i + 1) & mascara;
+        }
+        
+        // Desloca para trás as entradas seguintes do mesmo agrupamento, sem deixar marcas de remoção
+        for (int j = (i + 1) & mascara; chaves[j] != 0; j = (j + 1) & mascara) {
+            int ideal = indice(chaves[j]);
+            boolean alcancavel = i <= j ? (ideal <= i || ideal > j) : (ideal <= i && ideal > j);
+            if (alcancavel) {
+                chaves[i] = chaves[j];
+                valores[i] = valores[j];
+                i = j;
+            }
+        }
+        chaves[i] = 0;
+        tamanho--;
+        return true;
+    }
+    
+    int size() {
+        return tamanho;
+    }
+    
+    void clear() {
+        Arrays.fill(chaves, 0);
+        tamanho = 0;
+    }
+    
+    void forEach(Visitante visitante) {
+        for (int i = 0; i < chaves.length; i++) {
+            if (chaves[i] != 0) {
+                visitante.visitar(chaves[i], valores[i]);
+            }
+        }
+    }
+    
+    private void redimensionar() {
+        long[] chavesAntigas = chaves;
+        long[] valoresAntigos = valores;
+        alocar(chavesAntigas.length * 2);
+        tamanho = 0;
+        for (int i = 0; i < chavesAntigas.length; i++) {
+            if (chavesAntigas[i] != 0) {
+                put(chavesAntigas[i], valoresAntigos[i]);
+            }
+        }
+    }
+    
+    private void alocar(int capacidade) {
+        chaves = new long[capacidade];
+        valores = new long[capacidade];
+        mascara = capacidade - 1;
+        limite = (int) (capacidade * 0.6);
+    }
+    
+    private int indice(long chave) {
+        long h = chave * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32)) & mascara;
+    }
+    
+    private static int capacidade(int esperada) {
+        int capacidade = CAPACIDADE_MINIMA;
+        while (capacidade * 0.6 < esperada) {
+            capacidade <<= 1;
+        }
+        return capacidade;
+    }
+}
@@ -0,0 +1,391 @@
+package com.example.backend.service.memoria;
+
+import com.example.backend.dto.BeneficioDTO;
+import com.example.backend.dto.TransferenciaRealizadaDTO;
+import com.example.backend.event.BeneficioEvento;
+import com.example.backend.service.BeneficioCache;
+import com.example.backend.service.BeneficioNaoEncontradoException;
+import com.example.backend.service.CacheSegundoNivelBeneficio;
+import com.example.backend.service.SaldoInsuficienteException;
+import com.example.common.money.Money;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+// Saldos dos benefícios ativos em memória, em centavos, divididos em fragmentos por ID. Cada fragmento
+// tem uma única thread escritora, então transferências dentro de um fragmento não usam locks. Entre
+// fragmentos, o de menor índice passa a posse ao de maior índice, que aplica os dois lados e registra
+// a operação no seu WAL; como a espera é sempre do menor para o maior, não há deadlock.
+// Os saldos alterados são gravados em BENEFICIO em lotes periódicos (write-behind). Um fragmento cujo WAL
+// falhou e não pôde ser recolocado em estado conhecido recusa transferências e derruba o health do motor.
+// O evento TRANSFERENCIA de cada transferência é publicado fora de transação depois que o WAL a confirma,
+// por uma única thread do motor: os ouvintes não atrasam os fragmentos, e como um fragmento confirma
+// seus eventos antes de passar a posse, os de um benefício saem na ordem em que foram aplicados.
+@Component
+@ConditionalOnProperty(prefix = "beneficio.transferencia", name = "estrategia", havingValue = "MEMORIA")
+public class MotorSaldos implements HealthIndicator {
+    
+    private static final Logger log = LoggerFactory.getLogger(MotorSaldos.class);
+    
+    private static final int TAMANHO_LOTE_GRAVACAO = 500;
+    
+    private final AtomicLong sequencia = new AtomicLong();
+    
+    private Fragmento[] fragmentos;
+    
+    private ExecutorService publicador;
+    
+    // Segmentos do WAL já cobertos por gravações no banco que ainda não foram confirmadas
+    private final List<Path> segmentosPendentes = new ArrayList<>();
+    
+    private volatile boolean encerrado;
+    
+    private boolean parado;
+    
+    @Value("${beneficio.memoria.fragmentos:0}")
+    private int quantidadeFragmentos;
+    
+    @Value("${beneficio.memoria.diretorio-wal:}")
+    private String diretorioWal;
+    
+    @Value("${beneficio.memoria.wal-sincrono:true}")
+    private boolean walSincrono;
+    
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+    
+    @Autowired
+    private BeneficioCache beneficioCache;
+    
+    @Autowired
+    private CacheSegundoNivelBeneficio cacheSegundoNivel;
+    
+    @Autowired
+    private MeterRegistry meterRegistry;
+    
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+    
+    @PostConstruct
+    public void iniciar() {
+        int quantidade = quantidadeFragmentos > 0 ? quantidadeFragmentos : Runtime.getRuntime().availableProcessors();
+        Integer ativos = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM BENEFICIO WHERE ATIVO = TRUE", Integer.class);
+        int capacidade = Math.max(16, (ativos == null ? 0 : ativos) / quantidade);
+        
+        Path diretorio = diretorioWal.isBlank() ? null : Path.of(diretorioWal);
+        List<Path> recuperados = diretorio == null ? List.of() : Wal.segmentos(diretorio);
+        String execucao = Long.toString(System.currentTimeMillis(), 36);
+        
+        publicador = Executors.newSingleThreadExecutor(tarefa -> {
+            Thread thread = new Thread(tarefa, "saldos-eventos");
+            thread.setDaemon(true);
+            return thread;
+        });
+        fragmentos = new Fragmento[quantidade];
+        for (int i = 0; i < quantidade; i++) {
+            Wal wal = diretorio == null ? null : criarWal(diretorio, "fragmento-" + execucao + "-" + i);
+            fragmentos[i] = new Fragmento(i, capacidade, wal, sequencia::incrementAndGet, this::publicar);
+        }
+        
+        jdbcTemplate.query("SELECT ID, VALOR FROM BENEFICIO WHERE ATIVO = TRUE", rs -> {
+            long id = rs.getLong(1);
+            fragmento(id).saldos.put(id, Money.of(rs.getBigDecimal(2)).getCentavos());
+        });
+        recuperar(recuperados);
+        
+        for (Fragmento fragmento : fragmentos) {
+            fragmento.iniciar();
+        }
+        Gauge.builder("beneficio.memoria.fila", this, MotorSaldos::tamanhoFilas)
+                .description("Operações aguardando nos fragmentos do motor de saldos")
+                .register(meterRegistry);
+        
+        // Persiste o que foi recuperado do WAL antes de apagar os segmentos antigos
+        segmentosPendentes.addAll(recuperados);
+        gravar();
+        log.info("Motor de saldos iniciado com {} fragmentos, {} segmentos de WAL recuperados", quantidade, recuperados.size());
+    }
+    
+    // Relê os saldos ativos do banco, descartando os do motor; para cargas feitas diretamente no banco
+    public void carregar() {
+        List<List<long[]>> porFragmento = new ArrayList<>();
+        for (int i = 0; i < fragmentos.length; i++) {
+            porFragmento.add(new ArrayList<>());
+        }
+        jdbcTemplate.query("SELECT ID, VALOR FROM BENEFICIO WHERE ATIVO = TRUE", rs -> {
+            long id = rs.getLong(1);
+            porFragmento.get(fragmento(id).indice).add(new long[] {id, Money.of(rs.getBigDecimal(2)).getCentavos()});
+        });
+        for (int i = 0; i < fragmentos.length; i++) {
+            List<long[]> saldos = porFragmento.get(i);
+            aguardar(submeter(fragmentos[i], f -> {
+                f.saldos.clear();
+                f.alterados.clear();
+                saldos.forEach(saldo -> f.saldos.put(saldo[0], saldo[1]));
+            }));
+        }
+    }
+    
+    @PreDestroy
+    public synchronized void encerrar() throws InterruptedException {
+        encerrado = true;
+        gravar();
+        for (Fragmento fragmento : fragmentos) {
+            fragmento.encerrar();
+        }
+        publicador.shutdown();
+        publicador.awaitTermination(10, TimeUnit.SECONDS);
+        parado = true;
+    }
+    
+    public void transferir(long fromId, long toId, long centavos) {
+        Fragmento origem = fragmento(fromId);
+        Fragmento destino = fragmento(toId);
+        if (origem == destino) {
+            aguardar(submeter(origem, f -> aplicar(f, origem, destino, fromId, toId, centavos)));
+            return;
+        }
+        
+        // Passagem de posse: o fragmento menor sincroniza seu WAL e fica parado até o maior aplicar e registrar
+        Fragmento menor = origem.indice < destino.indice ? origem : destino;
+        Fragmento maior = menor == origem ? destino : origem;
+        aguardar(submeter(menor, f -> {
+            f.sincronizarWal();
+            aguardar(maior.submeter(g -> aplicar(g, origem, destino, fromId, toId, centavos)).getResultado());
+        }));
+    }
+    
+    @TransactionalEventListener
+    public void aoAlterar(BeneficioEvento evento) {
+        BeneficioDTO beneficio = evento.getBeneficio();
+        switch (evento.getTipo()) {
+            case CRIADO, ATUALIZADO -> {
+                long id = beneficio.getId();
+                if (Boolean.TRUE.equals(beneficio.getAtivo())) {
+                    long saldo = beneficio.getValor().getCentavos();
+                    aguardar(submeter(fragmento(id), f -> {
+                        f.fixar(id, saldo);
+                        f.registrar(sequencia.incrementAndGet(), id, saldo, 0, 0);
+                    }));
+                } else {
+                    aguardar(submeter(fragmento(id), f -> f.remover(id)));
+                }
+            }
+            case EXCLUIDO -> {
+                long id = beneficio.getId();
+                aguardar(submeter(fragmento(id), f -> f.remover(id)));
+            }
+            case TRANSFERENCIA -> {
+                // Publicadas pelo próprio motor
+            }
+        }
+    }
+    
+    // Grava em BENEFICIO os saldos alterados desde a última gravação. Os fragmentos são fotografados do
+    // maior para o menor índice: uma transferência entre fragmentos registrada no WAL de um segmento
+    // fotografado então também está na foto do fragmento menor, e o segmento pode ser apagado.
+    @Scheduled(fixedDelayString = "${beneficio.memoria.intervalo-gravacao:500}")
+    public synchronized void gravar() {
+        if (parado) {
+            return;
+        }
+        List<long[]> alteracoes = new ArrayList<>();
+        List<Path> segmentos = new ArrayList<>();
+        for (int i = fragmentos.length - 1; i >= 0; i--) {
+            Fragmento fragmento = fragmentos[i];
+            aguardar(fragmento.submeter(f -> {
+                // A rotação confirma tudo o que foi alterado até aqui antes da foto
+                Path segmento = f.rotacionarWal();
+                if (segmento != null) {
+                    segmentos.add(segmento);
+                }
+                f.alterados.forEach((id, saldo) -> alteracoes.add(new long[] {id, saldo}));
+                f.alterados.clear();
+            }).getResultado());
+        }
+        segmentosPendentes.addAll(segmentos);
+        
+        try {
+            if (!alteracoes.isEmpty()) {
+                transactionTemplate.executeWithoutResult(status -> atualizarBanco(alteracoes));
+            }
+        } catch (RuntimeException e) {
+            // Volta a marcar os IDs como alterados; os segmentos continuam guardados até uma gravação confirmada
+            log.error("Falha ao gravar {} saldos do motor no banco", alteracoes.size(), e);
+            for (long[] alteracao : alteracoes) {
+                long id = alteracao[0];
+                fragmento(id).submeter(f -> {
+                    long saldo = f.saldos.get(id);
+                    if (saldo != MapaLongLong.AUSENTE) {
+                        f.alterados.put(id, saldo);
+                    }
+                });
+            }
+            return;
+        }
+        
+        segmentosPendentes.forEach(Wal::apagar);
+        segmentosPendentes.clear();
+        for (long[] alteracao : alteracoes) {
+            beneficioCache.invalidar(alteracao[0]);
+        }
+    }
+    
+    private void aplicar(Fragmento executor, Fragmento origem, Fragmento destino,
+                         long fromId, long toId, long centavos) {
+        if (executor.isParado()) {
+            throw new IllegalStateException("Motor de saldos indisponível: falha no WAL do fragmento " + executor.indice);
+        }
+        long saldoOrigem = origem.saldos.get(fromId);
+        if (saldoOrigem == MapaLongLong.AUSENTE) {
+            throw new BeneficioNaoEncontradoException("Benefício origem não encontrado: " + fromId);
+        }
+        long saldoDestino = destino.saldos.get(toId);
+        if (saldoDestino == MapaLongLong.AUSENTE) {
+            throw new BeneficioNaoEncontradoException("Benefício destino não encontrado: " + toId);
+        }
+        if (saldoOrigem < centavos) {
+            throw new SaldoInsuficienteException("Saldo insuficiente. Saldo atual: " + Money.ofCentavos(saldoOrigem)
+                    + ", Valor solicitado: " + Money.ofCentavos(centavos));
+        }
+        
+        long novoDestino;
+        try {
+            novoDestino = Math.addExact(saldoDestino, centavos);
+        } catch (ArithmeticException e) {
+            throw new IllegalArgumentException("Saldo do benefício destino excederia o limite: " + toId);
+        }
+        executor.alterar(origem, fromId, saldoOrigem - centavos);
+        executor.alterar(destino, toId, novoDestino);
+        executor.registrar(sequencia.incrementAndGet(), fromId, saldoOrigem - centavos, toId, novoDestino);
+        executor.publicarAoConfirmar(BeneficioEvento.transferencia(new TransferenciaRealizadaDTO(fromId, toId,
+                Money.ofCentavos(centavos), Money.ofCentavos(saldoOrigem - centavos), null,
+                Money.ofCentavos(novoDestino), null)));
+    }
+    
+    private void publicar(List<BeneficioEvento> eventos) {
+        publicador.execute(() -> {
+            for (BeneficioEvento evento : eventos) {
+                try {
+                    eventPublisher.publishEvent(evento);
+                } catch (RuntimeException e) {
+                    log.warn("Falha em um ouvinte do evento de transferência", e);
+                }
+            }
+        });
+    }
+    
+    // Reaplica os registros do WAL em ordem de sequência; como trazem saldos absolutos, vale o último de cada ID
+    private void recuperar(List<Path> segmentos) {
+        List<long[]> registros = new ArrayList<>();
+        for (Path segmento : segmentos) {
+            registros.addAll(Wal.ler(segmento));
+        }
+        registros.sort(Comparator.comparingLong(r -> r[0]));
+        for (long[] registro : registros) {
+            recuperarSaldo(registro[1], registro[2]);
+            if (registro[3] != 0) {
+                recuperarSaldo(registro[3], registro[4]);
+            }
+            sequencia.set(registro[0]);
+        }
+    }
+    
+    private void recuperarSaldo(long id, long saldo) {
+        Fragmento fragmento = fragmento(id);
+        // IDs inativados no banco depois do registro são ignorados
+        if (fragmento.saldos.get(id) != MapaLongLong.AUSENTE) {
+            fragmento.definir(id, saldo);
+        }
+    }
+    
+    private void atualizarBanco(List<long[]> alteracoes) {
+        for (int inicio = 0; inicio < alteracoes.size(); inicio += TAMANHO_LOTE_GRAVACAO) {
+            List<long[]> lote = alteracoes.subList(inicio, Math.min(inicio + TAMANHO_LOTE_GRAVACAO, alteracoes.size()));
+            // JDBC direto: sem o bloqueio o cache de segundo nível manteria o saldo e a versão anteriores
+            for (long[] alteracao : lote) {
+                cacheSegundoNivel.bloquear(alteracao[0]);
+            }
+            jdbcTemplate.batchUpdate("UPDATE BENEFICIO SET VALOR = ?, VERSION = VERSION + 1 WHERE ID = ? AND ATIVO = TRUE",
+                    lote, lote.size(), (ps, alteracao) -> {
+                        ps.setBigDecimal(1, Money.ofCentavos(alteracao[1]).toBigDecimal());
+                        ps.setLong(2, alteracao[0]);
+                    });
+        }
+    }
+    
+    // Fragmentos parados por falha no WAL deixam o motor fora do ar até um reinício
+    @Override
+    public Health health() {
+        List<String> parados = new ArrayList<>();
+        for (Fragmento fragmento : fragmentos) {
+            if (fragmento.isParado()) {
+                parados.add(fragmento.indice + ": " + fragmento.getFalha());
+            }
+        }
+        return parados.isEmpty() ? Health.up().build() : Health.down().withDetail("fragmentosParados", parados).build();
+    }
+    
+    Wal criarWal(Path diretorio, String prefixo) {
+        return new Wal(diretorio, prefixo, walSincrono);
+    }
+    
+    private CompletableFuture<Void> submeter(Fragmento fragmento, Consumer<Fragmento> acao) {
+        if (encerrado) {
+            throw new IllegalStateException("Motor de saldos encerrado");
+        }
+        return fragmento.submeter(acao).getResultado();
+    }
+    
+    private Fragmento fragmento(long id) {
+        return fragmentos[(int) Long.remainderUnsigned(id, fragmentos.length)];
+    }
+    
+    private double tamanhoFilas() {
+        long total = 0;
+        for (Fragmento fragmento : fragmentos) {
+            total += fragmento.tamanhoFila();
+        }
+        return total;
+    }
+    
+    private static void aguardar(CompletableFuture<Void> resultado) {
+        try {
+            resultado.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException causa) {
+                throw causa;
+            }
+            throw e;
+        }
+    }
+}
@@ -0,0 +1,201 @@
+package com.example.backend.service.memoria;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+// Log de escrita antecipada de um fragmento, em segmentos. Cada registro traz os saldos absolutos
+// resultantes da operação, por isso reaplicar um registro já gravado no banco não altera o resultado.
+// Depois de uma falha de escrita o WAL recusa novas sincronizações até que os registros não confirmados
+// sejam descartados, para que nada seja confirmado por cima de uma lacuna.
+class Wal {
+    
+    static final String EXTENSAO = ".wal";
+    
+    // sequência, id1, saldo1, id2, saldo2 (id2 = 0 quando a operação altera um único benefício)
+    static final int TAMANHO_REGISTRO = 5 * Long.BYTES;
+    
+    private final Path diretorio;
+    private final String prefixo;
+    private final boolean sincrono;
+    private final ByteBuffer buffer = ByteBuffer.allocateDirect(TAMANHO_REGISTRO * 2048);
+    
+    private FileChannel canal;
+    private Path segmento;
+    private int proximoSegmento;
+    private long registros;
+    private boolean pendente;
+    private boolean falhou;
+    
+    // Bytes escritos no segmento atual e, deles, os já sincronizados
+    private long escrito;
+    private long confirmado;
+    private long registrosConfirmados;
+    
+    Wal(Path diretorio, String prefixo, boolean sincrono) {
+        this.diretorio = diretorio;
+        this.prefixo = prefixo;
+        this.sincrono = sincrono;
+        abrirSegmento();
+    }
+    
+    void registrar(long sequencia, long id1, long saldo1, long id2, long saldo2) {
+        if (buffer.remaining() < TAMANHO_REGISTRO) {
+            escreverBuffer();
+        }
+        buffer.putLong(sequencia).putLong(id1).putLong(saldo1).putLong(id2).putLong(saldo2);
+        registros++;
+    }
+    
+    // Torna duráveis os registros feitos até aqui
+    void sincronizar() {
+        escreverBuffer();
+        if (pendente) {
+            try {
+                if (sincrono) {
+                    canal.force(false);
+                }
+            } catch (IOException e) {
+                falhou = true;
+                throw new UncheckedIOException(e);
+            }
+            pendente = false;
+        }
+        confirmado = escrito;
+        registrosConfirmados = registros;
+    }
+    
+    // Descarta os registros feitos desde a última sincronização, inclusive os que chegaram ao arquivo
+    void descartarPendentes() {
+        buffer.clear();
+        try {
+            canal.truncate(confirmado);
+            canal.position(confirmado);
+            if (sincrono) {
+                canal.force(false);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        escrito = confirmado;
+        registros = registrosConfirmados;
+        pendente = false;
+        falhou = false;
+    }
+    
+    // Fecha o segmento atual e passa a escrever em um novo; devolve o segmento fechado
+    Path rotacionar() {
+        sincronizar();
+        Path anterior = segmento;
+        fecharCanal();
+        abrirSegmento();
+        return anterior;
+    }
+    
+    // Fecha o segmento atual, apagando-o se nada foi registrado nele
+    void fechar() {
+        sincronizar();
+        fecharCanal();
+        if (registros == 0) {
+            apagar(segmento);
+        }
+    }
+    
+    // Fecha o segmento sem escrever o que está no buffer; para um WAL em estado desconhecido
+    void abandonar() {
+        buffer.clear();
+        fecharCanal();
+    }
+    
+    Path getSegmento() {
+        return segmento;
+    }
+    
+    static List<Path> segmentos(Path diretorio) {
+        if (!Files.isDirectory(diretorio)) {
+            return List.of();
+        }
+        try (Stream<Path> arquivos = Files.list(diretorio)) {
+            return arquivos.filter(p -> p.getFileName().toString().endsWith(EXTENSAO)).sorted().toList();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+    
+    // Lê os registros completos de um segmento; um registro parcial no fim (queda durante a escrita) é ignorado
+    static List<long[]> ler(Path segmento) {
+        try (FileChannel leitura = FileChannel.open(segmento, StandardOpenOption.READ)) {
+            List<long[]> lidos = new ArrayList<>();
+            ByteBuffer entrada = ByteBuffer.allocate(TAMANHO_REGISTRO * 1024);
+            while (leitura.read(entrada) > 0 || entrada.position() >= TAMANHO_REGISTRO) {
+                entrada.flip();
+                while (entrada.remaining() >= TAMANHO_REGISTRO) {
+                    lidos.add(new long[] {entrada.getLong(), entrada.getLong(), entrada.getLong(),
+                                          entrada.getLong(), entrada.getLong()});
+                }
+                entrada.compact();
+            }
+            return lidos;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+    
+    static void apagar(Path segmento) {
+        try {
+            Files.deleteIfExists(segmento);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+    
+    private void escreverBuffer() {
+        if (falhou) {
+            throw new IllegalStateException("WAL com registros não confirmados após falha de escrita: " + segmento);
+        }
+        if (buffer.position() == 0) {
+            return;
+        }
+        buffer.flip();
+        try {
+            while (buffer.hasRemaining()) {
+                escrito += canal.write(buffer);
+            }
+        } catch (IOException e) {
+            falhou = true;
+            throw new UncheckedIOException(e);
+        } finally {
+            buffer.clear();
+        }
+        pendente = true;
+    }
+    
+    private void abrirSegmento() {
+        segmento = diretorio.resolve(String.format("%s-%06d%s", prefixo, proximoSegmento++, EXTENSAO));
+        registros = 0;
+        registrosConfirmados = 0;
+        escrito = 0;
+        confirmado = 0;
+        try {
+            Files.createDirectories(diretorio);
+            canal = FileChannel.open(segmento, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+    
+    private void fecharCanal() {
+        try {
+            canal.close();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,7 @@
+-- Migração repetível, aplicada só com a location db/exemplo (banco em memória do perfil padrão)
+INSERT INTO BENEFICIO (ID, NOME, DESCRICAO, VALOR, ATIVO) VALUES
+(1, 'Beneficio A', 'Descrição A', 1000.00, TRUE),
+(2, 'Beneficio B', 'Descrição B', 500.00, TRUE);
+
+-- IDs explícitos para os exemplos da documentação; a sequência continua depois do primeiro bloco (pooled-lo)
+ALTER SEQUENCE BENEFICIO_SEQ RESTART WITH 51;
@@ -0,0 +1,54 @@
+CREATE SEQUENCE BENEFICIO_SEQ START WITH 1 INCREMENT BY 50;
+
+CREATE TABLE BENEFICIO (
+  ID BIGINT DEFAULT NEXT VALUE FOR BENEFICIO_SEQ PRIMARY KEY,
+  NOME VARCHAR(100) NOT NULL,
+  DESCRICAO VARCHAR(255),
+  VALOR DECIMAL(15,2) NOT NULL,
+  ATIVO BOOLEAN DEFAULT TRUE,
+  VERSION BIGINT DEFAULT 0,
+  INATIVADO_EM TIMESTAMP WITH TIME ZONE
+);
+
+-- O H2 não tem índices parciais (WHERE ATIVO); ATIVO na frente separa os ativos dos inativos no índice
+CREATE INDEX IDX_BENEFICIO_ATIVO_ID ON BENEFICIO (ATIVO, ID);
+CREATE INDEX IDX_BENEFICIO_ATIVO_NOME ON BENEFICIO (ATIVO, NOME);
+CREATE INDEX IDX_BENEFICIO_ATIVO_INATIVADO_EM ON BENEFICIO (ATIVO, INATIVADO_EM);
+
+-- Benefícios inativos há mais de beneficio.arquivamento.apos, movidos em lotes pelo arquivamento
+CREATE TABLE BENEFICIO_ARQUIVO (
+  ID BIGINT PRIMARY KEY,
+  NOME VARCHAR(100) NOT NULL,
+  DESCRICAO VARCHAR(255),
+  VALOR DECIMAL(15,2) NOT NULL,
+  VERSION BIGINT,
+  INATIVADO_EM TIMESTAMP WITH TIME ZONE,
+  ARQUIVADO_EM TIMESTAMP WITH TIME ZONE NOT NULL
+);
+
+CREATE SEQUENCE TRANSFERENCIA_SEQ START WITH 1 INCREMENT BY 50;
+
+CREATE TABLE TRANSFERENCIA (
+  ID BIGINT PRIMARY KEY,
+  FROM_ID BIGINT NOT NULL,
+  TO_ID BIGINT NOT NULL,
+  VALOR DECIMAL(15,2) NOT NULL,
+  STATUS VARCHAR(20) NOT NULL,
+  MOTIVO VARCHAR(255),
+  CRIADO_EM TIMESTAMP WITH TIME ZONE NOT NULL
+);
+
+CREATE INDEX IDX_TRANSFERENCIA_STATUS_ID ON TRANSFERENCIA (STATUS, ID);
+CREATE INDEX IDX_TRANSFERENCIA_FROM_ID ON TRANSFERENCIA (FROM_ID, ID);
+CREATE INDEX IDX_TRANSFERENCIA_TO_ID ON TRANSFERENCIA (TO_ID, ID);
+
+CREATE TABLE IDEMPOTENCIA (
+  CHAVE VARCHAR(300) PRIMARY KEY,
+  IMPRESSAO VARCHAR(64) NOT NULL,
+  STATUS INTEGER NOT NULL,
+  TIPO_CONTEUDO VARCHAR(100),
+  CORPO CLOB,
+  EXPIRA_EM TIMESTAMP WITH TIME ZONE NOT NULL
+);
+
+CREATE INDEX IDX_IDEMPOTENCIA_EXPIRA_EM ON IDEMPOTENCIA (EXPIRA_EM);
@@ -0,0 +1,7 @@
+-- Uma única linha atualizada periodicamente no primário; o valor lido em cada réplica mostra até onde ela replicou
+CREATE TABLE BATIMENTO_REPLICA (
+  ID INT PRIMARY KEY,
+  MOMENTO BIGINT NOT NULL
+);
+
+INSERT INTO BATIMENTO_REPLICA (ID, MOMENTO) VALUES (1, 0);
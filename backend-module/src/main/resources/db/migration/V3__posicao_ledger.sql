@@ -0,0 +1,22 @@
+-- Ordem do ledger: a posição é atribuída pelo projetor, na ordem em que aplica os lançamentos. O ID vem de
+-- blocos da sequência e os commits chegam fora de ordem, então não serve como offset.
+ALTER TABLE TRANSFERENCIA ADD COLUMN POSICAO BIGINT;
+
+-- Resultado detalhado (StatusTransferencia) dos lançamentos já projetados
+ALTER TABLE TRANSFERENCIA ADD COLUMN RESULTADO VARCHAR(20);
+
+-- Lançamentos projetados antes desta migração mantêm o ID como posição
+UPDATE TRANSFERENCIA SET POSICAO = ID, RESULTADO = CASE STATUS WHEN 'APLICADA' THEN 'SUCESSO' ELSE 'NAO_APLICADA' END
+WHERE STATUS <> 'PENDENTE';
+
+CREATE INDEX IDX_TRANSFERENCIA_FROM_POSICAO ON TRANSFERENCIA (FROM_ID, POSICAO);
+CREATE INDEX IDX_TRANSFERENCIA_TO_POSICAO ON TRANSFERENCIA (TO_ID, POSICAO);
+
+-- Última posição confirmada pelo projetor; a linha é travada durante cada lote, o que também impede
+-- dois projetores de aplicarem o mesmo lançamento
+CREATE TABLE LEDGER_PROJECAO (
+  ID INT PRIMARY KEY,
+  POSICAO BIGINT NOT NULL
+);
+
+INSERT INTO LEDGER_PROJECAO (ID, POSICAO) SELECT 1, COALESCE(MAX(POSICAO), 0) FROM TRANSFERENCIA;
@@ -0,0 +1,3 @@
+-- Cabeçalhos da resposta repetidos junto com ela (Location, ETag).
+-- A chave é reservada antes da execução com STATUS = 0; a resposta substitui a reserva ao final.
+ALTER TABLE IDEMPOTENCIA ADD COLUMN CABECALHOS VARCHAR(2000);
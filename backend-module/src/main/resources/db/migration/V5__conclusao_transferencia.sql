@@ -0,0 +1,2 @@
+-- Momento em que o lançamento saiu de PENDENTE, mostrado na consulta de transferências assíncronas
+ALTER TABLE TRANSFERENCIA ADD COLUMN CONCLUIDO_EM TIMESTAMP WITH TIME ZONE;
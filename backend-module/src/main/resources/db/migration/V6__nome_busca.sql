@@ -0,0 +1,9 @@
+-- Nome normalizado como em BeneficioNomeIndex.normalizar (minúsculas, sem acentos, espaços simples), para
+-- que a busca por LIKE, usada enquanto o índice de nomes em memória não está pronto, tenha o mesmo resultado.
+-- Coluna calculada pelo banco: inserções por JPA, importação, gerador e exemplos não precisam preenchê-la.
+-- TRANSLATE cobre as letras acentuadas de Latin-1 e Latin Extended-A.
+ALTER TABLE BENEFICIO ADD COLUMN NOME_BUSCA VARCHAR(100) GENERATED ALWAYS AS (
+  TRIM(REGEXP_REPLACE(TRANSLATE(LOWER(NOME),
+    'àáâãäåçèéêëìíîïñòóôõöùúûüýÿāăąćĉċčďēĕėęěĝğġģĥĩīĭįĵķĺļľńņňōŏőŕŗřśŝşšţťũūŭůűųŵŷźżž',
+    'aaaaaaceeeeiiiinooooouuuuyyaaaccccdeeeeegggghiiiijklllnnnooorrrssssttuuuuuuwyzzz'),
+  '\s+', ' ')));
@@ -0,0 +1,315 @@
+package com.example.backend.idempotencia;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ExecutorIdempotenteTest {
+
+    private static final Map<String, Object> CORPO = Map.of("fromId", 1, "toId", 2, "valor", "10.00");
+
+    private final StoreFalso store = new StoreFalso();
+
+    private final List<Thread> threads = new ArrayList<>();
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        for (Thread thread : threads) {
+            thread.join(TimeUnit.SECONDS.toMillis(5));
+        }
+    }
+
+    @Test
+    void testRepeticaoDevolveRespostaOriginal() throws Exception {
+        // Given
+        ExecutorIdempotente executor = executor(Duration.ofSeconds(5));
+        AtomicInteger execucoes = new AtomicInteger();
+        Supplier<ResponseEntity<?>> acao = () -> ResponseEntity.created(URI.create("/api/v1/beneficios/7"))
+                .eTag("\"0\"")
+                .body(Map.of("id", 7, "execucao", execucoes.incrementAndGet()));
+        ResponseEntity<?> original = executor.executar("chave-1", "criar", CORPO, acao);
+
+        // When
+        ResponseEntity<?> repetida = executor.executar("chave-1", "criar", CORPO, acao);
+
+        // Then
+        assertEquals(1, execucoes.get());
+        assertEquals(HttpStatus.CREATED, original.getStatusCode());
+        assertEquals(HttpStatus.CREATED, repetida.getStatusCode());
+        assertEquals("true", repetida.getHeaders().getFirst(ExecutorIdempotente.CABECALHO_REPETIDA));
+        assertEquals("/api/v1/beneficios/7", repetida.getHeaders().getFirst(HttpHeaders.LOCATION));
+        assertEquals("\"0\"", repetida.getHeaders().getETag());
+        ObjectMapper objectMapper = new ObjectMapper();
+        assertEquals(objectMapper.readTree("{\"id\":7,\"execucao\":1}"), objectMapper.readTree((String) repetida.getBody()));
+    }
+
+    @Test
+    void testMesmaChaveComOutroCorpoRecebe422() {
+        // Given
+        ExecutorIdempotente executor = executor(Duration.ofSeconds(5));
+        AtomicInteger execucoes = new AtomicInteger();
+        executor.executar("chave-1", "transferir", CORPO, ok(execucoes));
+
+        // When
+        ResponseEntity<?> resposta = executor.executar("chave-1", "transferir", Map.of("fromId", 1, "toId", 3),
+                ok(execucoes));
+
+        // Then
+        assertEquals(HttpStatus.UNPROCESSABLE_ENTITY, resposta.getStatusCode());
+        assertEquals(1, execucoes.get());
+
+        // A chave vale por operação: em outra operação ela é nova
+        assertEquals(HttpStatus.OK, executor.executar("chave-1", "criar", Map.of("nome", "x"), ok(execucoes))
+                .getStatusCode());
+        assertEquals(2, execucoes.get());
+    }
+
+    @Test
+    void testDuplicataConcorrenteAguardaAPrimeira() throws Exception {
+        // Given: a primeira execução fica presa na ação
+        ExecutorIdempotente executor = executor(Duration.ofSeconds(5));
+        AtomicInteger execucoes = new AtomicInteger();
+        CountDownLatch iniciada = new CountDownLatch(1);
+        CountDownLatch liberar = new CountDownLatch(1);
+        Supplier<ResponseEntity<?>> acao = () -> {
+            iniciada.countDown();
+            aguardarLatch(liberar);
+            return ResponseEntity.ok("execucao " + execucoes.incrementAndGet());
+        };
+        Chamada primeira = iniciar(() -> executor.executar("chave-1", "transferir", CORPO, acao));
+        assertTrue(iniciada.await(5, TimeUnit.SECONDS));
+
+        // When
+        Chamada duplicata = iniciar(() -> executor.executar("chave-1", "transferir", CORPO, acao));
+        aguardar(() -> duplicata.thread.getState() == Thread.State.TIMED_WAITING);
+        liberar.countDown();
+
+        // Then: a duplicata recebe a resposta da primeira sem executar a ação
+        assertEquals("execucao 1", primeira.resposta.get(5, TimeUnit.SECONDS).getBody());
+        ResponseEntity<?> repetida = duplicata.resposta.get(5, TimeUnit.SECONDS);
+        assertEquals("execucao 1", repetida.getBody());
+        assertEquals("true", repetida.getHeaders().getFirst(ExecutorIdempotente.CABECALHO_REPETIDA));
+        assertEquals(1, execucoes.get());
+    }
+
+    @Test
+    void testRespostas409429E5xxLiberamAChave() {
+        for (HttpStatus status : List.of(HttpStatus.CONFLICT, HttpStatus.TOO_MANY_REQUESTS,
+                HttpStatus.INTERNAL_SERVER_ERROR, HttpStatus.SERVICE_UNAVAILABLE)) {
+            // Given
+            ExecutorIdempotente executor = executor(Duration.ofSeconds(5));
+            String chave = "chave-" + status.value();
+            AtomicInteger execucoes = new AtomicInteger();
+
+            // When
+            ResponseEntity<?> falha = executor.executar(chave, "transferir", CORPO,
+                    () -> ResponseEntity.status(status).body("execucao " + execucoes.incrementAndGet()));
+            ResponseEntity<?> repeticao = executor.executar(chave, "transferir", CORPO, ok(execucoes));
+
+            // Then: a repetição executa de novo e só a resposta gravável fica
+            assertEquals(status, falha.getStatusCode());
+            assertEquals(HttpStatus.OK, repeticao.getStatusCode(), status.toString());
+            assertEquals(2, execucoes.get(), status.toString());
+            assertFalse(store.reservas.contains("transferir:" + chave));
+            assertTrue(store.concluidas.containsKey("transferir:" + chave));
+        }
+    }
+
+    @Test
+    void testExcecaoNaAcaoLiberaAChave() {
+        // Given
+        ExecutorIdempotente executor = executor(Duration.ofSeconds(5));
+        AtomicInteger execucoes = new AtomicInteger();
+
+        // When
+        assertThrows(IllegalStateException.class, () -> executor.executar("chave-1", "transferir", CORPO, () -> {
+            execucoes.incrementAndGet();
+            throw new IllegalStateException("Falha simulada");
+        }));
+
+        // Then
+        assertTrue(store.reservas.isEmpty());
+        assertEquals(HttpStatus.OK, executor.executar("chave-1", "transferir", CORPO, ok(execucoes)).getStatusCode());
+        assertEquals(2, execucoes.get());
+    }
+
+    @Test
+    void testFalhaAoConcluirDevolveRespostaELiberaAReserva() {
+        // Given: a gravação da resposta falha depois de a ação ter sido aplicada
+        ExecutorIdempotente executor = executor(Duration.ofSeconds(5));
+        AtomicInteger execucoes = new AtomicInteger();
+        store.falharAoConcluir = true;
+
+        // When
+        ResponseEntity<?> resposta = executor.executar("chave-1", "transferir", CORPO, ok(execucoes));
+
+        // Then: o cliente recebe o resultado da execução e a chave não fica presa em 409
+        assertEquals(HttpStatus.OK, resposta.getStatusCode());
+        assertEquals("execucao 1", resposta.getBody());
+        assertTrue(store.reservas.isEmpty());
+
+        store.falharAoConcluir = false;
+        ResponseEntity<?> repeticao = executor.executar("chave-1", "transferir", CORPO, ok(execucoes));
+        assertEquals(HttpStatus.OK, repeticao.getStatusCode());
+        assertEquals(2, execucoes.get());
+    }
+
+    @Test
+    void testReservaDeOutraInstanciaAguardaAResposta() throws Exception {
+        // Given: outra instância reservou a chave e ainda executa
+        ExecutorIdempotente executor = executor(Duration.ofSeconds(5));
+        AtomicInteger execucoes = new AtomicInteger();
+        store.reservas.add("transferir:chave-1");
+        Chamada chamada = iniciar(() -> executor.executar("chave-1", "transferir", CORPO, ok(execucoes)));
+        aguardar(() -> store.reservasRecusadas.get() > 0);
+
+        // When: a outra instância conclui
+        store.concluidas.put("transferir:chave-1", new RespostaIdempotente(impressao(CORPO), 200,
+                "text/plain;charset=UTF-8", "da outra instancia", new HttpHeaders()));
+        store.reservas.remove("transferir:chave-1");
+
+        // Then
+        ResponseEntity<?> resposta = chamada.resposta.get(5, TimeUnit.SECONDS);
+        assertEquals("da outra instancia", resposta.getBody());
+        assertEquals(0, execucoes.get());
+    }
+
+    @Test
+    void testReservaDeOutraInstanciaSemRespostaRecebe409() {
+        // Given
+        ExecutorIdempotente executor = executor(Duration.ofMillis(200));
+        AtomicInteger execucoes = new AtomicInteger();
+        store.reservas.add("transferir:chave-1");
+
+        // When
+        ResponseEntity<?> resposta = executor.executar("chave-1", "transferir", CORPO, ok(execucoes));
+
+        // Then
+        assertEquals(HttpStatus.CONFLICT, resposta.getStatusCode());
+        assertEquals(0, execucoes.get());
+        assertTrue(store.reservas.contains("transferir:chave-1"));
+    }
+
+    @Test
+    void testChaveInvalidaRecebe400() {
+        ExecutorIdempotente executor = executor(Duration.ofSeconds(5));
+        AtomicInteger execucoes = new AtomicInteger();
+
+        assertEquals(HttpStatus.BAD_REQUEST, executor.executar(" ", "criar", CORPO, ok(execucoes)).getStatusCode());
+        assertEquals(HttpStatus.BAD_REQUEST, executor.executar("x".repeat(256), "criar", CORPO, ok(execucoes))
+                .getStatusCode());
+        assertEquals(0, execucoes.get());
+    }
+
+    private ExecutorIdempotente executor(Duration esperaMaxima) {
+        ExecutorIdempotente executor = new ExecutorIdempotente(esperaMaxima, new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(executor, "store", store);
+        ReflectionTestUtils.setField(executor, "objectMapper", new ObjectMapper());
+        return executor;
+    }
+
+    private static Supplier<ResponseEntity<?>> ok(AtomicInteger execucoes) {
+        return () -> ResponseEntity.ok("execucao " + execucoes.incrementAndGet());
+    }
+
+    private String impressao(Object requisicao) {
+        return ReflectionTestUtils.invokeMethod(executor(Duration.ofSeconds(5)), "impressao", requisicao);
+    }
+
+    private Chamada iniciar(Supplier<ResponseEntity<?>> execucao) {
+        CompletableFuture<ResponseEntity<?>> resposta = new CompletableFuture<>();
+        Thread thread = new Thread(() -> {
+            try {
+                resposta.complete(execucao.get());
+            } catch (RuntimeException e) {
+                resposta.completeExceptionally(e);
+            }
+        });
+        thread.setDaemon(true);
+        thread.start();
+        threads.add(thread);
+        return new Chamada(thread, resposta);
+    }
+
+    private static void aguardarLatch(CountDownLatch latch) {
+        try {
+            latch.await(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void aguardar(BooleanSupplier condicao) throws InterruptedException {
+        long limite = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!condicao.getAsBoolean()) {
+            assertTrue(System.nanoTime() < limite, "Condição não atingida a tempo");
+            Thread.sleep(5);
+        }
+    }
+
+    private record Chamada(Thread thread, CompletableFuture<ResponseEntity<?>> resposta) {
+    }
+
+    // Faz o papel da tabela IDEMPOTENCIA compartilhada entre instâncias: reservas e respostas concluídas
+    private static final class StoreFalso extends IdempotenciaStore {
+
+        private final Map<String, RespostaIdempotente> concluidas = new ConcurrentHashMap<>();
+        private final Set<String> reservas = ConcurrentHashMap.newKeySet();
+        private final AtomicInteger reservasRecusadas = new AtomicInteger();
+        private volatile boolean falharAoConcluir;
+
+        private StoreFalso() {
+            super(100, Duration.ofHours(1), false, new SimpleMeterRegistry());
+        }
+
+        @Override
+        public Optional<RespostaIdempotente> buscar(String chave) {
+            return Optional.ofNullable(concluidas.get(chave));
+        }
+
+        @Override
+        public boolean reservar(String chave, String impressao) {
+            if (concluidas.containsKey(chave) || !reservas.add(chave)) {
+                reservasRecusadas.incrementAndGet();
+                return false;
+            }
+            return true;
+        }
+
+        @Override
+        public void concluir(String chave, RespostaIdempotente resposta) {
+            if (falharAoConcluir) {
+                throw new IllegalStateException("Falha simulada ao gravar a resposta");
+            }
+            concluidas.put(chave, resposta);
+            reservas.remove(chave);
+        }
+
+        @Override
+        public void liberar(String chave) {
+            reservas.remove(chave);
+        }
+    }
+}
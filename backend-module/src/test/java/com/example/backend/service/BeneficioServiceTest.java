@@ -0,0 +1,183 @@
+package com.example.backend.service;
+
+import com.example.backend.config.TransferenciaProperties;
+import com.example.backend.dto.ResultadoLoteDTO;
+import com.example.backend.dto.ResultadoTransferenciaDTO;
+import com.example.backend.dto.StatusTransferencia;
+import com.example.backend.dto.TransferenciaDTO;
+import com.example.backend.entity.Beneficio;
+import com.example.backend.event.BeneficioEvento;
+import com.example.backend.repository.BeneficioRepository;
+import com.example.common.money.Money;
+import jakarta.validation.Validation;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class BeneficioServiceTest {
+
+    // Maior saldo aceito pelas regras do benefício (DECIMAL(15,2))
+    private static final Money SALDO_MAXIMO = Money.parse("9999999999999.99");
+
+    // Benefícios ativos no banco, por ID
+    private final Map<Long, Beneficio> ativos = new HashMap<>();
+
+    private final TransferenciaProperties transferenciaProperties = new TransferenciaProperties();
+
+    private BeneficioRepository beneficioRepository;
+
+    private ApplicationEventPublisher eventPublisher;
+
+    private BeneficioService beneficioService;
+
+    @BeforeEach
+    void setUp() {
+        beneficioRepository = mock(BeneficioRepository.class);
+        when(beneficioRepository.findByIdIn(anyCollection())).thenAnswer(invocacao -> {
+            Collection<Long> ids = invocacao.getArgument(0);
+            return ids.stream().filter(ativos::containsKey).map(ativos::get).toList();
+        });
+        eventPublisher = mock(ApplicationEventPublisher.class);
+        transferenciaProperties.setEstrategia(EstrategiaTransferencia.ATOMICA);
+
+        beneficioService = new BeneficioService();
+        ReflectionTestUtils.setField(beneficioService, "beneficioRepository", beneficioRepository);
+        ReflectionTestUtils.setField(beneficioService, "transferenciaProperties", transferenciaProperties);
+        ReflectionTestUtils.setField(beneficioService, "eventPublisher", eventPublisher);
+        ReflectionTestUtils.setField(beneficioService, "validator",
+                Validation.buildDefaultValidatorFactory().getValidator());
+
+        ativo(1L, "100.00");
+        ativo(2L, "50.00");
+        ativo(3L, "0.00");
+    }
+
+    @Test
+    void testLoteAtomicoComFalhaNaoAplicaNada() {
+        // Given
+        List<TransferenciaDTO> lote = List.of(
+                transferencia(1L, 2L, "30.00"),
+                transferencia(2L, 3L, "500.00"),
+                transferencia(1L, 3L, "10.00"));
+
+        // When
+        ResultadoLoteDTO resultado = beneficioService.transferirLote(lote, true);
+
+        // Then: as válidas são devolvidas como não aplicadas, e nenhum saldo muda
+        assertFalse(resultado.isAplicado());
+        assertEquals(0, resultado.getSucessos());
+        assertEquals(1, resultado.getFalhas());
+        assertEquals(List.of(StatusTransferencia.NAO_APLICADA, StatusTransferencia.SALDO_INSUFICIENTE,
+                StatusTransferencia.NAO_APLICADA), status(resultado));
+        verify(beneficioRepository, never()).saveAll(any());
+        verify(eventPublisher, never()).publishEvent(any(BeneficioEvento.class));
+        assertEquals(Money.parse("100.00"), ativos.get(1L).getValor());
+    }
+
+    @Test
+    void testLoteAtomicoSemFalhaAplicaTudo() {
+        // When
+        ResultadoLoteDTO resultado = beneficioService.transferirLote(List.of(
+                transferencia(1L, 2L, "30.00"),
+                transferencia(2L, 3L, "80.00")), true);
+
+        // Then: a segunda usa o saldo deixado pela primeira
+        assertTrue(resultado.isAplicado());
+        assertEquals(2, resultado.getSucessos());
+        assertEquals(Money.parse("70.00"), ativos.get(1L).getValor());
+        assertEquals(Money.parse("0.00"), ativos.get(2L).getValor());
+        assertEquals(Money.parse("80.00"), ativos.get(3L).getValor());
+        verify(eventPublisher, times(2)).publishEvent(any(BeneficioEvento.class));
+    }
+
+    @Test
+    void testLoteMelhorEsforcoAplicaSoAsValidas() {
+        // Given
+        List<TransferenciaDTO> lote = List.of(
+                transferencia(1L, 2L, "40.00"),
+                transferencia(3L, 1L, "1.00"),
+                transferencia(1L, 1L, "1.00"),
+                transferencia(1L, 42L, "1.00"),
+                transferencia(1L, 3L, "60.00"));
+
+        // When
+        ResultadoLoteDTO resultado = beneficioService.transferirLote(lote, false);
+
+        // Then: a última zera a origem, o que é permitido
+        assertTrue(resultado.isAplicado());
+        assertEquals(2, resultado.getSucessos());
+        assertEquals(3, resultado.getFalhas());
+        assertEquals(List.of(StatusTransferencia.SUCESSO, StatusTransferencia.SALDO_INSUFICIENTE,
+                StatusTransferencia.INVALIDA, StatusTransferencia.NAO_ENCONTRADO, StatusTransferencia.SUCESSO),
+                status(resultado));
+        assertEquals(Money.ZERO, ativos.get(1L).getValor());
+        assertEquals(Money.parse("90.00"), ativos.get(2L).getValor());
+        assertEquals(Money.parse("60.00"), ativos.get(3L).getValor());
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<Beneficio>> gravados = ArgumentCaptor.forClass(List.class);
+        verify(beneficioRepository).saveAll(gravados.capture());
+        assertEquals(3, gravados.getValue().size());
+        verify(beneficioRepository).flush();
+        verify(eventPublisher, times(2)).publishEvent(any(BeneficioEvento.class));
+    }
+
+    @Test
+    void testCreditoAlemDoMaximoRecusadoSemDesfazerOLote() {
+        // Given
+        ativo(4L, SALDO_MAXIMO.toString());
+
+        // When
+        ResultadoLoteDTO resultado = beneficioService.transferirLote(List.of(
+                transferencia(1L, 4L, "0.01"),
+                transferencia(1L, 2L, "0.01")), false);
+
+        // Then
+        assertEquals(List.of(StatusTransferencia.INVALIDA, StatusTransferencia.SUCESSO), status(resultado));
+        assertTrue(resultado.getItens().get(0).getMensagem().startsWith("Saldo do benefício destino inválido"));
+        assertEquals(SALDO_MAXIMO, ativos.get(4L).getValor());
+        assertEquals(Money.parse("50.01"), ativos.get(2L).getValor());
+    }
+
+    @Test
+    void testLoteRecusadoComEstrategiaMemoria() {
+        // Given
+        transferenciaProperties.setEstrategia(EstrategiaTransferencia.MEMORIA);
+
+        // When & Then
+        assertThrows(IllegalStateException.class,
+                () -> beneficioService.transferirLote(List.of(transferencia(1L, 2L, "1.00")), false));
+        verify(beneficioRepository, never()).findByIdIn(anyCollection());
+    }
+
+    private void ativo(Long id, String valor) {
+        Beneficio beneficio = new Beneficio("Beneficio " + id, null, Money.parse(valor));
+        beneficio.setId(id);
+        beneficio.setVersion(0L);
+        ativos.put(id, beneficio);
+    }
+
+    private static TransferenciaDTO transferencia(Long fromId, Long toId, String valor) {
+        return new TransferenciaDTO(fromId, toId, Money.parse(valor));
+    }
+
+    private static List<StatusTransferencia> status(ResultadoLoteDTO resultado) {
+        return resultado.getItens().stream().map(ResultadoTransferenciaDTO::getStatus).toList();
+    }
+}
@@ -0,0 +1,320 @@
+package com.example.backend.service;
+
+import com.example.backend.dto.ResultadoLoteDTO;
+import com.example.backend.dto.ResultadoTransferenciaDTO;
+import com.example.backend.dto.StatusTransferencia;
+import com.example.backend.dto.TransferenciaDTO;
+import com.example.common.money.Money;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.OptimisticLockingFailureException;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CoordenadorGrupoTest {
+
+    // Destino que faz o aplicador falhar, simulando uma transferência recusada no flush
+    private static final long DESTINO_PROBLEMATICO = 99L;
+
+    private final List<Thread> threads = new ArrayList<>();
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        for (Thread thread : threads) {
+            thread.join(TimeUnit.SECONDS.toMillis(5));
+        }
+    }
+
+    @Test
+    void testChamadorSozinhoNaoEsperaJanela() {
+        // Given
+        AplicadorFalso aplicador = new AplicadorFalso();
+        CoordenadorGrupo coordenador = coordenador(Duration.ofSeconds(10), 10, aplicador);
+
+        // When
+        long inicio = System.nanoTime();
+        ResultadoTransferenciaDTO resultado = coordenador.transferir(transferencia(1L));
+
+        // Then
+        assertEquals(StatusTransferencia.SUCESSO, resultado.getStatus());
+        assertTrue(System.nanoTime() - inicio < TimeUnit.SECONDS.toNanos(5));
+        assertEquals(List.of(1), aplicador.tamanhos());
+    }
+
+    @Test
+    void testLiderancaPassaAoPendenteMaisAntigo() throws Exception {
+        // Given: o primeiro grupo fica preso no aplicador enquanto outras três chegam
+        AplicadorFalso aplicador = new AplicadorFalso();
+        CountDownLatch liberarPrimeiro = aplicador.travar(0);
+        CountDownLatch liberarSegundo = aplicador.travar(1);
+        CoordenadorGrupo coordenador = coordenador(Duration.ofSeconds(10), 3, aplicador);
+
+        Chamada lider = iniciar(coordenador, transferencia(1L));
+        aplicador.aguardarChamada(0);
+        List<Chamada> seguintes = List.of(
+                iniciar(coordenador, transferencia(2L)),
+                iniciar(coordenador, transferencia(3L)),
+                iniciar(coordenador, transferencia(4L)));
+        for (Chamada chamada : seguintes) {
+            aguardarBloqueada(chamada.thread);
+        }
+
+        // When
+        liberarPrimeiro.countDown();
+        aplicador.aguardarChamada(1);
+
+        // Then: o primeiro líder termina enquanto o grupo seguinte ainda está sendo aplicado por outra thread
+        assertEquals(StatusTransferencia.SUCESSO, lider.resultado.get(5, TimeUnit.SECONDS).getStatus());
+        assertEquals(List.of(1, 3), aplicador.tamanhos());
+        assertNotEquals(lider.thread, aplicador.threads.get(1));
+        assertTrue(seguintes.stream().anyMatch(chamada -> chamada.thread == aplicador.threads.get(1)));
+
+        liberarSegundo.countDown();
+        for (Chamada chamada : seguintes) {
+            assertEquals(StatusTransferencia.SUCESSO, chamada.resultado.get(5, TimeUnit.SECONDS).getStatus());
+        }
+    }
+
+    @Test
+    void testJanelaReuneChegadasDuranteEspera() throws Exception {
+        // Given
+        AplicadorFalso aplicador = new AplicadorFalso();
+        CountDownLatch liberarPrimeiro = aplicador.travar(0);
+        CoordenadorGrupo coordenador = coordenador(Duration.ofSeconds(2), 10, aplicador);
+
+        Chamada primeira = iniciar(coordenador, transferencia(1L));
+        aplicador.aguardarChamada(0);
+        List<Chamada> chamadas = new ArrayList<>(List.of(
+                iniciar(coordenador, transferencia(2L)),
+                iniciar(coordenador, transferencia(3L))));
+        for (Chamada chamada : chamadas) {
+            aguardarBloqueada(chamada.thread);
+        }
+
+        // When: com mais de uma pendente o novo líder espera a janela, e quem chega nela entra no grupo
+        liberarPrimeiro.countDown();
+        aguardarEmJanela(chamadas);
+        chamadas.add(iniciar(coordenador, transferencia(4L)));
+
+        // Then
+        for (Chamada chamada : chamadas) {
+            assertEquals(StatusTransferencia.SUCESSO, chamada.resultado.get(5, TimeUnit.SECONDS).getStatus());
+        }
+        assertEquals(StatusTransferencia.SUCESSO, primeira.resultado.get(5, TimeUnit.SECONDS).getStatus());
+        assertEquals(List.of(1, 3), aplicador.tamanhos());
+    }
+
+    @Test
+    void testGrupoCheioEncerraJanela() throws Exception {
+        // Given: janela longa, mas o grupo enche durante a espera
+        AplicadorFalso aplicador = new AplicadorFalso();
+        CountDownLatch liberarPrimeiro = aplicador.travar(0);
+        CoordenadorGrupo coordenador = coordenador(Duration.ofSeconds(30), 3, aplicador);
+
+        iniciar(coordenador, transferencia(1L));
+        aplicador.aguardarChamada(0);
+        List<Chamada> chamadas = new ArrayList<>(List.of(
+                iniciar(coordenador, transferencia(2L)),
+                iniciar(coordenador, transferencia(3L))));
+        for (Chamada chamada : chamadas) {
+            aguardarBloqueada(chamada.thread);
+        }
+        liberarPrimeiro.countDown();
+        aguardarEmJanela(chamadas);
+
+        // When
+        long inicio = System.nanoTime();
+        chamadas.add(iniciar(coordenador, transferencia(4L)));
+
+        // Then
+        for (Chamada chamada : chamadas) {
+            assertEquals(StatusTransferencia.SUCESSO, chamada.resultado.get(10, TimeUnit.SECONDS).getStatus());
+        }
+        assertTrue(System.nanoTime() - inicio < TimeUnit.SECONDS.toNanos(10));
+        assertEquals(List.of(1, 3), aplicador.tamanhos());
+    }
+
+    @Test
+    void testFalhaDeUmItemNaoDerrubaOGrupo() throws Exception {
+        // Given
+        AplicadorFalso aplicador = new AplicadorFalso();
+        CountDownLatch liberarPrimeiro = aplicador.travar(0);
+        CoordenadorGrupo coordenador = coordenador(Duration.ZERO, 10, aplicador);
+
+        iniciar(coordenador, transferencia(1L));
+        aplicador.aguardarChamada(0);
+        Chamada antes = iniciar(coordenador, transferencia(2L));
+        Chamada problematica = iniciar(coordenador, transferencia(DESTINO_PROBLEMATICO));
+        Chamada depois = iniciar(coordenador, transferencia(3L));
+        for (Chamada chamada : List.of(antes, problematica, depois)) {
+            aguardarBloqueada(chamada.thread);
+        }
+
+        // When
+        liberarPrimeiro.countDown();
+
+        // Then: o grupo falha e cada transferência é reaplicada sozinha
+        assertEquals(StatusTransferencia.SUCESSO, antes.resultado.get(5, TimeUnit.SECONDS).getStatus());
+        assertEquals(StatusTransferencia.SUCESSO, depois.resultado.get(5, TimeUnit.SECONDS).getStatus());
+        Exception falha = assertThrows(Exception.class, () -> problematica.resultado.get(5, TimeUnit.SECONDS));
+        assertInstanceOf(IllegalStateException.class, falha.getCause());
+        assertEquals(List.of(1, 3, 1, 1, 1), aplicador.tamanhos());
+    }
+
+    @Test
+    void testFalhaSozinhaChegaAoChamador() {
+        // Given
+        AplicadorFalso aplicador = new AplicadorFalso();
+        CoordenadorGrupo coordenador = coordenador(Duration.ZERO, 10, aplicador);
+
+        // When & Then
+        assertThrows(IllegalStateException.class,
+                () -> coordenador.transferir(transferencia(DESTINO_PROBLEMATICO)));
+        assertEquals(List.of(1), aplicador.tamanhos());
+
+        // O coordenador continua aceitando transferências
+        assertEquals(StatusTransferencia.SUCESSO, coordenador.transferir(transferencia(1L)).getStatus());
+    }
+
+    @Test
+    void testConflitoPersistenteFalhaOGrupoInteiro() throws Exception {
+        // Given
+        AplicadorFalso aplicador = new AplicadorFalso();
+        CountDownLatch liberarPrimeiro = aplicador.travar(0);
+        aplicador.conflitoNaChamada = 1;
+        CoordenadorGrupo coordenador = coordenador(Duration.ZERO, 10, aplicador);
+
+        iniciar(coordenador, transferencia(1L));
+        aplicador.aguardarChamada(0);
+        List<Chamada> chamadas = List.of(
+                iniciar(coordenador, transferencia(2L)),
+                iniciar(coordenador, transferencia(3L)));
+        for (Chamada chamada : chamadas) {
+            aguardarBloqueada(chamada.thread);
+        }
+
+        // When
+        liberarPrimeiro.countDown();
+
+        // Then: sem reaplicação individual, todos recebem o conflito
+        for (Chamada chamada : chamadas) {
+            Exception falha = assertThrows(Exception.class, () -> chamada.resultado.get(5, TimeUnit.SECONDS));
+            assertInstanceOf(OptimisticLockingFailureException.class, falha.getCause());
+        }
+        assertEquals(List.of(1, 2), aplicador.tamanhos());
+    }
+
+    private CoordenadorGrupo coordenador(Duration janela, int tamanhoMaximo, AplicadorFalso aplicador) {
+        DistributionSummary tamanhoGrupos = DistributionSummary.builder("teste.grupo")
+                .register(new SimpleMeterRegistry());
+        return new CoordenadorGrupo(janela.toNanos(), tamanhoMaximo, aplicador, tamanhoGrupos);
+    }
+
+    private static TransferenciaDTO transferencia(Long toId) {
+        return new TransferenciaDTO(100L, toId, Money.ofCentavos(100));
+    }
+
+    private Chamada iniciar(CoordenadorGrupo coordenador, TransferenciaDTO transferencia) {
+        CompletableFuture<ResultadoTransferenciaDTO> resultado = new CompletableFuture<>();
+        Thread thread = new Thread(() -> {
+            try {
+                resultado.complete(coordenador.transferir(transferencia));
+            } catch (RuntimeException e) {
+                resultado.completeExceptionally(e);
+            }
+        });
+        thread.setDaemon(true);
+        thread.start();
+        threads.add(thread);
+        return new Chamada(thread, resultado);
+    }
+
+    // A thread está parada em join aguardando resultado ou liderança
+    private static void aguardarBloqueada(Thread thread) throws InterruptedException {
+        aguardar(() -> thread.getState() == Thread.State.WAITING);
+    }
+
+    // Uma das chamadas virou líder e está esperando a janela
+    private static void aguardarEmJanela(List<Chamada> chamadas) throws InterruptedException {
+        aguardar(() -> chamadas.stream().anyMatch(chamada -> chamada.thread.getState() == Thread.State.TIMED_WAITING));
+    }
+
+    private static void aguardar(BooleanSupplier condicao) throws InterruptedException {
+        long limite = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!condicao.getAsBoolean()) {
+            assertTrue(System.nanoTime() < limite, "Condição não atingida a tempo");
+            Thread.sleep(5);
+        }
+    }
+
+    private record Chamada(Thread thread, CompletableFuture<ResultadoTransferenciaDTO> resultado) {
+    }
+
+    // Aplica tudo com sucesso, exceto grupos com o destino problemático; chamadas podem ser travadas
+    private static final class AplicadorFalso implements Function<List<TransferenciaDTO>, ResultadoLoteDTO> {
+
+        private final List<List<TransferenciaDTO>> chamadas = new CopyOnWriteArrayList<>();
+        private final List<Thread> threads = new CopyOnWriteArrayList<>();
+        private final List<CountDownLatch> travas = new CopyOnWriteArrayList<>();
+        private final List<CountDownLatch> iniciadas = new CopyOnWriteArrayList<>();
+        private volatile int conflitoNaChamada = -1;
+
+        private AplicadorFalso() {
+            for (int i = 0; i < 10; i++) {
+                travas.add(new CountDownLatch(0));
+                iniciadas.add(new CountDownLatch(1));
+            }
+        }
+
+        CountDownLatch travar(int chamada) {
+            CountDownLatch trava = new CountDownLatch(1);
+            travas.set(chamada, trava);
+            return trava;
+        }
+
+        void aguardarChamada(int chamada) throws InterruptedException {
+            assertTrue(iniciadas.get(chamada).await(5, TimeUnit.SECONDS), "Aplicador não chamado a tempo");
+        }
+
+        List<Integer> tamanhos() {
+            return chamadas.stream().map(List::size).toList();
+        }
+
+        @Override
+        public ResultadoLoteDTO apply(List<TransferenciaDTO> transferencias) {
+            int chamada = chamadas.size();
+            chamadas.add(List.copyOf(transferencias));
+            threads.add(Thread.currentThread());
+            iniciadas.get(chamada).countDown();
+            try {
+                travas.get(chamada).await(10, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+
+            if (chamada == conflitoNaChamada) {
+                throw new OptimisticLockingFailureException("Conflito simulado");
+            }
+            if (transferencias.stream().anyMatch(t -> t.getToId() == DESTINO_PROBLEMATICO)) {
+                throw new IllegalStateException("Falha simulada no flush");
+            }
+            List<ResultadoTransferenciaDTO> itens = new ArrayList<>(transferencias.size());
+            for (int i = 0; i < transferencias.size(); i++) {
+                itens.add(new ResultadoTransferenciaDTO(i, StatusTransferencia.SUCESSO, null));
+            }
+            return new ResultadoLoteDTO(true, itens.size(), 0, itens);
+        }
+    }
+}
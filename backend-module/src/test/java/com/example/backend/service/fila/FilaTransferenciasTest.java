@@ -0,0 +1,248 @@
+package com.example.backend.service.fila;
+
+import com.example.backend.config.TransferenciaProperties;
+import com.example.backend.dto.ResultadoLoteDTO;
+import com.example.backend.dto.ResultadoTransferenciaDTO;
+import com.example.backend.dto.StatusTransferencia;
+import com.example.backend.dto.TransferenciaDTO;
+import com.example.backend.entity.StatusLedger;
+import com.example.backend.entity.Transferencia;
+import com.example.backend.repository.TransferenciaRepository;
+import com.example.backend.service.BeneficioService;
+import com.example.backend.service.EstrategiaTransferencia;
+import com.example.common.money.Money;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class FilaTransferenciasTest {
+
+    // Destino que faz o lote falhar, simulando uma transferência recusada no flush
+    private static final long DESTINO_PROBLEMATICO = 99L;
+
+    // Lançamentos gravados em TRANSFERENCIA, por ID
+    private final Map<Long, Transferencia> lancamentos = new ConcurrentHashMap<>();
+
+    private final AtomicLong sequencia = new AtomicLong();
+
+    private final List<List<TransferenciaDTO>> lotes = new CopyOnWriteArrayList<>();
+
+    private final CountDownLatch primeiroIniciado = new CountDownLatch(1);
+
+    private volatile CountDownLatch liberarPrimeiro = new CountDownLatch(0);
+
+    private volatile int conflitoNoLote = -1;
+
+    private final List<FilaTransferencias> filas = new ArrayList<>();
+
+    private TransferenciaRepository transferenciaRepository;
+
+    private BeneficioService beneficioService;
+
+    @BeforeEach
+    void setUp() {
+        transferenciaRepository = mock(TransferenciaRepository.class);
+        when(transferenciaRepository.save(any(Transferencia.class))).thenAnswer(invocacao -> {
+            Transferencia lancamento = invocacao.getArgument(0);
+            ReflectionTestUtils.setField(lancamento, "id", sequencia.incrementAndGet());
+            lancamentos.put(lancamento.getId(), lancamento);
+            return lancamento;
+        });
+        when(transferenciaRepository.findByIdInForUpdate(anyCollection())).thenAnswer(invocacao -> {
+            Collection<Long> ids = invocacao.getArgument(0);
+            return ids.stream().sorted().map(lancamentos::get).toList();
+        });
+
+        beneficioService = mock(BeneficioService.class);
+        when(beneficioService.transferirLote(anyList(), anyBoolean()))
+                .thenAnswer(invocacao -> aplicarLote(invocacao.getArgument(0)));
+        when(beneficioService.convertToDTO(any(Transferencia.class))).thenCallRealMethod();
+    }
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        liberarPrimeiro.countDown();
+        for (FilaTransferencias fila : filas) {
+            fila.encerrar();
+        }
+    }
+
+    @Test
+    void testTransferenciasQueChegamDuranteAAplicacaoFormamUmLote() throws Exception {
+        // Given: o primeiro lote fica preso na aplicação
+        FilaTransferencias fila = fila(100);
+        liberarPrimeiro = new CountDownLatch(1);
+        fila.enfileirar(transferencia(1L));
+        assertTrue(primeiroIniciado.await(5, TimeUnit.SECONDS));
+
+        // When
+        fila.enfileirar(transferencia(2L));
+        fila.enfileirar(transferencia(3L));
+        fila.enfileirar(transferencia(4L));
+        liberarPrimeiro.countDown();
+
+        // Then
+        aguardarConclusao();
+        assertEquals(List.of(1, 3), tamanhosDosLotes());
+        lancamentos.values().forEach(lancamento -> assertEquals(StatusTransferencia.SUCESSO, lancamento.getResultado()));
+    }
+
+    @Test
+    void testFalhaNoLoteReaplicaCadaTransferenciaSozinha() throws Exception {
+        // Given
+        FilaTransferencias fila = fila(100);
+        liberarPrimeiro = new CountDownLatch(1);
+        fila.enfileirar(transferencia(1L));
+        assertTrue(primeiroIniciado.await(5, TimeUnit.SECONDS));
+        Long antes = fila.enfileirar(transferencia(2L)).getId();
+        Long problematica = fila.enfileirar(transferencia(DESTINO_PROBLEMATICO)).getId();
+        Long depois = fila.enfileirar(transferencia(3L)).getId();
+
+        // When
+        liberarPrimeiro.countDown();
+
+        // Then: só a que falha de novo sozinha fica não aplicada
+        aguardarConclusao();
+        assertEquals(List.of(1, 3, 1, 1, 1), tamanhosDosLotes());
+        assertEquals(StatusTransferencia.SUCESSO, lancamentos.get(antes).getResultado());
+        assertEquals(StatusTransferencia.SUCESSO, lancamentos.get(depois).getResultado());
+        assertEquals(StatusTransferencia.NAO_APLICADA, lancamentos.get(problematica).getResultado());
+        assertEquals(StatusLedger.REJEITADA, lancamentos.get(problematica).getStatus());
+        assertEquals("Falha simulada no flush", lancamentos.get(problematica).getMotivo());
+    }
+
+    @Test
+    void testConflitoReaplicaOLoteInteiro() throws Exception {
+        // Given
+        FilaTransferencias fila = fila(100);
+        liberarPrimeiro = new CountDownLatch(1);
+        conflitoNoLote = 1;
+        fila.enfileirar(transferencia(1L));
+        assertTrue(primeiroIniciado.await(5, TimeUnit.SECONDS));
+        fila.enfileirar(transferencia(2L));
+        fila.enfileirar(transferencia(3L));
+
+        // When
+        liberarPrimeiro.countDown();
+
+        // Then: o lote em conflito é reaplicado do início, sem separar as transferências
+        aguardarConclusao();
+        assertEquals(List.of(1, 2, 2), tamanhosDosLotes());
+        lancamentos.values().forEach(lancamento -> assertEquals(StatusTransferencia.SUCESSO, lancamento.getResultado()));
+    }
+
+    @Test
+    void testFilaCheiaRecusaSemGravarOLancamento() throws Exception {
+        // Given: a thread da partição está presa com a primeira e a fila comporta só mais uma
+        FilaTransferencias fila = fila(1);
+        liberarPrimeiro = new CountDownLatch(1);
+        fila.enfileirar(transferencia(1L));
+        assertTrue(primeiroIniciado.await(5, TimeUnit.SECONDS));
+        fila.enfileirar(transferencia(2L));
+
+        // When
+        FilaCheiaException recusa = assertThrows(FilaCheiaException.class, () -> fila.enfileirar(transferencia(3L)));
+
+        // Then
+        assertEquals(Duration.ofSeconds(1), recusa.getEsperaSugerida());
+        assertEquals(2, lancamentos.size());
+        liberarPrimeiro.countDown();
+        aguardarConclusao();
+        assertEquals(List.of(1, 1), tamanhosDosLotes());
+    }
+
+    @Test
+    void testTransferenciaParaOMesmoBeneficioRecusada() {
+        FilaTransferencias fila = fila(100);
+
+        assertThrows(IllegalArgumentException.class,
+                () -> fila.enfileirar(new TransferenciaDTO(5L, 5L, Money.ofCentavos(100))));
+        assertTrue(lancamentos.isEmpty());
+    }
+
+    private FilaTransferencias fila(int capacidade) {
+        TransferenciaProperties propriedades = new TransferenciaProperties();
+        propriedades.setEstrategia(EstrategiaTransferencia.ATOMICA);
+
+        FilaTransferencias fila = new FilaTransferencias();
+        ReflectionTestUtils.setField(fila, "quantidadeParticoes", 1);
+        ReflectionTestUtils.setField(fila, "capacidade", capacidade);
+        ReflectionTestUtils.setField(fila, "tamanhoLote", 500);
+        ReflectionTestUtils.setField(fila, "retryAfter", Duration.ofSeconds(1));
+        ReflectionTestUtils.setField(fila, "beneficioService", beneficioService);
+        ReflectionTestUtils.setField(fila, "transferenciaRepository", transferenciaRepository);
+        ReflectionTestUtils.setField(fila, "transactionTemplate", new TransactionTemplate(mock(PlatformTransactionManager.class)));
+        ReflectionTestUtils.setField(fila, "transferenciaProperties", propriedades);
+        ReflectionTestUtils.setField(fila, "meterRegistry", new SimpleMeterRegistry());
+        fila.iniciar();
+        filas.add(fila);
+        return fila;
+    }
+
+    private static TransferenciaDTO transferencia(Long toId) {
+        return new TransferenciaDTO(100L, toId, Money.ofCentavos(100));
+    }
+
+    private List<Integer> tamanhosDosLotes() {
+        return lotes.stream().map(List::size).toList();
+    }
+
+    private void aguardarConclusao() throws InterruptedException {
+        aguardar(() -> lancamentos.values().stream().allMatch(lancamento -> lancamento.getStatus() != StatusLedger.PENDENTE));
+    }
+
+    private static void aguardar(BooleanSupplier condicao) throws InterruptedException {
+        long limite = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!condicao.getAsBoolean()) {
+            assertTrue(System.nanoTime() < limite, "Condição não atingida a tempo");
+            Thread.sleep(5);
+        }
+    }
+
+    // Aplica tudo com sucesso, exceto lotes com o destino problemático; o primeiro lote pode ser travado
+    private ResultadoLoteDTO aplicarLote(List<TransferenciaDTO> transferencias) throws InterruptedException {
+        int lote = lotes.size();
+        lotes.add(List.copyOf(transferencias));
+        if (lote == 0) {
+            primeiroIniciado.countDown();
+            liberarPrimeiro.await(10, TimeUnit.SECONDS);
+        }
+
+        if (lote == conflitoNoLote) {
+            throw new OptimisticLockingFailureException("Conflito simulado");
+        }
+        if (transferencias.stream().anyMatch(t -> t.getToId() == DESTINO_PROBLEMATICO)) {
+            throw new IllegalStateException("Falha simulada no flush");
+        }
+        List<ResultadoTransferenciaDTO> itens = new ArrayList<>(transferencias.size());
+        for (int i = 0; i < transferencias.size(); i++) {
+            itens.add(new ResultadoTransferenciaDTO(i, StatusTransferencia.SUCESSO, null));
+        }
+        return new ResultadoLoteDTO(true, itens.size(), 0, itens);
+    }
+}
@@ -0,0 +1,86 @@
+package com.example.backend.service.memoria;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MapaLongLongTest {
+
+    @Test
+    void testRemocaoMantemChavesDoMesmoAgrupamento() {
+        // Given: chaves suficientes para formar agrupamentos na capacidade mínima
+        MapaLongLong mapa = new MapaLongLong(0);
+        for (long chave = 1; chave <= 9; chave++) {
+            mapa.put(chave, chave * 10);
+        }
+
+        // When
+        assertTrue(mapa.remove(3));
+        assertTrue(mapa.remove(7));
+
+        // Then: as demais continuam alcançáveis depois do deslocamento para trás
+        assertEquals(7, mapa.size());
+        for (long chave = 1; chave <= 9; chave++) {
+            long esperado = chave == 3 || chave == 7 ? MapaLongLong.AUSENTE : chave * 10;
+            assertEquals(esperado, mapa.get(chave), "chave " + chave);
+        }
+        assertFalse(mapa.remove(3));
+    }
+
+    @Test
+    void testOperacoesAleatoriasEquivalemAoHashMap() {
+        // Given: poucas chaves possíveis, para que remoções e reinserções caiam nos mesmos agrupamentos
+        MapaLongLong mapa = new MapaLongLong(4);
+        Map<Long, Long> referencia = new HashMap<>();
+        Random random = new Random(42);
+
+        // When
+        for (int i = 0; i < 200_000; i++) {
+            long chave = 1 + random.nextInt(300);
+            if (random.nextInt(3) == 0) {
+                assertEquals(referencia.remove(chave) != null, mapa.remove(chave));
+            } else {
+                long valor = random.nextLong();
+                referencia.put(chave, valor);
+                mapa.put(chave, valor);
+            }
+        }
+
+        // Then
+        assertEquals(referencia.size(), mapa.size());
+        for (long chave = 1; chave <= 300; chave++) {
+            assertEquals(referencia.getOrDefault(chave, MapaLongLong.AUSENTE), mapa.get(chave), "chave " + chave);
+        }
+        Map<Long, Long> visitados = new HashMap<>();
+        mapa.forEach(visitados::put);
+        assertEquals(referencia, visitados);
+    }
+
+    @Test
+    void testClearEsvaziaMapa() {
+        // Given
+        MapaLongLong mapa = new MapaLongLong(16);
+        mapa.put(5, 50);
+        mapa.put(6, 60);
+
+        // When
+        mapa.clear();
+
+        // Then
+        assertEquals(0, mapa.size());
+        assertEquals(MapaLongLong.AUSENTE, mapa.get(5));
+        mapa.put(5, 55);
+        assertEquals(55, mapa.get(5));
+    }
+
+    @Test
+    void testChaveNaoPositivaRejeitada() {
+        MapaLongLong mapa = new MapaLongLong(16);
+
+        assertThrows(IllegalArgumentException.class, () -> mapa.put(0, 1));
+    }
+}
@@ -0,0 +1,368 @@
+package com.example.backend.service.memoria;
+
+import com.example.backend.dto.TransferenciaRealizadaDTO;
+import com.example.backend.event.BeneficioEvento;
+import com.example.backend.service.BeneficioCache;
+import com.example.backend.service.CacheSegundoNivelBeneficio;
+import com.example.backend.service.SaldoInsuficienteException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.boot.actuate.health.Status;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabase;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseBuilder;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseType;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+
+class MotorSaldosTest {
+
+    private static final int BENEFICIOS = 64;
+
+    // Saldo inicial de cada benefício, em centavos
+    private static final long SALDO_INICIAL = 10_000;
+
+    @TempDir
+    Path diretorioWal;
+
+    private EmbeddedDatabase banco;
+
+    private JdbcTemplate jdbc;
+
+    private final List<MotorSaldos> motores = new ArrayList<>();
+
+    private ApplicationEventPublisher eventPublisher = evento -> { };
+
+    @BeforeEach
+    void setUp() {
+        banco = new EmbeddedDatabaseBuilder()
+                .setType(EmbeddedDatabaseType.H2)
+                .generateUniqueName(true)
+                .build();
+        jdbc = new JdbcTemplate(banco);
+        jdbc.execute("CREATE TABLE BENEFICIO (ID BIGINT PRIMARY KEY, VALOR DECIMAL(15,2) NOT NULL, "
+                + "ATIVO BOOLEAN NOT NULL, VERSION BIGINT NOT NULL)");
+        for (long id = 1; id <= BENEFICIOS; id++) {
+            jdbc.update("INSERT INTO BENEFICIO VALUES (?, ?, TRUE, 0)", id, BigDecimal.valueOf(SALDO_INICIAL, 2));
+        }
+    }
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        for (MotorSaldos motor : motores) {
+            motor.encerrar();
+        }
+        banco.shutdown();
+    }
+
+    @Test
+    void testRecuperacaoSegueSequenciaEntreSegmentos() {
+        // Given: o segmento do fragmento 0 vem antes na ordem dos arquivos, mas tem o registro mais novo
+        Wal fragmento0 = new Wal(diretorioWal, "fragmento-a-0", true);
+        fragmento0.registrar(5, 1, 700, 2, 300);
+        fragmento0.fechar();
+        Wal fragmento1 = new Wal(diretorioWal, "fragmento-a-1", true);
+        fragmento1.registrar(3, 1, 100, 0, 0);
+        fragmento1.rotacionar();
+        fragmento1.registrar(4, 3, 4_000, 0, 0);
+        fragmento1.fechar();
+
+        // When
+        iniciar(2);
+
+        // Then: vale o registro de maior sequência de cada ID, e os segmentos recuperados são apagados
+        assertEquals(700, saldoNoBanco(1));
+        assertEquals(300, saldoNoBanco(2));
+        assertEquals(4_000, saldoNoBanco(3));
+        assertEquals(SALDO_INICIAL, saldoNoBanco(4));
+        assertTrue(Wal.segmentos(diretorioWal).stream()
+                .noneMatch(segmento -> segmento.getFileName().toString().startsWith("fragmento-a-")));
+    }
+
+    @Test
+    void testRecuperacaoIgnoraBeneficioInativado() {
+        // Given
+        Wal wal = new Wal(diretorioWal, "fragmento-a-0", true);
+        wal.registrar(1, 5, 1, 0, 0);
+        wal.fechar();
+        jdbc.update("UPDATE BENEFICIO SET ATIVO = FALSE WHERE ID = 5");
+
+        // When
+        iniciar(2);
+
+        // Then
+        assertEquals(SALDO_INICIAL, saldoNoBanco(5));
+    }
+
+    @Test
+    void testTransferenciasConcorrentesEntreFragmentosPreservamTotal() throws Exception {
+        // Given
+        MotorSaldos motor = iniciar(4);
+        AtomicBoolean transferindo = new AtomicBoolean(true);
+        AtomicInteger recusadas = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(9);
+
+        // When: oito threads transferem entre IDs aleatórios enquanto outra grava no banco e rotaciona o WAL
+        Future<?> gravacao = executor.submit(() -> {
+            while (transferindo.get()) {
+                motor.gravar();
+            }
+        });
+        List<Future<?>> transferencias = new ArrayList<>();
+        for (int t = 0; t < 8; t++) {
+            transferencias.add(executor.submit(() -> transferirAleatoriamente(motor, 2_000, recusadas)));
+        }
+        for (Future<?> transferencia : transferencias) {
+            transferencia.get(60, TimeUnit.SECONDS);
+        }
+        transferindo.set(false);
+        gravacao.get(10, TimeUnit.SECONDS);
+        executor.shutdown();
+        motor.gravar();
+
+        // Then
+        Map<Long, Long> saldos = saldosNoBanco();
+        assertEquals(SALDO_INICIAL * BENEFICIOS, saldos.values().stream().mapToLong(Long::longValue).sum());
+        assertTrue(saldos.values().stream().allMatch(saldo -> saldo >= 0));
+        assertEquals(saldos, saldosEmMemoria(motor));
+        assertTrue(recusadas.get() < 8 * 2_000);
+    }
+
+    @Test
+    void testFalhaAoSincronizarWalDesfazTransferencia() throws Exception {
+        // Given: com dois fragmentos, os IDs ímpares ficam no fragmento 1
+        List<WalInstavel> wals = new ArrayList<>();
+        MotorSaldos motor = iniciar(2, wals);
+        motor.transferir(1, 3, 100);
+        wals.get(1).falhar(1);
+
+        // When: a transferência no mesmo fragmento e a que chega do fragmento 0 caem na falha
+        assertThrows(IllegalStateException.class, () -> motor.transferir(1, 3, 200));
+        wals.get(1).falhar(1);
+        assertThrows(IllegalStateException.class, () -> motor.transferir(2, 3, 300));
+        motor.transferir(1, 3, 50);
+
+        // Then: só as confirmadas ficam na memória e, depois de uma queda, no banco recuperado do WAL
+        Map<Long, Long> saldos = saldosEmMemoria(motor);
+        assertEquals(SALDO_INICIAL - 150, saldos.get(1L));
+        assertEquals(SALDO_INICIAL, saldos.get(2L));
+        assertEquals(SALDO_INICIAL + 150, saldos.get(3L));
+        assertEquals(Status.UP, motor.health().getStatus());
+        derrubar(motor);
+        iniciar(2);
+        assertEquals(SALDO_INICIAL - 150, saldoNoBanco(1));
+        assertEquals(SALDO_INICIAL, saldoNoBanco(2));
+        assertEquals(SALDO_INICIAL + 150, saldoNoBanco(3));
+    }
+
+    @Test
+    void testEventosPublicadosSoDepoisDaConfirmacaoNoWal() throws Exception {
+        // Given
+        List<BeneficioEvento> eventos = new CopyOnWriteArrayList<>();
+        List<String> threads = new CopyOnWriteArrayList<>();
+        eventPublisher = evento -> {
+            eventos.add((BeneficioEvento) evento);
+            threads.add(Thread.currentThread().getName());
+        };
+        List<WalInstavel> wals = new ArrayList<>();
+        MotorSaldos motor = iniciar(2, wals);
+
+        // When
+        motor.transferir(1, 3, 100);
+        wals.get(1).falhar(1);
+        assertThrows(IllegalStateException.class, () -> motor.transferir(1, 3, 200));
+        motor.transferir(2, 3, 50);
+        motores.remove(motor);
+        motor.encerrar();
+
+        // Then: a transferência desfeita não gera evento, e todos saem da thread de publicação do motor
+        assertEquals(2, eventos.size());
+        TransferenciaRealizadaDTO primeira = eventos.get(0).getTransferencia();
+        assertEquals(SALDO_INICIAL - 100, primeira.getSaldoOrigem().getCentavos());
+        assertEquals(SALDO_INICIAL + 100, primeira.getSaldoDestino().getCentavos());
+        TransferenciaRealizadaDTO segunda = eventos.get(1).getTransferencia();
+        assertEquals(2L, segunda.getFromId());
+        assertEquals(SALDO_INICIAL + 150, segunda.getSaldoDestino().getCentavos());
+        assertTrue(threads.stream().allMatch("saldos-eventos"::equals));
+    }
+
+    @Test
+    void testFalhaPersistenteNoWalParaOFragmento() {
+        // Given
+        List<WalInstavel> wals = new ArrayList<>();
+        MotorSaldos motor = iniciar(2, wals);
+        wals.get(1).falhar(Integer.MAX_VALUE);
+
+        // When
+        assertThrows(IllegalStateException.class, () -> motor.transferir(1, 3, 200));
+
+        // Then: o fragmento 1 recusa transferências, o 0 continua, e a gravação no banco não é afetada
+        assertEquals(Status.DOWN, motor.health().getStatus());
+        assertThrows(IllegalStateException.class, () -> motor.transferir(3, 5, 10));
+        motor.transferir(2, 4, 100);
+        motor.gravar();
+        assertEquals(SALDO_INICIAL, saldoNoBanco(1));
+        assertEquals(SALDO_INICIAL, saldoNoBanco(3));
+        assertEquals(SALDO_INICIAL - 100, saldoNoBanco(2));
+        assertEquals(SALDO_INICIAL + 100, saldoNoBanco(4));
+    }
+
+    @Test
+    void testQuedaRecuperaSaldosDoWal() throws Exception {
+        // Given: transferências concorrentes com gravações intercaladas, e a queda antes da última gravação
+        MotorSaldos motor = iniciar(4);
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        List<Future<?>> transferencias = new ArrayList<>();
+        for (int t = 0; t < 4; t++) {
+            transferencias.add(executor.submit(() -> {
+                for (int lote = 0; lote < 5; lote++) {
+                    transferirAleatoriamente(motor, 200, new AtomicInteger());
+                    motor.gravar();
+                }
+                transferirAleatoriamente(motor, 200, new AtomicInteger());
+            }));
+        }
+        for (Future<?> transferencia : transferencias) {
+            transferencia.get(60, TimeUnit.SECONDS);
+        }
+        executor.shutdown();
+        transferirAleatoriamente(motor, 100, new AtomicInteger());
+        Map<Long, Long> antesDaQueda = derrubar(motor);
+        assertNotEquals(antesDaQueda, saldosNoBanco());
+
+        // When
+        MotorSaldos recuperado = iniciar(4);
+
+        // Then
+        assertEquals(antesDaQueda, saldosNoBanco());
+        assertEquals(antesDaQueda, saldosEmMemoria(recuperado));
+        assertEquals(SALDO_INICIAL * BENEFICIOS, antesDaQueda.values().stream().mapToLong(Long::longValue).sum());
+    }
+
+    private MotorSaldos iniciar(int fragmentos) {
+        return iniciar(fragmentos, null);
+    }
+
+    // Com wals não nulo, os fragmentos usam WALs cujas sincronizações podem ser feitas falhar
+    private MotorSaldos iniciar(int fragmentos, List<WalInstavel> wals) {
+        MotorSaldos motor = wals == null ? new MotorSaldos() : new MotorSaldos() {
+            @Override
+            Wal criarWal(Path diretorio, String prefixo) {
+                WalInstavel wal = new WalInstavel(diretorio, prefixo);
+                wals.add(wal);
+                return wal;
+            }
+        };
+        ReflectionTestUtils.setField(motor, "quantidadeFragmentos", fragmentos);
+        ReflectionTestUtils.setField(motor, "diretorioWal", diretorioWal.toString());
+        ReflectionTestUtils.setField(motor, "walSincrono", false);
+        ReflectionTestUtils.setField(motor, "jdbcTemplate", jdbc);
+        ReflectionTestUtils.setField(motor, "transactionTemplate", new TransactionTemplate(new DataSourceTransactionManager(banco)));
+        ReflectionTestUtils.setField(motor, "beneficioCache", mock(BeneficioCache.class));
+        ReflectionTestUtils.setField(motor, "cacheSegundoNivel", mock(CacheSegundoNivelBeneficio.class));
+        ReflectionTestUtils.setField(motor, "meterRegistry", new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(motor, "eventPublisher", eventPublisher);
+        motor.iniciar();
+        motores.add(motor);
+        return motor;
+    }
+
+    private static void transferirAleatoriamente(MotorSaldos motor, int quantidade, AtomicInteger recusadas) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        for (int i = 0; i < quantidade; i++) {
+            long origem = 1 + random.nextInt(BENEFICIOS);
+            long destino = 1 + random.nextInt(BENEFICIOS - 1);
+            if (destino >= origem) {
+                destino++;
+            }
+            try {
+                motor.transferir(origem, destino, 1 + random.nextInt(500));
+            } catch (SaldoInsuficienteException e) {
+                recusadas.incrementAndGet();
+            }
+        }
+    }
+
+    // Para as threads dos fragmentos sem gravar no banco, como em uma queda do processo
+    private Map<Long, Long> derrubar(MotorSaldos motor) throws InterruptedException {
+        for (Fragmento fragmento : fragmentos(motor)) {
+            fragmento.encerrar();
+        }
+        Map<Long, Long> saldos = new HashMap<>();
+        for (Fragmento fragmento : fragmentos(motor)) {
+            fragmento.saldos.forEach(saldos::put);
+        }
+        motores.remove(motor);
+        return saldos;
+    }
+
+    private static Map<Long, Long> saldosEmMemoria(MotorSaldos motor) {
+        Map<Long, Long> saldos = new HashMap<>();
+        for (Fragmento fragmento : fragmentos(motor)) {
+            fragmento.submeter(f -> f.saldos.forEach(saldos::put)).getResultado().join();
+        }
+        return saldos;
+    }
+
+    private static Fragmento[] fragmentos(MotorSaldos motor) {
+        return (Fragmento[]) ReflectionTestUtils.getField(motor, "fragmentos");
+    }
+
+    private long saldoNoBanco(long id) {
+        return jdbc.queryForObject("SELECT VALOR FROM BENEFICIO WHERE ID = ?", BigDecimal.class, id)
+                .movePointRight(2).longValueExact();
+    }
+
+    private Map<Long, Long> saldosNoBanco() {
+        Map<Long, Long> saldos = new HashMap<>();
+        jdbc.query("SELECT ID, VALOR FROM BENEFICIO WHERE ATIVO = TRUE",
+                rs -> { saldos.put(rs.getLong(1), rs.getBigDecimal(2).movePointRight(2).longValueExact()); });
+        return saldos;
+    }
+
+    private static final class WalInstavel extends Wal {
+
+        private final AtomicInteger falhas = new AtomicInteger();
+
+        WalInstavel(Path diretorio, String prefixo) {
+            super(diretorio, prefixo, false);
+        }
+
+        void falhar(int vezes) {
+            falhas.set(vezes);
+        }
+
+        @Override
+        void sincronizar() {
+            if (falhas.getAndUpdate(restantes -> Math.max(0, restantes - 1)) > 0) {
+                throw new UncheckedIOException(new IOException("Falha simulada de escrita"));
+            }
+            super.sincronizar();
+        }
+    }
+}
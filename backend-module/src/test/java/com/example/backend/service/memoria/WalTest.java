@@ -0,0 +1,109 @@
+package com.example.backend.service.memoria;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class WalTest {
+
+    @TempDir
+    Path diretorio;
+
+    @Test
+    void testRotacaoSeparaSegmentosEmOrdem() {
+        // Given
+        Wal wal = new Wal(diretorio, "fragmento-x-0", true);
+        wal.registrar(1, 10, 100, 0, 0);
+        wal.registrar(2, 10, 90, 11, 10);
+
+        // When
+        Path primeiro = wal.rotacionar();
+        wal.registrar(3, 11, 5, 0, 0);
+        wal.fechar();
+
+        // Then
+        List<Path> segmentos = Wal.segmentos(diretorio);
+        assertEquals(2, segmentos.size());
+        assertEquals(primeiro, segmentos.get(0));
+        assertArrayEquals(new long[] {1, 10, 100, 0, 0}, Wal.ler(segmentos.get(0)).get(0));
+        assertArrayEquals(new long[] {2, 10, 90, 11, 10}, Wal.ler(segmentos.get(0)).get(1));
+        assertEquals(1, Wal.ler(segmentos.get(1)).size());
+        assertArrayEquals(new long[] {3, 11, 5, 0, 0}, Wal.ler(segmentos.get(1)).get(0));
+    }
+
+    @Test
+    void testRegistrosSoChegamAoArquivoAoSincronizar() {
+        // Given
+        Wal wal = new Wal(diretorio, "fragmento-x-0", true);
+        wal.registrar(1, 10, 100, 0, 0);
+        Path segmento = Wal.segmentos(diretorio).get(0);
+        assertTrue(Wal.ler(segmento).isEmpty());
+
+        // When
+        wal.sincronizar();
+
+        // Then
+        assertEquals(1, Wal.ler(segmento).size());
+        wal.fechar();
+    }
+
+    @Test
+    void testRegistroParcialNoFimIgnorado() throws IOException {
+        // Given: queda no meio da escrita do segundo registro
+        Wal wal = new Wal(diretorio, "fragmento-x-0", true);
+        wal.registrar(1, 10, 100, 0, 0);
+        wal.registrar(2, 10, 80, 0, 0);
+        wal.fechar();
+        Path segmento = Wal.segmentos(diretorio).get(0);
+        try (var canal = Files.newByteChannel(segmento, StandardOpenOption.WRITE)) {
+            canal.truncate(Wal.TAMANHO_REGISTRO + Wal.TAMANHO_REGISTRO / 2);
+        }
+
+        // When
+        List<long[]> lidos = Wal.ler(segmento);
+
+        // Then
+        assertEquals(1, lidos.size());
+        assertArrayEquals(new long[] {1, 10, 100, 0, 0}, lidos.get(0));
+    }
+
+    @Test
+    void testSegmentoVazioApagadoAoFechar() {
+        // Given
+        Wal wal = new Wal(diretorio, "fragmento-x-0", true);
+        wal.registrar(1, 10, 100, 0, 0);
+        wal.rotacionar();
+
+        // When
+        wal.fechar();
+
+        // Then: só o segmento com registros permanece
+        assertEquals(1, Wal.segmentos(diretorio).size());
+    }
+
+    @Test
+    void testMuitosRegistrosAtravessamOBuffer() {
+        // Given: mais registros que cabem no buffer direto do WAL
+        Wal wal = new Wal(diretorio, "fragmento-x-0", true);
+        for (long sequencia = 1; sequencia <= 5000; sequencia++) {
+            wal.registrar(sequencia, sequencia, sequencia * 2, 0, 0);
+        }
+
+        // When
+        wal.fechar();
+
+        // Then
+        List<long[]> lidos = Wal.ler(Wal.segmentos(diretorio).get(0));
+        assertEquals(5000, lidos.size());
+        for (int i = 0; i < lidos.size(); i++) {
+            assertEquals(i + 1, lidos.get(i)[0]);
+        }
+    }
+}
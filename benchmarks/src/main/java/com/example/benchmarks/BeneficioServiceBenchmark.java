@@ -0,0 +1,91 @@
+package com.example.benchmarks;
+
+import com.example.backend.dto.BeneficioDTO;
+import com.example.backend.dto.TransferenciaDTO;
+import com.example.backend.service.BeneficioService;
+import com.example.common.money.Money;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+// Caminhos quentes do BeneficioService contra H2 embarcado.
+// Linhas, estratégia e cache de segundo nível via -p linhas=...,estrategia=...,segundoNivel=...; threads via -t.
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BeneficioServiceBenchmark {
+    
+    private static final Money CENTAVO = Money.ofCentavos(1);
+    
+    private static final String[] TERMOS = {"auxilio", "educação", "vale ref", "saude", "bolsa c", "12"};
+    
+    @Param({"10000"})
+    public int linhas;
+    
+    @Param({"ATOMICA"})
+    public String estrategia;
+    
+    @Param({"true"})
+    public boolean segundoNivel;
+    
+    private ConfigurableApplicationContext contexto;
+    private BeneficioService beneficioService;
+    
+    @Setup(Level.Trial)
+    public void iniciar() {
+        contexto = ContextoBackend.iniciar("beneficio.transferencia.estrategia=" + estrategia,
+                "spring.jpa.properties.hibernate.cache.use_second_level_cache=" + segundoNivel,
+                "spring.jpa.properties.hibernate.cache.use_query_cache=" + segundoNivel);
+        ContextoBackend.popular(contexto, linhas);
+        beneficioService = contexto.getBean(BeneficioService.class);
+    }
+    
+    @TearDown(Level.Trial)
+    public void encerrar() {
+        contexto.close();
+    }
+    
+    @Benchmark
+    public void transferir() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        long fromId = random.nextLong(1, linhas + 1);
+        long toId = random.nextLong(1, linhas);
+        if (toId >= fromId) {
+            toId++;
+        }
+        beneficioService.transferir(new TransferenciaDTO(fromId, toId, CENTAVO));
+    }
+    
+    @Benchmark
+    public Optional<BeneficioDTO> update() {
+        long id = ThreadLocalRandom.current().nextLong(1, linhas + 1);
+        BeneficioDTO alteracao = new BeneficioDTO();
+        alteracao.setNome(ContextoBackend.nome((int) id));
+        alteracao.setDescricao("Descrição " + id);
+        alteracao.setValor(Money.of(ContextoBackend.SALDO_INICIAL));
+        alteracao.setAtivo(true);
+        return beneficioService.update(id, alteracao);
+    }
+    
+    @Benchmark
+    public List<BeneficioDTO> findAll() {
+        return beneficioService.findAll();
+    }
+    
+    @Benchmark
+    public Optional<BeneficioDTO> findById() {
+        return beneficioService.findById(ThreadLocalRandom.current().nextLong(1, linhas + 1));
+    }
+    
+    @Benchmark
+    public List<BeneficioDTO> searchByNome() {
+        return beneficioService.searchByNome(TERMOS[ThreadLocalRandom.current().nextInt(TERMOS.length)]);
+    }
+}
@@ -0,0 +1,108 @@
+package com.example.benchmarks;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+
+// Teste de carga HTTP contra um backend já em execução, para comparar modos de execução
+// (threads de plataforma x perfil "virtual", servlet x reativo). Parâmetros via -D:
+//   alvo (http://localhost:8080), concorrencia (400), duracao em segundos (30),
+//   beneficios criados antes da carga (100), leituras = fração de GETs (0.9),
+//   assincrona = envia as transferências com async=true (false)
+public final class CargaHttp {
+    
+    public static void main(String[] args) throws Exception {
+        String alvo = System.getProperty("alvo", "http://localhost:8080") + "/api/v1/beneficios";
+        int concorrencia = Integer.getInteger("concorrencia", 400);
+        int duracao = Integer.getInteger("duracao", 30);
+        int beneficios = Integer.getInteger("beneficios", 100);
+        double leituras = Double.parseDouble(System.getProperty("leituras", "0.9"));
+        boolean assincrona = Boolean.getBoolean("assincrona");
+        String transferir = alvo + "/transferir" + (assincrona ? "?async=true" : "");
+        
+        HttpClient cliente = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+        
+        long[] ids = new long[beneficios];
+        for (int i = 0; i < beneficios; i++) {
+            HttpResponse<String> resposta = cliente.send(post(alvo,
+                    "{\"nome\":\"Carga " + i + "\",\"valor\":1000000.00}"), HttpResponse.BodyHandlers.ofString());
+            ids[i] = Long.parseLong(resposta.body().replaceAll(".*\"id\":(\\d+).*", "$1"));
+        }
+        
+        Map<Integer, LongAdder> status = new ConcurrentHashMap<>();
+        long[][] latencias = new long[concorrencia][];
+        long fim = System.nanoTime() + Duration.ofSeconds(duracao).toNanos();
+        Thread[] threads = new Thread[concorrencia];
+        for (int t = 0; t < concorrencia; t++) {
+            int indice = t;
+            threads[t] = new Thread(() ->
+                    latencias[indice] = executar(cliente, alvo, transferir, ids, leituras, fim, status));
+            threads[t].start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        
+        long[] todas = Arrays.stream(latencias).flatMapToLong(Arrays::stream).sorted().toArray();
+        System.out.printf("alvo=%s concorrencia=%d duracao=%ds leituras=%.2f assincrona=%b%n",
+                alvo, concorrencia, duracao, leituras, assincrona);
+        System.out.printf("requisicoes=%d vazao=%.1f req/s%n", todas.length, todas.length / (double) duracao);
+        System.out.printf("latencia ms: p50=%.2f p90=%.2f p99=%.2f p99.9=%.2f max=%.2f%n",
+                percentil(todas, 0.50), percentil(todas, 0.90), percentil(todas, 0.99),
+                percentil(todas, 0.999), percentil(todas, 1.0));
+        System.out.println("status=" + new TreeMap<>(status));
+    }
+    
+    private static long[] executar(HttpClient cliente, String alvo, String transferir, long[] ids, double leituras,
+                                   long fim, Map<Integer, LongAdder> status) {
+        long[] latencias = new long[1024];
+        int total = 0;
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        while (System.nanoTime() < fim) {
+            long from = ids[random.nextInt(ids.length)];
+            long to = ids[random.nextInt(ids.length)];
+            HttpRequest requisicao = random.nextDouble() < leituras || from == to
+                    ? HttpRequest.newBuilder(URI.create(alvo + "/" + from)).GET().build()
+                    : post(transferir, "{\"fromId\":" + from + ",\"toId\":" + to + ",\"valor\":0.01}");
+            long inicio = System.nanoTime();
+            int codigo;
+            try {
+                codigo = cliente.send(requisicao, HttpResponse.BodyHandlers.discarding()).statusCode();
+            } catch (Exception e) {
+                codigo = -1;
+            }
+            if (total == latencias.length) {
+                latencias = Arrays.copyOf(latencias, total * 2);
+            }
+            latencias[total++] = System.nanoTime() - inicio;
+            status.computeIfAbsent(codigo, c -> new LongAdder()).increment();
+        }
+        return Arrays.copyOf(latencias, total);
+    }
+    
+    private static HttpRequest post(String url, String json) {
+        return HttpRequest.newBuilder(URI.create(url))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(json))
+                .build();
+    }
+    
+    private static double percentil(long[] ordenadas, double p) {
+        if (ordenadas.length == 0) {
+            return 0;
+        }
+        int indice = (int) Math.min(ordenadas.length - 1, Math.ceil(p * ordenadas.length) - 1);
+        return ordenadas[Math.max(0, indice)] / 1_000_000.0;
+    }
+}
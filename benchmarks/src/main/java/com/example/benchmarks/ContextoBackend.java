@@ -0,0 +1,72 @@
+package com.example.benchmarks;
+
+import com.example.backend.BackendApplication;
+import com.example.backend.service.BeneficioNomeIndex;
+import com.example.backend.service.EstatisticasBeneficios;
+import com.example.backend.service.memoria.MotorSaldos;
+import org.springframework.boot.Banner;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+// Sobe o backend sem servidor web, com um H2 em memória exclusivo para cada trial
+final class ContextoBackend {
+    
+    static final BigDecimal SALDO_INICIAL = new BigDecimal("1000000.00");
+    
+    private static final String[] PREFIXOS = {
+        "Auxílio", "Vale", "Bolsa", "Benefício", "Abono", "Seguro", "Salário", "Adicional"
+    };
+    
+    private static final String[] SUFIXOS = {
+        "Alimentação", "Refeição", "Transporte", "Educação", "Saúde", "Creche", "Moradia",
+        "Família", "Maternidade", "Natalidade", "Combustível", "Cultura", "Home Office"
+    };
+    
+    private ContextoBackend() {}
+    
+    // As propriedades vão como argumentos de linha de comando para prevalecer sobre o application.yml
+    static ConfigurableApplicationContext iniciar(String... propriedades) {
+        List<String> argumentos = new ArrayList<>(List.of(
+                "--spring.datasource.url=jdbc:h2:mem:bench-" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1",
+                "--spring.flyway.locations=classpath:db/migration",
+                "--spring.jpa.show-sql=false",
+                "--logging.level.root=WARN"));
+        for (String propriedade : propriedades) {
+            argumentos.add("--" + propriedade);
+        }
+        return new SpringApplicationBuilder(BackendApplication.class)
+                .web(WebApplicationType.NONE)
+                .bannerMode(Banner.Mode.OFF)
+                .run(argumentos.toArray(String[]::new));
+    }
+    
+    // Insere benefícios ativos com IDs de 1 a linhas e reconstrói o índice de nomes
+    // (e, com a estratégia MEMORIA, os saldos do motor)
+    static void popular(ConfigurableApplicationContext contexto, int linhas) {
+        JdbcTemplate jdbc = contexto.getBean(JdbcTemplate.class);
+        List<Object[]> lote = new ArrayList<>(1000);
+        for (int i = 1; i <= linhas; i++) {
+            lote.add(new Object[] {i, nome(i), "Descrição " + i, SALDO_INICIAL});
+            if (lote.size() == 1000 || i == linhas) {
+                jdbc.batchUpdate("INSERT INTO BENEFICIO (ID, NOME, DESCRICAO, VALOR, ATIVO, VERSION) VALUES (?, ?, ?, ?, TRUE, 0)", lote);
+                lote.clear();
+            }
+        }
+        // IDs criados pela aplicação começam depois dos inseridos aqui
+        jdbc.execute("ALTER SEQUENCE BENEFICIO_SEQ RESTART WITH " + (linhas + 1));
+        contexto.getBean(BeneficioNomeIndex.class).carregar();
+        contexto.getBean(EstatisticasBeneficios.class).reconciliar();
+        contexto.getBeanProvider(MotorSaldos.class).ifAvailable(MotorSaldos::carregar);
+    }
+    
+    static String nome(int i) {
+        return PREFIXOS[i % PREFIXOS.length] + " " + SUFIXOS[(i / PREFIXOS.length) % SUFIXOS.length] + " " + i;
+    }
+}
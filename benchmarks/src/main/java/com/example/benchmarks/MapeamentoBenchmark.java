@@ -0,0 +1,42 @@
+package com.example.benchmarks;
+
+import com.example.backend.dto.BeneficioDTO;
+import com.example.backend.entity.Beneficio;
+import com.example.backend.service.BeneficioService;
+import com.example.common.money.Money;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+// Conversões entidade <-> DTO, sem banco
+@State(Scope.Thread)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MapeamentoBenchmark {
+    
+    private final BeneficioService beneficioService = new BeneficioService();
+    
+    private Beneficio beneficio;
+    private BeneficioDTO dto;
+    
+    @Setup
+    public void iniciar() {
+        beneficio = new Beneficio(ContextoBackend.nome(42), "Descrição 42", Money.ofCentavos(123456));
+        beneficio.setId(42L);
+        beneficio.setVersion(7L);
+        dto = beneficioService.convertToDTO(beneficio);
+    }
+    
+    @Benchmark
+    public BeneficioDTO convertToDTO() {
+        return beneficioService.convertToDTO(beneficio);
+    }
+    
+    @Benchmark
+    public Beneficio convertToEntity() {
+        return beneficioService.convertToEntity(dto);
+    }
+}
@@ -0,0 +1,71 @@
+package com.example.benchmarks;
+
+import com.example.common.money.Money;
+import org.openjdk.jmh.annotations.*;
+
+import java.math.BigDecimal;
+import java.util.concurrent.TimeUnit;
+
+// Aritmética de uma transferência (verificar saldo, debitar, creditar) com BigDecimal e com Money, isolada do
+// resto do caminho. Rodar com -prof gc e comparar gc.alloc.rate.norm (bytes por operação); a alocação da
+// transferência completa é medida em BeneficioServiceBenchmark.transferir com o mesmo perfilador.
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MoneyBenchmark {
+    
+    private static final int CONTAS = 1024;
+    
+    private final BigDecimal[] saldosDecimais = new BigDecimal[CONTAS];
+    private final long[] saldosCentavos = new long[CONTAS];
+    
+    private BigDecimal valorDecimal;
+    private Money valor;
+    private int proxima;
+    
+    @Setup
+    public void iniciar() {
+        for (int i = 0; i < CONTAS; i++) {
+            saldosDecimais[i] = ContextoBackend.SALDO_INICIAL;
+            saldosCentavos[i] = Money.of(ContextoBackend.SALDO_INICIAL).getCentavos();
+        }
+        valorDecimal = new BigDecimal("12.34");
+        valor = Money.ofCentavos(1234);
+    }
+    
+    @Benchmark
+    public boolean bigDecimal() {
+        int origem = proxima();
+        int destino = (origem + 1) & (CONTAS - 1);
+        BigDecimal saldo = saldosDecimais[origem];
+        if (saldo.compareTo(valorDecimal) < 0) {
+            return false;
+        }
+        saldosDecimais[origem] = saldo.subtract(valorDecimal);
+        saldosDecimais[destino] = saldosDecimais[destino].add(valorDecimal);
+        return true;
+    }
+    
+    // Os saldos ficam em long, como no motor de saldos; os Money intermediários não escapam
+    // e são eliminados pela análise de escape do JIT
+    @Benchmark
+    public boolean money() {
+        int origem = proxima();
+        int destino = (origem + 1) & (CONTAS - 1);
+        Money saldo = Money.ofCentavos(saldosCentavos[origem]);
+        if (saldo.isMenorQue(valor)) {
+            return false;
+        }
+        saldosCentavos[origem] = saldo.minus(valor).getCentavos();
+        saldosCentavos[destino] = Money.ofCentavos(saldosCentavos[destino]).plus(valor).getCentavos();
+        return true;
+    }
+    
+    private int proxima() {
+        proxima = (proxima + 1) & (CONTAS - 1);
+        return proxima;
+    }
+}
@@ -0,0 +1,175 @@
+package com.example.common.money;
+
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.io.Serializable;
+import java.math.BigDecimal;
+
+// Valor monetário em centavos, imutável. A aritmética usa long com verificação de estouro, sem criar
+// BigDecimal; a conversão para BigDecimal fica restrita às bordas (banco e mensagens).
+@Schema(type = "number", format = "decimal", example = "1000.00")
+@JsonSerialize(using = MoneyJson.Serializer.class)
+@JsonDeserialize(using = MoneyJson.Deserializer.class)
+public final class Money implements Comparable<Money>, Serializable {
+    
+    public static final Money ZERO = new Money(0);
+    
+    public static final int ESCALA = 2;
+    
+    private static final long serialVersionUID = 1L;
+    
+    private final long centavos;
+    
+    private Money(long centavos) {
+        this.centavos = centavos;
+    }
+    
+    public static Money ofCentavos(long centavos) {
+        return centavos == 0 ? ZERO : new Money(centavos);
+    }
+    
+    // Aceita qualquer escala desde que não haja frações de centavo
+    public static Money of(BigDecimal valor) {
+        BigDecimal centavos = valor.movePointRight(ESCALA);
+        if (centavos.scale() > 0 && centavos.stripTrailingZeros().scale() > 0) {
+            throw new IllegalArgumentException("Valor deve ter no máximo " + ESCALA + " casas decimais: " + valor);
+        }
+        try {
+            return ofCentavos(centavos.longValueExact());
+        } catch (ArithmeticException e) {
+            throw new IllegalArgumentException("Valor excede o máximo representável em centavos: " + valor);
+        }
+    }
+    
+    // Interpreta "123", "-123.4" ou "123.45" sem passar por BigDecimal. Notação científica ("1e3"),
+    // que o JSON permite, é rara e vai pelo BigDecimal
+    public static Money parse(String texto) {
+        if (texto.indexOf('e') >= 0 || texto.indexOf('E') >= 0) {
+            return parseCientifico(texto);
+        }
+        try {
+            return parseDecimal(texto);
+        } catch (ArithmeticException e) {
+            throw new IllegalArgumentException("Valor excede o máximo representável em centavos: " + texto);
+        }
+    }
+    
+    private static Money parseDecimal(String texto) {
+        int tamanho = texto.length();
+        int i = 0;
+        boolean negativo = false;
+        if (i < tamanho && (texto.charAt(i) == '-' || texto.charAt(i) == '+')) {
+            negativo = texto.charAt(i) == '-';
+            i++;
+        }
+        
+        long inteiros = 0;
+        int digitosInteiros = 0;
+        for (; i < tamanho && texto.charAt(i) != '.'; i++, digitosInteiros++) {
+            inteiros = Math.addExact(Math.multiplyExact(inteiros, 10), digito(texto, i));
+        }
+        
+        long fracao = 0;
+        int digitosFracao = 0;
+        if (i < tamanho) {
+            for (i++; i < tamanho; i++, digitosFracao++) {
+                int d = digito(texto, i);
+                if (digitosFracao >= ESCALA) {
+                    if (d != 0) {
+                        throw new IllegalArgumentException("Valor deve ter no máximo " + ESCALA + " casas decimais: " + texto);
+                    }
+                    continue;
+                }
+                fracao = fracao * 10 + d;
+            }
+        }
+        if (digitosInteiros == 0 && digitosFracao == 0) {
+            throw new IllegalArgumentException("Valor monetário inválido: " + texto);
+        }
+        for (int casas = Math.min(digitosFracao, ESCALA); casas < ESCALA; casas++) {
+            fracao *= 10;
+        }
+        
+        long total = Math.addExact(Math.multiplyExact(inteiros, 100), fracao);
+        return ofCentavos(negativo ? -total : total);
+    }
+    
+    public long getCentavos() {
+        return centavos;
+    }
+    
+    public BigDecimal toBigDecimal() {
+        return BigDecimal.valueOf(centavos, ESCALA);
+    }
+    
+    public Money plus(Money outro) {
+        return ofCentavos(Math.addExact(centavos, outro.centavos));
+    }
+    
+    public Money minus(Money outro) {
+        return ofCentavos(Math.subtractExact(centavos, outro.centavos));
+    }
+    
+    public boolean isPositivo() {
+        return centavos > 0;
+    }
+    
+    public boolean isNegativo() {
+        return centavos < 0;
+    }
+    
+    public boolean isMenorQue(Money outro) {
+        return centavos < outro.centavos;
+    }
+    
+    @Override
+    public int compareTo(Money outro) {
+        return Long.compare(centavos, outro.centavos);
+    }
+    
+    @Override
+    public boolean equals(Object o) {
+        return this == o || (o instanceof Money outro && centavos == outro.centavos);
+    }
+    
+    @Override
+    public int hashCode() {
+        return Long.hashCode(centavos);
+    }
+    
+    // Sempre com duas casas decimais, como o DECIMAL(15,2) do banco
+    @Override
+    public String toString() {
+        long inteiros = centavos / 100;
+        int fracao = (int) Math.abs(centavos % 100);
+        StringBuilder texto = new StringBuilder(24);
+        if (centavos < 0 && inteiros == 0) {
+            texto.append('-');
+        }
+        texto.append(inteiros).append('.');
+        if (fracao < 10) {
+            texto.append('0');
+        }
+        return texto.append(fracao).toString();
+    }
+    
+    private static Money parseCientifico(String texto) {
+        BigDecimal valor;
+        try {
+            valor = new BigDecimal(texto);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Valor monetário inválido: " + texto);
+        }
+        return of(valor);
+    }
+    
+    private static int digito(String texto, int i) {
+        char c = texto.charAt(i);
+        if (c < '0' || c > '9') {
+            throw new IllegalArgumentException("Valor monetário inválido: " + texto);
+        }
+        return c - '0';
+    }
+}
@@ -0,0 +1,43 @@
+package com.example.common.money;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.JsonDeserializer;
+import com.fasterxml.jackson.databind.JsonSerializer;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.exc.InvalidFormatException;
+
+import java.io.IOException;
+
+// Money trafega em JSON como número com duas casas decimais; na leitura também aceita texto.
+// Ligado a Money pelas anotações da própria classe, sem depender do component scan de cada aplicação.
+public class MoneyJson {
+    
+    public static class Serializer extends JsonSerializer<Money> {
+        
+        @Override
+        public void serialize(Money valor, JsonGenerator gerador, SerializerProvider provider) throws IOException {
+            gerador.writeNumber(valor.toString());
+        }
+    }
+    
+    public static class Deserializer extends JsonDeserializer<Money> {
+        
+        @Override
+        public Money deserialize(JsonParser parser, DeserializationContext contexto) throws IOException {
+            JsonToken token = parser.currentToken();
+            if (token != JsonToken.VALUE_NUMBER_INT && token != JsonToken.VALUE_NUMBER_FLOAT
+                    && token != JsonToken.VALUE_STRING) {
+                return (Money) contexto.handleUnexpectedToken(Money.class, parser);
+            }
+            String texto = parser.getText().trim();
+            try {
+                return Money.parse(texto);
+            } catch (IllegalArgumentException e) {
+                throw InvalidFormatException.from(parser, e.getMessage(), texto, Money.class);
+            }
+        }
+    }
+}
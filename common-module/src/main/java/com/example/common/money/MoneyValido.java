@@ -0,0 +1,33 @@
+package com.example.common.money;
+
+import jakarta.validation.Constraint;
+import jakarta.validation.Payload;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+// Equivalente para Money de @DecimalMin(inclusive = false) e @Digits(integer = 13, fraction = 2).
+// Nulo é válido; use @NotNull junto quando o valor for obrigatório. zeroPermitido troca a regra por >= 0.
+@Documented
+@Constraint(validatedBy = MoneyValidoValidator.class)
+@Target({ElementType.FIELD, ElementType.METHOD, ElementType.PARAMETER})
+@Retention(RetentionPolicy.RUNTIME)
+public @interface MoneyValido {
+    
+    String message() default "Valor deve ser maior que zero";
+    
+    String messageDigitos() default "Valor deve ter no máximo 13 dígitos inteiros e 2 decimais";
+    
+    boolean positivo() default true;
+    
+    boolean zeroPermitido() default false;
+    
+    int digitosInteiros() default 13;
+    
+    Class<?>[] groups() default {};
+    
+    Class<? extends Payload>[] payload() default {};
+}
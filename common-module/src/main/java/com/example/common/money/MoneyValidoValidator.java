@@ -0,0 +1,40 @@
+package com.example.common.money;
+
+import jakarta.validation.ConstraintValidator;
+import jakarta.validation.ConstraintValidatorContext;
+
+public class MoneyValidoValidator implements ConstraintValidator<MoneyValido, Money> {
+    
+    private boolean positivo;
+    private boolean zeroPermitido;
+    private String messageDigitos;
+    private long limiteCentavos;
+    
+    @Override
+    public void initialize(MoneyValido anotacao) {
+        positivo = anotacao.positivo();
+        zeroPermitido = anotacao.zeroPermitido();
+        messageDigitos = anotacao.messageDigitos();
+        limiteCentavos = 100;
+        for (int i = 0; i < anotacao.digitosInteiros(); i++) {
+            limiteCentavos = Math.multiplyExact(limiteCentavos, 10);
+        }
+    }
+    
+    @Override
+    public boolean isValid(Money valor, ConstraintValidatorContext contexto) {
+        if (valor == null) {
+            return true;
+        }
+        if (positivo && (zeroPermitido ? valor.isNegativo() : !valor.isPositivo())) {
+            return false;
+        }
+        long centavos = valor.getCentavos();
+        if (centavos >= limiteCentavos || centavos <= -limiteCentavos) {
+            contexto.disableDefaultConstraintViolation();
+            contexto.buildConstraintViolationWithTemplate(messageDigitos).addConstraintViolation();
+            return false;
+        }
+        return true;
+    }
+}
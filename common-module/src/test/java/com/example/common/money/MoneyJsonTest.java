@@ -0,0 +1,53 @@
+package com.example.common.money;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.exc.InvalidFormatException;
+import com.fasterxml.jackson.databind.exc.MismatchedInputException;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MoneyJsonTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    void testLeNumerosETexto() throws Exception {
+        assertEquals(Money.ofCentavos(100), objectMapper.readValue("1", Money.class));
+        assertEquals(Money.ofCentavos(150), objectMapper.readValue("1.5", Money.class));
+        assertEquals(Money.ofCentavos(-1234), objectMapper.readValue("\"-12.34\"", Money.class));
+        assertEquals(Money.ofCentavos(1234), objectMapper.readValue("\" 12.34 \"", Money.class));
+    }
+
+    @Test
+    void testLeNumeroEmNotacaoCientifica() throws Exception {
+        assertEquals(Money.ofCentavos(100000), objectMapper.readValue("1e3", Money.class));
+        assertEquals(Money.ofCentavos(125), objectMapper.readValue("125E-2", Money.class));
+    }
+
+    @Test
+    void testErroIndicaOMotivo() {
+        InvalidFormatException casas = assertThrows(InvalidFormatException.class,
+                () -> objectMapper.readValue("1.234", Money.class));
+        assertTrue(casas.getMessage().contains("casas decimais"), casas.getMessage());
+
+        InvalidFormatException estouro = assertThrows(InvalidFormatException.class,
+                () -> objectMapper.readValue("1e30", Money.class));
+        assertTrue(estouro.getMessage().contains("máximo representável"), estouro.getMessage());
+
+        InvalidFormatException texto = assertThrows(InvalidFormatException.class,
+                () -> objectMapper.readValue("\"abc\"", Money.class));
+        assertTrue(texto.getMessage().contains("Valor monetário inválido"), texto.getMessage());
+    }
+
+    @Test
+    void testRejeitaTokenQueNaoEhNumeroNemTexto() {
+        assertThrows(MismatchedInputException.class, () -> objectMapper.readValue("true", Money.class));
+    }
+
+    @Test
+    void testEscreveComDuasCasas() throws Exception {
+        assertEquals("10.50", objectMapper.writeValueAsString(Money.ofCentavos(1050)));
+        assertEquals("-0.01", objectMapper.writeValueAsString(Money.ofCentavos(-1)));
+    }
+}
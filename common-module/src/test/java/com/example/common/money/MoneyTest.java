@@ -0,0 +1,93 @@
+package com.example.common.money;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MoneyTest {
+
+    @Test
+    void testParseSinal() {
+        assertEquals(12345, Money.parse("123.45").getCentavos());
+        assertEquals(12345, Money.parse("+123.45").getCentavos());
+        assertEquals(-12345, Money.parse("-123.45").getCentavos());
+        assertEquals(-50, Money.parse("-0.5").getCentavos());
+        assertEquals(Money.ZERO, Money.parse("-0"));
+    }
+
+    @Test
+    void testParseFracoesCurtasELongas() {
+        assertEquals(12300, Money.parse("123").getCentavos());
+        assertEquals(12340, Money.parse("123.4").getCentavos());
+        assertEquals(12300, Money.parse("123.").getCentavos());
+        assertEquals(50, Money.parse(".5").getCentavos());
+
+        // Zeros à direita além da segunda casa não mudam o valor
+        assertEquals(12345, Money.parse("123.4500").getCentavos());
+        assertEquals(12300, Money.parse("123.000").getCentavos());
+
+        IllegalArgumentException erro = assertThrows(IllegalArgumentException.class, () -> Money.parse("123.456"));
+        assertTrue(erro.getMessage().contains("casas decimais"), erro.getMessage());
+        assertThrows(IllegalArgumentException.class, () -> Money.parse("0.0001"));
+    }
+
+    @Test
+    void testParseEstouro() {
+        // Given: o maior valor que cabe em centavos
+        long maximo = Long.MAX_VALUE;
+        String limite = String.format("%d.%02d", maximo / 100, maximo % 100);
+
+        // When
+        Money valor = Money.parse(limite);
+
+        // Then
+        assertEquals(maximo, valor.getCentavos());
+        IllegalArgumentException erro = assertThrows(IllegalArgumentException.class,
+                () -> Money.parse((maximo / 100 + 1) + ".00"));
+        assertTrue(erro.getMessage().contains("máximo representável"), erro.getMessage());
+        assertThrows(IllegalArgumentException.class, () -> Money.parse("99999999999999999999999"));
+    }
+
+    @Test
+    void testParseNotacaoCientifica() {
+        assertEquals(100000, Money.parse("1e3").getCentavos());
+        assertEquals(100000, Money.parse("1E+3").getCentavos());
+        assertEquals(15000, Money.parse("1.5e2").getCentavos());
+        assertEquals(1, Money.parse("1e-2").getCentavos());
+        assertEquals(-250, Money.parse("-25E-1").getCentavos());
+
+        IllegalArgumentException fracao = assertThrows(IllegalArgumentException.class, () -> Money.parse("1e-3"));
+        assertTrue(fracao.getMessage().contains("casas decimais"), fracao.getMessage());
+        IllegalArgumentException estouro = assertThrows(IllegalArgumentException.class, () -> Money.parse("1e30"));
+        assertTrue(estouro.getMessage().contains("máximo representável"), estouro.getMessage());
+        assertThrows(IllegalArgumentException.class, () -> Money.parse("1e"));
+        assertThrows(IllegalArgumentException.class, () -> Money.parse("e3"));
+    }
+
+    @Test
+    void testParseTextoInvalido() {
+        for (String texto : new String[] {"", "-", "+", ".", "abc", "1.2.3", "1,50", "1 000", "--1"}) {
+            assertThrows(IllegalArgumentException.class, () -> Money.parse(texto), texto);
+        }
+    }
+
+    @Test
+    void testOfBigDecimal() {
+        assertEquals(12345, Money.of(new BigDecimal("123.45")).getCentavos());
+        assertEquals(12300, Money.of(new BigDecimal("1.23E+2")).getCentavos());
+        assertEquals(12300, Money.of(new BigDecimal("123.0000")).getCentavos());
+        assertThrows(IllegalArgumentException.class, () -> Money.of(new BigDecimal("0.001")));
+        assertThrows(IllegalArgumentException.class, () -> Money.of(new BigDecimal("1E+30")));
+    }
+
+    @Test
+    void testToStringSempreComDuasCasas() {
+        assertEquals("0.00", Money.ZERO.toString());
+        assertEquals("0.05", Money.ofCentavos(5).toString());
+        assertEquals("-0.05", Money.ofCentavos(-5).toString());
+        assertEquals("-12.30", Money.ofCentavos(-1230).toString());
+        assertEquals(Money.ofCentavos(-1230), Money.parse(Money.ofCentavos(-1230).toString()));
+    }
+}
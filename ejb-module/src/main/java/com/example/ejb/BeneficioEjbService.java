@@ -14,6 +14,10 @@ public class BeneficioEjbService {
     private EntityManager em;
 
     public void transfer(Long fromId, Long toId, BigDecimal amount) {
+        transfer(fromId, toId, amount == null ? null : Money.of(amount));
+    }
+
+    public void transfer(Long fromId, Long toId, Money amount) {
         // Validações de entrada
         if (fromId == null || toId == null || amount == null) {
             throw new IllegalArgumentException("IDs e valor não podem ser nulos");
@@ -23,7 +27,7 @@ public class BeneficioEjbService {
             throw new IllegalArgumentException("Não é possível transferir para o mesmo benefício");
         }
         
-        if (amount.compareTo(BigDecimal.ZERO) <= 0) {
+        if (!amount.isPositivo()) {
             throw new IllegalArgumentException("Valor deve ser maior que zero");
         }
 
@@ -48,14 +52,14 @@ public class BeneficioEjbService {
         }
 
         // Validação de saldo suficiente
-        if (from.getValor().compareTo(amount) < 0) {
+        if (from.getValor().isMenorQue(amount)) {
             throw new IllegalStateException("Saldo insuficiente. Saldo atual: " + from.getValor() + ", Valor solicitado: " + amount);
         }
 
         try {
             // Operação de transferência com controle de concorrência
-            BigDecimal novoValorFrom = from.getValor().subtract(amount);
-            BigDecimal novoValorTo = to.getValor().add(amount);
+            Money novoValorFrom = from.getValor().minus(amount);
+            Money novoValorTo = to.getValor().plus(amount);
             
             from.setValor(novoValorFrom);
             to.setValor(novoValorTo);
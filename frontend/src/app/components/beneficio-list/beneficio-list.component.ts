@@ -1,9 +1,10 @@
-import { Component, OnInit } from '@angular/core';
+import { Component, OnDestroy, OnInit } from '@angular/core';
 import { CommonModule } from '@angular/common';
 import { RouterModule } from '@angular/router';
 import { FormsModule } from '@angular/forms';
 import { BeneficioService } from '../../services/beneficio.service';
-import { Beneficio } from '../../models/beneficio.model';
+import { Subscription } from 'rxjs';
+import { Beneficio, EventoBeneficio, TransferenciaRealizada } from '../../models/beneficio.model';
 
 @Component({
   selector: 'app-beneficio-list',
@@ -135,32 +136,120 @@ import { Beneficio } from '../../models/beneficio.model';
     }
   `]
 })
-export class BeneficioListComponent implements OnInit {
+export class BeneficioListComponent implements OnInit, OnDestroy {
   beneficios: Beneficio[] = [];
   carregando = false;
   filtroNome = '';
+  private eventos?: Subscription;
+  // Eventos recebidos enquanto a lista carrega; nulo fora do carregamento
+  private eventosPendentes: EventoBeneficio[] | null = null;
+  private listaCarregada = false;
 
   constructor(private beneficioService: BeneficioService) {}
 
+  // O stream é aberto antes da lista: o que mudar durante o carregamento chega como evento e é aplicado
+  // depois, e eventos anteriores à leitura da lista são descartados pela versão
   ngOnInit(): void {
-    this.carregarBeneficios();
+    this.carregando = true;
+    this.eventos = this.beneficioService.eventos().subscribe(evento => this.receberEvento(evento));
+  }
+
+  ngOnDestroy(): void {
+    this.eventos?.unsubscribe();
+  }
+
+  private receberEvento(evento: EventoBeneficio): void {
+    if (evento.tipo === 'CONECTADO' || evento.tipo === 'DESCONECTADO') {
+      // Sem o stream a lista é carregada mesmo assim; o EventSource continua tentando reconectar
+      if (!this.listaCarregada) {
+        this.listaCarregada = true;
+        this.carregarBeneficios();
+      }
+      return;
+    }
+    if (this.eventosPendentes) {
+      this.eventosPendentes.push(evento);
+    } else {
+      this.aplicarEvento(evento);
+    }
+  }
+
+  // Atualiza a tabela com as alterações recebidas, sem recarregar a lista inteira
+  private aplicarEvento(evento: EventoBeneficio): void {
+    if (this.filtroNome.trim()) {
+      return;
+    }
+    switch (evento.tipo) {
+      case 'CRIADO':
+      case 'ATUALIZADO':
+      case 'EXCLUIDO': {
+        const beneficio = evento.dados as Beneficio;
+        const indice = this.beneficios.findIndex(b => b.id === beneficio.id);
+        if (indice >= 0 && this.maisAntigo(beneficio.version, this.beneficios[indice])) {
+          break;
+        }
+        if (!beneficio.ativo) {
+          if (indice >= 0) {
+            this.beneficios.splice(indice, 1);
+          }
+        } else if (indice >= 0) {
+          this.beneficios[indice] = beneficio;
+        } else {
+          this.beneficios.push(beneficio);
+        }
+        break;
+      }
+      case 'TRANSFERENCIA': {
+        const transferencia = evento.dados as TransferenciaRealizada;
+        this.atualizarSaldo(transferencia.fromId, transferencia.saldoOrigem, transferencia.versaoOrigem);
+        this.atualizarSaldo(transferencia.toId, transferencia.saldoDestino, transferencia.versaoDestino);
+        break;
+      }
+      case 'SINCRONIZAR':
+        this.carregarBeneficios();
+        break;
+    }
+  }
+
+  private atualizarSaldo(id: number, valor: number, version?: number | null): void {
+    const beneficio = this.beneficios.find(b => b.id === id);
+    if (beneficio && !this.maisAntigo(version, beneficio)) {
+      beneficio.valor = valor;
+      if (version != null) {
+        beneficio.version = version;
+      }
+    }
+  }
+
+  // Eventos sem versão (estratégia MEMORIA) chegam na ordem em que foram aplicados e valem sempre
+  private maisAntigo(version: number | null | undefined, atual: Beneficio): boolean {
+    return version != null && atual.version != null && version < atual.version;
   }
 
   carregarBeneficios(): void {
     this.carregando = true;
+    this.eventosPendentes = this.eventosPendentes ?? [];
     this.beneficioService.listar().subscribe({
       next: (beneficios) => {
         this.beneficios = beneficios;
         this.carregando = false;
+        this.aplicarPendentes();
       },
       error: (error) => {
         console.error('Erro ao carregar benefícios:', error);
         this.carregando = false;
+        this.aplicarPendentes();
         alert('Erro ao carregar benefícios. Tente novamente.');
       }
     });
   }
 
+  private aplicarPendentes(): void {
+    const pendentes = this.eventosPendentes ?? [];
+    this.eventosPendentes = null;
+    pendentes.forEach(evento => this.aplicarEvento(evento));
+  }
+
   buscar(): void {
     if (this.filtroNome.trim()) {
       this.carregando = true;
@@ -185,7 +274,7 @@ export class BeneficioListComponent implements OnInit {
       this.beneficioService.excluir(id).subscribe({
         next: () => {
           alert('Benefício excluído com sucesso!');
-          this.carregarBeneficios();
+          this.beneficios = this.beneficios.filter(b => b.id !== id);
         },
         error: (error) => {
           console.error('Erro ao excluir benefício:', error);
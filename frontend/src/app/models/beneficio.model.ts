@@ -12,3 +12,18 @@ export interface Transferencia {
   toId: number;
   valor: number;
 }
+
+// Evento TRANSFERENCIA: saldos e versões dos dois benefícios após a transferência
+// (versões ausentes na estratégia MEMORIA)
+export interface TransferenciaRealizada extends Transferencia {
+  saldoOrigem: number;
+  saldoDestino: number;
+  versaoOrigem?: number | null;
+  versaoDestino?: number | null;
+}
+
+// CONECTADO e DESCONECTADO vêm do EventSource, não do servidor
+export interface EventoBeneficio {
+  tipo: 'CRIADO' | 'ATUALIZADO' | 'EXCLUIDO' | 'TRANSFERENCIA' | 'SINCRONIZAR' | 'CONECTADO' | 'DESCONECTADO';
+  dados?: Beneficio | TransferenciaRealizada;
+}
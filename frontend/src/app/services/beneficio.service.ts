@@ -1,7 +1,7 @@
-import { Injectable } from '@angular/core';
+import { Injectable, NgZone } from '@angular/core';
 import { HttpClient } from '@angular/common/http';
 import { Observable } from 'rxjs';
-import { Beneficio, Transferencia } from '../models/beneficio.model';
+import { Beneficio, EventoBeneficio, Transferencia } from '../models/beneficio.model';
 
 @Injectable({
   providedIn: 'root'
@@ -9,7 +9,7 @@ import { Beneficio, Transferencia } from '../models/beneficio.model';
 export class BeneficioService {
   private apiUrl = 'http://localhost:8080/api/v1/beneficios';
 
-  constructor(private http: HttpClient) { }
+  constructor(private http: HttpClient, private zone: NgZone) { }
 
   listar(): Observable<Beneficio[]> {
     return this.http.get<Beneficio[]>(this.apiUrl);
@@ -40,4 +40,19 @@ export class BeneficioService {
   buscarPorNome(nome: string): Observable<Beneficio[]> {
     return this.http.get<Beneficio[]>(`${this.apiUrl}/buscar?nome=${encodeURIComponent(nome)}`);
   }
+
+  // Stream SSE de alterações; o EventSource reconecta sozinho enviando o Last-Event-ID
+  eventos(): Observable<EventoBeneficio> {
+    return new Observable<EventoBeneficio>(observer => {
+      const fonte = new EventSource(`${this.apiUrl}/eventos`);
+      const tipos: EventoBeneficio['tipo'][] = ['CRIADO', 'ATUALIZADO', 'EXCLUIDO', 'TRANSFERENCIA', 'SINCRONIZAR'];
+      tipos.forEach(tipo => fonte.addEventListener(tipo, (evento: MessageEvent) => {
+        const dados = evento.data ? JSON.parse(evento.data) : undefined;
+        this.zone.run(() => observer.next({ tipo, dados }));
+      }));
+      fonte.onopen = () => this.zone.run(() => observer.next({ tipo: 'CONECTADO' }));
+      fonte.onerror = () => this.zone.run(() => observer.next({ tipo: 'DESCONECTADO' }));
+      return () => fonte.close();
+    });
+  }
 }
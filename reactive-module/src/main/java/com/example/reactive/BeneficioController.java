@@ -0,0 +1,106 @@
+package com.example.reactive;
+
+import com.example.reactive.dto.BeneficioDTO;
+import com.example.reactive.dto.TransferenciaDTO;
+import com.example.reactive.service.BeneficioService;
+import jakarta.validation.Valid;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+// Mesmo contrato de /api/v1/beneficios do backend (CRUD, paginação, busca, exportação e
+// transferência), sobre WebFlux. Listas são Flux: em JSON saem como array escrito à medida que
+// as linhas chegam do banco, e em NDJSON um objeto por linha.
+@RestController
+@RequestMapping("/api/v1/beneficios")
+public class BeneficioController {
+
+    @Autowired
+    private BeneficioService beneficioService;
+
+    @GetMapping(produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    public Flux<BeneficioDTO> listarTodos() {
+        return beneficioService.findAll();
+    }
+
+    @GetMapping(params = "limit")
+    public Mono<ResponseEntity<?>> listarPaginado(
+            @RequestParam Integer limit,
+            @RequestParam(required = false) String after) {
+        return beneficioService.findPage(after, limit)
+                .<ResponseEntity<?>>map(ResponseEntity::ok)
+                .onErrorResume(IllegalArgumentException.class, e -> Mono.just(ResponseEntity.badRequest().body(e.getMessage())));
+    }
+
+    // Só o cursor: segue paginando com o limite padrão
+    @GetMapping(params = {"after", "!limit"})
+    public Mono<ResponseEntity<?>> continuarPaginado(@RequestParam String after) {
+        return listarPaginado(null, after);
+    }
+
+    @GetMapping(value = "/exportar", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Flux<BeneficioDTO> exportar() {
+        return beneficioService.findAll();
+    }
+
+    @GetMapping("/{id}")
+    public Mono<ResponseEntity<BeneficioDTO>> buscarPorId(@PathVariable Long id) {
+        return beneficioService.findById(id)
+                .map(ResponseEntity::ok)
+                .defaultIfEmpty(ResponseEntity.notFound().build());
+    }
+
+    @PostMapping
+    public Mono<ResponseEntity<BeneficioDTO>> criar(@Valid @RequestBody BeneficioDTO beneficioDTO) {
+        return beneficioService.save(beneficioDTO)
+                .map(beneficioCriado -> ResponseEntity.status(HttpStatus.CREATED).body(beneficioCriado));
+    }
+
+    @PutMapping("/{id}")
+    public Mono<ResponseEntity<?>> atualizar(
+            @PathVariable Long id,
+            @Valid @RequestBody BeneficioDTO beneficioDTO) {
+        return beneficioService.update(id, beneficioDTO)
+                .<ResponseEntity<?>>map(ResponseEntity::ok)
+                .defaultIfEmpty(ResponseEntity.notFound().build())
+                .onErrorResume(ConcurrencyFailureException.class, e -> Mono.just(conflito()));
+    }
+
+    @DeleteMapping("/{id}")
+    public Mono<ResponseEntity<?>> excluir(@PathVariable Long id) {
+        return beneficioService.delete(id)
+                .<ResponseEntity<?>>map(excluido -> excluido ? ResponseEntity.ok().build() : ResponseEntity.notFound().build())
+                .onErrorResume(ConcurrencyFailureException.class, e -> Mono.just(conflito()));
+    }
+
+    @PostMapping("/transferir")
+    public Mono<ResponseEntity<String>> transferir(@Valid @RequestBody TransferenciaDTO transferenciaDTO) {
+        return beneficioService.transferir(transferenciaDTO)
+                .thenReturn(ResponseEntity.ok("Transferência realizada com sucesso"))
+                .onErrorResume(e -> e instanceof IllegalArgumentException || e instanceof IllegalStateException,
+                        e -> Mono.just(ResponseEntity.badRequest().body(e.getMessage())))
+                .onErrorResume(ConcurrencyFailureException.class, e -> Mono.just(ResponseEntity.status(HttpStatus.CONFLICT)
+                        .body("Transferência não concluída devido a conflito de concorrência. Tente novamente.")));
+    }
+
+    @GetMapping("/buscar")
+    public Mono<ResponseEntity<?>> buscarPorNome(
+            @RequestParam String nome,
+            @RequestParam(required = false) Integer limit) {
+        try {
+            return Mono.just(ResponseEntity.ok(beneficioService.searchByNome(nome, limit)));
+        } catch (IllegalArgumentException e) {
+            return Mono.just(ResponseEntity.badRequest().body(e.getMessage()));
+        }
+    }
+
+    private static ResponseEntity<?> conflito() {
+        return ResponseEntity.status(HttpStatus.CONFLICT)
+                .body("Benefício alterado concorrentemente. Tente novamente.");
+    }
+}
@@ -0,0 +1,51 @@
+package com.example.reactive.config;
+
+import com.example.reactive.money.MoneyConversoes;
+import io.r2dbc.pool.ConnectionPool;
+import io.r2dbc.pool.ConnectionPoolConfiguration;
+import io.r2dbc.spi.ConnectionFactory;
+import org.springframework.boot.autoconfigure.r2dbc.R2dbcProperties;
+import org.springframework.boot.r2dbc.ConnectionFactoryBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.r2dbc.convert.R2dbcCustomConversions;
+import org.springframework.data.r2dbc.dialect.DialectResolver;
+import org.springframework.transaction.ReactiveTransactionManager;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.List;
+
+@Configuration
+public class R2dbcConfig {
+    
+    // Substitui o pool da autoconfiguração só para entregar as conexões no boundedElastic. O driver
+    // r2dbc-h2 executa os comandos de forma síncrona na thread que assina; sem o scheduler, a thread
+    // que devolve uma conexão atende em laço os próximos da fila do pool e, sob carga contínua, uma
+    // thread do event loop do Netty fica presa nesse laço, parando as demais conexões HTTP dela.
+    @Bean(destroyMethod = "dispose")
+    public ConnectionPool connectionFactory(R2dbcProperties properties) {
+        ConnectionFactory conexoes = ConnectionFactoryBuilder.withUrl(properties.getUrl())
+                .username(properties.getUsername())
+                .password(properties.getPassword())
+                .build();
+        R2dbcProperties.Pool pool = properties.getPool();
+        return new ConnectionPool(ConnectionPoolConfiguration.builder(conexoes)
+                .initialSize(pool.getInitialSize())
+                .maxSize(pool.getMaxSize())
+                .customizer(builder -> builder.acquisitionScheduler(Schedulers.boundedElastic()))
+                .build());
+    }
+    
+    @Bean
+    public R2dbcCustomConversions r2dbcCustomConversions(ConnectionFactory connectionFactory) {
+        return R2dbcCustomConversions.of(DialectResolver.getDialect(connectionFactory),
+                List.of(new MoneyConversoes.Leitura(), new MoneyConversoes.Escrita()));
+    }
+    
+    // Transações declaradas no próprio fluxo (transferências), sem depender de proxies @Transactional
+    @Bean
+    public TransactionalOperator transactionalOperator(ReactiveTransactionManager transactionManager) {
+        return TransactionalOperator.create(transactionManager);
+    }
+}
@@ -0,0 +1,84 @@
+package com.example.reactive.dto;
+
+import com.example.common.money.Money;
+import com.example.common.money.MoneyValido;
+import jakarta.validation.constraints.*;
+
+public class BeneficioDTO {
+    
+    private Long id;
+    
+    @NotBlank(message = "Nome é obrigatório")
+    @Size(max = 100, message = "Nome deve ter no máximo 100 caracteres")
+    private String nome;
+    
+    @Size(max = 255, message = "Descrição deve ter no máximo 255 caracteres")
+    private String descricao;
+    
+    @NotNull(message = "Valor é obrigatório")
+    @MoneyValido
+    private Money valor;
+    
+    private Boolean ativo = true;
+    
+    private Long version;
+    
+    // Construtores
+    public BeneficioDTO() {}
+    
+    public BeneficioDTO(String nome, String descricao, Money valor) {
+        this.nome = nome;
+        this.descricao = descricao;
+        this.valor = valor;
+        this.ativo = true;
+    }
+    
+    // Getters e Setters
+    public Long getId() {
+        return id;
+    }
+    
+    public void setId(Long id) {
+        this.id = id;
+    }
+    
+    public String getNome() {
+        return nome;
+    }
+    
+    public void setNome(String nome) {
+        this.nome = nome;
+    }
+    
+    public String getDescricao() {
+        return descricao;
+    }
+    
+    public void setDescricao(String descricao) {
+        this.descricao = descricao;
+    }
+    
+    public Money getValor() {
+        return valor;
+    }
+    
+    public void setValor(Money valor) {
+        this.valor = valor;
+    }
+    
+    public Boolean getAtivo() {
+        return ativo;
+    }
+    
+    public void setAtivo(Boolean ativo) {
+        this.ativo = ativo;
+    }
+    
+    public Long getVersion() {
+        return version;
+    }
+    
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+}
@@ -0,0 +1,47 @@
+package com.example.reactive.dto;
+
+import java.util.List;
+
+public class PaginaDTO<T> {
+    
+    private List<T> itens;
+    
+    // Cursor opaco para a próxima página; nulo quando não há mais itens
+    private String proximoCursor;
+    
+    private int limite;
+    
+    // Construtores
+    public PaginaDTO() {}
+    
+    public PaginaDTO(List<T> itens, String proximoCursor, int limite) {
+        this.itens = itens;
+        this.proximoCursor = proximoCursor;
+        this.limite = limite;
+    }
+    
+    // Getters e Setters
+    public List<T> getItens() {
+        return itens;
+    }
+    
+    public void setItens(List<T> itens) {
+        this.itens = itens;
+    }
+    
+    public String getProximoCursor() {
+        return proximoCursor;
+    }
+    
+    public void setProximoCursor(String proximoCursor) {
+        this.proximoCursor = proximoCursor;
+    }
+    
+    public int getLimite() {
+        return limite;
+    }
+    
+    public void setLimite(int limite) {
+        this.limite = limite;
+    }
+}
@@ -0,0 +1,52 @@
+package com.example.reactive.dto;
+
+import com.example.common.money.Money;
+import com.example.common.money.MoneyValido;
+import jakarta.validation.constraints.*;
+
+public class TransferenciaDTO {
+    
+    @NotNull(message = "ID do benefício origem é obrigatório")
+    private Long fromId;
+    
+    @NotNull(message = "ID do benefício destino é obrigatório")
+    private Long toId;
+    
+    @NotNull(message = "Valor é obrigatório")
+    @MoneyValido
+    private Money valor;
+    
+    // Construtores
+    public TransferenciaDTO() {}
+    
+    public TransferenciaDTO(Long fromId, Long toId, Money valor) {
+        this.fromId = fromId;
+        this.toId = toId;
+        this.valor = valor;
+    }
+    
+    // Getters e Setters
+    public Long getFromId() {
+        return fromId;
+    }
+    
+    public void setFromId(Long fromId) {
+        this.fromId = fromId;
+    }
+    
+    public Long getToId() {
+        return toId;
+    }
+    
+    public void setToId(Long toId) {
+        this.toId = toId;
+    }
+    
+    public Money getValor() {
+        return valor;
+    }
+    
+    public void setValor(Money valor) {
+        this.valor = valor;
+    }
+}
@@ -0,0 +1,106 @@
+package com.example.reactive.entity;
+
+import com.example.common.money.Money;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.annotation.Version;
+import org.springframework.data.relational.core.mapping.Column;
+import org.springframework.data.relational.core.mapping.Table;
+
+import java.time.Instant;
+
+// Mesma tabela do backend. Sem @SQLRestriction no R2DBC: as consultas do repositório filtram ATIVO.
+// O ID vem do DEFAULT da coluna (BENEFICIO_SEQ) e é lido de volta após o INSERT.
+@Table("BENEFICIO")
+public class Beneficio {
+    
+    @Id
+    @Column("ID")
+    private Long id;
+    
+    @Column("NOME")
+    private String nome;
+    
+    @Column("DESCRICAO")
+    private String descricao;
+    
+    @Column("VALOR")
+    private Money valor;
+    
+    @Column("ATIVO")
+    private Boolean ativo = true;
+    
+    @Version
+    @Column("VERSION")
+    private Long version;
+    
+    // Momento da exclusão lógica
+    @Column("INATIVADO_EM")
+    private Instant inativadoEm;
+    
+    // Construtores
+    public Beneficio() {}
+    
+    public Beneficio(String nome, String descricao, Money valor) {
+        this.nome = nome;
+        this.descricao = descricao;
+        this.valor = valor;
+        this.ativo = true;
+    }
+    
+    // Getters e Setters
+    public Long getId() {
+        return id;
+    }
+    
+    public void setId(Long id) {
+        this.id = id;
+    }
+    
+    public String getNome() {
+        return nome;
+    }
+    
+    public void setNome(String nome) {
+        this.nome = nome;
+    }
+    
+    public String getDescricao() {
+        return descricao;
+    }
+    
+    public void setDescricao(String descricao) {
+        this.descricao = descricao;
+    }
+    
+    public Money getValor() {
+        return valor;
+    }
+    
+    public void setValor(Money valor) {
+        this.valor = valor;
+    }
+    
+    public Boolean getAtivo() {
+        return ativo;
+    }
+    
+    public void setAtivo(Boolean ativo) {
+        this.ativo = ativo;
+    }
+    
+    public Long getVersion() {
+        return version;
+    }
+    
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+    
+    public Instant getInativadoEm() {
+        return inativadoEm;
+    }
+    
+    public void setInativadoEm(Instant inativadoEm) {
+        this.inativadoEm = inativadoEm;
+    }
+}
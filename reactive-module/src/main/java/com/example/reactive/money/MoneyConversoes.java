@@ -0,0 +1,32 @@
+package com.example.reactive.money;
+
+import com.example.common.money.Money;
+import org.springframework.core.convert.converter.Converter;
+import org.springframework.data.convert.ReadingConverter;
+import org.springframework.data.convert.WritingConverter;
+
+import java.math.BigDecimal;
+
+// Mapeia Money para colunas DECIMAL(15,2), como o MoneyConverter JPA do backend
+public final class MoneyConversoes {
+    
+    private MoneyConversoes() {}
+    
+    @ReadingConverter
+    public static class Leitura implements Converter<BigDecimal, Money> {
+        
+        @Override
+        public Money convert(BigDecimal valor) {
+            return Money.of(valor);
+        }
+    }
+    
+    @WritingConverter
+    public static class Escrita implements Converter<Money, BigDecimal> {
+        
+        @Override
+        public BigDecimal convert(Money valor) {
+            return valor.toBigDecimal();
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package com.example.reactive.repository;
+
+import com.example.reactive.entity.Beneficio;
+import org.springframework.data.r2dbc.repository.Modifying;
+import org.springframework.data.r2dbc.repository.Query;
+import org.springframework.data.repository.reactive.ReactiveCrudRepository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.math.BigDecimal;
+
+// Todas as leituras filtram ATIVO = TRUE explicitamente, usando os índices (ATIVO, ...) do schema
+public interface BeneficioRepository extends ReactiveCrudRepository<Beneficio, Long> {
+    
+    // ORDER BY ATIVO, ID segue a ordem do índice (ATIVO, ID) e o H2 lê as linhas já ordenadas;
+    // com ORDER BY ID ele ordena todas as linhas ativas antes de devolver a primeira
+    @Query("SELECT * FROM BENEFICIO WHERE ATIVO = TRUE ORDER BY ATIVO, ID")
+    Flux<Beneficio> findAtivos();
+    
+    @Query("SELECT * FROM BENEFICIO WHERE ATIVO = TRUE AND ID > :id ORDER BY ATIVO, ID LIMIT :limite")
+    Flux<Beneficio> findAtivosApos(Long id, int limite);
+    
+    @Query("SELECT * FROM BENEFICIO WHERE ID = :id AND ATIVO = TRUE")
+    Mono<Beneficio> findAtivoById(Long id);
+    
+    @Query("SELECT * FROM BENEFICIO WHERE ATIVO = TRUE AND LOWER(NOME) LIKE LOWER(CONCAT('%', :nome, '%')) " +
+           "ORDER BY ID LIMIT :limite")
+    Flux<Beneficio> findByNomeContaining(String nome, int limite);
+    
+    // UPDATEs condicionais: a verificação e a escrita acontecem no mesmo comando, sob o lock da linha
+    @Modifying
+    @Query("UPDATE BENEFICIO SET VALOR = VALOR - :valor, VERSION = VERSION + 1 " +
+           "WHERE ID = :id AND ATIVO = TRUE AND VALOR >= :valor")
+    Mono<Integer> debitar(Long id, BigDecimal valor);
+    
+    @Modifying
+    @Query("UPDATE BENEFICIO SET VALOR = VALOR + :valor, VERSION = VERSION + 1 " +
+           "WHERE ID = :id AND ATIVO = TRUE")
+    Mono<Integer> creditar(Long id, BigDecimal valor);
+}
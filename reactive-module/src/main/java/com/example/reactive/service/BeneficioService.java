@@ -0,0 +1,195 @@
+package com.example.reactive.service;
+
+import com.example.common.money.Money;
+import com.example.reactive.dto.BeneficioDTO;
+import com.example.reactive.dto.PaginaDTO;
+import com.example.reactive.dto.TransferenciaDTO;
+import com.example.reactive.entity.Beneficio;
+import com.example.reactive.repository.BeneficioRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.List;
+
+// Versão reativa das operações do BeneficioService do backend. Transferências seguem a estratégia
+// ATOMICA (UPDATEs condicionais), a única que não precisa de estado fora do banco.
+@Service
+public class BeneficioService {
+    
+    public static final int LIMITE_PADRAO = 50;
+    public static final int LIMITE_MAXIMO = 500;
+    public static final int LIMITE_MAXIMO_BUSCA = 100;
+    
+    @Autowired
+    private BeneficioRepository beneficioRepository;
+    
+    @Autowired
+    private TransactionalOperator transactionalOperator;
+    
+    public Flux<BeneficioDTO> findAll() {
+        return beneficioRepository.findAtivos().map(this::convertToDTO);
+    }
+    
+    public Mono<PaginaDTO<BeneficioDTO>> findPage(String after, Integer limit) {
+        int limite = limit == null ? LIMITE_PADRAO : limit;
+        if (limite < 1) {
+            return Mono.error(new IllegalArgumentException("Limite deve ser maior que zero"));
+        }
+        int limiteEfetivo = Math.min(limite, LIMITE_MAXIMO);
+        Long cursor;
+        try {
+            cursor = decodeCursor(after);
+        } catch (IllegalArgumentException e) {
+            return Mono.error(e);
+        }
+        
+        // Busca um item a mais para saber se existe próxima página
+        return beneficioRepository.findAtivosApos(cursor, limiteEfetivo + 1)
+                .collectList()
+                .map(beneficios -> {
+                    String proximoCursor = null;
+                    List<Beneficio> pagina = beneficios;
+                    if (beneficios.size() > limiteEfetivo) {
+                        pagina = beneficios.subList(0, limiteEfetivo);
+                        proximoCursor = encodeCursor(pagina.get(limiteEfetivo - 1).getId());
+                    }
+                    List<BeneficioDTO> itens = pagina.stream().map(this::convertToDTO).toList();
+                    return new PaginaDTO<>(itens, proximoCursor, limiteEfetivo);
+                });
+    }
+    
+    public Mono<BeneficioDTO> findById(Long id) {
+        return beneficioRepository.findAtivoById(id).map(this::convertToDTO);
+    }
+    
+    // O limite é validado na chamada, e não no Flux, para o controller ainda poder responder 400.
+    // Sem limite vêm todos os resultados.
+    public Flux<BeneficioDTO> searchByNome(String nome, Integer limite) {
+        if (limite != null && limite < 1) {
+            throw new IllegalArgumentException("Limite deve ser maior que zero");
+        }
+        int limiteEfetivo = limite == null ? Integer.MAX_VALUE : Math.min(limite, LIMITE_MAXIMO_BUSCA);
+        return beneficioRepository.findByNomeContaining(nome, limiteEfetivo)
+                .map(this::convertToDTO);
+    }
+    
+    public Mono<BeneficioDTO> save(BeneficioDTO beneficioDTO) {
+        return beneficioRepository.save(convertToEntity(beneficioDTO)).map(this::convertToDTO);
+    }
+    
+    // A coluna @Version protege contra alterações concorrentes entre a leitura e o UPDATE
+    public Mono<BeneficioDTO> update(Long id, BeneficioDTO beneficioDTO) {
+        return beneficioRepository.findAtivoById(id)
+                .flatMap(existingBeneficio -> {
+                    existingBeneficio.setNome(beneficioDTO.getNome());
+                    existingBeneficio.setDescricao(beneficioDTO.getDescricao());
+                    existingBeneficio.setValor(beneficioDTO.getValor());
+                    existingBeneficio.setAtivo(beneficioDTO.getAtivo());
+                    registrarInativacao(existingBeneficio);
+                    return beneficioRepository.save(existingBeneficio);
+                })
+                .map(this::convertToDTO);
+    }
+    
+    public Mono<Boolean> delete(Long id) {
+        return beneficioRepository.findAtivoById(id)
+                .flatMap(beneficio -> {
+                    beneficio.setAtivo(false);
+                    registrarInativacao(beneficio);
+                    return beneficioRepository.save(beneficio);
+                })
+                .map(beneficio -> true)
+                .defaultIfEmpty(false);
+    }
+    
+    public Mono<Void> transferir(TransferenciaDTO transferenciaDTO) {
+        Long fromId = transferenciaDTO.getFromId();
+        Long toId = transferenciaDTO.getToId();
+        Money valor = transferenciaDTO.getValor();
+        
+        // Validações básicas
+        if (fromId.equals(toId)) {
+            return Mono.error(new IllegalArgumentException("Não é possível transferir para o mesmo benefício"));
+        }
+        
+        // Os UPDATEs seguem a ordem crescente de ID, como no backend, para evitar deadlock entre
+        // transferências opostas. Qualquer erro no fluxo desfaz a transação inteira.
+        Mono<Void> operacoes = fromId < toId
+                ? debitarCondicional(fromId, valor).then(creditar(toId, valor))
+                : creditar(toId, valor).then(debitarCondicional(fromId, valor));
+        return transactionalOperator.transactional(operacoes);
+    }
+    
+    private Mono<Void> debitarCondicional(Long fromId, Money valor) {
+        return beneficioRepository.debitar(fromId, valor.toBigDecimal())
+                .flatMap(linhas -> linhas == 1
+                        ? Mono.<Void>empty()
+                        // Caminho de erro: lê o benefício apenas para explicar a recusa
+                        : beneficioRepository.findAtivoById(fromId)
+                                .switchIfEmpty(Mono.error(() -> new BeneficioNaoEncontradoException(
+                                        "Benefício origem não encontrado: " + fromId)))
+                                .flatMap(from -> Mono.error(new SaldoInsuficienteException(
+                                        "Saldo insuficiente. Saldo atual: " + from.getValor() + ", Valor solicitado: " + valor))));
+    }
+    
+    private Mono<Void> creditar(Long toId, Money valor) {
+        return beneficioRepository.creditar(toId, valor.toBigDecimal())
+                .flatMap(linhas -> linhas == 0
+                        ? Mono.error(new BeneficioNaoEncontradoException("Benefício destino não encontrado: " + toId))
+                        : Mono.empty());
+    }
+    
+    // Equivalente ao callback @PrePersist/@PreUpdate da entidade JPA
+    private void registrarInativacao(Beneficio beneficio) {
+        if (Boolean.FALSE.equals(beneficio.getAtivo())) {
+            if (beneficio.getInativadoEm() == null) {
+                beneficio.setInativadoEm(Instant.now());
+            }
+        } else {
+            beneficio.setInativadoEm(null);
+        }
+    }
+    
+    private BeneficioDTO convertToDTO(Beneficio beneficio) {
+        BeneficioDTO dto = new BeneficioDTO();
+        dto.setId(beneficio.getId());
+        dto.setNome(beneficio.getNome());
+        dto.setDescricao(beneficio.getDescricao());
+        dto.setValor(beneficio.getValor());
+        dto.setAtivo(beneficio.getAtivo());
+        dto.setVersion(beneficio.getVersion());
+        return dto;
+    }
+    
+    private Beneficio convertToEntity(BeneficioDTO dto) {
+        Beneficio beneficio = new Beneficio();
+        beneficio.setNome(dto.getNome());
+        beneficio.setDescricao(dto.getDescricao());
+        beneficio.setValor(dto.getValor());
+        beneficio.setAtivo(dto.getAtivo() != null ? dto.getAtivo() : true);
+        registrarInativacao(beneficio);
+        return beneficio;
+    }
+    
+    private String encodeCursor(Long id) {
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(id.toString().getBytes(StandardCharsets.UTF_8));
+    }
+    
+    private Long decodeCursor(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return 0L;
+        }
+        try {
+            return Long.valueOf(new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Cursor inválido: " + cursor);
+        }
+    }
+}
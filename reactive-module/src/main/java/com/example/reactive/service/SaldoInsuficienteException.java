@@ -0,0 +1,8 @@
+package com.example.reactive.service;
+
+public class SaldoInsuficienteException extends IllegalStateException {
+    
+    public SaldoInsuficienteException(String message) {
+        super(message);
+    }
+}
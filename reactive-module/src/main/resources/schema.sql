@@ -0,0 +1,15 @@
+CREATE SEQUENCE BENEFICIO_SEQ START WITH 1 INCREMENT BY 1;
+
+CREATE TABLE BENEFICIO (
+  ID BIGINT DEFAULT NEXT VALUE FOR BENEFICIO_SEQ PRIMARY KEY,
+  NOME VARCHAR(100) NOT NULL,
+  DESCRICAO VARCHAR(255),
+  VALOR DECIMAL(15,2) NOT NULL,
+  ATIVO BOOLEAN DEFAULT TRUE,
+  VERSION BIGINT DEFAULT 0,
+  INATIVADO_EM TIMESTAMP WITH TIME ZONE
+);
+
+CREATE INDEX IDX_BENEFICIO_ATIVO_ID ON BENEFICIO (ATIVO, ID);
+CREATE INDEX IDX_BENEFICIO_ATIVO_NOME ON BENEFICIO (ATIVO, NOME);
+CREATE INDEX IDX_BENEFICIO_ATIVO_INATIVADO_EM ON BENEFICIO (ATIVO, INATIVADO_EM);
@@ -2,6 +2,9 @@
 
 echo " Iniciando Backend..."
 
+# O backend depende do common-module (Money), instalado no repositório local do Maven
+mvn -q install -pl common-module -DskipTests
+
 cd backend-module
 
 # Compilar apenas o código principal, sem testes
@@ -68,6 +68,7 @@ echo ""
 print_status "Iniciando configuração do backend..."
 
 # Backend - Instalar dependências e compilar
+mvn -q install -pl common-module -DskipTests
 cd backend-module
 print_status "Compilando backend..."
 if mvn clean compile -q; then